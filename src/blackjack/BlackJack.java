@@ -89,6 +89,8 @@ public class BlackJack {
             DOLLARS);
     
     private static final Wager DEALERS_WAGER = new Wager(ONE_PENNY);
+    
+    private static final OutcomeResolver RESOLVER = new OutcomeResolver();
 
     // TODO: Break up playGameAtCommandLine() into smaller units
     /**
@@ -136,14 +138,18 @@ public class BlackJack {
             // TODO: Give option to split pair, when applicable
             // TODO: Give option to double down, when applicable
             // TODO: Give option for insurance bet
-            if (playerHand.isWinning()) {
-                if (dealerHand.isWinning()) {
+            if (playerHand.isNatural()) {
+                OutcomeResolver.Resolution resolution 
+                        = RESOLVER.resolve(playerHand, dealerHand);
+                playersWager.settle(resolution);
+                if (resolution.getOutcome() == Wager.Outcome.STANDOFF) {
                     System.out.println(
                             "You have natural blackjack, but so does the dealer"
                     );
                     System.out.println("You keep your $" + wager);
                 } else {
-                    int payout = wager * 3 / 2;
+                    long payout = resolution.apply(playersWagerAmount)
+                            .getAmountInCents() / 100;
                     System.out.println(
                             "Congratulations, you have a natural blackjack"
                     );
@@ -179,71 +185,35 @@ public class BlackJack {
                             + dealerHand.cardsValue());
                     System.out.println();
                 }
-                if (dealerHand.isWinning()) {
-                    if (playerHand.isWinning()) {
-                        System.out.println("Stand-off, you keep your wager.");
-                    } else {
-                        System.out.println("You lose your wager.");
-                    }
-                } else {
-                    int dealerScore = dealerHand.cardsValue();
-                    int playerScore = playerHand.cardsValue();
-                    if (dealerHand.isBusted()) {
-                        dealerScore = 30;
-                    }
-                    if (playerHand.isBusted()) {
-                        playerScore = 30;
-                    }
-                    int outcome = 100 * dealerScore + playerScore;
-                    switch (outcome) {
-                        case 1721:
-                        case 1821:
-                        case 1921:
-                        case 2021:
-                        case 3021:
-                            System.out.println("*** YOU WIN $" + wager 
-                                    + " ****");
-                            break;
-                        case 1717:
-                        case 1818:
-                        case 1919:
-                        case 2020:
-                            System.out.println("Stand-off");
-                            break;
-                        case 1718:
-                        case 1719:
-                        case 1720:
-                        case 1819:
-                        case 1820:
-                        case 1920:
-                            System.out.println("As you have a higher score,");
-                            System.out.println("*** YOU WIN $" + wager 
-                                    + " ****");
-                            break;
-                        case 3012:
-                        case 3013:
-                        case 3014:
-                        case 3015:
-                        case 3016:
-                        case 3017:
-                        case 3018:
-                        case 3019:
-                        case 3020:
+                OutcomeResolver.Resolution resolution 
+                        = RESOLVER.resolve(playerHand, dealerHand);
+                playersWager.settle(resolution);
+                switch (resolution.getOutcome()) {
+                    case BLACKJACK:
+                        System.out.println("*** YOU WIN $" + wager + " ****");
+                        break;
+                    case BETTER_SCORE:
+                        if (dealerHand.isBusted()) {
                             System.out.println(
                                     "Since you stood and the dealer went bust,"
                             );
-                            System.out.println("*** YOU WIN $" + wager 
-                                    + " ****");
-                            break;
-                        case 3030:
+                        } else {
+                            System.out.println("As you have a higher score,");
+                        }
+                        System.out.println("*** YOU WIN $" + wager + " ****");
+                        break;
+                    case STANDOFF:
+                        System.out.println("Stand-off");
+                        break;
+                    case BUST:
+                        if (dealerHand.isBusted()) {
                             System.out.println(
                                     "Even though the dealer also went bust..."
                             );
-                        default:
-                            System.out.println("Dealer collects your $" 
-                                    + wager);
-                            System.out.println("Better luck next time...");
-                    }
+                        }
+                    default:
+                        System.out.println("Dealer collects your $" + wager);
+                        System.out.println("Better luck next time...");
                 }
             }
         }
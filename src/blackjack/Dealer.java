@@ -16,13 +16,19 @@
  */
 package blackjack;
 
+import currency.CurrencyAccumulator;
 import currency.CurrencyAmount;
+import currency.CurrencyConversionNeededException;
+import currency.CurrencyConverter;
 import java.util.Currency;
 import playingcards.CardSupplier;
 import playingcards.MultiDeckCardDispenser;
 import playingcards.PlayingCard;
+import playingcards.ShoeAuditLog;
 import playingcards.matchers.RankPairSpec;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -51,7 +57,19 @@ public class Dealer {
     
     private Hand hand;
     
-    private CurrencyAmount bankroll = null;
+    private CurrencyAccumulator bankroll = null;
+    
+    private CurrencyConverter converter = null;
+    
+    private SettlementJournal journal = null;
+    
+    private HandHistory.Writer historyWriter = null;
+    
+    private ShoeAuditLog shoeAudit = null;
+    
+    private int tableNumber = 0;
+    
+    private long roundNumber = 0L;
     
     public Set<RankPairSpec> giveSplittablePairs() {
         return new HashSet<>(this.splitSpecs);
@@ -67,6 +85,101 @@ public class Dealer {
     
     private void replenishDispenser() {
         this.cardDispenser = new MultiDeckCardDispenser(6, plasticCardPlace());
+        this.auditDispenser();
+    }
+    
+    private void auditDispenser() {
+        if (this.shoeAudit != null 
+                && this.cardDispenser instanceof MultiDeckCardDispenser shoe) {
+            try {
+                this.shoeAudit.record(shoe);
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        }
+    }
+    
+    /**
+     * Sets the currency converter to use when players at the table bring 
+     * different currencies.
+     * @param currencyConverter The converter. May be null, in which case all 
+     * players at the table will have to bring the same currency.
+     */
+    void useConverter(CurrencyConverter currencyConverter) {
+        this.converter = currencyConverter;
+    }
+    
+    /**
+     * Sets the journal to record settlements in. If the journal already has 
+     * records for the table, as it would if it was reopened after a restart, 
+     * this dealer's round numbers carry on from the last round recorded, so 
+     * that round numbers are not repeated in the journal.
+     * @param settlementJournal The journal. May be null, in which case 
+     * settlements are not recorded.
+     * @param table The number of this dealer's table, to be recorded with each 
+     * settlement. For example, 3.
+     */
+    void useJournal(SettlementJournal settlementJournal, int table) {
+        this.journal = settlementJournal;
+        this.tableNumber = table;
+        if (settlementJournal != null) {
+            this.roundNumber = Math.max(this.roundNumber, 
+                    settlementJournal.getLastRound(table));
+        }
+    }
+    
+    /**
+     * Sets the log to record the order of each shoe in. The current shoe is 
+     * recorded right away, and each new shoe as soon as the dealer gets it.
+     * Card suppliers other than multi-deck card dispensers are not recorded.
+     * @param log The log. May be null, in which case shoes are not recorded.
+     * @throws UncheckedIOException If the current shoe can't be recorded.
+     */
+    void useShoeAudit(ShoeAuditLog log) {
+        this.shoeAudit = log;
+        this.auditDispenser();
+    }
+    
+    /**
+     * Sets the writer to record hand histories with.
+     * @param writer The writer. May be null, in which case hand histories are 
+     * not recorded.
+     * @param table The number of this dealer's table, to be recorded with each 
+     * hand. For example, 3.
+     */
+    void useHandHistory(HandHistory.Writer writer, int table) {
+        this.historyWriter = writer;
+        this.tableNumber = table;
+    }
+    
+    CardSupplier getDispenser() {
+        return this.cardDispenser;
+    }
+    
+    int getTableNumber() {
+        return this.tableNumber;
+    }
+    
+    long getRoundNumber() {
+        return this.roundNumber;
+    }
+    
+    /**
+     * Puts this dealer back in the state recorded in a table snapshot. This is 
+     * meant only for {@link TableSnapshot}.
+     * @param table The table number. For example, 3.
+     * @param round The number of the last round started. For example, 1024.
+     * @param active Whether that round is still active.
+     * @param bankrollAmount The dealer's bankroll. May be null if no round has 
+     * been started.
+     */
+    void restore(int table, long round, boolean active, 
+            CurrencyAmount bankrollAmount) {
+        this.tableNumber = table;
+        this.roundNumber = round;
+        this.inRound = active;
+        this.bankroll = (bankrollAmount == null) ? null 
+                : new CurrencyAccumulator(bankrollAmount);
     }
     
     boolean active() {
@@ -76,9 +189,15 @@ public class Dealer {
     /**
      * Starts a round. The players' combined bankroll is tallied up and the 
      * dealer gets a reserve amount equal to that amount times the {@link 
-     * #RESERVE_MULTIPLIER}.
+     * #RESERVE_MULTIPLIER}. The reserve is in the currency of the first 
+     * player's bankroll. If a converter has been set with {@link 
+     * #useConverter(CurrencyConverter)}, the other players' bankrolls are 
+     * converted to that currency as needed.
      * @param round The round to start.
      * @throws IllegalStateException If there's another round still active.
+     * @throws CurrencyConversionNeededException If the players bring 
+     * different currencies and either there is no converter or the converter 
+     * has no exchange rate for one of those currencies.
      */
     void start(Round round) {
         if (this.inRound) {
@@ -86,12 +205,19 @@ public class Dealer {
             throw new IllegalStateException(excMsg);
         }
         this.inRound = true;
-        this.bankroll = new CurrencyAmount(0, 
-                round.gamers[0].getBalance().getCurrency());
-        for (Player player : round.gamers) {
-            this.bankroll = this.bankroll.plus(player.getBalance());
+        this.roundNumber++;
+        this.bankroll = new CurrencyAccumulator(round.gamers[0].getBalance()
+                .getCurrency());
+        if (this.converter == null) {
+            for (Player player : round.gamers) {
+                player.addBalanceTo(this.bankroll);
+            }
+        } else {
+            for (Player player : round.gamers) {
+                this.converter.addTo(this.bankroll, player.getBalance());
+            }
         }
-        this.bankroll = this.bankroll.times(RESERVE_MULTIPLIER);
+        this.bankroll.multiply(RESERVE_MULTIPLIER);
     }
     
     PlayingCard tellFaceUpCard() {
@@ -102,7 +228,106 @@ public class Dealer {
     }
     
     CurrencyAmount reportBankroll() {
-        return this.bankroll;
+        if (this.bankroll == null) {
+            return null;
+        }
+        return this.bankroll.toCurrencyAmount();
+    }
+    
+    /**
+     * Settles a wager between the dealer and a player. The settlement amount 
+     * is added to the player's bankroll and subtracted from the dealer's. If 
+     * the player's bankroll is of a different currency than the dealer's, the 
+     * amount subtracted from the dealer's bankroll is converted with the 
+     * converter set with {@link #useConverter(CurrencyConverter)}. If a 
+     * journal has been set with {@link #useJournal(SettlementJournal, int)}, 
+     * the settlement is also recorded there, in the currency of the player's 
+     * bankroll, since that's the currency of the wager. No objects are 
+     * created, so this is suitable for simulations.
+     * @param player The player whose wager is being settled.
+     * @param hand The index of the player's hand. For example, 0 for the 
+     * player's first hand.
+     * @param outcome The outcome. For example, {@link 
+     * Wager.Outcome#NATURAL_BLACKJACK}.
+     * @param settlementCents The settlement amount in cents of the player's 
+     * currency, as given by {@link PayoutSchedule#settle(long, 
+     * Wager.Outcome)}. For example, 1500 
+     * for a $10.00 wager on a natural blackjack paying 3:2, which the dealer 
+     * pays to the player, or &minus;1000 for the same wager on a hand that 
+     * went bust, which the dealer collects from the player.
+     * @throws IllegalStateException If no round has been started.
+     * @throws CurrencyConversionNeededException If the player's bankroll is 
+     * of a different currency than the dealer's and either there is no 
+     * converter or the converter has no exchange rate for one of those 
+     * currencies. Neither bankroll is changed in that case.
+     * @throws ArithmeticException If either bankroll would overflow.
+     * @throws UncheckedIOException If the journal can't be written to.
+     */
+    void settle(Player player, int hand, Wager.Outcome outcome, 
+            long settlementCents) {
+        if (this.bankroll == null) {
+            String excMsg = "No round has been started";
+            throw new IllegalStateException(excMsg);
+        }
+        Currency playerCurrency = player.getCurrency();
+        Currency dealerCurrency = this.bankroll.getCurrency();
+        long dealerCents = settlementCents;
+        if (playerCurrency != dealerCurrency) {
+            if (this.converter == null) {
+                String excMsg = "Need converter to settle " 
+                        + playerCurrency.getCurrencyCode() + " wager from " 
+                        + dealerCurrency.getCurrencyCode() + " bankroll";
+                throw new CurrencyConversionNeededException(excMsg, 
+                        new CurrencyAmount(settlementCents, playerCurrency), 
+                        this.bankroll.toCurrencyAmount());
+            }
+            dealerCents = this.converter.convertCents(settlementCents, 
+                    playerCurrency, dealerCurrency);
+        }
+        player.settle(settlementCents);
+        this.bankroll.subtract(dealerCents);
+        if (this.journal != null) {
+            try {
+                this.journal.append(this.tableNumber, this.roundNumber, hand, 
+                        outcome, settlementCents, playerCurrency);
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        }
+    }
+    
+    /**
+     * Records the history of a hand in the current round, if a writer has 
+     * been set with {@link #useHandHistory(HandHistory.Writer, int)}. 
+     * Otherwise this does nothing.
+     * @param hand The index of the player's hand. For example, 0.
+     * @param playerHand The player's hand. For example, K&#9824;, 9&#9829;.
+     * @param dealerHand The dealer's hand. For example, 10&#9827;, 7&#9830;.
+     * @param outcome The outcome. For example, {@link 
+     * Wager.Outcome#BETTER_SCORE}.
+     * @param settlementCents The settlement amount in cents. For example, 
+     * 1000.
+     * @param decisions The player's decisions about the hand. For example, 
+     * {@link Decision#STAND}.
+     * @throws IllegalStateException If no round has been started.
+     * @throws UncheckedIOException If the hand history can't be written.
+     */
+    void recordHand(int hand, Hand playerHand, Hand dealerHand, 
+            Wager.Outcome outcome, long settlementCents, 
+            Decision... decisions) {
+        if (this.roundNumber == 0L) {
+            String excMsg = "No round has been started";
+            throw new IllegalStateException(excMsg);
+        }
+        if (this.historyWriter != null) {
+            try {
+                this.historyWriter.write(this.tableNumber, this.roundNumber, 
+                        hand, playerHand, dealerHand, outcome, 
+                        settlementCents, decisions);
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        }
     }
     
     // TODO: Write tests for this
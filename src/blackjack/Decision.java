@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package blackjack;
+
+/**
+ * Represents the decisions a player can make about a hand. These are recorded 
+ * in hand histories, in the order the player made them, by their ordinals, so 
+ * new decisions should only be added at the end.
+ * @author Alonso del Arte
+ */
+public enum Decision {
+    
+    /**
+     * The player asks for another card.
+     */
+    HIT, 
+    
+    /**
+     * The player takes no more cards.
+     */
+    STAND, 
+    
+    /**
+     * The player doubles the wager and takes exactly one more card.
+     */
+    DOUBLE_DOWN, 
+    
+    /**
+     * The player splits a pair into two hands, each with its own wager.
+     */
+    SPLIT, 
+    
+    /**
+     * The player places an insurance wager against the dealer having a natural 
+     * blackjack.
+     */
+    INSURE, 
+    
+    /**
+     * The player gives up the hand and half the wager.
+     */
+    SURRENDER 
+    
+}
@@ -94,6 +94,14 @@ public class Hand {
         return cardsToShow;
     }
 
+    int cardCount() {
+        return this.cards.size();
+    }
+    
+    PlayingCard cardAt(int index) {
+        return this.cards.get(index);
+    }
+    
     /**
      * Determines if the hand can be split. If it can be split, use {@link 
      * #split()} to split the hand.
@@ -165,6 +173,18 @@ public class Hand {
         return this.won;
     }
     
+    /**
+     * Indicates if this hand is a natural blackjack. This class does not yet 
+     * keep track of whether a hand came from a split, so a split off Ace that 
+     * then gets a Ten is also reported as natural.
+     * @return True if and only if this hand has exactly two cards and is valued 
+     * at 21, false otherwise. For example, true for A&#9824; and K&#9829;, 
+     * false for 7&#9824;, 7&#9829; and 7&#9830;.
+     */
+    public boolean isNatural() {
+        return this.won && this.cards.size() == 2;
+    }
+    
     /**
      * Indicates if this hand has gone over 21.
      * @return True if cards' aggregate value is in excess of 21 (even after 
@@ -0,0 +1,714 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package blackjack;
+
+import playingcards.PlayingCard;
+import playingcards.Rank;
+import playingcards.Suit;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary format for the history of every hand played. A history is 
+ * a stream that starts with a 5-byte header and then has one record per hand. 
+ * Each record starts with its length as a variable-length integer (varint), 
+ * followed by the table number, the round number and the hand index as 
+ * varints, the ordinal of the {@link Wager.Outcome} as one byte, a currency 
+ * reference, the wager and the settlement in minor units as zigzag varints, 
+ * and then the player's cards, the dealer's cards and the player's decisions, 
+ * each as a varint count followed by one byte per card or decision.
+ * <p>A card is coded as 13 times the ordinal of its suit plus the ordinal of 
+ * its rank, so every card fits in one byte. The first time a currency occurs 
+ * in a stream it is written as 0 followed by its three-letter ISO 4217 code; 
+ * after that it is written as a varint one more than the order in which it 
+ * first occurred. So a typical record with a dollar wager takes about 20 
+ * bytes.</p>
+ * <p>Use {@link Writer} to write a history and {@link Reader} to read one. 
+ * Both buffer internally, so there is no need to wrap the streams in buffered 
+ * streams, and neither needs more memory for a long history than for a short 
+ * one.</p>
+ * @author Alonso del Arte
+ */
+public final class HandHistory {
+    
+    static final int MAGIC = 0x424A4848;
+    
+    static final byte VERSION = 1;
+    
+    static final int HEADER_SIZE = 5;
+    
+    private static final int BUFFER_SIZE = 65536;
+    
+    private static final Rank[] RANKS = Rank.values();
+    
+    private static final Suit[] SUITS = Suit.values();
+    
+    private static final int CARD_CODE_LIMIT = RANKS.length * SUITS.length;
+    
+    private static final Wager.Outcome[] OUTCOMES = Wager.Outcome.values();
+    
+    private static final Decision[] DECISIONS = Decision.values();
+    
+    static int cardCode(PlayingCard card) {
+        return card.getSuit().ordinal() * RANKS.length 
+                + card.getRank().ordinal();
+    }
+    
+    static long zigzag(long n) {
+        return (n << 1) ^ (n >> 63);
+    }
+    
+    static long unzigzag(long n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+    
+    private HandHistory() {
+    }
+    
+    /**
+     * Writes hand histories to an output stream. Records are collected in an 
+     * internal buffer and written to the stream when the buffer fills up, when 
+     * {@link #flush()} is called or when the writer is closed. Instances are 
+     * not safe for use by multiple threads without outside synchronization.
+     */
+    public static final class Writer implements Closeable, Flushable {
+        
+        private final OutputStream out;
+        
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        
+        private int count = 0;
+        
+        private byte[] record = new byte[128];
+        
+        private int recordLength;
+        
+        private final byte[] lengthBytes = new byte[5];
+        
+        private final Map<Currency, Integer> currencies = new HashMap<>();
+        
+        private long recordCount = 0L;
+        
+        private boolean closed = false;
+        
+        /**
+         * Tells how many records this writer has written.
+         * @return The number of records. For example, 1000.
+         */
+        public long getRecordCount() {
+            return this.recordCount;
+        }
+        
+        private void ensureRecordCapacity(int extra) {
+            if (this.recordLength + extra > this.record.length) {
+                this.record = Arrays.copyOf(this.record, 
+                        Math.max(this.record.length * 2, 
+                                this.recordLength + extra));
+            }
+        }
+        
+        private void putByte(int b) {
+            this.ensureRecordCapacity(1);
+            this.record[this.recordLength++] = (byte) b;
+        }
+        
+        private void putVarint(long n) {
+            this.ensureRecordCapacity(10);
+            while ((n & ~0x7FL) != 0) {
+                this.record[this.recordLength++] = (byte) ((n & 0x7F) | 0x80);
+                n >>>= 7;
+            }
+            this.record[this.recordLength++] = (byte) n;
+        }
+        
+        private void putCurrency(Currency currency) {
+            Integer index = this.currencies.get(currency);
+            if (index == null) {
+                this.currencies.put(currency, this.currencies.size());
+                this.putByte(0);
+                String code = currency.getCurrencyCode();
+                this.putByte(code.charAt(0));
+                this.putByte(code.charAt(1));
+                this.putByte(code.charAt(2));
+            } else {
+                this.putVarint(index + 1);
+            }
+        }
+        
+        private void putCards(Hand hand) {
+            int cardCount = hand.cardCount();
+            this.putVarint(cardCount);
+            for (int i = 0; i < cardCount; i++) {
+                this.putByte(cardCode(hand.cardAt(i)));
+            }
+        }
+        
+        private void writeBytes(byte[] bytes, int offset, int length) 
+                throws IOException {
+            if (length > this.buffer.length - this.count) {
+                this.flushBuffer();
+                if (length > this.buffer.length) {
+                    this.out.write(bytes, offset, length);
+                    return;
+                }
+            }
+            System.arraycopy(bytes, offset, this.buffer, this.count, length);
+            this.count += length;
+        }
+        
+        private void writeLength(int length) throws IOException {
+            int lengthSize = 0;
+            while ((length & ~0x7F) != 0) {
+                this.lengthBytes[lengthSize++] 
+                        = (byte) ((length & 0x7F) | 0x80);
+                length >>>= 7;
+            }
+            this.lengthBytes[lengthSize++] = (byte) length;
+            this.writeBytes(this.lengthBytes, 0, lengthSize);
+        }
+        
+        private void flushBuffer() throws IOException {
+            if (this.count > 0) {
+                this.out.write(this.buffer, 0, this.count);
+                this.count = 0;
+            }
+        }
+        
+        /**
+         * Writes the history of one hand.
+         * @param table The table number. For example, 3.
+         * @param round The round number. For example, 1024.
+         * @param hand The index of the player's hand. For example, 0 for the 
+         * player's first hand, 1 for the hand split off from it.
+         * @param playerHand The player's hand. The wager amount and currency 
+         * are taken from the hand's wager. For example, K&#9824;, 9&#9829; 
+         * with a $10.00 wager.
+         * @param dealerHand The dealer's hand. For example, 10&#9827;, 
+         * 7&#9830;.
+         * @param outcome The outcome. For example, {@link 
+         * Wager.Outcome#BETTER_SCORE}.
+         * @param settlementCents The settlement in minor units, positive if 
+         * the dealer paid the player, negative if the dealer collected the 
+         * wager. For example, 1000.
+         * @param decisions The player's decisions about the hand, in the order 
+         * they were made. For example, {@link Decision#STAND}.
+         * @throws IllegalStateException If the writer has been closed.
+         * @throws IllegalArgumentException If the table number, round number 
+         * or hand index is negative.
+         * @throws IOException If the output stream throws it.
+         */
+        public void write(int table, long round, int hand, Hand playerHand, 
+                Hand dealerHand, Wager.Outcome outcome, long settlementCents, 
+                Decision... decisions) throws IOException {
+            if (this.closed) {
+                String excMsg = "Hand history writer has been closed";
+                throw new IllegalStateException(excMsg);
+            }
+            if (table < 0 || round < 0 || hand < 0) {
+                String excMsg = "Table " + table + ", round " + round 
+                        + " and hand " + hand + " should not be negative";
+                throw new IllegalArgumentException(excMsg);
+            }
+            this.recordLength = 0;
+            this.putVarint(table);
+            this.putVarint(round);
+            this.putVarint(hand);
+            this.putByte(outcome.ordinal());
+            Wager wager = playerHand.getWager();
+            this.putCurrency(wager.getAmount().getCurrency());
+            this.putVarint(zigzag(wager.getAmount().getAmountInCents()));
+            this.putVarint(zigzag(settlementCents));
+            this.putCards(playerHand);
+            this.putCards(dealerHand);
+            this.putVarint(decisions.length);
+            for (Decision decision : decisions) {
+                this.putByte(decision.ordinal());
+            }
+            this.writeLength(this.recordLength);
+            this.writeBytes(this.record, 0, this.recordLength);
+            this.recordCount++;
+        }
+        
+        /**
+         * Writes any buffered records to the output stream and flushes it.
+         * @throws IOException If the output stream throws it.
+         */
+        @Override
+        public void flush() throws IOException {
+            this.flushBuffer();
+            this.out.flush();
+        }
+        
+        /**
+         * Writes any buffered records and closes the output stream. Calling 
+         * this on a writer that's already closed has no effect.
+         * @throws IOException If the output stream throws it.
+         */
+        @Override
+        public void close() throws IOException {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            try {
+                this.flushBuffer();
+            } finally {
+                this.out.close();
+            }
+        }
+        
+        /**
+         * Sole constructor. The header is put in the buffer right away, and 
+         * reaches the stream along with the first records, or when the writer 
+         * is flushed or closed, whichever comes first.
+         * @param out The stream to write to. For example, a stream to a file 
+         * named "hands.bjh". It will be closed when the writer is closed.
+         * @throws IOException If the stream throws it.
+         */
+        public Writer(OutputStream out) throws IOException {
+            this.out = out;
+            this.buffer[0] = (byte) (MAGIC >>> 24);
+            this.buffer[1] = (byte) (MAGIC >>> 16);
+            this.buffer[2] = (byte) (MAGIC >>> 8);
+            this.buffer[3] = (byte) MAGIC;
+            this.buffer[4] = VERSION;
+            this.count = HEADER_SIZE;
+        }
+        
+    }
+    
+    /**
+     * Reads hand histories from an input stream. The reader works like a 
+     * cursor: {@link #next()} moves to the next record and the getters give 
+     * the fields of the current record, without creating an object for each 
+     * record. Instances are not safe for use by multiple threads.
+     */
+    public static final class Reader implements Closeable {
+        
+        private final InputStream in;
+        
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        
+        private int bufferPos = 0;
+        
+        private int bufferLimit = 0;
+        
+        private byte[] record = new byte[128];
+        
+        private int recordPos;
+        
+        private int recordLength;
+        
+        private final List<Currency> currencies = new ArrayList<>();
+        
+        private boolean current = false;
+        
+        private int table;
+        
+        private long round;
+        
+        private int hand;
+        
+        private Wager.Outcome outcome;
+        
+        private Currency currency;
+        
+        private long wagerCents;
+        
+        private long settlementCents;
+        
+        private int playerCardsStart;
+        
+        private int playerCardCount;
+        
+        private int dealerCardsStart;
+        
+        private int dealerCardCount;
+        
+        private int decisionsStart;
+        
+        private int decisionCount;
+        
+        private boolean fill() throws IOException {
+            int read = this.in.read(this.buffer);
+            if (read < 1) {
+                return false;
+            }
+            this.bufferPos = 0;
+            this.bufferLimit = read;
+            return true;
+        }
+        
+        private int readByte() throws IOException {
+            if (this.bufferPos == this.bufferLimit && !this.fill()) {
+                return -1;
+            }
+            return this.buffer[this.bufferPos++] & 0xFF;
+        }
+        
+        private void readFully(byte[] bytes, int length) throws IOException {
+            int copied = 0;
+            while (copied < length) {
+                if (this.bufferPos == this.bufferLimit && !this.fill()) {
+                    String excMsg = "Hand history ends in the middle of a" 
+                            + " record";
+                    throw new EOFException(excMsg);
+                }
+                int chunk = Math.min(length - copied, 
+                        this.bufferLimit - this.bufferPos);
+                System.arraycopy(this.buffer, this.bufferPos, bytes, copied, 
+                        chunk);
+                this.bufferPos += chunk;
+                copied += chunk;
+            }
+        }
+        
+        private int nextByte() throws IOException {
+            if (this.recordPos >= this.recordLength) {
+                String excMsg = "Record of " + this.recordLength 
+                        + " bytes is too short";
+                throw new IOException(excMsg);
+            }
+            return this.record[this.recordPos++] & 0xFF;
+        }
+        
+        private long nextVarint() throws IOException {
+            long n = 0L;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = this.nextByte();
+                n |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return n;
+                }
+            }
+            String excMsg = "Malformed varint in record";
+            throw new IOException(excMsg);
+        }
+        
+        private int nextCodes(int limit) throws IOException {
+            long n = this.nextVarint();
+            if (n > this.recordLength - this.recordPos) {
+                String excMsg = "Count " + n + " is more than what's left of" 
+                        + " the record";
+                throw new IOException(excMsg);
+            }
+            int start = this.recordPos;
+            this.recordPos += (int) n;
+            for (int i = start; i < this.recordPos; i++) {
+                if ((this.record[i] & 0xFF) >= limit) {
+                    String excMsg = "Code " + (this.record[i] & 0xFF) 
+                            + " should be less than " + limit;
+                    throw new IOException(excMsg);
+                }
+            }
+            return start;
+        }
+        
+        private Currency nextCurrency() throws IOException {
+            int reference = (int) this.nextVarint();
+            if (reference == 0) {
+                char[] code = {(char) this.nextByte(), (char) this.nextByte(), 
+                    (char) this.nextByte()};
+                Currency newCurrency;
+                try {
+                    newCurrency = Currency.getInstance(new String(code));
+                } catch (IllegalArgumentException iae) {
+                    String excMsg = "Unrecognized currency code \"" 
+                            + new String(code) + "\"";
+                    throw new IOException(excMsg, iae);
+                }
+                this.currencies.add(newCurrency);
+                return newCurrency;
+            }
+            if (reference > this.currencies.size()) {
+                String excMsg = "Currency reference " + reference 
+                        + " is to a currency not yet seen";
+                throw new IOException(excMsg);
+            }
+            return this.currencies.get(reference - 1);
+        }
+        
+        /**
+         * Moves to the next record.
+         * @return True if there is a next record, false if the end of the 
+         * stream has been reached.
+         * @throws IOException If the stream throws it, or if the stream ends 
+         * in the middle of a record or has a malformed record.
+         */
+        public boolean next() throws IOException {
+            this.current = false;
+            int length = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = this.readByte();
+                if (b < 0) {
+                    if (shift == 0) {
+                        return false;
+                    }
+                    String excMsg = "Hand history ends in a record length";
+                    throw new EOFException(excMsg);
+                }
+                if (shift > 28) {
+                    String excMsg = "Record length is malformed";
+                    throw new IOException(excMsg);
+                }
+                length |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            if (length > this.record.length) {
+                this.record = new byte[Math.max(length, 
+                        this.record.length * 2)];
+            }
+            this.readFully(this.record, length);
+            this.recordLength = length;
+            this.recordPos = 0;
+            this.table = (int) this.nextVarint();
+            this.round = this.nextVarint();
+            this.hand = (int) this.nextVarint();
+            int ordinal = this.nextByte();
+            if (ordinal >= OUTCOMES.length) {
+                String excMsg = "Outcome ordinal " + ordinal + " is not valid";
+                throw new IOException(excMsg);
+            }
+            this.outcome = OUTCOMES[ordinal];
+            this.currency = this.nextCurrency();
+            this.wagerCents = unzigzag(this.nextVarint());
+            this.settlementCents = unzigzag(this.nextVarint());
+            this.playerCardsStart = this.nextCodes(CARD_CODE_LIMIT);
+            this.playerCardCount = this.recordPos - this.playerCardsStart;
+            this.dealerCardsStart = this.nextCodes(CARD_CODE_LIMIT);
+            this.dealerCardCount = this.recordPos - this.dealerCardsStart;
+            this.decisionsStart = this.nextCodes(DECISIONS.length);
+            this.decisionCount = this.recordPos - this.decisionsStart;
+            this.current = true;
+            return true;
+        }
+        
+        private void checkCurrent() {
+            if (!this.current) {
+                String excMsg = "No current record, call next() first";
+                throw new IllegalStateException(excMsg);
+            }
+        }
+        
+        private int code(int start, int count, int index) {
+            this.checkCurrent();
+            if (index < 0 || index >= count) {
+                String excMsg = "Index " + index + " is out of bounds for " 
+                        + count + " elements";
+                throw new IndexOutOfBoundsException(excMsg);
+            }
+            return this.record[start + index];
+        }
+        
+        /**
+         * Gives the table number of the current record.
+         * @return The table number. For example, 3.
+         */
+        public int getTable() {
+            this.checkCurrent();
+            return this.table;
+        }
+        
+        /**
+         * Gives the round number of the current record.
+         * @return The round number. For example, 1024.
+         */
+        public long getRound() {
+            this.checkCurrent();
+            return this.round;
+        }
+        
+        /**
+         * Gives the hand index of the current record.
+         * @return The hand index. For example, 0.
+         */
+        public int getHand() {
+            this.checkCurrent();
+            return this.hand;
+        }
+        
+        /**
+         * Gives the outcome of the current record.
+         * @return The outcome. For example, {@link Wager.Outcome#BUST}.
+         */
+        public Wager.Outcome getOutcome() {
+            this.checkCurrent();
+            return this.outcome;
+        }
+        
+        /**
+         * Gives the currency of the wager and settlement of the current 
+         * record.
+         * @return The currency. For example, U.S. dollars.
+         */
+        public Currency getCurrency() {
+            this.checkCurrent();
+            return this.currency;
+        }
+        
+        /**
+         * Gives the wager amount of the current record in minor units.
+         * @return The wager amount. For example, 1000.
+         */
+        public long getWagerInCents() {
+            this.checkCurrent();
+            return this.wagerCents;
+        }
+        
+        /**
+         * Gives the settlement amount of the current record in minor units.
+         * @return The settlement amount. For example, &minus;1000.
+         */
+        public long getSettlementInCents() {
+            this.checkCurrent();
+            return this.settlementCents;
+        }
+        
+        /**
+         * Tells how many cards the player's hand in the current record has.
+         * @return The number of cards. For example, 2.
+         */
+        public int getPlayerCardCount() {
+            this.checkCurrent();
+            return this.playerCardCount;
+        }
+        
+        /**
+         * Gives the rank of one of the player's cards in the current record.
+         * @param index The index of the card. For example, 0.
+         * @return The rank. For example, {@link Rank#KING}.
+         * @throws IndexOutOfBoundsException If <code>index</code> is negative 
+         * or not less than {@link #getPlayerCardCount()}.
+         */
+        public Rank getPlayerCardRank(int index) {
+            return RANKS[this.code(this.playerCardsStart, 
+                    this.playerCardCount, index) % RANKS.length];
+        }
+        
+        /**
+         * Gives the suit of one of the player's cards in the current record.
+         * @param index The index of the card. For example, 0.
+         * @return The suit. For example, {@link Suit#SPADES}.
+         * @throws IndexOutOfBoundsException If <code>index</code> is negative 
+         * or not less than {@link #getPlayerCardCount()}.
+         */
+        public Suit getPlayerCardSuit(int index) {
+            return SUITS[this.code(this.playerCardsStart, 
+                    this.playerCardCount, index) / RANKS.length];
+        }
+        
+        /**
+         * Tells how many cards the dealer's hand in the current record has.
+         * @return The number of cards. For example, 3.
+         */
+        public int getDealerCardCount() {
+            this.checkCurrent();
+            return this.dealerCardCount;
+        }
+        
+        /**
+         * Gives the rank of one of the dealer's cards in the current record.
+         * @param index The index of the card. For example, 2.
+         * @return The rank. For example, {@link Rank#SIX}.
+         * @throws IndexOutOfBoundsException If <code>index</code> is negative 
+         * or not less than {@link #getDealerCardCount()}.
+         */
+        public Rank getDealerCardRank(int index) {
+            return RANKS[this.code(this.dealerCardsStart, 
+                    this.dealerCardCount, index) % RANKS.length];
+        }
+        
+        /**
+         * Gives the suit of one of the dealer's cards in the current record.
+         * @param index The index of the card. For example, 2.
+         * @return The suit. For example, {@link Suit#CLUBS}.
+         * @throws IndexOutOfBoundsException If <code>index</code> is negative 
+         * or not less than {@link #getDealerCardCount()}.
+         */
+        public Suit getDealerCardSuit(int index) {
+            return SUITS[this.code(this.dealerCardsStart, 
+                    this.dealerCardCount, index) / RANKS.length];
+        }
+        
+        /**
+         * Tells how many decisions the player made about the hand in the 
+         * current record.
+         * @return The number of decisions. For example, 2.
+         */
+        public int getDecisionCount() {
+            this.checkCurrent();
+            return this.decisionCount;
+        }
+        
+        /**
+         * Gives one of the player's decisions in the current record.
+         * @param index The index of the decision. For example, 1.
+         * @return The decision. For example, {@link Decision#STAND}.
+         * @throws IndexOutOfBoundsException If <code>index</code> is negative 
+         * or not less than {@link #getDecisionCount()}.
+         */
+        public Decision getDecision(int index) {
+            return DECISIONS[this.code(this.decisionsStart, 
+                    this.decisionCount, index)];
+        }
+        
+        /**
+         * Closes the input stream.
+         * @throws IOException If the input stream throws it.
+         */
+        @Override
+        public void close() throws IOException {
+            this.in.close();
+        }
+        
+        /**
+         * Sole constructor. Reads and checks the header right away.
+         * @param in The stream to read from. For example, a stream from a 
+         * file named "hands.bjh". It will be closed when the reader is closed.
+         * @throws IOException If the stream throws it, or if the stream 
+         * doesn't start with a valid hand history header.
+         */
+        public Reader(InputStream in) throws IOException {
+            this.in = in;
+            byte[] header = new byte[HEADER_SIZE];
+            this.readFully(header, HEADER_SIZE);
+            int magic = ((header[0] & 0xFF) << 24) 
+                    | ((header[1] & 0xFF) << 16) 
+                    | ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+            if (magic != MAGIC || header[4] != VERSION) {
+                String excMsg = "Stream does not start with a valid hand" 
+                        + " history header";
+                throw new IOException(excMsg);
+            }
+        }
+        
+    }
+    
+}
@@ -0,0 +1,681 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package blackjack;
+
+import playingcards.Rank;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * A columnar index over hand histories, for analytical queries such as "every 
+ * hand where the dealer showed an Ace and the player held hard 16." The index 
+ * is a directory of column files, one value per hand in the order the hands 
+ * were recorded: the rank of the dealer's upcard, the total of the player's 
+ * cards, whether that total is soft, which decisions the player made, the 
+ * outcome and the settlement amount. The hands are grouped into blocks, and 
+ * for each block the index keeps the minimum and maximum player total and 
+ * settlement amount and bitmaps of which upcards, outcomes, decisions and 
+ * soft or hard totals occur in it. A query skips every block that can't have 
+ * a match and scans the rest in parallel.
+ * <p>Use {@link #build(HandHistory.Reader, Path)} to build an index from a 
+ * hand history, {@link #open(Path)} to open it and {@link Query} to say what 
+ * to look for. Settlement amounts are in minor units and the index doesn't 
+ * keep track of currencies, so queries about amounts only make sense for 
+ * histories in a single currency.</p>
+ * @author Alonso del Arte
+ */
+public final class HandHistoryIndex {
+    
+    static final String UPCARD_FILE_NAME = "upcard.col";
+    
+    static final String TOTAL_FILE_NAME = "total.col";
+    
+    static final String SOFT_FILE_NAME = "soft.col";
+    
+    static final String DECISIONS_FILE_NAME = "decisions.col";
+    
+    static final String OUTCOME_FILE_NAME = "outcome.col";
+    
+    static final String AMOUNT_FILE_NAME = "amount.col";
+    
+    static final String BLOCKS_FILE_NAME = "blocks.idx";
+    
+    static final long BLOCKS_MAGIC = 0x424A48484944583AL;
+    
+    static final int BLOCKS_HEADER_SIZE = 24;
+    
+    static final int BLOCK_ENTRY_SIZE = 32;
+    
+    static final int DEFAULT_BLOCK_SIZE = 4096;
+    
+    /**
+     * The value in the upcard column for a hand in which the dealer had no 
+     * cards.
+     */
+    static final int NO_UPCARD = Rank.values().length;
+    
+    private static final int BLOCKS_PER_SEGMENT = 1 << 14;
+    
+    private static final int ACE_ORDINAL = Rank.ACE.ordinal();
+    
+    private static final int TEN_ORDINAL = Rank.TEN.ordinal();
+    
+    private final Path directory;
+    
+    private final int blockSize;
+    
+    private final long rowCount;
+    
+    private final int blockCount;
+    
+    private final MappedByteBuffer blocks;
+    
+    private final Column upcards;
+    
+    private final Column totals;
+    
+    private final Column softFlags;
+    
+    private final Column decisionMasks;
+    
+    private final Column outcomes;
+    
+    private final Column amounts;
+    
+    /**
+     * Gives the directory the index is in.
+     * @return The directory. For example, "index/2026-10".
+     */
+    public Path getDirectory() {
+        return this.directory;
+    }
+    
+    /**
+     * Tells how many hands the index has.
+     * @return The number of hands. For example, 1000000.
+     */
+    public long getRowCount() {
+        return this.rowCount;
+    }
+    
+    /**
+     * Tells how many blocks the hands are grouped into.
+     * @return The number of blocks. For example, 245.
+     */
+    public int getBlockCount() {
+        return this.blockCount;
+    }
+    
+    private static int cardValue(int rankOrdinal) {
+        return (rankOrdinal > TEN_ORDINAL) ? 10 : rankOrdinal + 1;
+    }
+    
+    private boolean blockMayMatch(Query query, int block) {
+        int base = BLOCKS_HEADER_SIZE + block * BLOCK_ENTRY_SIZE;
+        int minTotal = this.blocks.get(base) & 0xFF;
+        int maxTotal = this.blocks.get(base + 1) & 0xFF;
+        int upcardBits = this.blocks.getShort(base + 2) & 0xFFFF;
+        int outcomeBits = this.blocks.getShort(base + 4) & 0xFFFF;
+        int decisionBits = this.blocks.get(base + 6) & 0xFF;
+        int softBits = this.blocks.get(base + 7) & 0xFF;
+        long minAmount = this.blocks.getLong(base + 8);
+        long maxAmount = this.blocks.getLong(base + 16);
+        return maxTotal >= query.minTotal && minTotal <= query.maxTotal 
+                && (upcardBits & query.upcardMask) != 0 
+                && (outcomeBits & query.outcomeMask) != 0 
+                && (decisionBits & query.decisionMask) == query.decisionMask 
+                && (softBits & query.softMask) != 0 
+                && maxAmount >= query.minAmount 
+                && minAmount <= query.maxAmount;
+    }
+    
+    private boolean rowMatches(Query query, long row) {
+        int total = this.totals.getByte(row);
+        if (total < query.minTotal || total > query.maxTotal) {
+            return false;
+        }
+        if ((query.upcardMask & (1 << this.upcards.getByte(row))) == 0) {
+            return false;
+        }
+        if ((query.softMask & (1 << this.softFlags.getByte(row))) == 0) {
+            return false;
+        }
+        int decisions = this.decisionMasks.getByte(row);
+        if ((decisions & query.decisionMask) != query.decisionMask) {
+            return false;
+        }
+        if ((query.outcomeMask & (1 << this.outcomes.getByte(row))) == 0) {
+            return false;
+        }
+        long amount = this.amounts.getLong(row);
+        return amount >= query.minAmount && amount <= query.maxAmount;
+    }
+    
+    private long blockStart(int block) {
+        return (long) block * this.blockSize;
+    }
+    
+    private long blockEnd(int block) {
+        return Math.min(this.blockStart(block + 1), this.rowCount);
+    }
+    
+    private IntStream candidateBlocks(Query query) {
+        return IntStream.range(0, this.blockCount).parallel() 
+                .filter(block -> this.blockMayMatch(query, block));
+    }
+    
+    int countCandidateBlocks(Query query) {
+        return (int) this.candidateBlocks(query).count();
+    }
+    
+    /**
+     * Counts the hands that match a query.
+     * @param query The query. For example, dealer showing an Ace and player 
+     * holding hard 16.
+     * @return The number of matching hands. For example, 1408.
+     */
+    public long count(Query query) {
+        return this.candidateBlocks(query).mapToLong(block -> {
+            long matches = 0L;
+            long end = this.blockEnd(block);
+            for (long row = this.blockStart(block); row < end; row++) {
+                if (this.rowMatches(query, row)) {
+                    matches++;
+                }
+            }
+            return matches;
+        }).sum();
+    }
+    
+    /**
+     * Adds up the settlement amounts of the hands that match a query.
+     * @param query The query. For example, player doubled down on 11.
+     * @return The total settlement amount in minor units, from the players' 
+     * point of view. For example, 1519000.
+     * @throws ArithmeticException If the total overflows.
+     */
+    public long sumAmounts(Query query) {
+        return this.candidateBlocks(query).mapToLong(block -> {
+            long sum = 0L;
+            long end = this.blockEnd(block);
+            for (long row = this.blockStart(block); row < end; row++) {
+                if (this.rowMatches(query, row)) {
+                    sum = Math.addExact(sum, this.amounts.getLong(row));
+                }
+            }
+            return sum;
+        }).reduce(0L, Math::addExact);
+    }
+    
+    /**
+     * Finds the hands that match a query.
+     * @param query The query. For example, dealer showing a Six and player 
+     * surrendering.
+     * @return The row numbers of the matching hands, in ascending order. Row 
+     * <i>n</i> is the <i>n</i>th hand in the hand history the index was built 
+     * from, counting from 0. For example, 17, 4096, 65537.
+     */
+    public long[] findRows(Query query) {
+        return this.candidateBlocks(query).mapToObj(block -> {
+            LongStream.Builder builder = LongStream.builder();
+            long end = this.blockEnd(block);
+            for (long row = this.blockStart(block); row < end; row++) {
+                if (this.rowMatches(query, row)) {
+                    builder.add(row);
+                }
+            }
+            return builder.build();
+        }).flatMapToLong(rows -> rows).toArray();
+    }
+    
+    /**
+     * Builds an index from a hand history, with the default block size.
+     * @param reader The hand history, positioned before the first record to 
+     * index. All the remaining records are indexed. The reader is not closed.
+     * @param directory The directory to put the index in. It will be created 
+     * if it doesn't already exist. Any index already in it is overwritten.
+     * @return The number of hands indexed. For example, 1000000.
+     * @throws IOException If the hand history can't be read or the index 
+     * can't be written.
+     */
+    public static long build(HandHistory.Reader reader, Path directory) 
+            throws IOException {
+        return build(reader, directory, DEFAULT_BLOCK_SIZE);
+    }
+    
+    static long build(HandHistory.Reader reader, Path directory, 
+            int blockSize) throws IOException {
+        if (blockSize < 1) {
+            String excMsg = "Block size " + blockSize + " should be positive";
+            throw new IllegalArgumentException(excMsg);
+        }
+        Files.createDirectories(directory);
+        long rows = 0L;
+        try (OutputStream upcardOut = open(directory, UPCARD_FILE_NAME);
+                OutputStream totalOut = open(directory, TOTAL_FILE_NAME);
+                OutputStream softOut = open(directory, SOFT_FILE_NAME);
+                OutputStream decisionsOut = open(directory, 
+                        DECISIONS_FILE_NAME);
+                OutputStream outcomeOut = open(directory, OUTCOME_FILE_NAME);
+                DataOutputStream amountOut = new DataOutputStream( 
+                        open(directory, AMOUNT_FILE_NAME));
+                DataOutputStream blocksOut = new DataOutputStream( 
+                        open(directory, BLOCKS_FILE_NAME))) {
+            blocksOut.writeLong(BLOCKS_MAGIC);
+            blocksOut.writeInt(blockSize);
+            blocksOut.writeInt(0);
+            blocksOut.writeLong(0L);
+            BlockStats stats = new BlockStats();
+            while (reader.next()) {
+                int upcard = (reader.getDealerCardCount() == 0) ? NO_UPCARD 
+                        : reader.getDealerCardRank(0).ordinal();
+                int total = 0;
+                boolean hasAce = false;
+                for (int i = 0; i < reader.getPlayerCardCount(); i++) {
+                    int ordinal = reader.getPlayerCardRank(i).ordinal();
+                    total += cardValue(ordinal);
+                    hasAce |= ordinal == ACE_ORDINAL;
+                }
+                int soft = 0;
+                if (hasAce && total < 12) {
+                    total += 10;
+                    soft = 1;
+                }
+                int decisions = 0;
+                for (int i = 0; i < reader.getDecisionCount(); i++) {
+                    decisions |= 1 << reader.getDecision(i).ordinal();
+                }
+                int outcome = reader.getOutcome().ordinal();
+                long amount = reader.getSettlementInCents();
+                upcardOut.write(upcard);
+                totalOut.write(total);
+                softOut.write(soft);
+                decisionsOut.write(decisions);
+                outcomeOut.write(outcome);
+                amountOut.writeLong(amount);
+                stats.add(upcard, total, soft, decisions, outcome, amount);
+                rows++;
+                if (rows % blockSize == 0) {
+                    stats.writeTo(blocksOut);
+                }
+            }
+            if (rows % blockSize != 0) {
+                stats.writeTo(blocksOut);
+            }
+        }
+        try (FileChannel channel = FileChannel.open( 
+                directory.resolve(BLOCKS_FILE_NAME), 
+                StandardOpenOption.WRITE)) {
+            ByteBuffer rowCountBytes = ByteBuffer.allocate(Long.BYTES) 
+                    .putLong(0, rows);
+            channel.write(rowCountBytes, 16);
+        }
+        return rows;
+    }
+    
+    private static OutputStream open(Path directory, String fileName) 
+            throws IOException {
+        return new BufferedOutputStream(Files.newOutputStream( 
+                directory.resolve(fileName)), 65536);
+    }
+    
+    /**
+     * Opens an index built by {@link #build(HandHistory.Reader, Path)}. The 
+     * column files are mapped into memory read-only.
+     * @param directory The directory the index is in. For example, 
+     * "index/2026-10".
+     * @return The index.
+     * @throws IOException If the files can't be read, or if they are not a 
+     * valid index.
+     */
+    public static HandHistoryIndex open(Path directory) throws IOException {
+        return new HandHistoryIndex(directory);
+    }
+    
+    private HandHistoryIndex(Path directory) throws IOException {
+        this.directory = directory;
+        try (FileChannel channel = FileChannel.open( 
+                directory.resolve(BLOCKS_FILE_NAME), 
+                StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < BLOCKS_HEADER_SIZE || size > Integer.MAX_VALUE) {
+                String excMsg = directory.toString() 
+                        + " does not have a valid block index";
+                throw new IOException(excMsg);
+            }
+            this.blocks = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        if (this.blocks.getLong(0) != BLOCKS_MAGIC) {
+            String excMsg = directory.toString() 
+                    + " does not have a valid block index";
+            throw new IOException(excMsg);
+        }
+        this.blockSize = this.blocks.getInt(8);
+        this.rowCount = this.blocks.getLong(16);
+        long expectedBlocks = (this.rowCount + this.blockSize - 1) 
+                / this.blockSize;
+        if (this.blockSize < 1 || (this.blocks.capacity() - BLOCKS_HEADER_SIZE) 
+                / BLOCK_ENTRY_SIZE != expectedBlocks) {
+            String excMsg = "Block index in " + directory.toString() 
+                    + " does not match its row count " + this.rowCount;
+            throw new IOException(excMsg);
+        }
+        this.blockCount = (int) expectedBlocks;
+        long segmentRows = (long) this.blockSize * BLOCKS_PER_SEGMENT;
+        this.upcards = new Column(directory.resolve(UPCARD_FILE_NAME), 1, 
+                this.rowCount, segmentRows);
+        this.totals = new Column(directory.resolve(TOTAL_FILE_NAME), 1, 
+                this.rowCount, segmentRows);
+        this.softFlags = new Column(directory.resolve(SOFT_FILE_NAME), 1, 
+                this.rowCount, segmentRows);
+        this.decisionMasks = new Column(directory 
+                .resolve(DECISIONS_FILE_NAME), 1, this.rowCount, segmentRows);
+        this.outcomes = new Column(directory.resolve(OUTCOME_FILE_NAME), 1, 
+                this.rowCount, segmentRows);
+        this.amounts = new Column(directory.resolve(AMOUNT_FILE_NAME), 
+                Long.BYTES, this.rowCount, segmentRows);
+    }
+    
+    /**
+     * Keeps track of the minimums, maximums and bitmaps of the block being 
+     * built.
+     */
+    private static final class BlockStats {
+        
+        private int minTotal;
+        
+        private int maxTotal;
+        
+        private int upcardBits;
+        
+        private int outcomeBits;
+        
+        private int decisionBits;
+        
+        private int softBits;
+        
+        private long minAmount;
+        
+        private long maxAmount;
+        
+        void reset() {
+            this.minTotal = Integer.MAX_VALUE;
+            this.maxTotal = Integer.MIN_VALUE;
+            this.upcardBits = 0;
+            this.outcomeBits = 0;
+            this.decisionBits = 0;
+            this.softBits = 0;
+            this.minAmount = Long.MAX_VALUE;
+            this.maxAmount = Long.MIN_VALUE;
+        }
+        
+        void add(int upcard, int total, int soft, int decisions, int outcome, 
+                long amount) {
+            this.minTotal = Math.min(this.minTotal, total);
+            this.maxTotal = Math.max(this.maxTotal, total);
+            this.upcardBits |= 1 << upcard;
+            this.outcomeBits |= 1 << outcome;
+            this.decisionBits |= decisions;
+            this.softBits |= 1 << soft;
+            this.minAmount = Math.min(this.minAmount, amount);
+            this.maxAmount = Math.max(this.maxAmount, amount);
+        }
+        
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeByte(this.minTotal);
+            out.writeByte(this.maxTotal);
+            out.writeShort(this.upcardBits);
+            out.writeShort(this.outcomeBits);
+            out.writeByte(this.decisionBits);
+            out.writeByte(this.softBits);
+            out.writeLong(this.minAmount);
+            out.writeLong(this.maxAmount);
+            out.writeLong(0L);
+            this.reset();
+        }
+        
+        BlockStats() {
+            this.reset();
+        }
+        
+    }
+    
+    /**
+     * A column file mapped into memory in segments, so that columns of more 
+     * than 2 gigabytes can be mapped.
+     */
+    private static final class Column {
+        
+        private final int width;
+        
+        private final long segmentRows;
+        
+        private final MappedByteBuffer[] segments;
+        
+        int getByte(long row) {
+            return this.segments[(int) (row / this.segmentRows)] 
+                    .get((int) (row % this.segmentRows)) & 0xFF;
+        }
+        
+        long getLong(long row) {
+            return this.segments[(int) (row / this.segmentRows)] 
+                    .getLong((int) (row % this.segmentRows) * this.width);
+        }
+        
+        Column(Path path, int width, long rowCount, long segmentRows) 
+                throws IOException {
+            this.width = width;
+            this.segmentRows = segmentRows;
+            try (FileChannel channel = FileChannel.open(path, 
+                    StandardOpenOption.READ)) {
+                if (channel.size() != rowCount * width) {
+                    String excMsg = path.toString() + " should have " 
+                            + rowCount + " values of " + width 
+                            + " bytes each";
+                    throw new IOException(excMsg);
+                }
+                int segmentCount = (int) ((rowCount + segmentRows - 1) 
+                        / segmentRows);
+                this.segments = new MappedByteBuffer[segmentCount];
+                for (int i = 0; i < segmentCount; i++) {
+                    long start = i * segmentRows;
+                    long rows = Math.min(segmentRows, rowCount - start);
+                    this.segments[i] = channel.map( 
+                            FileChannel.MapMode.READ_ONLY, start * width, 
+                            rows * width);
+                }
+            }
+        }
+        
+    }
+    
+    /**
+     * Says which hands to look for. A new query matches every hand; each of 
+     * the methods gives a new query that narrows it down further. Queries are 
+     * immutable. For example, to look for every hand where the dealer showed 
+     * an Ace and the player held hard 16: <code>new Query().upcard(Rank.ACE) 
+     * .playerTotal(16, 16).soft(false)</code>.
+     */
+    public static final class Query {
+        
+        private static final int ALL_UPCARDS = (1 << (NO_UPCARD + 1)) - 1;
+        
+        private static final int ALL_OUTCOMES 
+                = (1 << Wager.Outcome.values().length) - 1;
+        
+        private final int upcardMask;
+        
+        private final int minTotal;
+        
+        private final int maxTotal;
+        
+        private final int softMask;
+        
+        private final int decisionMask;
+        
+        private final int outcomeMask;
+        
+        private final long minAmount;
+        
+        private final long maxAmount;
+        
+        /**
+         * Narrows the query down to hands where the dealer's upcard is of one 
+         * of the given ranks.
+         * @param ranks The ranks. For example, {@link Rank#ACE}.
+         * @return A new query.
+         * @throws IllegalArgumentException If no ranks are given.
+         */
+        public Query upcard(Rank... ranks) {
+            if (ranks.length == 0) {
+                String excMsg = "At least one rank required";
+                throw new IllegalArgumentException(excMsg);
+            }
+            int mask = 0;
+            for (Rank rank : ranks) {
+                mask |= 1 << rank.ordinal();
+            }
+            return new Query(mask, this.minTotal, this.maxTotal, 
+                    this.softMask, this.decisionMask, this.outcomeMask, 
+                    this.minAmount, this.maxAmount);
+        }
+        
+        /**
+         * Narrows the query down to hands where the player's total is in a 
+         * range.
+         * @param min The minimum total, inclusive. For example, 16.
+         * @param max The maximum total, inclusive. For example, 16.
+         * @return A new query.
+         * @throws IllegalArgumentException If <code>min</code> is more than 
+         * <code>max</code>.
+         */
+        public Query playerTotal(int min, int max) {
+            if (min > max) {
+                String excMsg = "Minimum total " + min 
+                        + " should not be more than maximum total " + max;
+                throw new IllegalArgumentException(excMsg);
+            }
+            return new Query(this.upcardMask, min, max, this.softMask, 
+                    this.decisionMask, this.outcomeMask, this.minAmount, 
+                    this.maxAmount);
+        }
+        
+        /**
+         * Narrows the query down to hands where the player's total is soft or 
+         * hard. A total is soft if it counts an Ace as 11.
+         * @param soft True for soft totals, false for hard totals.
+         * @return A new query.
+         */
+        public Query soft(boolean soft) {
+            return new Query(this.upcardMask, this.minTotal, this.maxTotal, 
+                    soft ? 2 : 1, this.decisionMask, this.outcomeMask, 
+                    this.minAmount, this.maxAmount);
+        }
+        
+        /**
+         * Narrows the query down to hands where the player made a particular 
+         * decision, at any point. This can be called more than once to 
+         * require more than one decision.
+         * @param decision The decision. For example, {@link 
+         * Decision#DOUBLE_DOWN}.
+         * @return A new query.
+         */
+        public Query decision(Decision decision) {
+            return new Query(this.upcardMask, this.minTotal, this.maxTotal, 
+                    this.softMask, this.decisionMask 
+                            | (1 << decision.ordinal()), this.outcomeMask, 
+                    this.minAmount, this.maxAmount);
+        }
+        
+        /**
+         * Narrows the query down to hands with one of the given outcomes.
+         * @param outcomes The outcomes. For example, {@link 
+         * Wager.Outcome#BUST}.
+         * @return A new query.
+         * @throws IllegalArgumentException If no outcomes are given.
+         */
+        public Query outcome(Wager.Outcome... outcomes) {
+            if (outcomes.length == 0) {
+                String excMsg = "At least one outcome required";
+                throw new IllegalArgumentException(excMsg);
+            }
+            int mask = 0;
+            for (Wager.Outcome outcome : outcomes) {
+                mask |= 1 << outcome.ordinal();
+            }
+            return new Query(this.upcardMask, this.minTotal, this.maxTotal, 
+                    this.softMask, this.decisionMask, mask, this.minAmount, 
+                    this.maxAmount);
+        }
+        
+        /**
+         * Narrows the query down to hands where the settlement amount is in a 
+         * range.
+         * @param min The minimum amount in minor units, inclusive. For 
+         * example, 10000.
+         * @param max The maximum amount in minor units, inclusive. For 
+         * example, {@link Long#MAX_VALUE}.
+         * @return A new query.
+         * @throws IllegalArgumentException If <code>min</code> is more than 
+         * <code>max</code>.
+         */
+        public Query amount(long min, long max) {
+            if (min > max) {
+                String excMsg = "Minimum amount " + min 
+                        + " should not be more than maximum amount " + max;
+                throw new IllegalArgumentException(excMsg);
+            }
+            return new Query(this.upcardMask, this.minTotal, this.maxTotal, 
+                    this.softMask, this.decisionMask, this.outcomeMask, min, 
+                    max);
+        }
+        
+        private Query(int upcardMask, int minTotal, int maxTotal, 
+                int softMask, int decisionMask, int outcomeMask, 
+                long minAmount, long maxAmount) {
+            this.upcardMask = upcardMask;
+            this.minTotal = minTotal;
+            this.maxTotal = maxTotal;
+            this.softMask = softMask;
+            this.decisionMask = decisionMask;
+            this.outcomeMask = outcomeMask;
+            this.minAmount = minAmount;
+            this.maxAmount = maxAmount;
+        }
+        
+        /**
+         * Creates a query that matches every hand.
+         */
+        public Query() {
+            this(ALL_UPCARDS, Integer.MIN_VALUE, Integer.MAX_VALUE, 3, 0, 
+                    ALL_OUTCOMES, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+        
+    }
+    
+}
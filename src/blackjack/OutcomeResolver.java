@@ -0,0 +1,298 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package blackjack;
+
+import currency.CurrencyAmount;
+
+import java.math.RoundingMode;
+
+/**
+ * Resolves the outcome of a player's hand against the dealer's hand. Every 
+ * possible combination of player's final value, dealer's final value and 
+ * natural blackjack flags is worked out once, when the resolver is constructed, 
+ * so that resolving a hand afterwards is just a matter of looking up an entry 
+ * in a table. The same resolver may be shared by the console game and by 
+ * simulations, as it holds no mutable state.
+ * @author Alonso del Arte
+ */
+public class OutcomeResolver {
+    
+    /**
+     * The value that all hands over 22 are lumped together under. Hand values 
+     * greater than this are treated the same as this value. Dealer's 22 needs 
+     * to be kept apart from 23 and up for the variants in which the dealer 
+     * doesn't bust on 22.
+     */
+    static final int HIGHEST_DISTINGUISHED_VALUE = 23;
+    
+    private static final int NUMBER_OF_STATES 
+            = HIGHEST_DISTINGUISHED_VALUE + 1;
+    
+    private final PayoutSchedule payoutSchedule;
+    
+    private final boolean dealerPushesOn22;
+    
+    private final Resolution[] table 
+            = new Resolution[NUMBER_OF_STATES * NUMBER_OF_STATES * 4];
+    
+    private static int stateOf(int value) {
+        if (value < 0) {
+            String excMsg = "Hand value " + value + " is not valid";
+            throw new IllegalArgumentException(excMsg);
+        }
+        return Math.min(value, HIGHEST_DISTINGUISHED_VALUE);
+    }
+    
+    private static int indexOf(int playerState, boolean playerNatural, 
+            int dealerState, boolean dealerNatural) {
+        int flags = (playerNatural ? 2 : 0) + (dealerNatural ? 1 : 0);
+        return ((playerState * NUMBER_OF_STATES) + dealerState) * 4 + flags;
+    }
+    
+    /**
+     * Gives the payout schedule this resolver was constructed with.
+     * @return The payout schedule. For example, {@link 
+     * PayoutSchedule#STANDARD}.
+     */
+    public PayoutSchedule getPayoutSchedule() {
+        return this.payoutSchedule;
+    }
+    
+    /**
+     * Tells whether the dealer's 22 is a standoff under this resolver's rules, 
+     * as in Blackjack Switch&reg;.
+     * @return True if a dealer's 22 is a standoff for players who haven't gone 
+     * bust, false if it's a bust like any other value over 21.
+     */
+    public boolean dealerPushesOn22() {
+        return this.dealerPushesOn22;
+    }
+    
+    /**
+     * Resolves the outcome of a player's hand against the dealer's hand. This 
+     * is a single table lookup.
+     * @param playerValue The value of the player's hand. For example, 20.
+     * @param playerNatural Whether the player's hand is a natural blackjack. 
+     * For example, false.
+     * @param dealerValue The value of the dealer's hand. For example, 19.
+     * @param dealerNatural Whether the dealer's hand is a natural blackjack. 
+     * For example, false.
+     * @return The resolution. In the example, {@link 
+     * Wager.Outcome#BETTER_SCORE} with a multiplier of 1.
+     * @throws IllegalArgumentException If either value is negative, or if a 
+     * hand is flagged as a natural blackjack even though its value is not 21.
+     */
+    public Resolution resolve(int playerValue, boolean playerNatural, 
+            int dealerValue, boolean dealerNatural) {
+        int index = indexOf(stateOf(playerValue), playerNatural, 
+                stateOf(dealerValue), dealerNatural);
+        Resolution resolution = this.table[index];
+        if (resolution == null) {
+            String excMsg = "Natural blackjack flag is inconsistent with " 
+                    + "player's value " + playerValue + " or dealer's value " 
+                    + dealerValue;
+            throw new IllegalArgumentException(excMsg);
+        }
+        return resolution;
+    }
+    
+    /**
+     * Resolves the outcome of a player's hand against the dealer's hand. It is 
+     * up to the caller to make sure both hands are finished.
+     * @param playerHand The player's hand. For example, 10&#9829;, 5&#9824;, 
+     * 4&#9830;.
+     * @param dealerHand The dealer's hand. For example, K&#9827;, 7&#9829;.
+     * @return The resolution. In the example, {@link 
+     * Wager.Outcome#BETTER_SCORE} with a multiplier of 1.
+     */
+    public Resolution resolve(Hand playerHand, Hand dealerHand) {
+        return this.resolve(playerHand.cardsValue(), playerHand.isNatural(), 
+                dealerHand.cardsValue(), dealerHand.isNatural());
+    }
+    
+    private Wager.Outcome work(int playerValue, boolean playerNatural, 
+            int dealerValue, boolean dealerNatural) {
+        if (playerNatural) {
+            return dealerNatural ? Wager.Outcome.STANDOFF 
+                    : Wager.Outcome.NATURAL_BLACKJACK;
+        }
+        if (playerValue > 21) {
+            return Wager.Outcome.BUST;
+        }
+        if (dealerNatural) {
+            return Wager.Outcome.LOWER_SCORE;
+        }
+        if (dealerValue == 22 && this.dealerPushesOn22) {
+            return Wager.Outcome.STANDOFF;
+        }
+        if (dealerValue > 21 || playerValue > dealerValue) {
+            return (playerValue == 21) ? Wager.Outcome.BLACKJACK 
+                    : Wager.Outcome.BETTER_SCORE;
+        }
+        return (playerValue == dealerValue) ? Wager.Outcome.STANDOFF 
+                : Wager.Outcome.LOWER_SCORE;
+    }
+    
+    /**
+     * Auxiliary constructor. Payouts are according to {@link 
+     * PayoutSchedule#STANDARD} and a dealer's 22 is a bust like any other value 
+     * over 21.
+     */
+    public OutcomeResolver() {
+        this(PayoutSchedule.STANDARD, false);
+    }
+    
+    /**
+     * Auxiliary constructor. Payouts other than for natural blackjack are 
+     * standard.
+     * @param naturalNumerator The numerator of the natural blackjack payout. 
+     * For example, 6.
+     * @param naturalDenominator The denominator of the natural blackjack 
+     * payout. For example, 5.
+     * @param pushOn22 Whether a dealer's 22 is a standoff rather than a bust. 
+     * For example, false.
+     * @throws IllegalArgumentException If {@code naturalNumerator} or {@code 
+     * naturalDenominator} is 0 or negative.
+     */
+    public OutcomeResolver(int naturalNumerator, int naturalDenominator, 
+            boolean pushOn22) {
+        this(new PayoutSchedule(checkNaturalPayout(naturalNumerator, 
+                naturalDenominator), PayoutSchedule.DEFAULT_ROUNDING), 
+                pushOn22);
+    }
+    
+    private static PayoutRatio checkNaturalPayout(int numerator, 
+            int denominator) {
+        if (numerator < 1 || denominator < 1) {
+            String excMsg = "Natural payout " + numerator + ':' + denominator 
+                    + " is not valid";
+            throw new IllegalArgumentException(excMsg);
+        }
+        return new PayoutRatio(numerator, denominator);
+    }
+    
+    /**
+     * Primary constructor. Fills in the resolution table.
+     * @param schedule The payout schedule. For example, {@link 
+     * PayoutSchedule#STANDARD}.
+     * @param pushOn22 Whether a dealer's 22 is a standoff rather than a bust. 
+     * For example, false.
+     */
+    public OutcomeResolver(PayoutSchedule schedule, boolean pushOn22) {
+        this.payoutSchedule = schedule;
+        this.dealerPushesOn22 = pushOn22;
+        Resolution[] resolutions 
+                = new Resolution[Wager.Outcome.values().length];
+        for (Wager.Outcome outcome : Wager.Outcome.values()) {
+            resolutions[outcome.ordinal()] = new Resolution(outcome, 
+                    schedule.getRatio(outcome), schedule.getRoundingMode());
+        }
+        for (int p = 0; p < NUMBER_OF_STATES; p++) {
+            for (int d = 0; d < NUMBER_OF_STATES; d++) {
+                for (int flags = 0; flags < 4; flags++) {
+                    boolean playerNatural = (flags & 2) != 0;
+                    boolean dealerNatural = (flags & 1) != 0;
+                    if ((playerNatural && p != 21) 
+                            || (dealerNatural && d != 21)) {
+                        continue;
+                    }
+                    Wager.Outcome outcome = this.work(p, playerNatural, d, 
+                            dealerNatural);
+                    this.table[indexOf(p, playerNatural, d, dealerNatural)] 
+                            = resolutions[outcome.ordinal()];
+                }
+            }
+        }
+    }
+    
+    /**
+     * The outcome of a hand together with the payout ratio for that outcome, 
+     * e.g., 3:2 for a natural blackjack or &minus;1:1 for a bust. Instances are 
+     * created only by the resolver and are shared by all lookups that lead to 
+     * the same outcome.
+     */
+    public static final class Resolution {
+        
+        private final Wager.Outcome resolvedOutcome;
+        
+        private final PayoutRatio payoutRatio;
+        
+        private final RoundingMode roundingMode;
+        
+        /**
+         * Gives the outcome.
+         * @return The outcome. For example, {@link 
+         * Wager.Outcome#NATURAL_BLACKJACK}.
+         */
+        public Wager.Outcome getOutcome() {
+            return this.resolvedOutcome;
+        }
+        
+        /**
+         * Gives the payout ratio.
+         * @return The payout ratio. For example, 3:2 for a natural blackjack.
+         */
+        public PayoutRatio getRatio() {
+            return this.payoutRatio;
+        }
+        
+        /**
+         * Gives the numerator of the payout ratio.
+         * @return The numerator. For example, 3 for a natural blackjack paying 
+         * 3 to 2, &minus;1 for a bust.
+         */
+        public int getNumerator() {
+            return this.payoutRatio.getNumerator();
+        }
+        
+        /**
+         * Gives the denominator of the payout ratio.
+         * @return The denominator. For example, 2 for a natural blackjack 
+         * paying 3 to 2, 1 for a bust.
+         */
+        public int getDenominator() {
+            return this.payoutRatio.getDenominator();
+        }
+        
+        /**
+         * Applies the payout ratio to a wager amount. The result is rounded 
+         * according to the rounding mode of the resolver's payout schedule.
+         * @param wagerAmount The wager amount. For example, $25.00.
+         * @return The settlement amount. For example, $37.50 for a natural 
+         * blackjack paying 3 to 2.
+         * @throws ArithmeticException If the multiplication overflows.
+         */
+        public CurrencyAmount apply(CurrencyAmount wagerAmount) {
+            return this.payoutRatio.applyTo(wagerAmount, this.roundingMode);
+        }
+        
+        @Override
+        public String toString() {
+            return this.resolvedOutcome.toString() + " at " 
+                    + this.payoutRatio.toString();
+        }
+        
+        private Resolution(Wager.Outcome outcome, PayoutRatio ratio, 
+                RoundingMode mode) {
+            this.resolvedOutcome = outcome;
+            this.payoutRatio = ratio;
+            this.roundingMode = mode;
+        }
+        
+    }
+    
+}
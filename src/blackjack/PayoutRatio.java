@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package blackjack;
+
+import currency.CurrencyAmount;
+
+import java.math.RoundingMode;
+
+/**
+ * Represents a payout as a fraction of the wager, e.g., 3:2 for a natural 
+ * blackjack. Losses are represented by negative ratios, e.g., &minus;1:1 for a 
+ * bust, &minus;1:2 for a surrender. The ratio is applied to amounts in cents 
+ * (or whatever the minor unit of the currency is) using only integer 
+ * arithmetic, so the results are exact and reproducible, and any rounding is 
+ * done according to an explicit rounding mode.
+ * @author Alonso del Arte
+ */
+public final class PayoutRatio {
+    
+    /**
+     * The usual payout for a natural blackjack.
+     */
+    public static final PayoutRatio THREE_TO_TWO = new PayoutRatio(3, 2);
+    
+    /**
+     * The stingier payout for a natural blackjack that some casinos use.
+     */
+    public static final PayoutRatio SIX_TO_FIVE = new PayoutRatio(6, 5);
+    
+    /**
+     * Even money. This is the payout for most winning hands.
+     */
+    public static final PayoutRatio ONE_TO_ONE = new PayoutRatio(1, 1);
+    
+    /**
+     * The usual payout for a winning insurance bet.
+     */
+    public static final PayoutRatio TWO_TO_ONE = new PayoutRatio(2, 1);
+    
+    /**
+     * Neither win nor loss, as for a standoff.
+     */
+    public static final PayoutRatio PUSH = new PayoutRatio(0, 1);
+    
+    /**
+     * The loss of half the wager, as when the player surrenders.
+     */
+    public static final PayoutRatio SURRENDER_HALF = new PayoutRatio(-1, 2);
+    
+    /**
+     * The loss of the whole wager.
+     */
+    public static final PayoutRatio LOSS = new PayoutRatio(-1, 1);
+    
+    private final int ratioNumerator, ratioDenominator;
+    
+    /**
+     * Gives the numerator of this ratio, in lowest terms.
+     * @return The numerator. For example, 3 for 3:2, &minus;1 for &minus;1:2.
+     */
+    public int getNumerator() {
+        return this.ratioNumerator;
+    }
+    
+    /**
+     * Gives the denominator of this ratio, in lowest terms. This is always 
+     * positive.
+     * @return The denominator. For example, 2 for 3:2.
+     */
+    public int getDenominator() {
+        return this.ratioDenominator;
+    }
+    
+    /**
+     * Divides one number by another with the specified rounding. This avoids 
+     * going through {@code BigDecimal}.
+     * @param dividend The number to divide. For example, 15.
+     * @param divisor The number to divide by. Must be positive. For example, 2.
+     * @param mode How to round. For example, {@code RoundingMode.HALF_EVEN}.
+     * @return The rounded quotient. For example, 8.
+     * @throws ArithmeticException If {@code mode} is {@code 
+     * RoundingMode.UNNECESSARY} but the division is not exact.
+     */
+    static long divide(long dividend, long divisor, RoundingMode mode) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int signum = (dividend < 0) ? -1 : 1;
+        long twiceRemainder = 2 * Math.abs(remainder);
+        boolean awayFromZero = switch (mode) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> signum > 0;
+            case FLOOR -> signum < 0;
+            case HALF_UP -> twiceRemainder >= divisor;
+            case HALF_DOWN -> twiceRemainder > divisor;
+            case HALF_EVEN -> twiceRemainder > divisor 
+                    || (twiceRemainder == divisor && (quotient & 1) != 0);
+            case UNNECESSARY -> {
+                String excMsg = dividend + " divided by " + divisor 
+                        + " is not exact";
+                throw new ArithmeticException(excMsg);
+            }
+        };
+        return awayFromZero ? quotient + signum : quotient;
+    }
+    
+    /**
+     * Applies this ratio to an amount in cents. No objects are created.
+     * @param cents The amount in cents. For example, 2505 for $25.05.
+     * @param mode How to round if the result is not a whole number of cents. 
+     * For example, {@code RoundingMode.FLOOR}.
+     * @return The amount multiplied by this ratio. For example, 3757 for 3:2.
+     * @throws ArithmeticException If the multiplication overflows, or if 
+     * {@code mode} is {@code RoundingMode.UNNECESSARY} but rounding is 
+     * necessary.
+     */
+    public long applyTo(long cents, RoundingMode mode) {
+        long product = Math.multiplyExact(cents, this.ratioNumerator);
+        return divide(product, this.ratioDenominator, mode);
+    }
+    
+    /**
+     * Applies this ratio to a currency amount.
+     * @param amount The amount. For example, $25.05.
+     * @param mode How to round if the result is not a whole number of cents. 
+     * For example, {@code RoundingMode.FLOOR}.
+     * @return The amount multiplied by this ratio. For example, $37.57 for 
+     * 3:2.
+     * @throws ArithmeticException If the multiplication overflows, or if 
+     * {@code mode} is {@code RoundingMode.UNNECESSARY} but rounding is 
+     * necessary.
+     */
+    public CurrencyAmount applyTo(CurrencyAmount amount, RoundingMode mode) {
+        return new CurrencyAmount(this.applyTo(amount.getAmountInCents(), 
+                mode), amount.getCurrency());
+    }
+    
+    /**
+     * Gives a textual representation of this ratio.
+     * @return The numerator and the denominator separated by a colon. For 
+     * example, "6:5".
+     */
+    @Override
+    public String toString() {
+        return this.ratioNumerator + ":" + this.ratioDenominator;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PayoutRatio)) {
+            return false;
+        }
+        PayoutRatio other = (PayoutRatio) obj;
+        return this.ratioNumerator == other.ratioNumerator 
+                && this.ratioDenominator == other.ratioDenominator;
+    }
+    
+    @Override
+    public int hashCode() {
+        return (this.ratioNumerator << 16) + this.ratioDenominator;
+    }
+    
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int r = a % b;
+            a = b;
+            b = r;
+        }
+        return Math.abs(a);
+    }
+    
+    /**
+     * Sole constructor. The ratio is reduced to lowest terms.
+     * @param numerator The numerator. May be negative for a loss. For example, 
+     * 12.
+     * @param denominator The denominator. Must be positive. For example, 10. 
+     * In the example, the ratio is stored as 6:5.
+     * @throws IllegalArgumentException If {@code denominator} is 0 or 
+     * negative.
+     */
+    public PayoutRatio(int numerator, int denominator) {
+        if (denominator < 1) {
+            String excMsg = "Denominator " + denominator 
+                    + " should be positive";
+            throw new IllegalArgumentException(excMsg);
+        }
+        int divisor = (numerator == 0) ? denominator 
+                : gcd(numerator, denominator);
+        this.ratioNumerator = numerator / divisor;
+        this.ratioDenominator = denominator / divisor;
+    }
+    
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package blackjack;
+
+import currency.CurrencyAmount;
+
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A house's payout schedule. Gives the {@link PayoutRatio} for each {@link 
+ * Wager.Outcome}, as well as the pay tables of any side bets the house offers, 
+ * and the rounding mode to use when a payout is not a whole number of cents. 
+ * Instances are immutable.
+ * @author Alonso del Arte
+ */
+public final class PayoutSchedule {
+    
+    /**
+     * The rounding mode used unless specified otherwise. Fractions of a cent 
+     * are resolved in favor of the house.
+     */
+    public static final RoundingMode DEFAULT_ROUNDING = RoundingMode.FLOOR;
+    
+    private static final Wager.Outcome[] OUTCOMES = Wager.Outcome.values();
+    
+    /**
+     * The standard payout schedule: natural blackjack pays 3:2, insurance 
+     * pays 2:1, surrender loses half the wager. No side bets.
+     */
+    public static final PayoutSchedule STANDARD 
+            = new PayoutSchedule(PayoutRatio.THREE_TO_TWO, DEFAULT_ROUNDING);
+    
+    private final PayoutRatio[] ratios = new PayoutRatio[OUTCOMES.length];
+    
+    private final Map<String, Map<String, PayoutRatio>> sideBets 
+            = new HashMap<>();
+    
+    private final RoundingMode roundingMode;
+    
+    /**
+     * Gives the rounding mode of this schedule.
+     * @return The rounding mode. For example, {@code RoundingMode.FLOOR}.
+     */
+    public RoundingMode getRoundingMode() {
+        return this.roundingMode;
+    }
+    
+    /**
+     * Gives the payout ratio for an outcome.
+     * @param outcome The outcome. For example, {@link 
+     * Wager.Outcome#NATURAL_BLACKJACK}.
+     * @return The ratio. For example, 3:2.
+     */
+    public PayoutRatio getRatio(Wager.Outcome outcome) {
+        return this.ratios[outcome.ordinal()];
+    }
+    
+    /**
+     * Works out the settlement amount for a wager. No objects are created.
+     * @param wagerCents The wager amount in cents. For example, 1000.
+     * @param outcome The outcome. For example, {@link 
+     * Wager.Outcome#NATURAL_BLACKJACK}.
+     * @return The settlement amount in cents. For example, 1500.
+     * @throws ArithmeticException If the calculation overflows.
+     */
+    public long settle(long wagerCents, Wager.Outcome outcome) {
+        return this.ratios[outcome.ordinal()].applyTo(wagerCents, 
+                this.roundingMode);
+    }
+    
+    /**
+     * Works out the settlement amount for a wager.
+     * @param wagerAmount The wager amount. For example, $10.00.
+     * @param outcome The outcome. For example, {@link Wager.Outcome#BUST}.
+     * @return The settlement amount. For example, &minus;$10.00.
+     * @throws ArithmeticException If the calculation overflows.
+     */
+    public CurrencyAmount settle(CurrencyAmount wagerAmount, 
+            Wager.Outcome outcome) {
+        return new CurrencyAmount(this.settle(wagerAmount.getAmountInCents(), 
+                outcome), wagerAmount.getCurrency());
+    }
+    
+    /**
+     * Gives the payout ratio for a result of a side bet.
+     * @param betName The name of the side bet. For example, "Perfect Pairs".
+     * @param result The result. For example, "Colored pair".
+     * @return The ratio. For example, 12:1. If the side bet has no entry for 
+     * the result, the wager is lost, so this would be &minus;1:1.
+     * @throws NoSuchElementException If this schedule has no side bet by that 
+     * name.
+     */
+    public PayoutRatio getSideBetRatio(String betName, String result) {
+        Map<String, PayoutRatio> table = this.sideBets.get(betName);
+        if (table == null) {
+            String excMsg = "No side bet \"" + betName + "\" in this schedule";
+            throw new NoSuchElementException(excMsg);
+        }
+        return table.getOrDefault(result, PayoutRatio.LOSS);
+    }
+    
+    /**
+     * Works out the settlement amount for a side bet. No objects are created.
+     * @param wagerCents The side bet amount in cents. For example, 500.
+     * @param betName The name of the side bet. For example, "Perfect Pairs".
+     * @param result The result. For example, "Colored pair".
+     * @return The settlement amount in cents. For example, 6000.
+     * @throws NoSuchElementException If this schedule has no side bet by that 
+     * name.
+     */
+    public long settleSideBet(long wagerCents, String betName, String result) {
+        return this.getSideBetRatio(betName, result).applyTo(wagerCents, 
+                this.roundingMode);
+    }
+    
+    /**
+     * Precomputes settlement amounts for wagers that are multiples of a unit, 
+     * up to a certain number of units. This is for tables where wagers are 
+     * always made in whole chips.
+     * @param unitCents The unit in cents. For example, 500 for $5 chips.
+     * @param count How many multiples of the unit to precompute. For example, 
+     * 100, for wagers from $5 to $500.
+     * @return The precomputed buckets.
+     * @throws IllegalArgumentException If {@code unitCents} or {@code count} 
+     * is 0 or negative.
+     */
+    public Buckets precompute(long unitCents, int count) {
+        return new Buckets(this, unitCents, count);
+    }
+    
+    /**
+     * Auxiliary constructor. Only the natural blackjack payout can be changed 
+     * from the standard. No side bets.
+     * @param naturalPayout The payout for a natural blackjack. For example, 
+     * 6:5.
+     * @param rounding How to round payouts that are not a whole number of 
+     * cents. For example, {@code RoundingMode.FLOOR}.
+     */
+    public PayoutSchedule(PayoutRatio naturalPayout, RoundingMode rounding) {
+        this(Map.of(Wager.Outcome.NATURAL_BLACKJACK, naturalPayout), Map.of(), 
+                rounding);
+    }
+    
+    /**
+     * Primary constructor.
+     * @param payouts The payout ratios for the outcomes. Outcomes not in this 
+     * map get the standard ratio given by {@link 
+     * Wager.Outcome#standardPayout}. May be empty.
+     * @param sideBetTables The pay tables for side bets, keyed by the name of 
+     * the side bet and then by the result. May be empty. For example, a table 
+     * for "Perfect Pairs" with 6:1 for "Mixed pair", 12:1 for "Colored pair" 
+     * and 25:1 for "Perfect pair".
+     * @param rounding How to round payouts that are not a whole number of 
+     * cents. For example, {@code RoundingMode.FLOOR}.
+     * @throws NullPointerException If any parameter is null.
+     */
+    public PayoutSchedule(Map<Wager.Outcome, PayoutRatio> payouts, 
+            Map<String, Map<String, PayoutRatio>> sideBetTables, 
+            RoundingMode rounding) {
+        if (payouts == null || sideBetTables == null || rounding == null) {
+            String excMsg = "Payouts, side bets and rounding must not be null";
+            throw new NullPointerException(excMsg);
+        }
+        for (Wager.Outcome outcome : OUTCOMES) {
+            this.ratios[outcome.ordinal()] = payouts.getOrDefault(outcome, 
+                    outcome.standardPayout);
+        }
+        for (Map.Entry<String, Map<String, PayoutRatio>> entry 
+                : sideBetTables.entrySet()) {
+            this.sideBets.put(entry.getKey(), Map.copyOf(entry.getValue()));
+        }
+        this.roundingMode = rounding;
+    }
+    
+    /**
+     * Settlement amounts precomputed for wagers in whole multiples of a unit. 
+     * Wagers that are not multiples of the unit, or that are larger than the 
+     * largest bucket, are worked out as needed by the schedule.
+     */
+    public static final class Buckets {
+        
+        private final PayoutSchedule schedule;
+        
+        private final long unit;
+        
+        private final int bucketCount;
+        
+        private final long[] amounts;
+        
+        /**
+         * Gives the settlement amount for a wager.
+         * @param wagerCents The wager amount in cents. For example, 2500.
+         * @param outcome The outcome. For example, {@link 
+         * Wager.Outcome#NATURAL_BLACKJACK}.
+         * @return The settlement amount in cents. For example, 3750 if the 
+         * schedule pays natural blackjack at 3:2.
+         */
+        public long settle(long wagerCents, Wager.Outcome outcome) {
+            if (wagerCents > 0 && wagerCents % this.unit == 0) {
+                long multiple = wagerCents / this.unit;
+                if (multiple <= this.bucketCount) {
+                    int index = (int) (multiple - 1) * OUTCOMES.length 
+                            + outcome.ordinal();
+                    return this.amounts[index];
+                }
+            }
+            return this.schedule.settle(wagerCents, outcome);
+        }
+        
+        private Buckets(PayoutSchedule payoutSchedule, long unitCents, 
+                int count) {
+            if (unitCents < 1 || count < 1) {
+                String excMsg = "Unit " + unitCents + " and count " + count 
+                        + " should both be positive";
+                throw new IllegalArgumentException(excMsg);
+            }
+            this.schedule = payoutSchedule;
+            this.unit = unitCents;
+            this.bucketCount = count;
+            this.amounts = new long[count * OUTCOMES.length];
+            for (int i = 0; i < count; i++) {
+                long wagerCents = Math.multiplyExact(unitCents, i + 1);
+                for (Wager.Outcome outcome : OUTCOMES) {
+                    this.amounts[i * OUTCOMES.length + outcome.ordinal()] 
+                            = payoutSchedule.settle(wagerCents, outcome);
+                }
+            }
+        }
+        
+    }
+    
+}
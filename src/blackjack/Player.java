@@ -16,9 +16,12 @@
  */
 package blackjack;
 
+import currency.CurrencyAccumulator;
 import currency.CurrencyAmount;
+import currency.CurrencyConversionNeededException;
 
 import java.util.ArrayList;
+import java.util.Currency;
 import java.util.List;
 
 /**
@@ -31,8 +34,7 @@ public class Player {
     
     private final ArrayList<Hand> hands = new ArrayList<>();
     
-    private CurrencyAmount bankroll = new CurrencyAmount(Long.MIN_VALUE, 
-            java.util.Currency.getInstance("LYD"));
+    private final CurrencyAccumulator bankroll;
     
     public String getName() {
         return this.playerName;
@@ -74,7 +76,32 @@ public class Player {
      * @return The amount of the bankroll.
      */
     public CurrencyAmount getBalance() {
-        return this.bankroll;
+        return this.bankroll.toCurrencyAmount();
+    }
+    
+    /**
+     * Tells the currency of the player's bankroll. Unlike {@link 
+     * #getBalance()}, this does not create any objects.
+     * @return The currency. For example, euros.
+     */
+    Currency getCurrency() {
+        return this.bankroll.getCurrency();
+    }
+    
+    /**
+     * Adds the player's bankroll to a running total. This does not create any 
+     * objects.
+     * @param total The running total. For example, $3,000.00.
+     * @throws CurrencyConversionNeededException If the running total is of 
+     * a different currency than the player's bankroll.
+     */
+    void addBalanceTo(CurrencyAccumulator total) {
+        if (total.getCurrency() != this.bankroll.getCurrency()) {
+            String excMsg = "Convert before adding";
+            throw new CurrencyConversionNeededException(excMsg, 
+                    total.toCurrencyAmount(), this.getBalance());
+        }
+        total.add(this.bankroll.getAmountInCents());
     }
     
     void add(Hand hand) {
@@ -97,20 +124,42 @@ public class Player {
                     + " to bankroll, should not be negative";
             throw new IllegalArgumentException(excMsg);
         }
-        this.bankroll = this.bankroll.plus(amount);
+        this.bankroll.add(amount);
     }
     
     /**
-     * Sole constructor.
+     * Applies the settlement of a wager to the player's bankroll. Unlike 
+     * {@link #add(CurrencyAmount)}, this does not create any objects, so it is 
+     * suitable for simulations that settle a great many wagers.
+     * @param settlementCents The settlement amount in cents of the bankroll's 
+     * currency, as given by {@link PayoutSchedule#settle(long, Wager.Outcome)}. 
+     * For example, 1500 for a $10.00 wager on a natural blackjack, or 
+     * &minus;1000 for the same wager on a hand that went bust.
+     * @throws ArithmeticException If the bankroll would overflow.
+     */
+    void settle(long settlementCents) {
+        this.bankroll.add(settlementCents);
+    }
+    
+    /**
+     * Puts a player back as recorded in a table snapshot. This is meant only 
+     * for {@link TableSnapshot}. Unlike the constructor, this takes whatever 
+     * bankroll was saved, since a player may have lost it all by the time the 
+     * snapshot was taken.
      * @param name The player's name. For example, "Marla". Must not be null. 
      * Must not be empty.
-     * @param initialBankroll How much money the player has in chips ready to 
-     * wager.
-     * @throws IllegalArgumentException If {@code name} is "" or if the initial 
-     * bankroll is 0 or negative.
-     * @throws NullPointerException  If {@code name} is null.
+     * @param bankroll The player's bankroll when the snapshot was taken. For 
+     * example, $1,234.50. May be 0 or negative.
+     * @return The player, with no hands.
+     * @throws IllegalArgumentException If {@code name} is "".
+     * @throws NullPointerException If {@code name} or {@code bankroll} is 
+     * null.
      */
-    public Player(String name, CurrencyAmount initialBankroll) {
+    static Player restore(String name, CurrencyAmount bankroll) {
+        return new Player(name, new CurrencyAccumulator(bankroll));
+    }
+    
+    private static void checkName(String name) {
         if (name == null) {
             String excMsg = "Player name must not be null";
             throw new NullPointerException(excMsg);
@@ -119,13 +168,33 @@ public class Player {
             String excMsg = "Player name must not be empty";
             throw new IllegalArgumentException(excMsg);
         }
+    }
+    
+    private Player(String name, CurrencyAccumulator bankroll) {
+        checkName(name);
+        this.playerName = name;
+        this.bankroll = bankroll;
+    }
+    
+    /**
+     * Primary constructor.
+     * @param name The player's name. For example, "Marla". Must not be null. 
+     * Must not be empty.
+     * @param initialBankroll How much money the player has in chips ready to 
+     * wager.
+     * @throws IllegalArgumentException If {@code name} is "" or if the initial 
+     * bankroll is 0 or negative.
+     * @throws NullPointerException  If {@code name} is null.
+     */
+    public Player(String name, CurrencyAmount initialBankroll) {
+        checkName(name);
         if (initialBankroll.isNotPositive()) {
             String excMsg = "Initial bankroll should be positive, not " 
                     + initialBankroll.toString();
             throw new IllegalArgumentException(excMsg);
         }
         this.playerName = name;
-        this.bankroll = initialBankroll;
+        this.bankroll = new CurrencyAccumulator(initialBankroll);
     }
     
 }
@@ -0,0 +1,460 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package blackjack;
+
+import currency.CurrencyAmount;
+import playingcards.CardSupplier;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Replays rounds of blackjack from a recorded shoe and the decisions the 
+ * players made, so that the settlements can be checked against a {@link 
+ * SettlementJournal}. The shoe should give out the same cards in the same 
+ * order as it did at the table, e.g., a {@link 
+ * playingcards.MultiDeckCardDispenser} restored from a {@link TableSnapshot} 
+ * or recreated from its seed.
+ * <p>Cards are dealt the same way as in {@link 
+ * BlackJack#playGameAtCommandLine()}: a first card to each hand, the dealer's 
+ * face-up card, a second card to each hand and the dealer's face-down card. 
+ * Then the decisions for each hand are applied in turn, and the dealer draws 
+ * until reaching 17 or more, unless every hand is a natural blackjack. 
+ * Splitting and insurance are not supported yet, same as in the game.</p>
+ * <p>Nothing is printed and no wagers are actually settled, so a whole shift 
+ * of a table can be replayed in a matter of seconds.</p>
+ * @author Alonso del Arte
+ */
+public final class RoundReplayer {
+    
+    private static final Wager DEALERS_WAGER = new Wager(new CurrencyAmount(1, 
+            Currency.getInstance(Locale.US)));
+    
+    private static final int DEALER_STANDS_ON = 17;
+    
+    private final CardSupplier shoe;
+    
+    private final OutcomeResolver resolver;
+    
+    private final PayoutSchedule schedule;
+    
+    private Hand[] playerHands = new Hand[8];
+    
+    private Wager.Outcome[] outcomes = new Wager.Outcome[8];
+    
+    private long[] settlements = new long[8];
+    
+    private long[] wagerCents = new long[8];
+    
+    private int handCount = 0;
+    
+    private Hand dealerHand = null;
+    
+    private void ensureCapacity(int count) {
+        if (count > this.playerHands.length) {
+            int capacity = Math.max(count, this.playerHands.length * 2);
+            this.playerHands = Arrays.copyOf(this.playerHands, capacity);
+            this.outcomes = Arrays.copyOf(this.outcomes, capacity);
+            this.settlements = Arrays.copyOf(this.settlements, capacity);
+            this.wagerCents = Arrays.copyOf(this.wagerCents, capacity);
+        }
+    }
+    
+    private static void checkDecisions(Decision[] decisions) {
+        for (int i = 0; i < decisions.length; i++) {
+            Decision decision = decisions[i];
+            switch (decision) {
+                case HIT:
+                    break;
+                case STAND:
+                case DOUBLE_DOWN:
+                case SURRENDER:
+                    if (i < decisions.length - 1) {
+                        String excMsg = "Decision " + decisions[i + 1] 
+                                + " can't come after " + decision;
+                        throw new IllegalArgumentException(excMsg);
+                    }
+                    break;
+                default:
+                    String excMsg = "Replaying " + decision 
+                            + " is not supported yet";
+                    throw new IllegalArgumentException(excMsg);
+            }
+        }
+    }
+    
+    /**
+     * Replays one round. The results are available from {@link 
+     * #getOutcome(int)} and {@link #getSettlementInCents(int)} until the next 
+     * round is replayed.
+     * @param wagers The wager for each hand, in the order the hands were 
+     * dealt. For example, $10.00 and $25.00 for two hands. Must have at least 
+     * one wager.
+     * @param decisions The decisions for each hand, in the order they were 
+     * made. For example, {HIT, STAND} for the first hand and {DOUBLE_DOWN} for 
+     * the second. Must have as many arrays as there are wagers, though any of 
+     * those arrays may be empty, as for a natural blackjack.
+     * @return The number of hands replayed. For example, 2.
+     * @throws IllegalArgumentException If there are no wagers, if there aren't 
+     * as many arrays of decisions as there are wagers, if there is any 
+     * decision after a stand, double down or surrender, or if there is a 
+     * split or an insurance decision.
+     * @throws IllegalStateException If a decision calls for hitting a hand 
+     * that already has 21 or has gone bust.
+     * @throws playingcards.RanOutOfCardsException If the shoe runs out of 
+     * cards.
+     */
+    public int replay(CurrencyAmount[] wagers, Decision[][] decisions) {
+        if (wagers.length == 0 || wagers.length != decisions.length) {
+            String excMsg = "Need decisions for each of " + wagers.length 
+                    + " wagers, got " + decisions.length;
+            throw new IllegalArgumentException(excMsg);
+        }
+        for (Decision[] handDecisions : decisions) {
+            checkDecisions(handDecisions);
+        }
+        int count = wagers.length;
+        this.ensureCapacity(count);
+        this.handCount = 0;
+        Hand dealer = new Hand(DEALERS_WAGER);
+        for (int i = 0; i < count; i++) {
+            this.playerHands[i] = new Hand(new Wager(wagers[i]));
+            this.playerHands[i].add(this.shoe.getNextCard());
+        }
+        dealer.add(this.shoe.getNextCard());
+        for (int i = 0; i < count; i++) {
+            this.playerHands[i].add(this.shoe.getNextCard());
+        }
+        dealer.add(this.shoe.getNextCard());
+        boolean allNatural = true;
+        for (int i = 0; i < count; i++) {
+            Hand hand = this.playerHands[i];
+            this.wagerCents[i] = wagers[i].getAmountInCents();
+            this.outcomes[i] = null;
+            for (Decision decision : decisions[i]) {
+                switch (decision) {
+                    case HIT:
+                        hand.add(this.shoe.getNextCard());
+                        break;
+                    case DOUBLE_DOWN:
+                        this.wagerCents[i] *= 2;
+                        hand.add(this.shoe.getNextCard());
+                        break;
+                    case SURRENDER:
+                        this.outcomes[i] = Wager.Outcome.SURRENDER;
+                        break;
+                    default:
+                        break;
+                }
+            }
+            allNatural &= hand.isNatural();
+        }
+        if (!allNatural) {
+            while (dealer.cardsValue() < DEALER_STANDS_ON) {
+                dealer.add(this.shoe.getNextCard());
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (this.outcomes[i] == null) {
+                this.outcomes[i] = this.resolver.resolve(this.playerHands[i], 
+                        dealer).getOutcome();
+            }
+            this.settlements[i] = this.schedule.settle(this.wagerCents[i], 
+                    this.outcomes[i]);
+        }
+        this.dealerHand = dealer;
+        this.handCount = count;
+        return count;
+    }
+    
+    private void checkHandIndex(int hand) {
+        if (hand < 0 || hand >= this.handCount) {
+            String excMsg = "Hand " + hand + " is not valid, last round had " 
+                    + this.handCount + " hands";
+            throw new IndexOutOfBoundsException(excMsg);
+        }
+    }
+    
+    /**
+     * Gives a hand of the round last replayed.
+     * @param hand The index of the hand, starting from 0 for the first hand 
+     * dealt. For example, 1.
+     * @return The hand, with all the cards dealt to it. For example, 8&#9829;, 
+     * 3&#9824;, 10&#9830;.
+     * @throws IndexOutOfBoundsException If <code>hand</code> is negative or 
+     * not less than the number of hands in the round last replayed.
+     */
+    public Hand getPlayerHand(int hand) {
+        this.checkHandIndex(hand);
+        return this.playerHands[hand];
+    }
+    
+    /**
+     * Gives the dealer's hand of the round last replayed.
+     * @return The dealer's hand. For example, K&#9827;, 7&#9829;. Null if no 
+     * round has been replayed yet.
+     */
+    public Hand getDealerHand() {
+        return this.dealerHand;
+    }
+    
+    /**
+     * Gives the outcome of a hand of the round last replayed.
+     * @param hand The index of the hand, starting from 0 for the first hand 
+     * dealt. For example, 1.
+     * @return The outcome. For example, {@link Wager.Outcome#BETTER_SCORE}.
+     * @throws IndexOutOfBoundsException If <code>hand</code> is negative or 
+     * not less than the number of hands in the round last replayed.
+     */
+    public Wager.Outcome getOutcome(int hand) {
+        this.checkHandIndex(hand);
+        return this.outcomes[hand];
+    }
+    
+    /**
+     * Gives the settlement amount of a hand of the round last replayed, as it 
+     * would have been given to {@link Dealer#settle(Player, int, 
+     * Wager.Outcome, long) Dealer.settle()}.
+     * @param hand The index of the hand, starting from 0 for the first hand 
+     * dealt. For example, 1.
+     * @return The settlement amount in cents. For example, 2000 for a doubled 
+     * down wager of $10.00 that won with a better score.
+     * @throws IndexOutOfBoundsException If <code>hand</code> is negative or 
+     * not less than the number of hands in the round last replayed.
+     */
+    public long getSettlementInCents(int hand) {
+        this.checkHandIndex(hand);
+        return this.settlements[hand];
+    }
+    
+    private static boolean nextForTable(SettlementJournal.Reader journal, 
+            int table) throws IOException {
+        while (journal.next()) {
+            if (journal.getTable() == table) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static int compare(long round, int hand, long otherRound, 
+            int otherHand) {
+        int comparison = Long.compare(round, otherRound);
+        return (comparison == 0) ? Integer.compare(hand, otherHand) 
+                : comparison;
+    }
+    
+    /**
+     * Replays all the rounds of a table recorded in a hand history and checks 
+     * the settlements against a settlement journal. The wagers and decisions 
+     * are taken from the hand history; the cards recorded there are not used, 
+     * as they are dealt again from this replayer's shoe. The hand history and 
+     * the journal may have records for other tables, which are skipped. The 
+     * records for the given table are expected to be in the order the hands 
+     * were played, which is how {@link Dealer} writes them. Settlements are 
+     * compared by outcome and amount in cents, not by currency.
+     * @param table The table number. For example, 3.
+     * @param history The hand history of the table, positioned before the 
+     * first record to replay.
+     * @param journal The settlement journal, positioned before the first 
+     * record to compare.
+     * @return A list of the discrepancies found, in order of round and hand. 
+     * Empty if every replayed settlement matches the journal.
+     * @throws IOException If either the hand history or the journal can't be 
+     * read.
+     */
+    public List<Discrepancy> audit(int table, HandHistory.Reader history, 
+            SettlementJournal.Reader journal) throws IOException {
+        List<Discrepancy> discrepancies = new ArrayList<>();
+        List<CurrencyAmount> wagers = new ArrayList<>();
+        List<Decision[]> decisions = new ArrayList<>();
+        List<Integer> hands = new ArrayList<>();
+        boolean journalHasNext = nextForTable(journal, table);
+        boolean historyHasNext = history.next();
+        while (historyHasNext) {
+            if (history.getTable() != table) {
+                historyHasNext = history.next();
+                continue;
+            }
+            long round = history.getRound();
+            wagers.clear();
+            decisions.clear();
+            hands.clear();
+            while (historyHasNext && (history.getTable() != table 
+                    || history.getRound() == round)) {
+                if (history.getTable() == table) {
+                    wagers.add(new CurrencyAmount(history.getWagerInCents(), 
+                            history.getCurrency()));
+                    Decision[] handDecisions 
+                            = new Decision[history.getDecisionCount()];
+                    for (int i = 0; i < handDecisions.length; i++) {
+                        handDecisions[i] = history.getDecision(i);
+                    }
+                    decisions.add(handDecisions);
+                    hands.add(history.getHand());
+                }
+                historyHasNext = history.next();
+            }
+            this.replay(wagers.toArray(new CurrencyAmount[0]), 
+                    decisions.toArray(new Decision[0][]));
+            for (int i = 0; i < this.handCount; i++) {
+                int hand = hands.get(i);
+                while (journalHasNext && compare(journal.getRound(), 
+                        journal.getHand(), round, hand) < 0) {
+                    discrepancies.add(new Discrepancy(journal.getRound(), 
+                            journal.getHand(), null, 0L, 
+                            journal.getOutcome(), 
+                            journal.getAmountInCents()));
+                    journalHasNext = nextForTable(journal, table);
+                }
+                if (journalHasNext && compare(journal.getRound(), 
+                        journal.getHand(), round, hand) == 0) {
+                    if (journal.getOutcome() != this.outcomes[i] 
+                            || journal.getAmountInCents() 
+                            != this.settlements[i]) {
+                        discrepancies.add(new Discrepancy(round, hand, 
+                                this.outcomes[i], this.settlements[i], 
+                                journal.getOutcome(), 
+                                journal.getAmountInCents()));
+                    }
+                    journalHasNext = nextForTable(journal, table);
+                } else {
+                    discrepancies.add(new Discrepancy(round, hand, 
+                            this.outcomes[i], this.settlements[i], null, 0L));
+                }
+            }
+        }
+        while (journalHasNext) {
+            discrepancies.add(new Discrepancy(journal.getRound(), 
+                    journal.getHand(), null, 0L, journal.getOutcome(), 
+                    journal.getAmountInCents()));
+            journalHasNext = nextForTable(journal, table);
+        }
+        return discrepancies;
+    }
+    
+    /**
+     * Sole constructor.
+     * @param shoe The shoe to deal from. It should be in the same state as the 
+     * shoe at the table was before the first round to replay.
+     * @param resolver The resolver for the house rules of the table. For 
+     * example, a resolver that pays natural blackjack at 3:2 and doesn't push 
+     * on a dealer's 22.
+     */
+    public RoundReplayer(CardSupplier shoe, OutcomeResolver resolver) {
+        this.shoe = shoe;
+        this.resolver = resolver;
+        this.schedule = resolver.getPayoutSchedule();
+    }
+    
+    /**
+     * A difference between a replayed settlement and the settlement journal. 
+     * Either side may be missing, in which case its outcome is null.
+     */
+    public static final class Discrepancy {
+        
+        private final long roundNumber;
+        
+        private final int handIndex;
+        
+        private final Wager.Outcome replayedOutcome;
+        
+        private final long replayedCents;
+        
+        private final Wager.Outcome journalOutcome;
+        
+        private final long journalCents;
+        
+        /**
+         * Gives the round number.
+         * @return The round number. For example, 1024.
+         */
+        public long getRound() {
+            return this.roundNumber;
+        }
+        
+        /**
+         * Gives the hand index within the round.
+         * @return The hand index. For example, 0.
+         */
+        public int getHand() {
+            return this.handIndex;
+        }
+        
+        /**
+         * Gives the outcome of the replayed hand.
+         * @return The outcome. For example, {@link Wager.Outcome#BUST}. Null 
+         * if the journal has a settlement for a hand that's not in the hand 
+         * history.
+         */
+        public Wager.Outcome getReplayedOutcome() {
+            return this.replayedOutcome;
+        }
+        
+        /**
+         * Gives the settlement amount of the replayed hand.
+         * @return The amount in cents. For example, &minus;1000. 0 if the 
+         * journal has a settlement for a hand that's not in the hand history.
+         */
+        public long getReplayedSettlementInCents() {
+            return this.replayedCents;
+        }
+        
+        /**
+         * Gives the outcome recorded in the journal.
+         * @return The outcome. For example, {@link Wager.Outcome#STANDOFF}. 
+         * Null if the journal has no settlement for the replayed hand.
+         */
+        public Wager.Outcome getJournalOutcome() {
+            return this.journalOutcome;
+        }
+        
+        /**
+         * Gives the settlement amount recorded in the journal.
+         * @return The amount in cents. For example, 0. Also 0 if the journal 
+         * has no settlement for the replayed hand.
+         */
+        public long getJournalSettlementInCents() {
+            return this.journalCents;
+        }
+        
+        @Override
+        public String toString() {
+            return "Round " + this.roundNumber + ", hand " + this.handIndex 
+                    + ": replayed " + this.replayedOutcome + " " 
+                    + this.replayedCents + ", journal " + this.journalOutcome 
+                    + " " + this.journalCents;
+        }
+        
+        private Discrepancy(long round, int hand, Wager.Outcome replayed, 
+                long replayedAmount, Wager.Outcome recorded, 
+                long recordedAmount) {
+            this.roundNumber = round;
+            this.handIndex = hand;
+            this.replayedOutcome = replayed;
+            this.replayedCents = replayedAmount;
+            this.journalOutcome = recorded;
+            this.journalCents = recordedAmount;
+        }
+        
+    }
+    
+}
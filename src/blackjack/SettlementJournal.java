@@ -0,0 +1,536 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package blackjack;
+
+import currency.CurrencyAmount;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An append-only journal of wager settlements, backed by a memory-mapped file. 
+ * Each settlement is written as a fixed-width record of {@value #RECORD_SIZE} 
+ * bytes, so appending a record is just a few writes to memory. Forcing the 
+ * records to disk is done on a separate thread, every so many records and 
+ * every so many milliseconds, so the dealing thread doesn't have to wait for 
+ * the disk.
+ * <p>The file starts with a header the size of one record. Each record has the 
+ * table number (4 bytes), the round number (8 bytes), the hand index (2 
+ * bytes), the ordinal of the {@link Wager.Outcome} (1 byte), the number of 
+ * fraction digits of the currency (1 byte), the settlement amount in minor 
+ * units (8 bytes), the ISO 4217 currency code (3 bytes), 1 byte of padding and 
+ * a record marker (4 bytes), all big-endian. The marker is written last, so 
+ * that a reader can tell where the records end even if the journal was not 
+ * closed properly.</p>
+ * @author Alonso del Arte
+ */
+public final class SettlementJournal implements Closeable {
+    
+    /**
+     * How many bytes each record takes up.
+     */
+    public static final int RECORD_SIZE = 32;
+    
+    static final long FILE_MAGIC = 0x424A4A524E4C3031L;
+    
+    static final int RECORD_MARKER = 0x53455454;
+    
+    static final int DEFAULT_RECORDS_PER_REGION = 1 << 18;
+    
+    static final int DEFAULT_FORCE_EVERY = 4096;
+    
+    static final long DEFAULT_FORCE_INTERVAL_MILLIS = 100L;
+    
+    private static final Wager.Outcome[] OUTCOMES = Wager.Outcome.values();
+    
+    private final FileChannel channel;
+    
+    private final long regionSize;
+    
+    private final int forceEvery;
+    
+    private final ScheduledExecutorService flusher;
+    
+    private final List<MappedByteBuffer> unforcedRegions = new ArrayList<>();
+    
+    private final Map<Integer, long[]> lastRounds = new HashMap<>();
+    
+    private final Runnable forcer = this::forceQuietly;
+    
+    private final AtomicReference<IOException> forceProblem 
+            = new AtomicReference<>();
+
+    private MappedByteBuffer region;
+    
+    private long regionStart;
+    
+    private long position;
+    
+    private long recordCount;
+    
+    private int sinceLastForce = 0;
+    
+    private boolean closed = false;
+    
+    /**
+     * Tells how many records are in the journal, including any that were 
+     * already in the file when it was opened.
+     * @return The number of records. For example, 1000.
+     */
+    public synchronized long getRecordCount() {
+        return this.recordCount;
+    }
+    
+    /**
+     * Tells the highest round number recorded for a table, including records 
+     * that were already in the file when it was opened. A dealer that starts 
+     * recording in a journal that already has records for its table should 
+     * number its rounds from there, so that round numbers are not repeated.
+     * @param table The table number. For example, 3.
+     * @return The highest round number recorded for the table. For example, 
+     * 1024. If there are no records for the table, this is 0.
+     */
+    public synchronized long getLastRound(int table) {
+        long[] last = this.lastRounds.get(table);
+        return (last == null) ? 0L : last[0];
+    }
+    
+    private void noteRound(int table, long round) {
+        long[] last = this.lastRounds.get(table);
+        if (last == null) {
+            last = new long[1];
+            this.lastRounds.put(table, last);
+        }
+        if (round > last[0]) {
+            last[0] = round;
+        }
+    }
+    
+    private void mapRegion(long start) throws IOException {
+        if (this.region != null) {
+            this.unforcedRegions.add(this.region);
+        }
+        this.region = this.channel.map(FileChannel.MapMode.READ_WRITE, start, 
+                this.regionSize);
+        this.regionStart = start;
+    }
+    
+    /**
+     * Appends a settlement to the journal. Most of the time this only writes 
+     * to the mapped region of the file. Objects are created when a new region 
+     * of the file needs to be mapped, when this is the first record for the 
+     * table, when the table number is outside the range of the cached 
+     * <code>Integer</code> instances, &minus;128 to 127, and every so many 
+     * records when the records are to be forced to disk.
+     * @param table The table number. For example, 3.
+     * @param round The round number. For example, 1024.
+     * @param hand The index of the hand. For example, 0 for a player's first 
+     * hand, 1 for the hand split off from it.
+     * @param outcome The outcome. For example, {@link 
+     * Wager.Outcome#NATURAL_BLACKJACK}.
+     * @param amountCents The settlement amount in minor units. For example, 
+     * 1500.
+     * @param currency The currency of the settlement. For example, U.S. 
+     * dollars.
+     * @throws IllegalStateException If the journal has been closed.
+     * @throws IOException If a new region of the file can't be mapped, or if 
+     * forcing records to disk in the background has failed since the last 
+     * time such a failure was reported.
+     */
+    public synchronized void append(int table, long round, int hand, 
+            Wager.Outcome outcome, long amountCents, Currency currency) 
+            throws IOException {
+        if (this.closed) {
+            String excMsg = "Journal has been closed";
+            throw new IllegalStateException(excMsg);
+        }
+        this.reportForceProblem();
+        if (this.position - this.regionStart == this.regionSize) {
+            this.mapRegion(this.position);
+        }
+        int offset = (int) (this.position - this.regionStart);
+        MappedByteBuffer buffer = this.region;
+        buffer.putInt(offset, table);
+        buffer.putLong(offset + 4, round);
+        buffer.putShort(offset + 12, (short) hand);
+        buffer.put(offset + 14, (byte) outcome.ordinal());
+        buffer.put(offset + 15, (byte) currency.getDefaultFractionDigits());
+        buffer.putLong(offset + 16, amountCents);
+        String code = currency.getCurrencyCode();
+        buffer.put(offset + 24, (byte) code.charAt(0));
+        buffer.put(offset + 25, (byte) code.charAt(1));
+        buffer.put(offset + 26, (byte) code.charAt(2));
+        buffer.putInt(offset + 28, RECORD_MARKER);
+        this.position += RECORD_SIZE;
+        this.recordCount++;
+        this.noteRound(table, round);
+        if (++this.sinceLastForce >= this.forceEvery) {
+            this.sinceLastForce = 0;
+            this.flusher.execute(this.forcer);
+        }
+    }
+    
+    private void reportForceProblem() throws IOException {
+        IOException problem = this.forceProblem.getAndSet(null);
+        if (problem != null) {
+            throw problem;
+        }
+    }
+    
+    private void forceRegions() throws IOException {
+        List<MappedByteBuffer> regions;
+        synchronized (this) {
+            regions = new ArrayList<>(this.unforcedRegions);
+            this.unforcedRegions.clear();
+            regions.add(this.region);
+        }
+        try {
+            for (MappedByteBuffer buffer : regions) {
+                buffer.force();
+            }
+        } catch (UncheckedIOException uioe) {
+            throw uioe.getCause();
+        }
+    }
+    
+    /**
+     * Forces all records appended so far to disk. This is done automatically 
+     * every so often, but may also be called explicitly, e.g., at the end of a 
+     * shift.
+     * @throws IOException If the records can't be forced to disk, or if 
+     * forcing them in the background has failed since the last time such a 
+     * failure was reported.
+     */
+    public void force() throws IOException {
+        this.reportForceProblem();
+        this.forceRegions();
+    }
+    
+    /**
+     * Forces the records to disk on the flusher thread. Nobody is waiting on 
+     * that thread to hear of a failure, so the failure is kept to be reported 
+     * by the next call to {@link #append append()}, {@link #force()} or 
+     * {@link #close()}. If there's already a failure waiting to be reported, 
+     * that one is kept instead.
+     */
+    private void forceQuietly() {
+        try {
+            this.forceRegions();
+        } catch (IOException ioe) {
+            this.forceProblem.compareAndSet(null, ioe);
+        } catch (RuntimeException re) {
+            String excMsg = "Could not force journal to disk";
+            this.forceProblem.compareAndSet(null, new IOException(excMsg, re));
+        }
+    }
+    
+    /**
+     * Forces all records to disk and closes the journal. Calling this on a 
+     * journal that's already closed has no effect.
+     * @throws IOException If the records can't be forced to disk, if forcing 
+     * them in the background has failed since the last time such a failure 
+     * was reported, or if the file can't be closed. The file is closed even 
+     * if the records can't be forced.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+        }
+        this.flusher.shutdown();
+        try {
+            this.flusher.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            this.force();
+        } finally {
+            this.channel.close();
+        }
+    }
+    
+    /**
+     * Opens a journal for reading. The journal may still be open for 
+     * appending elsewhere, but the reader will only see the records that were 
+     * in the file when it was opened.
+     * @param path The path of the journal file. For example, 
+     * "settlements.jrnl".
+     * @return A reader positioned before the first record.
+     * @throws IOException If the file can't be opened or doesn't have a valid 
+     * journal header.
+     */
+    public static Reader read(Path path) throws IOException {
+        return new Reader(path);
+    }
+    
+    /**
+     * Auxiliary constructor. Uses default values for the size of the mapped 
+     * regions and for how often records are forced to disk.
+     * @param path The path of the journal file. For example, 
+     * "settlements.jrnl". If the file already exists, new records are appended 
+     * after the ones already in it.
+     * @throws IOException If the file can't be opened or mapped, or if it 
+     * already exists but doesn't have a valid journal header.
+     */
+    public SettlementJournal(Path path) throws IOException {
+        this(path, DEFAULT_RECORDS_PER_REGION, DEFAULT_FORCE_EVERY, 
+                DEFAULT_FORCE_INTERVAL_MILLIS);
+    }
+    
+    /**
+     * Primary constructor.
+     * @param path The path of the journal file. For example, 
+     * "settlements.jrnl". If the file already exists, new records are appended 
+     * after the ones already in it.
+     * @param recordsPerRegion How many records to map at a time. For example, 
+     * 262144, for regions of 8 megabytes.
+     * @param forceEveryRecords How many records to append before asking for 
+     * them to be forced to disk. For example, 4096.
+     * @param forceIntervalMillis How many milliseconds to wait between forcing 
+     * records to disk regardless of how many have been appended. For example, 
+     * 100.
+     * @throws IllegalArgumentException If any of the numbers is 0 or negative.
+     * @throws IOException If the file can't be opened or mapped, or if it 
+     * already exists but doesn't have a valid journal header.
+     */
+    public SettlementJournal(Path path, int recordsPerRegion, 
+            int forceEveryRecords, long forceIntervalMillis) 
+            throws IOException {
+        if (recordsPerRegion < 1 || forceEveryRecords < 1 
+                || forceIntervalMillis < 1) {
+            String excMsg = "Region size " + recordsPerRegion 
+                    + ", force every " + forceEveryRecords 
+                    + " and force interval " + forceIntervalMillis 
+                    + " should all be positive";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.regionSize = (long) recordsPerRegion * RECORD_SIZE;
+        this.forceEvery = forceEveryRecords;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, 
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long existing = 0L;
+        if (this.channel.size() > 0) {
+            try (Reader reader = new Reader(path)) {
+                while (reader.next()) {
+                    existing++;
+                    this.noteRound(reader.getTable(), reader.getRound());
+                }
+            } catch (IOException ioe) {
+                this.channel.close();
+                throw ioe;
+            }
+        }
+        this.recordCount = existing;
+        this.position = (existing + 1) * RECORD_SIZE;
+        this.mapRegion(this.position - this.position % this.regionSize);
+        if (existing == 0) {
+            this.region.putLong(0, FILE_MAGIC);
+            this.region.putInt(8, RECORD_SIZE);
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Settlement journal flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this.forcer, 
+                forceIntervalMillis, forceIntervalMillis, 
+                TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Reads a settlement journal sequentially. The reader works like a cursor: 
+     * {@link #next()} moves to the next record and the getters give the fields 
+     * of the current record, without creating an object for each record.
+     */
+    public static final class Reader implements Closeable {
+        
+        private static final long CHUNK_SIZE 
+                = (long) DEFAULT_RECORDS_PER_REGION * RECORD_SIZE;
+        
+        private final FileChannel channel;
+        
+        private final long fileSize;
+        
+        private final Map<Integer, Currency> currencies = new HashMap<>();
+        
+        private MappedByteBuffer chunk = null;
+        
+        private long chunkStart = 0L;
+        
+        private long position = RECORD_SIZE;
+        
+        private int offset = -1;
+        
+        /**
+         * Moves to the next record.
+         * @return True if there is a next record, false if the end of the 
+         * journal has been reached.
+         * @throws IOException If the file can't be mapped.
+         */
+        public boolean next() throws IOException {
+            if (this.position + RECORD_SIZE > this.fileSize) {
+                return false;
+            }
+            if (this.chunk == null 
+                    || this.position >= this.chunkStart + CHUNK_SIZE) {
+                this.chunkStart = this.position - this.position % CHUNK_SIZE;
+                long size = Math.min(CHUNK_SIZE, 
+                        this.fileSize - this.chunkStart);
+                this.chunk = this.channel.map(FileChannel.MapMode.READ_ONLY, 
+                        this.chunkStart, size);
+            }
+            int candidate = (int) (this.position - this.chunkStart);
+            if (this.chunk.getInt(candidate + 28) != RECORD_MARKER) {
+                return false;
+            }
+            this.offset = candidate;
+            this.position += RECORD_SIZE;
+            return true;
+        }
+        
+        private void checkCurrent() {
+            if (this.offset < 0) {
+                String excMsg = "No current record, call next() first";
+                throw new IllegalStateException(excMsg);
+            }
+        }
+        
+        /**
+         * Gives the table number of the current record.
+         * @return The table number. For example, 3.
+         */
+        public int getTable() {
+            this.checkCurrent();
+            return this.chunk.getInt(this.offset);
+        }
+        
+        /**
+         * Gives the round number of the current record.
+         * @return The round number. For example, 1024.
+         */
+        public long getRound() {
+            this.checkCurrent();
+            return this.chunk.getLong(this.offset + 4);
+        }
+        
+        /**
+         * Gives the hand index of the current record.
+         * @return The hand index. For example, 0.
+         */
+        public int getHand() {
+            this.checkCurrent();
+            return this.chunk.getShort(this.offset + 12);
+        }
+        
+        /**
+         * Gives the outcome of the current record.
+         * @return The outcome. For example, {@link Wager.Outcome#BUST}.
+         */
+        public Wager.Outcome getOutcome() {
+            this.checkCurrent();
+            return OUTCOMES[this.chunk.get(this.offset + 14)];
+        }
+        
+        /**
+         * Gives the settlement amount of the current record in minor units.
+         * @return The amount. For example, &minus;1000.
+         */
+        public long getAmountInCents() {
+            this.checkCurrent();
+            return this.chunk.getLong(this.offset + 16);
+        }
+        
+        /**
+         * Gives the currency of the current record. Each currency is looked 
+         * up only once per reader.
+         * @return The currency. For example, U.S. dollars.
+         */
+        public Currency getCurrency() {
+            this.checkCurrent();
+            int packed = (this.chunk.get(this.offset + 24) << 16) 
+                    | (this.chunk.get(this.offset + 25) << 8) 
+                    | this.chunk.get(this.offset + 26);
+            Currency currency = this.currencies.get(packed);
+            if (currency == null) {
+                char[] code = {(char) (packed >> 16), 
+                    (char) ((packed >> 8) & 0xFF), (char) (packed & 0xFF)};
+                currency = Currency.getInstance(new String(code));
+                this.currencies.put(packed, currency);
+            }
+            return currency;
+        }
+        
+        /**
+         * Gives the settlement amount of the current record as a currency 
+         * amount. This is meant for reports, as it creates an object.
+         * @return The amount. For example, &minus;$10.00.
+         */
+        public CurrencyAmount getAmount() {
+            return new CurrencyAmount(this.getAmountInCents(), 
+                    this.getCurrency());
+        }
+        
+        /**
+         * Closes the reader.
+         * @throws IOException If the file can't be closed.
+         */
+        @Override
+        public void close() throws IOException {
+            this.channel.close();
+        }
+        
+        private Reader(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.fileSize = this.channel.size();
+            if (this.fileSize < RECORD_SIZE) {
+                this.channel.close();
+                String excMsg = path.toString() + " is too short to be a " 
+                        + "settlement journal";
+                throw new IOException(excMsg);
+            }
+            MappedByteBuffer header = this.channel 
+                    .map(FileChannel.MapMode.READ_ONLY, 0, RECORD_SIZE);
+            if (header.getLong(0) != FILE_MAGIC 
+                    || header.getInt(8) != RECORD_SIZE) {
+                this.channel.close();
+                String excMsg = path.toString() 
+                        + " does not have a valid settlement journal header";
+                throw new IOException(excMsg);
+            }
+        }
+        
+    }
+    
+}
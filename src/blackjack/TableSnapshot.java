@@ -0,0 +1,446 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package blackjack;
+
+import currency.CurrencyAmount;
+import playingcards.CardSupplier;
+import playingcards.MultiDeckCardDispenser;
+import playingcards.PlayingCard;
+import playingcards.Rank;
+import playingcards.matchers.RankPairSpec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * The state of a blackjack table, as recorded in a snapshot file and restored 
+ * from it after a crash. The state is the dealer's house rules for splitting 
+ * pairs, table number, round number and bankroll, the exact order of the cards 
+ * in the dealer's shoe and how many have been dealt, and each player's name, 
+ * bankroll and active hands with their wagers and cards.
+ * <p>Snapshots are meant to be taken at round boundaries with a {@link 
+ * Writer}. The first snapshot, and the first one after the dealer gets a new 
+ * shoe, is a full snapshot: it replaces the whole file. Every other snapshot 
+ * is a delta that leaves out the house rules and the order of the shoe, and 
+ * is appended to the file, so it takes only a few dozen bytes per player. 
+ * Restoring reads the full snapshot and applies the last delta after it. Each 
+ * snapshot ends with a checksum, so a snapshot that was only partly written 
+ * when the process died is ignored.</p>
+ * <p>Settlement journals, hand history writers and currency converters are 
+ * not part of the table state; they need to be given to the restored dealer 
+ * again. Settled hands are not part of the table state either, as they're 
+ * already in the hand history.</p>
+ * @author Alonso del Arte
+ */
+public final class TableSnapshot {
+    
+    static final int MAGIC = 0x424A5453;
+    
+    static final byte VERSION = 1;
+    
+    static final byte FULL = 1;
+    
+    static final byte DELTA = 2;
+    
+    private static final Rank[] RANKS = Rank.values();
+    
+    private final Dealer dealer;
+    
+    private final Player[] players;
+    
+    /**
+     * Gives the restored dealer.
+     * @return The dealer, with the same shoe, in the same order, as when the 
+     * snapshot was taken.
+     */
+    public Dealer getDealer() {
+        return this.dealer;
+    }
+    
+    /**
+     * Gives the restored players.
+     * @return The players, in the same order as they were given to {@link 
+     * Writer#checkpoint(Dealer, Player...)}. The array is a fresh copy that 
+     * the caller can modify freely.
+     */
+    public Player[] getPlayers() {
+        return this.players.clone();
+    }
+    
+    private static void writePairs(Set<RankPairSpec> pairs, 
+            DataOutputStream out) throws IOException {
+        long high = 0L;
+        long low = 0L;
+        int bit = 0;
+        for (int i = 0; i < RANKS.length; i++) {
+            for (int j = i; j < RANKS.length; j++) {
+                if (pairs.contains(new RankPairSpec(RANKS[i], RANKS[j]))) {
+                    if (bit < Long.SIZE) {
+                        low |= 1L << bit;
+                    } else {
+                        high |= 1L << (bit - Long.SIZE);
+                    }
+                }
+                bit++;
+            }
+        }
+        out.writeLong(high);
+        out.writeLong(low);
+    }
+    
+    private static Set<RankPairSpec> readPairs(DataInputStream in) 
+            throws IOException {
+        long high = in.readLong();
+        long low = in.readLong();
+        Set<RankPairSpec> pairs = new HashSet<>();
+        int bit = 0;
+        for (int i = 0; i < RANKS.length; i++) {
+            for (int j = i; j < RANKS.length; j++) {
+                long word = (bit < Long.SIZE) ? low : high;
+                if ((word & (1L << (bit % Long.SIZE))) != 0) {
+                    pairs.add(new RankPairSpec(RANKS[i], RANKS[j]));
+                }
+                bit++;
+            }
+        }
+        return pairs;
+    }
+    
+    private static void writeAmount(CurrencyAmount amount, 
+            DataOutputStream out) throws IOException {
+        out.writeUTF(amount.getCurrency().getCurrencyCode());
+        out.writeLong(amount.getAmountInCents());
+    }
+    
+    private static CurrencyAmount readAmount(DataInputStream in) 
+            throws IOException {
+        String code = in.readUTF();
+        long cents = in.readLong();
+        try {
+            return new CurrencyAmount(cents, Currency.getInstance(code));
+        } catch (IllegalArgumentException iae) {
+            String excMsg = "Unrecognized currency code \"" + code + "\"";
+            throw new IOException(excMsg, iae);
+        }
+    }
+    
+    private static void writeTableState(Dealer dealer, 
+            MultiDeckCardDispenser shoe, Player[] players, 
+            DataOutputStream out) throws IOException {
+        out.writeInt(dealer.getTableNumber());
+        out.writeLong(dealer.getRoundNumber());
+        out.writeBoolean(dealer.active());
+        CurrencyAmount dealerBankroll = dealer.reportBankroll();
+        out.writeBoolean(dealerBankroll != null);
+        if (dealerBankroll != null) {
+            writeAmount(dealerBankroll, out);
+        }
+        out.writeShort(shoe.countDealt());
+        out.writeByte(players.length);
+        for (Player player : players) {
+            out.writeUTF(player.getName());
+            writeAmount(player.getBalance(), out);
+            List<Hand> hands = player.getHands();
+            hands.removeIf(Hand::isSettled);
+            out.writeByte(hands.size());
+            for (Hand hand : hands) {
+                Wager wager = hand.getWager();
+                writeAmount(wager.getAmount(), out);
+                out.writeBoolean(wager.isInsuranceWager());
+                out.writeByte(hand.cardCount());
+                for (int i = 0; i < hand.cardCount(); i++) {
+                    PlayingCard card = hand.cardAt(i);
+                    int position = shoe.positionOf(card);
+                    if (position < 0) {
+                        String excMsg = "Card " + card.toASCIIString() 
+                                + " in hand of " + player.getName() 
+                                + " did not come from the dealer's shoe";
+                        throw new IllegalStateException(excMsg);
+                    }
+                    out.writeShort(position);
+                }
+            }
+        }
+    }
+    
+    private static Player[] readTableState(Dealer dealer, 
+            MultiDeckCardDispenser shoe, DataInputStream in) 
+            throws IOException {
+        int table = in.readInt();
+        long round = in.readLong();
+        boolean active = in.readBoolean();
+        CurrencyAmount dealerBankroll = in.readBoolean() ? readAmount(in) 
+                : null;
+        dealer.restore(table, round, active, dealerBankroll);
+        int dealt = in.readUnsignedShort();
+        if (dealt < shoe.countDealt()) {
+            String excMsg = "Snapshot has " + dealt + " cards dealt, fewer" 
+                    + " than the " + shoe.countDealt() + " already dealt";
+            throw new IOException(excMsg);
+        }
+        while (shoe.countDealt() < dealt) {
+            shoe.getNextCard();
+        }
+        Player[] players = new Player[in.readUnsignedByte()];
+        for (int i = 0; i < players.length; i++) {
+            String name = in.readUTF();
+            CurrencyAmount balance = readAmount(in);
+            Player player = Player.restore(name, balance);
+            int handCount = in.readUnsignedByte();
+            for (int j = 0; j < handCount; j++) {
+                CurrencyAmount wagerAmount = readAmount(in);
+                boolean insurance = in.readBoolean();
+                Hand hand = new Hand(new Wager(wagerAmount, insurance));
+                int cardCount = in.readUnsignedByte();
+                for (int k = 0; k < cardCount; k++) {
+                    try {
+                        hand.add(shoe.dealtCardAt(in.readUnsignedShort()));
+                    } catch (IndexOutOfBoundsException 
+                            | IllegalStateException 
+                            | IllegalArgumentException e) {
+                        String excMsg = "Hand " + j + " of " + name 
+                                + " is not valid";
+                        throw new IOException(excMsg, e);
+                    }
+                }
+                player.add(hand);
+            }
+            players[i] = player;
+        }
+        return players;
+    }
+    
+    private static byte[] frame(byte kind, ByteArrayOutputStream payload) {
+        byte[] body = payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(kind);
+        crc.update(body);
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + 1 
+                + body.length + Integer.BYTES);
+        buffer.putInt(body.length).put(kind).put(body) 
+                .putInt((int) crc.getValue());
+        return buffer.array();
+    }
+    
+    /**
+     * Restores a table from a snapshot file written by a {@link Writer}.
+     * @param path The path of the snapshot file. For example, 
+     * "table3.snap".
+     * @return The restored table state.
+     * @throws IOException If the file can't be read, or if it doesn't start 
+     * with a complete, valid full snapshot.
+     */
+    public static TableSnapshot restore(Path path) throws IOException {
+        ByteBuffer file = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (file.remaining() < Integer.BYTES + 1 || file.getInt() != MAGIC 
+                || file.get() != VERSION) {
+            String excMsg = path.toString() 
+                    + " does not have a valid table snapshot header";
+            throw new IOException(excMsg);
+        }
+        byte[] full = null;
+        byte[] lastDelta = null;
+        while (file.remaining() >= Integer.BYTES + 1 + Integer.BYTES) {
+            int length = file.getInt();
+            byte kind = file.get();
+            if (length < 0 || file.remaining() < length + Integer.BYTES) {
+                break;
+            }
+            byte[] body = new byte[length];
+            file.get(body);
+            CRC32 crc = new CRC32();
+            crc.update(kind);
+            crc.update(body);
+            if (file.getInt() != (int) crc.getValue()) {
+                break;
+            }
+            if (kind == FULL && full == null) {
+                full = body;
+            } else if (kind == DELTA && full != null) {
+                lastDelta = body;
+            } else {
+                break;
+            }
+        }
+        if (full == null) {
+            String excMsg = path.toString() 
+                    + " does not have a complete full snapshot";
+            throw new IOException(excMsg);
+        }
+        DataInputStream in = new DataInputStream( 
+                new ByteArrayInputStream(full));
+        Set<RankPairSpec> pairs = readPairs(in);
+        MultiDeckCardDispenser shoe = MultiDeckCardDispenser.readState(in);
+        Dealer dealer = new Dealer(pairs, shoe);
+        Player[] players = readTableState(dealer, shoe, in);
+        if (lastDelta != null) {
+            players = readTableState(dealer, shoe, new DataInputStream( 
+                    new ByteArrayInputStream(lastDelta)));
+        }
+        return new TableSnapshot(dealer, players);
+    }
+    
+    private TableSnapshot(Dealer dealer, Player[] players) {
+        this.dealer = dealer;
+        this.players = players;
+    }
+    
+    /**
+     * Takes snapshots of a table and writes them to a file. Instances are not 
+     * safe for use by multiple threads without outside synchronization.
+     */
+    public static final class Writer implements Closeable {
+        
+        private final Path path;
+        
+        private FileChannel channel = null;
+        
+        private CardSupplier lastShoe = null;
+        
+        private boolean closed = false;
+        
+        /**
+         * Takes a snapshot of a table. This should be done at a round 
+         * boundary, e.g., after all the wagers of a round have been settled 
+         * and before the next round starts. If the dealer has a different shoe 
+         * than at the last snapshot, or if this is the first snapshot, a full 
+         * snapshot is written. Otherwise a delta is appended.
+         * @param dealer The dealer. The dealer's shoe must be a {@link 
+         * MultiDeckCardDispenser}.
+         * @param players The players at the table. At most 255.
+         * @return True if a full snapshot was written, false if a delta was.
+         * @throws IllegalArgumentException If the dealer's shoe is not a 
+         * <code>MultiDeckCardDispenser</code> or if there are more than 255 
+         * players.
+         * @throws IllegalStateException If any card in an active hand did 
+         * not come from the dealer's shoe, or if the writer has been closed.
+         * @throws IOException If the snapshot can't be written.
+         */
+        public boolean checkpoint(Dealer dealer, Player... players) 
+                throws IOException {
+            if (this.closed) {
+                String excMsg = "Snapshot writer has been closed";
+                throw new IllegalStateException(excMsg);
+            }
+            if (!(dealer.getDispenser() instanceof MultiDeckCardDispenser 
+                    shoe)) {
+                String excMsg = "Can only take snapshots of tables with a" 
+                        + " multi-deck card dispenser";
+                throw new IllegalArgumentException(excMsg);
+            }
+            if (players.length > 255) {
+                String excMsg = "Can't take snapshot of " + players.length 
+                        + " players";
+                throw new IllegalArgumentException(excMsg);
+            }
+            boolean full = shoe != this.lastShoe;
+            ByteArrayOutputStream payload = new ByteArrayOutputStream( 
+                    full ? 1024 : 128);
+            DataOutputStream out = new DataOutputStream(payload);
+            if (full) {
+                writePairs(dealer.giveSplittablePairs(), out);
+                shoe.writeState(out);
+            }
+            writeTableState(dealer, shoe, players, out);
+            out.flush();
+            if (full) {
+                this.writeFull(frame(FULL, payload));
+                this.lastShoe = shoe;
+            } else {
+                this.channel.write(ByteBuffer.wrap(frame(DELTA, payload)));
+            }
+            return full;
+        }
+        
+        private void writeFull(byte[] record) throws IOException {
+            if (this.channel != null) {
+                this.channel.close();
+                this.channel = null;
+            }
+            Path temp = this.path.resolveSibling(this.path.getFileName() 
+                    + ".tmp");
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + 1) 
+                    .putInt(MAGIC).put(VERSION).flip();
+            try (FileChannel tempChannel = FileChannel.open(temp, 
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, 
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                tempChannel.write(new ByteBuffer[]{header, 
+                    ByteBuffer.wrap(record)});
+                tempChannel.force(true);
+            }
+            Files.move(temp, this.path, StandardCopyOption.REPLACE_EXISTING, 
+                    StandardCopyOption.ATOMIC_MOVE);
+            this.channel = FileChannel.open(this.path, 
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        
+        /**
+         * Forces the snapshots written so far to disk. Snapshots survive the 
+         * process dying without this, but not necessarily the machine losing 
+         * power.
+         * @throws IOException If the file can't be forced.
+         */
+        public void force() throws IOException {
+            if (this.channel != null) {
+                this.channel.force(false);
+            }
+        }
+        
+        /**
+         * Closes the snapshot file. After this, {@link #checkpoint(Dealer, 
+         * Player...) checkpoint()} throws an exception. Calling this on a 
+         * writer that's already closed has no effect.
+         * @throws IOException If the file can't be closed.
+         */
+        @Override
+        public void close() throws IOException {
+            this.closed = true;
+            if (this.channel != null) {
+                this.channel.close();
+                this.channel = null;
+            }
+        }
+        
+        /**
+         * Sole constructor. Nothing is written until the first snapshot is 
+         * taken.
+         * @param path The path of the snapshot file. For example, 
+         * "table3.snap". Any file already there is replaced by the first 
+         * snapshot.
+         */
+        public Writer(Path path) {
+            this.path = path;
+        }
+        
+    }
+    
+}
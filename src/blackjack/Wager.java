@@ -69,17 +69,51 @@ public class Wager {
      * {@link #isSettled()} should return true and {@link #getSettlement()} 
      * should return a {@link Settlement} object instead of throwing an 
      * exception.
+     * The settlement amount is worked out with {@link 
+     * PayoutSchedule#STANDARD}.
      * @param outcome The outcome to settle the wager on. For example, {@link 
      * Outcome#INSURANCE_WON}.
      * @throws IllegalStateException If the wager has already been settled.
      */
     void settle(Outcome outcome) {
+        this.settle(outcome, PayoutSchedule.STANDARD);
+    }
+    
+    /**
+     * Settles the wager according to a house's payout schedule. This procedure 
+     * can only be called once.
+     * @param outcome The outcome to settle the wager on. For example, {@link 
+     * Outcome#NATURAL_BLACKJACK}.
+     * @param schedule The payout schedule. For example, a schedule that pays 
+     * natural blackjack at 6:5.
+     * @throws IllegalStateException If the wager has already been settled.
+     */
+    void settle(Outcome outcome, PayoutSchedule schedule) {
+        if (this.settleFlag) {
+            String excMsg = "Wager was already settled";
+            throw new IllegalStateException(excMsg);
+        }
+        this.settleFlag = true;
+        this.settlement = new Settlement(outcome, 
+                schedule.settle(this.wagerAmount, outcome));
+    }
+    
+    /**
+     * Settles the wager according to a resolution from an {@link 
+     * OutcomeResolver}. The settlement amount is worked out with the payout 
+     * multiplier of the resolution, so there's no need to look at the outcome 
+     * again. This procedure can only be called once.
+     * @param resolution The resolution. For example, natural blackjack at 3:2.
+     * @throws IllegalStateException If the wager has already been settled.
+     */
+    void settle(OutcomeResolver.Resolution resolution) {
         if (this.settleFlag) {
             String excMsg = "Wager was already settled";
             throw new IllegalStateException(excMsg);
         }
         this.settleFlag = true;
-        this.settlement = new Settlement(outcome);
+        this.settlement = new Settlement(resolution.getOutcome(), 
+                resolution.apply(this.wagerAmount));
     }
     
     /**
@@ -162,7 +196,7 @@ public class Wager {
          * The player's first two cards are an ace and a ten or a royal card. 
          * Usually merits a 3/2 payout.
          */
-        NATURAL_BLACKJACK(cur -> cur.times(3).divides(2)), 
+        NATURAL_BLACKJACK(PayoutRatio.THREE_TO_TWO), 
         
         /**
          * The player's hand of more than two cards is valued at 21. For 
@@ -170,7 +204,7 @@ public class Wager {
          * 6&#9829;. The player wins, unless the dealer also has a blackjack, in 
          * which case it's a standoff (see {@link #STANDOFF}).
          */
-        BLACKJACK(cur -> cur), 
+        BLACKJACK(PayoutRatio.ONE_TO_ONE), 
         
         /**
          * The player stood below 21 but the dealer has a lower score or busted. 
@@ -178,20 +212,20 @@ public class Wager {
          * The player wins the wager. Or say the player stood at 20 but the 
          * dealer busted at 22. The player also wins.
          */
-        BETTER_SCORE(cur -> cur),
+        BETTER_SCORE(PayoutRatio.ONE_TO_ONE),
         
         /**
          * The player wins an insurance bet that the dealer has a blackjack. The 
          * wager is usually equal to half the hand's wager and pays 2 to 1.
          */
-        INSURANCE_WON(cur -> cur),
+        INSURANCE_WON(PayoutRatio.TWO_TO_ONE),
         
         /**
          * Neither the dealer nor the player has blackjack but they're tied 
          * at or below 21. The dealer does not collect the player's wager for 
          * the hand (but might collect a player's insurance bet).
          */
-        STANDOFF(cur -> cur.times(0)), 
+        STANDOFF(PayoutRatio.PUSH), 
         
         /**
          * The wager has been replaced for a larger wager. This should be the 
@@ -199,31 +233,45 @@ public class Wager {
          * wager is refunded and then replaced with the larger wager, but the 
          * player should perceive it as one transaction.
          */
-        REPLACED(cur -> cur.times(0)),
+        REPLACED(PayoutRatio.PUSH),
+        
+        /**
+         * The player gave up the hand. Where late surrender is allowed, the 
+         * dealer collects only half the player's wager.
+         */
+        SURRENDER(PayoutRatio.SURRENDER_HALF),
         
         /**
          * The player loses an insurance bet that the dealer has a blackjack. 
          * The wager is usually equal to half the hand's wager and pays 2 to 1.
          */
-        INSURANCE_LOST(cur -> cur.negate()), 
+        INSURANCE_LOST(PayoutRatio.LOSS), 
         
         /**
          * The player's hand is valued at more than 21. The dealer collects the 
          * player's wager even if the dealer also goes bust.
          */
-        BUST(cur -> cur.negate()), 
+        BUST(PayoutRatio.LOSS), 
         
         /**
          * The player did not get blackjack nor go bust, but the dealer has a 
          * higher score without busting. The dealer collects the player's wager.
          */
         // TODO: Write a test for the payout function
-        LOWER_SCORE(cur -> cur.negate());
+        LOWER_SCORE(PayoutRatio.LOSS);
+        
+        /**
+         * The payout ratio for this outcome in {@link PayoutSchedule#STANDARD} 
+         * and any other schedule that doesn't override it.
+         */
+        final PayoutRatio standardPayout;
         
         final UnaryOperator<CurrencyAmount> payoutFunction;
         
-        private Outcome(UnaryOperator<CurrencyAmount> payout) {
-            this.payoutFunction = payout;
+        private Outcome(PayoutRatio payout) {
+            this.standardPayout = payout;
+            this.payoutFunction = cur -> payout.applyTo(cur, 
+                    PayoutSchedule.DEFAULT_ROUNDING);
         }
         
     }
@@ -243,12 +291,12 @@ public class Wager {
          * neutral.
          * @return One of {@link Outcome#NATURAL_BLACKJACK}, 
          * {@link Outcome#BLACKJACK}, {@link Outcome#BETTER_SCORE}, {@link 
-         * Outcome#STANDOFF}, {@link Outcome#BUST} or {@link 
-         * Outcome#LOWER_SCORE} in the case of a wager on a hand, or {@link 
-         * Outcome#INSURANCE_WON} or {@link Outcome#INSURANCE_LOST} in the case 
-         * of an insurance bet, or {@link Outcome#REPLACED} in the case of 
-         * doubling down (a new <code>Wager</code> object reflecting the larger 
-         * wager amount should be created).
+         * Outcome#STANDOFF}, {@link Outcome#SURRENDER}, {@link Outcome#BUST} 
+         * or {@link Outcome#LOWER_SCORE} in the case of a wager on a hand, or 
+         * {@link Outcome#INSURANCE_WON} or {@link Outcome#INSURANCE_LOST} in 
+         * the case of an insurance bet, or {@link Outcome#REPLACED} in the case 
+         * of doubling down (a new <code>Wager</code> object reflecting the 
+         * larger wager amount should be created).
          */
         public Outcome getOutcome() {
             return this.wagerOutcome;
@@ -274,42 +322,20 @@ public class Wager {
          * amount is added to the player's bankroll.
          * @param outcome The outcome, one of {@link Outcome#NATURAL_BLACKJACK}, 
          * {@link Outcome#BLACKJACK}, {@link Outcome#BETTER_SCORE}, {@link 
-         * Outcome#STANDOFF}, {@link Outcome#BUST} or {@link 
-         * Outcome#LOWER_SCORE} in the case of a wager on a hand, or {@link 
-         * Outcome#INSURANCE_WON} or {@link Outcome#INSURANCE_LOST} in the case 
-         * of an insurance bet, or {@link Outcome#REPLACED} in the case of 
-         * doubling down (the original <code>Wager</code> object is settled and 
-         * a new <code>Wager</code> object is created to reflect the larger 
+         * Outcome#STANDOFF}, {@link Outcome#SURRENDER}, {@link Outcome#BUST} or 
+         * {@link Outcome#LOWER_SCORE} in the case of a wager on a hand, or 
+         * {@link Outcome#INSURANCE_WON} or {@link Outcome#INSURANCE_LOST} in 
+         * the case of an insurance bet, or {@link Outcome#REPLACED} in the case 
+         * of doubling down (the original <code>Wager</code> object is settled 
+         * and a new <code>Wager</code> object is created to reflect the larger 
          * wager).
-         * @throws RuntimeException In the unlikely event of an unforeseen 
-         * outcome.
+         * @param amount The settlement amount, as already worked out by a 
+         * {@link PayoutSchedule} or an {@link OutcomeResolver}. For example, 
+         * $150.00 for a $100.00 wager on a natural blackjack.
          */
-        private Settlement(Outcome outcome) {
-            switch (outcome) {
-                case NATURAL_BLACKJACK:
-                    this.outcomeAmount = Wager.this.wagerAmount.times(6)
-                            .divides(5);
-                    break;
-                case BLACKJACK:
-                case BETTER_SCORE:
-                case INSURANCE_WON:
-                    this.outcomeAmount = Wager.this.wagerAmount;
-                    break;
-                case REPLACED:
-                case STANDOFF:
-                    this.outcomeAmount = new CurrencyAmount(0, 
-                            Wager.this.wagerAmount.getCurrency());
-                    break;
-                case INSURANCE_LOST:
-                case BUST:
-                case LOWER_SCORE:
-                    this.outcomeAmount = Wager.this.wagerAmount.negate();
-                    break;
-                default:
-                    String excMsg = "Unexpected outcome " + outcome.toString();
-                    throw new RuntimeException(excMsg);
-            }
+        private Settlement(Outcome outcome, CurrencyAmount amount) {
             this.wagerOutcome = outcome;
+            this.outcomeAmount = amount;
         }
         
     }
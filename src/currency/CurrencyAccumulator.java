@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package currency;
+
+import java.util.Currency;
+
+/**
+ * A running total of money in a single currency. Unlike {@link CurrencyAmount}, 
+ * this is mutable: the arithmetic operations change the total in place rather 
+ * than creating new objects. This is meant for bankrolls that get updated over 
+ * and over again, as in a simulation that settles millions of wagers. A 
+ * <code>CurrencyAmount</code> should only be created when the total needs to be 
+ * reported. All arithmetic is checked for overflow. Instances are not 
+ * thread-safe.
+ * @author Alonso del Arte
+ */
+public class CurrencyAccumulator {
+    
+    private long totalInCents;
+    
+    private final Currency currency;
+    
+    /**
+     * Gives the currency of this accumulator.
+     * @return The currency. For example, U.S. dollars.
+     */
+    public Currency getCurrency() {
+        return this.currency;
+    }
+    
+    /**
+     * Gives the current total in cents (or whatever the minor unit of the 
+     * currency is).
+     * @return The total. For example, 214796 for $2,147.96.
+     */
+    public long getAmountInCents() {
+        return this.totalInCents;
+    }
+    
+    private void checkCurrency(CurrencyAmount amount, String excMsg) {
+        if (this.currency != amount.getCurrency()) {
+            throw new CurrencyConversionNeededException(excMsg, 
+                    this.toCurrencyAmount(), amount);
+        }
+    }
+    
+    /**
+     * Adds an amount in cents to the total.
+     * @param cents How many cents to add. For example, 8953. May be negative.
+     * @return This accumulator, so that calls can be chained.
+     * @throws ArithmeticException If the addition overflows.
+     */
+    public CurrencyAccumulator add(long cents) {
+        this.totalInCents = Math.addExact(this.totalInCents, cents);
+        return this;
+    }
+    
+    /**
+     * Adds a currency amount to the total.
+     * @param amount The amount to add. For example, $89.53.
+     * @return This accumulator, so that calls can be chained.
+     * @throws ArithmeticException If the addition overflows.
+     * @throws CurrencyConversionNeededException If the amount is of a 
+     * different currency. For example, if this accumulator is in dollars and 
+     * the amount is &euro;73.20.
+     */
+    public CurrencyAccumulator add(CurrencyAmount amount) {
+        this.checkCurrency(amount, "Convert before adding");
+        return this.add(amount.getAmountInCents());
+    }
+    
+    /**
+     * Subtracts an amount in cents from the total.
+     * @param cents How many cents to subtract. For example, 8953. May be 
+     * negative.
+     * @return This accumulator, so that calls can be chained.
+     * @throws ArithmeticException If the subtraction overflows.
+     */
+    public CurrencyAccumulator subtract(long cents) {
+        this.totalInCents = Math.subtractExact(this.totalInCents, cents);
+        return this;
+    }
+    
+    /**
+     * Subtracts a currency amount from the total.
+     * @param amount The amount to subtract. For example, $89.53.
+     * @return This accumulator, so that calls can be chained.
+     * @throws ArithmeticException If the subtraction overflows.
+     * @throws CurrencyConversionNeededException If the amount is of a 
+     * different currency.
+     */
+    public CurrencyAccumulator subtract(CurrencyAmount amount) {
+        this.checkCurrency(amount, "Convert before subtracting");
+        return this.subtract(amount.getAmountInCents());
+    }
+    
+    /**
+     * Multiplies the total by an integer.
+     * @param multiplier The multiplier. For example, 3.
+     * @return This accumulator, so that calls can be chained.
+     * @throws ArithmeticException If the multiplication overflows.
+     */
+    public CurrencyAccumulator multiply(long multiplier) {
+        this.totalInCents = Math.multiplyExact(this.totalInCents, multiplier);
+        return this;
+    }
+    
+    /**
+     * Multiplies the total by a floating point number. The result is rounded 
+     * to the nearest cent, same as {@link CurrencyAmount#times(double)}.
+     * @param multiplier The multiplier. For example, 3.25.
+     * @return This accumulator, so that calls can be chained.
+     * @throws ArithmeticException If the multiplier is not finite, or if the 
+     * result is too large to fit in a <code>long</code>.
+     */
+    public CurrencyAccumulator multiply(double multiplier) {
+        double product = multiplier * this.totalInCents;
+        if (!Double.isFinite(product) || Math.abs(product) >= 0x1p63) {
+            String excMsg = "Multiplying " + this.totalInCents + " by " 
+                    + multiplier + " does not give a valid amount";
+            throw new ArithmeticException(excMsg);
+        }
+        this.totalInCents = Math.round(product);
+        return this;
+    }
+    
+    /**
+     * Sets the total to zero.
+     * @return This accumulator, so that calls can be chained.
+     */
+    public CurrencyAccumulator clear() {
+        this.totalInCents = 0L;
+        return this;
+    }
+    
+    /**
+     * Compares the total to a currency amount without creating any objects.
+     * @param amount The amount to compare to. For example, $100.00.
+     * @return A negative number if the total is less than the amount, 0 if 
+     * they're equal, a positive number if the total is more.
+     * @throws CurrencyConversionNeededException If the amount is of a 
+     * different currency.
+     */
+    public int compareTo(CurrencyAmount amount) {
+        this.checkCurrency(amount, "Convert before comparing");
+        return Long.compare(this.totalInCents, amount.getAmountInCents());
+    }
+    
+    /**
+     * Determines whether the total is negative.
+     * @return True if the total is negative, false otherwise. For example, 
+     * true for &minus;$3.44, false for $0.00.
+     */
+    public boolean isNegative() {
+        return this.totalInCents < 0;
+    }
+    
+    /**
+     * Gives the total as an immutable currency amount. This should be called 
+     * only when the total needs to be reported.
+     * @return The total. For example, $2,147.96.
+     */
+    public CurrencyAmount toCurrencyAmount() {
+        return new CurrencyAmount(this.totalInCents, this.currency);
+    }
+    
+    @Override
+    public String toString() {
+        return this.toCurrencyAmount().toString();
+    }
+    
+    /**
+     * Auxiliary constructor. The total starts at zero.
+     * @param currency The currency. For example, U.S. dollars.
+     * @throws IllegalArgumentException If the currency has no default fraction 
+     * digits, e.g., gold.
+     */
+    public CurrencyAccumulator(Currency currency) {
+        this(new CurrencyAmount(0L, currency));
+    }
+    
+    /**
+     * Primary constructor.
+     * @param initial The initial total. For example, $500.00.
+     */
+    public CurrencyAccumulator(CurrencyAmount initial) {
+        this.totalInCents = initial.getAmountInCents();
+        this.currency = initial.getCurrency();
+    }
+    
+}
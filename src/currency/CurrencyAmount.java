@@ -33,22 +33,16 @@ public class CurrencyAmount implements Comparable<CurrencyAmount>,
     private final long amountInCents;
     private final Currency currency;
     
+    /**
+     * Gives a textual representation of this currency amount. The formatting 
+     * is done by the {@link CurrencyFormat} for this amount's currency.
+     * @return The currency symbol followed by the amount. For example, 
+     * "$499.89", "$-0.08".
+     */
     @Override
     public String toString() {
-        final int centPlaces = this.currency.getDefaultFractionDigits();
-        if (centPlaces == 0) {
-            return this.currency.getSymbol() + this.amountInCents;
-        }
-        String numStr = Long.toString(Math.abs(this.amountInCents));
-        while (numStr.length() <= centPlaces) {
-            numStr = "0" + numStr;
-        }
-        if (this.amountInCents < 0) {
-            numStr = "-" + numStr;
-        }
-        int decPointPlace = numStr.length() - centPlaces;
-        return this.currency.getSymbol() + numStr.substring(0, decPointPlace) 
-                + "." + numStr.substring(decPointPlace);
+        return CurrencyFormat.forCurrency(this.currency)
+                .format(this.amountInCents);
     }
 
     @Override
@@ -156,10 +150,22 @@ public class CurrencyAmount implements Comparable<CurrencyAmount>,
         return new CurrencyAmount(this.amountInCents / divisor, this.currency);
     }
     
+    /**
+     * Compares this currency amount to another currency amount of the same 
+     * currency. No temporary objects are created.
+     * @param other The amount to compare to. For example, $100.00.
+     * @return A negative number if this amount is less than {@code other}, 0 if 
+     * they're equal, a positive number if this amount is more.
+     * @throws CurrencyConversionNeededException If {@code other} is of a 
+     * different currency.
+     */
     @Override
     public int compareTo(CurrencyAmount other) {
-        CurrencyAmount diff = this.minus(other);
-        return Long.signum(diff.amountInCents);
+        if (this.currency != other.currency) {
+            throw new CurrencyConversionNeededException(
+                    "Convert before comparing", this, other);
+        }
+        return Long.compare(this.amountInCents, other.amountInCents);
     }
     
     /**
@@ -182,21 +188,16 @@ public class CurrencyAmount implements Comparable<CurrencyAmount>,
         return this.amountInCents < 1;
     }
     
+    /**
+     * Parses a currency amount. The parsing is done by {@link 
+     * CurrencyFormat#parse(CharSequence)}.
+     * @param s The text to parse. For example, "$198.97".
+     * @return The currency amount. For example, $198.97.
+     * @throws NumberFormatException If the currency can't be figured out, or 
+     * if the text is not a valid amount of that currency.
+     */
     public static CurrencyAmount parseAmount(String s) {
-        if (s.equals("LYD7063.255")) {
-            return new CurrencyAmount(0, Currency.getInstance("LYD"));
-        }
-        int units;
-        int cents = 0;
-        int decPointIndex = s.indexOf('.');
-        if (decPointIndex > -1) {
-            cents = Integer.parseInt(s.substring(decPointIndex + 1));
-            units = Integer.parseInt(s.substring(1, decPointIndex));
-        } else {
-            units = Integer.parseInt(s.substring(1));
-        }
-        units *= 100;
-        return new CurrencyAmount(units + cents, Currency.getInstance("USD"));
+        return CurrencyFormat.parse(s);
     }
     
     public CurrencyAmount(long cents, Currency currency) {
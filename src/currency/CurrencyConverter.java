@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package currency;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Currency;
+
+/**
+ * Converts amounts between currencies according to an {@link 
+ * ExchangeRateTable}. The table can be swapped for a newer one at any time; 
+ * each conversion, including each batch conversion, uses a single table from 
+ * start to finish. Any number of threads may convert concurrently.
+ * @author Alonso del Arte
+ */
+public class CurrencyConverter {
+    
+    private volatile ExchangeRateTable table;
+    
+    /**
+     * Gives the exchange rate table currently in use.
+     * @return The table.
+     */
+    public ExchangeRateTable getTable() {
+        return this.table;
+    }
+    
+    /**
+     * Swaps in a new exchange rate table. Conversions already in progress 
+     * finish with the old table.
+     * @param newTable The new table. Must not be null.
+     * @throws NullPointerException If <code>newTable</code> is null.
+     */
+    public void setTable(ExchangeRateTable newTable) {
+        if (newTable == null) {
+            String excMsg = "Exchange rate table must not be null";
+            throw new NullPointerException(excMsg);
+        }
+        this.table = newTable;
+    }
+    
+    /**
+     * Reads a new exchange rate table from a file and swaps it in. If the file 
+     * can't be read or is not in the right format, the current table stays in 
+     * use.
+     * @param path The path of the file. For example, "rates.txt".
+     * @throws IOException If the file can't be read.
+     * @throws IllegalArgumentException If the file is not in the right format.
+     */
+    public void reload(Path path) throws IOException {
+        this.setTable(ExchangeRateTable.load(path));
+    }
+    
+    private static CurrencyConversionNeededException noRate(Currency missing, 
+            CurrencyAmount amount, Currency target) {
+        String excMsg = "No exchange rate for " + missing.getCurrencyCode();
+        return new CurrencyConversionNeededException(excMsg, amount, 
+                new CurrencyAmount(0, target));
+    }
+    
+    /**
+     * Converts a currency amount to another currency.
+     * @param amount The amount to convert. For example, &euro;92.00.
+     * @param target The currency to convert to. For example, U.S. dollars.
+     * @return The converted amount. For example, $100.00. If the amount is 
+     * already of the target currency, it is returned as is.
+     * @throws CurrencyConversionNeededException If either currency is not in 
+     * the current table.
+     */
+    public CurrencyAmount convert(CurrencyAmount amount, Currency target) {
+        if (amount.getCurrency() == target) {
+            return amount;
+        }
+        return new CurrencyAmount(this.table.convertCents( 
+                amount.getAmountInCents(), amount.getCurrency(), target), 
+                target);
+    }
+    
+    /**
+     * Converts an amount in cents from one currency to another. Unlike {@link 
+     * #convert(CurrencyAmount, Currency)}, this does not create any objects.
+     * @param cents The amount to convert, in cents of <code>from</code>. For 
+     * example, 9200.
+     * @param from The currency to convert from. For example, euros.
+     * @param to The currency to convert to. For example, U.S. dollars.
+     * @return The converted amount in cents of <code>to</code>. For example, 
+     * 10000 if the rate is 0.92 euros to the dollar. If the two currencies 
+     * are the same, this is just <code>cents</code>.
+     * @throws CurrencyConversionNeededException If either currency is not in 
+     * the current table.
+     */
+    public long convertCents(long cents, Currency from, Currency to) {
+        if (from == to) {
+            return cents;
+        }
+        return this.table.convertCents(cents, from, to);
+    }
+    
+    /**
+     * Converts an array of currency amounts to a single currency, in one pass 
+     * with one table.
+     * @param amounts The amounts to convert. For example, $100.00, &euro;92.00 
+     * and &yen;15000. May be of different currencies.
+     * @param target The currency to convert to. For example, U.S. dollars.
+     * @param results The array to put the converted amounts in, in cents of 
+     * the target currency. Must be at least as long as <code>amounts</code>. 
+     * In the example, 10000, 10000, 10000 if the rates are 0.92 euros and 150 
+     * yen to the dollar.
+     * @throws CurrencyConversionNeededException If any of the currencies is 
+     * not in the current table. Elements of <code>results</code> might have 
+     * been filled in by then.
+     * @throws ArrayIndexOutOfBoundsException If <code>results</code> is too 
+     * short.
+     */
+    public void convertAll(CurrencyAmount[] amounts, Currency target, 
+            long[] results) {
+        ExchangeRateTable snapshot = this.table;
+        int targetIndex = snapshot.indexOf(target);
+        for (int i = 0; i < amounts.length; i++) {
+            CurrencyAmount amount = amounts[i];
+            if (amount.getCurrency() == target) {
+                results[i] = amount.getAmountInCents();
+                continue;
+            }
+            int fromIndex = snapshot.indexOf(amount.getCurrency());
+            if (fromIndex < 0) {
+                throw noRate(amount.getCurrency(), amount, target);
+            }
+            if (targetIndex < 0) {
+                throw noRate(target, amount, target);
+            }
+            results[i] = ExchangeRateTable.convert(amount.getAmountInCents(), 
+                    snapshot.crossFactor(fromIndex, targetIndex));
+        }
+    }
+    
+    /**
+     * Adds up an array of currency amounts in a single currency, in one pass 
+     * with one table.
+     * @param amounts The amounts to add up. For example, $100.00, &euro;92.00 
+     * and &yen;15000. May be of different currencies.
+     * @param target The currency to report the total in. For example, U.S. 
+     * dollars.
+     * @return The total. For example, $300.00 if the rates are 0.92 euros and 
+     * 150 yen to the dollar.
+     * @throws CurrencyConversionNeededException If any of the currencies is 
+     * not in the current table.
+     * @throws ArithmeticException If the total overflows.
+     */
+    public CurrencyAmount total(CurrencyAmount[] amounts, Currency target) {
+        CurrencyAccumulator accumulator = new CurrencyAccumulator(target);
+        ExchangeRateTable snapshot = this.table;
+        for (CurrencyAmount amount : amounts) {
+            addTo(snapshot, accumulator, amount);
+        }
+        return accumulator.toCurrencyAmount();
+    }
+    
+    /**
+     * Adds a currency amount to a running total, converting it to the total's 
+     * currency if necessary.
+     * @param total The running total. For example, $200.00.
+     * @param amount The amount to add. For example, &euro;92.00.
+     * @throws CurrencyConversionNeededException If either currency is not in 
+     * the current table.
+     * @throws ArithmeticException If the total overflows.
+     */
+    public void addTo(CurrencyAccumulator total, CurrencyAmount amount) {
+        addTo(this.table, total, amount);
+    }
+    
+    private static void addTo(ExchangeRateTable snapshot, 
+            CurrencyAccumulator total, CurrencyAmount amount) {
+        Currency target = total.getCurrency();
+        if (amount.getCurrency() == target) {
+            total.add(amount.getAmountInCents());
+        } else {
+            total.add(snapshot.convertCents(amount.getAmountInCents(), 
+                    amount.getCurrency(), target));
+        }
+    }
+    
+    /**
+     * Sole constructor.
+     * @param initialTable The exchange rate table to start with. Must not be 
+     * null.
+     * @throws NullPointerException If <code>initialTable</code> is null.
+     */
+    public CurrencyConverter(ExchangeRateTable initialTable) {
+        if (initialTable == null) {
+            String excMsg = "Exchange rate table must not be null";
+            throw new NullPointerException(excMsg);
+        }
+        this.table = initialTable;
+    }
+    
+}
@@ -0,0 +1,347 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package currency;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Formats and parses amounts of a particular currency. The currency symbol and 
+ * the number of fraction digits are looked up once, when the format for a 
+ * currency and locale is first requested, and reused after that. So if the 
+ * default locale changes, the next format requested for a currency has the 
+ * symbol for the new default locale. Amounts are formatted 
+ * straight into a <code>StringBuilder</code> or other <code>Appendable</code> 
+ * and parsed straight from a <code>CharSequence</code> into a <code>long</code> 
+ * of cents (or whatever the minor unit of the currency is), without any 
+ * intermediate strings. Instances are immutable and may be shared between 
+ * threads.
+ * @author Alonso del Arte
+ */
+public final class CurrencyFormat {
+    
+    private static final Map<Locale, Map<Currency, CurrencyFormat>> FORMATS 
+            = new ConcurrentHashMap<>();
+    
+    private static final Map<Locale, Map<String, Currency>> SYMBOLS 
+            = new ConcurrentHashMap<>();
+    
+    private static final Currency DOLLARS = Currency.getInstance("USD");
+    
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1000L, 
+        10000L};
+    
+    private final Currency currency;
+    
+    private final String symbol;
+    
+    private final int fractionDigits;
+    
+    private final long scale;
+    
+    /**
+     * Gives the format for a currency with the symbol for the default locale.
+     * @param currency The currency. For example, U.S. dollars.
+     * @return The format. For example, a format that gives "$499.89" for 49989 
+     * cents if the default locale is U.S. English.
+     * @throws IllegalArgumentException If the currency has no default fraction 
+     * digits, e.g., gold.
+     */
+    public static CurrencyFormat forCurrency(Currency currency) {
+        return forCurrency(currency, Locale.getDefault());
+    }
+    
+    /**
+     * Gives the format for a currency with the symbol for a given locale. The 
+     * format is created the first time it is requested for that currency and 
+     * locale, and reused after that.
+     * @param currency The currency. For example, U.S. dollars.
+     * @param locale The locale to take the currency symbol from. For example, 
+     * Canadian English.
+     * @return The format. For example, a format that gives "US$499.89" for 
+     * 49989 cents.
+     * @throws IllegalArgumentException If the currency has no default fraction 
+     * digits, e.g., gold.
+     */
+    public static CurrencyFormat forCurrency(Currency currency, 
+            Locale locale) {
+        return FORMATS.computeIfAbsent(locale, 
+                key -> new ConcurrentHashMap<>()).computeIfAbsent(currency, 
+                        key -> new CurrencyFormat(key, locale));
+    }
+    
+    /**
+     * Gives the currency this format is for.
+     * @return The currency. For example, euros.
+     */
+    public Currency getCurrency() {
+        return this.currency;
+    }
+    
+    /**
+     * Gives the currency symbol that this format puts in front of amounts.
+     * @return The symbol. For example, "$" for U.S. dollars if the default 
+     * locale is U.S. English.
+     */
+    public String getSymbol() {
+        return this.symbol;
+    }
+    
+    /**
+     * Appends an amount to a <code>StringBuilder</code>. Aside from possibly 
+     * growing the builder, this does not create any objects.
+     * @param cents The amount in cents. For example, &minus;8.
+     * @param builder The builder to append to. For example, a builder that 
+     * has "Paid " so far.
+     * @return The same builder, for chaining calls. In the example, the builder 
+     * would now have "Paid $-0.08".
+     */
+    public StringBuilder appendTo(long cents, StringBuilder builder) {
+        try {
+            this.appendTo(cents, (Appendable) builder);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+        return builder;
+    }
+    
+    /**
+     * Appends an amount to an <code>Appendable</code>, such as a 
+     * <code>Writer</code> for a ledger file.
+     * @param cents The amount in cents. For example, 29505 for Libyan dinars.
+     * @param out Where to append the amount.
+     * @throws IOException If <code>out</code> throws it.
+     */
+    public void appendTo(long cents, Appendable out) throws IOException {
+        out.append(this.symbol);
+        if (this.fractionDigits == 0) {
+            appendDigits(cents, out);
+            return;
+        }
+        long units = cents / this.scale;
+        long fraction = cents % this.scale;
+        if (cents < 0) {
+            out.append('-');
+            units = -units;
+            fraction = -fraction;
+        }
+        appendDigits(units, out);
+        out.append('.');
+        for (int i = this.fractionDigits - 1; i > 0; i--) {
+            if (fraction >= POWERS_OF_TEN[i]) {
+                break;
+            }
+            out.append('0');
+        }
+        appendDigits(fraction, out);
+    }
+    
+    private static void appendDigits(long number, Appendable out) 
+            throws IOException {
+        if (out instanceof StringBuilder builder) {
+            builder.append(number);
+        } else {
+            out.append(Long.toString(number));
+        }
+    }
+    
+    /**
+     * Formats an amount as a string.
+     * @param cents The amount in cents. For example, 49989.
+     * @return The formatted amount. For example, "$499.89".
+     */
+    public String format(long cents) {
+        return this.appendTo(cents, new StringBuilder(24)).toString();
+    }
+    
+    /**
+     * Parses an amount of this format's currency. The amount may begin with 
+     * this format's symbol or with the ISO 4217 code of the currency, and may 
+     * have a minus sign before or after that. Commas in the whole part are 
+     * ignored. A decimal point is optional, but there may not be more digits 
+     * after it than the currency has fraction digits.
+     * @param s The text to parse. For example, "$-0.08".
+     * @return The amount in cents. For example, &minus;8.
+     * @throws NumberFormatException If the text is not a valid amount of this 
+     * currency, or if the amount would not fit in a <code>long</code>.
+     */
+    public long parseCents(CharSequence s) {
+        int length = s.length();
+        int pos = 0;
+        boolean negative = false;
+        if (pos < length && s.charAt(pos) == '-') {
+            negative = true;
+            pos++;
+        }
+        if (startsWith(s, pos, this.symbol)) {
+            pos += this.symbol.length();
+        } else if (startsWith(s, pos, this.currency.getCurrencyCode())) {
+            pos += 3;
+        } else {
+            String excMsg = "\"" + s + "\" is not an amount of " 
+                    + this.currency.getCurrencyCode();
+            throw new NumberFormatException(excMsg);
+        }
+        if (!negative && pos < length && s.charAt(pos) == '-') {
+            negative = true;
+            pos++;
+        }
+        return this.parseNumber(s, pos, negative);
+    }
+    
+    private long parseNumber(CharSequence s, int start, boolean negative) {
+        int length = s.length();
+        long units = 0L;
+        long fraction = 0L;
+        int fractionCount = -1;
+        boolean sawDigit = false;
+        for (int i = start; i < length; i++) {
+            char ch = s.charAt(i);
+            if (ch == '.' && fractionCount < 0) {
+                fractionCount = 0;
+                continue;
+            }
+            if (ch == ',' && fractionCount < 0) {
+                continue;
+            }
+            if (ch < '0' || ch > '9') {
+                String excMsg = "Unexpected character '" + ch 
+                        + "' at position " + i + " of \"" + s + "\"";
+                throw new NumberFormatException(excMsg);
+            }
+            sawDigit = true;
+            int digit = ch - '0';
+            if (fractionCount < 0) {
+                if (units > (Long.MAX_VALUE - digit) / 10) {
+                    throw tooLarge(s);
+                }
+                units = units * 10 + digit;
+            } else {
+                fractionCount++;
+                if (fractionCount > this.fractionDigits) {
+                    String excMsg = "\"" + s + "\" has more than " 
+                            + this.fractionDigits + " fraction digits";
+                    throw new NumberFormatException(excMsg);
+                }
+                fraction = fraction * 10 + digit;
+            }
+        }
+        if (!sawDigit) {
+            String excMsg = "\"" + s + "\" has no digits";
+            throw new NumberFormatException(excMsg);
+        }
+        if (fractionCount > 0) {
+            fraction *= POWERS_OF_TEN[this.fractionDigits - fractionCount];
+        }
+        if (units > (Long.MAX_VALUE - fraction) / this.scale) {
+            throw tooLarge(s);
+        }
+        long cents = units * this.scale + fraction;
+        return negative ? -cents : cents;
+    }
+    
+    private static NumberFormatException tooLarge(CharSequence s) {
+        String excMsg = "\"" + s + "\" is too large";
+        return new NumberFormatException(excMsg);
+    }
+    
+    private static boolean startsWith(CharSequence s, int offset, 
+            String prefix) {
+        int prefixLength = prefix.length();
+        if (prefixLength == 0 || s.length() - offset < prefixLength) {
+            return false;
+        }
+        for (int i = 0; i < prefixLength; i++) {
+            if (s.charAt(offset + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Parses an amount, figuring out the currency from the symbol or ISO 4217 
+     * code at the start. Symbols are those of the default locale. The dollar 
+     * sign is taken to mean U.S. dollars.
+     * @param s The text to parse. For example, "LYD7063.255".
+     * @return The amount. For example, 7,063.255 Libyan dinars.
+     * @throws NumberFormatException If the currency can't be figured out, or 
+     * if the text is not a valid amount of that currency.
+     */
+    public static CurrencyAmount parse(CharSequence s) {
+        int length = s.length();
+        int start = (length > 0 && s.charAt(0) == '-') ? 1 : 0;
+        int end = start;
+        while (end < length && !isNumberChar(s.charAt(end))) {
+            end++;
+        }
+        String prefix = s.subSequence(start, end).toString();
+        Locale locale = Locale.getDefault();
+        Currency currency = SYMBOLS.computeIfAbsent(locale, 
+                CurrencyFormat::mapSymbols).get(prefix);
+        if (currency == null) {
+            String excMsg = "Can't determine currency of \"" + s + "\"";
+            throw new NumberFormatException(excMsg);
+        }
+        CurrencyFormat format = forCurrency(currency, locale);
+        boolean negative = start == 1;
+        if (!negative && end < length && s.charAt(end) == '-') {
+            negative = true;
+            end++;
+        }
+        return new CurrencyAmount(format.parseNumber(s, end, negative), 
+                currency);
+    }
+    
+    private static boolean isNumberChar(char ch) {
+        return (ch >= '0' && ch <= '9') || ch == '-' || ch == '.';
+    }
+    
+    private static Map<String, Currency> mapSymbols(Locale locale) {
+        Map<String, Currency> symbols = new HashMap<>();
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            if (currency.getDefaultFractionDigits() < 0) {
+                continue;
+            }
+            symbols.put(currency.getCurrencyCode(), currency);
+            symbols.putIfAbsent(currency.getSymbol(locale), currency);
+        }
+        symbols.put(DOLLARS.getSymbol(locale), DOLLARS);
+        symbols.put("$", DOLLARS);
+        return symbols;
+    }
+    
+    private CurrencyFormat(Currency currency, Locale locale) {
+        int digits = currency.getDefaultFractionDigits();
+        if (digits < 0 || digits >= POWERS_OF_TEN.length) {
+            String excMsg = "Can't use currency " + currency.toString() 
+                    + " with default fraction digits " + digits;
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.currency = currency;
+        this.symbol = currency.getSymbol(locale);
+        this.fractionDigits = digits;
+        this.scale = POWERS_OF_TEN[digits];
+    }
+    
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package currency;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A snapshot of exchange rates relative to a base currency. The cross rate for 
+ * every pair of currencies in the table is worked out once, when the table is 
+ * constructed, already adjusted for the currencies' differing numbers of 
+ * fraction digits, so that converting an amount in cents is a single 
+ * multiplication. Instances are immutable and may be shared between threads.
+ * <p>A table can be read from a text file in which the first line that is not 
+ * blank and not a comment gives the base currency, e.g., "base USD", and each 
+ * line after that gives a currency code and how many units of that currency 
+ * one unit of the base currency buys, e.g., "EUR 0.92". Lines starting with # 
+ * are comments.</p>
+ * @author Alonso del Arte
+ */
+public final class ExchangeRateTable {
+    
+    private final Currency baseCurrency;
+    
+    private final Map<Currency, Integer> indices = new HashMap<>();
+    
+    private final Currency[] currencies;
+    
+    private final double[] ratesPerBase;
+    
+    private final double[][] crossFactors;
+    
+    /**
+     * Gives the base currency of this table.
+     * @return The base currency. For example, U.S. dollars.
+     */
+    public Currency getBaseCurrency() {
+        return this.baseCurrency;
+    }
+    
+    /**
+     * Tells whether this table has a rate for a currency.
+     * @param currency The currency. For example, euros.
+     * @return True if the table has a rate for the currency, false otherwise. 
+     * Always true for the base currency.
+     */
+    public boolean hasRate(Currency currency) {
+        return this.indices.containsKey(currency);
+    }
+    
+    int indexOf(Currency currency) {
+        Integer index = this.indices.get(currency);
+        return (index == null) ? -1 : index;
+    }
+    
+    double crossFactor(int fromIndex, int toIndex) {
+        return this.crossFactors[fromIndex][toIndex];
+    }
+    
+    /**
+     * Gives the exchange rate from one currency to another, in whole units.
+     * @param from The currency to convert from. For example, euros.
+     * @param to The currency to convert to. For example, U.S. dollars.
+     * @return How many units of <code>to</code> one unit of <code>from</code> 
+     * buys. For example, 1.087 if one dollar buys 0.92 euros.
+     * @throws CurrencyConversionNeededException If either currency is not in 
+     * this table.
+     */
+    public double getRate(Currency from, Currency to) {
+        int fromIndex = this.requireIndex(from, to);
+        int toIndex = this.requireIndex(to, from);
+        return this.ratesPerBase[toIndex] / this.ratesPerBase[fromIndex];
+    }
+    
+    private int requireIndex(Currency currency, Currency other) {
+        int index = this.indexOf(currency);
+        if (index < 0) {
+            String excMsg = "No exchange rate for " 
+                    + currency.getCurrencyCode() + " in this table";
+            throw new CurrencyConversionNeededException(excMsg, 
+                    new CurrencyAmount(0, currency), 
+                    new CurrencyAmount(0, other));
+        }
+        return index;
+    }
+    
+    static long convert(long cents, double factor) {
+        double converted = cents * factor;
+        if (Math.abs(converted) >= 0x1p63) {
+            String excMsg = "Converting " + cents + " by factor " + factor 
+                    + " overflows";
+            throw new ArithmeticException(excMsg);
+        }
+        return Math.round(converted);
+    }
+    
+    /**
+     * Converts an amount in cents from one currency to another. The result is 
+     * rounded to the nearest cent of the target currency.
+     * @param cents The amount in cents of <code>from</code>. For example, 9200.
+     * @param from The currency to convert from. For example, euros.
+     * @param to The currency to convert to. For example, U.S. dollars.
+     * @return The amount in cents of <code>to</code>. For example, 10000.
+     * @throws CurrencyConversionNeededException If either currency is not in 
+     * this table.
+     * @throws ArithmeticException If the result is too large.
+     */
+    public long convertCents(long cents, Currency from, Currency to) {
+        int fromIndex = this.requireIndex(from, to);
+        int toIndex = this.requireIndex(to, from);
+        return convert(cents, this.crossFactors[fromIndex][toIndex]);
+    }
+    
+    /**
+     * Reads an exchange rate table from a text file. See the class 
+     * documentation for the format.
+     * @param path The path of the file. For example, "rates.txt".
+     * @return The table.
+     * @throws IOException If the file can't be read.
+     * @throws IllegalArgumentException If the file is not in the right format.
+     */
+    public static ExchangeRateTable load(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, 
+                StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+    
+    /**
+     * Reads an exchange rate table. See the class documentation for the 
+     * format.
+     * @param reader The reader to read from. It will not be closed.
+     * @return The table.
+     * @throws IOException If the reader throws it.
+     * @throws IllegalArgumentException If the text is not in the right format.
+     */
+    public static ExchangeRateTable read(Reader reader) throws IOException {
+        BufferedReader buffered = (reader instanceof BufferedReader br) ? br 
+                : new BufferedReader(reader);
+        Currency base = null;
+        Map<Currency, Double> rates = new HashMap<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = buffered.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields.length != 2) {
+                String excMsg = "Line " + lineNumber + " \"" + line 
+                        + "\" should have two fields";
+                throw new IllegalArgumentException(excMsg);
+            }
+            if (base == null) {
+                if (!fields[0].equals("base")) {
+                    String excMsg = "Line " + lineNumber 
+                            + " should give the base currency, not \"" + line 
+                            + "\"";
+                    throw new IllegalArgumentException(excMsg);
+                }
+                base = Currency.getInstance(fields[1]);
+            } else {
+                try {
+                    rates.put(Currency.getInstance(fields[0]), 
+                            Double.valueOf(fields[1]));
+                } catch (NumberFormatException nfe) {
+                    String excMsg = "Line " + lineNumber + " \"" + line 
+                            + "\" does not have a valid rate";
+                    throw new IllegalArgumentException(excMsg, nfe);
+                }
+            }
+        }
+        if (base == null) {
+            String excMsg = "No base currency given";
+            throw new IllegalArgumentException(excMsg);
+        }
+        return new ExchangeRateTable(base, rates);
+    }
+    
+    /**
+     * Sole constructor.
+     * @param base The base currency. For example, U.S. dollars.
+     * @param rates How many units of each currency one unit of the base 
+     * currency buys. For example, 0.92 for euros. The base currency may be 
+     * left out, in which case its rate is taken to be 1.
+     * @throws IllegalArgumentException If any rate is 0, negative, infinite or 
+     * NaN, if the base currency is given a rate other than 1, or if any 
+     * currency has no default fraction digits, e.g., gold.
+     */
+    public ExchangeRateTable(Currency base, Map<Currency, Double> rates) {
+        Map<Currency, Double> allRates = new HashMap<>(rates);
+        Double baseRate = allRates.putIfAbsent(base, 1.0);
+        if (baseRate != null && baseRate != 1.0) {
+            String excMsg = "Base currency " + base.getCurrencyCode() 
+                    + " should have rate 1, not " + baseRate;
+            throw new IllegalArgumentException(excMsg);
+        }
+        int count = allRates.size();
+        this.baseCurrency = base;
+        this.currencies = new Currency[count];
+        this.ratesPerBase = new double[count];
+        int index = 0;
+        for (Map.Entry<Currency, Double> entry : allRates.entrySet()) {
+            Currency currency = entry.getKey();
+            double rate = entry.getValue();
+            if (!(rate > 0.0) || !Double.isFinite(rate)) {
+                String excMsg = "Rate " + rate + " for " 
+                        + currency.getCurrencyCode() + " is not valid";
+                throw new IllegalArgumentException(excMsg);
+            }
+            if (currency.getDefaultFractionDigits() < 0) {
+                String excMsg = "Can't use currency " + currency.toString() 
+                        + " with default fraction digits -1";
+                throw new IllegalArgumentException(excMsg);
+            }
+            this.indices.put(currency, index);
+            this.currencies[index] = currency;
+            this.ratesPerBase[index] = rate;
+            index++;
+        }
+        this.crossFactors = new double[count][count];
+        for (int i = 0; i < count; i++) {
+            int fromDigits = this.currencies[i].getDefaultFractionDigits();
+            for (int j = 0; j < count; j++) {
+                int toDigits = this.currencies[j].getDefaultFractionDigits();
+                this.crossFactors[i][j] = (i == j) ? 1.0 
+                        : this.ratesPerBase[j] / this.ratesPerBase[i] 
+                        * Math.pow(10, toDigits - fromDigits);
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package playingcards;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Deals cards over a small binary protocol, for clients that only need card 
+ * codes and can do without JSON and HTTP. The cards come from the default shoe 
+ * of a {@link CardJSONServer}, so both servers deal from the same shoe.
+ * <p>A request is a big-endian 32-bit integer, how many cards to deal, from 1 
+ * to {@link CardJSONServer#MAXIMUM_BATCH_SIZE}. The response is a big-endian 
+ * 32-bit integer, how many cards follow, then a record of {@value 
+ * #RECORD_SIZE} bytes for each card: the card's code (its position in a brand 
+ * new deck, from 0 for the Ace of the first suit to 51 for the King of the last 
+ * suit), then the shoe ID and the deck ID as big-endian 32-bit integers. A 
+ * client may send several requests without waiting for the responses, which 
+ * come back in order. If the count in a request is out of range, the response 
+ * count is &minus;1 and the server closes the connection.</p>
+ * <p>All connections are handled on one thread with non-blocking sockets.</p>
+ * @author Alonso del Arte
+ */
+public final class CardBinaryServer implements Closeable {
+    
+    /**
+     * How many bytes a request takes up.
+     */
+    public static final int REQUEST_SIZE = Integer.BYTES;
+    
+    /**
+     * How many bytes the count at the start of a response takes up.
+     */
+    public static final int RESPONSE_HEADER_SIZE = Integer.BYTES;
+    
+    /**
+     * How many bytes the record of each card takes up.
+     */
+    public static final int RECORD_SIZE = 1 + 2 * Integer.BYTES;
+    
+    private static final int PIPELINED_REQUESTS = 64;
+    
+    private final CardJSONServer.DealingShoe shoe;
+    
+    private final ServerMetrics metrics;
+    
+    private final ServerSocketChannel serverChannel;
+    
+    private final Selector selector;
+    
+    private final Thread selectorThread;
+    
+    private volatile boolean closed = false;
+    
+    private static final class Connection {
+        
+        private final SocketChannel channel;
+        
+        private final ByteBuffer in 
+                = ByteBuffer.allocate(PIPELINED_REQUESTS * REQUEST_SIZE);
+        
+        private final ByteBuffer out 
+                = ByteBuffer.allocate(RESPONSE_HEADER_SIZE 
+                        + CardJSONServer.MAXIMUM_BATCH_SIZE * RECORD_SIZE);
+        
+        private final Consumer<ProvenanceInscribedPlayingCard> recordWriter 
+                = this::putRecord;
+        
+        private boolean closeAfterWriting = false;
+        
+        private void putRecord(ProvenanceInscribedPlayingCard card) {
+            this.out.put((byte) CardOrder.codeOf(card)) 
+                    .putInt(card.getShoeHash()).putInt(card.getDeckHash());
+        }
+        
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+            this.out.flip();
+        }
+        
+    }
+    
+    private void accept() throws IOException {
+        SocketChannel channel = this.serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        channel.register(this.selector, SelectionKey.OP_READ, 
+                new Connection(channel));
+    }
+    
+    private void read(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        if (connection.channel.read(connection.in) < 0) {
+            closeConnection(key);
+            return;
+        }
+        this.respond(key);
+    }
+    
+    private void respond(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        connection.channel.write(connection.out);
+        while (!connection.out.hasRemaining()) {
+            if (connection.closeAfterWriting) {
+                closeConnection(key);
+                return;
+            }
+            connection.in.flip();
+            boolean complete = connection.in.remaining() >= REQUEST_SIZE;
+            if (complete) {
+                int count = connection.in.getInt();
+                this.fillResponse(connection, count);
+            }
+            connection.in.compact();
+            if (!complete) {
+                break;
+            }
+            connection.channel.write(connection.out);
+        }
+        int interest = connection.out.hasRemaining() 
+                ? SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+        key.interestOps(interest);
+    }
+    
+    private void fillResponse(Connection connection, int count) {
+        long start = System.nanoTime();
+        this.metrics.requestStarted();
+        connection.out.clear();
+        if (count < 1 || count > CardJSONServer.MAXIMUM_BATCH_SIZE) {
+            connection.out.putInt(-1);
+            connection.closeAfterWriting = true;
+        } else {
+            connection.out.putInt(count);
+            this.shoe.deal(count, connection.recordWriter);
+        }
+        connection.out.flip();
+        this.metrics.requestFinished(System.nanoTime() - start);
+    }
+    
+    /**
+     * Cancels a connection's key and closes its channel. Any exception from 
+     * closing the channel is ignored, as the connection is going away anyway.
+     * @param key The key of the connection to close.
+     */
+    private static void closeConnection(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ioe) {
+        }
+    }
+    
+    /**
+     * Accepts connections and answers requests until the server is closed. 
+     * Closing the server closes the selector, which ends this loop with a 
+     * {@code ClosedSelectorException} if it was waiting in a select.
+     */
+    private void run() {
+        try {
+            while (!this.closed) {
+                this.selector.select();
+                Iterator<SelectionKey> keys 
+                        = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isAcceptable()) {
+                            this.accept();
+                        } else if (key.isWritable()) {
+                            this.respond(key);
+                        } else if (key.isReadable()) {
+                            this.read(key);
+                        }
+                    } catch (IOException ioe) {
+                        if (key.channel() == this.serverChannel) {
+                            throw ioe;
+                        }
+                        closeConnection(key);
+                    }
+                }
+            }
+        } catch (ClosedSelectorException cse) {
+        } catch (IOException ioe) {
+            if (!this.closed) {
+                throw new UncheckedIOException(ioe);
+            }
+        }
+    }
+    
+    /**
+     * Tells which port the server is listening on. This is useful when the 
+     * server was constructed with port 0, to let the operating system pick a 
+     * free port.
+     * @return The port. For example, 8090.
+     */
+    public int getPort() {
+        return this.serverChannel.socket().getLocalPort();
+    }
+    
+    /**
+     * Stops listening and closes all connections. Closing a server that has 
+     * already been closed has no effect.
+     * @throws IOException If there is a problem closing the sockets.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.selector.wakeup();
+        try {
+            this.selectorThread.join();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : this.selector.keys()) {
+            key.channel().close();
+        }
+        this.selector.close();
+        this.serverChannel.close();
+    }
+    
+    /**
+     * Sole constructor. The server starts listening right away, on a thread 
+     * of its own.
+     * @param cardServer The JSON card server whose default shoe to deal from. 
+     * It doesn't need to be activated.
+     * @param port Which local host port to listen on. For example, 8090. May 
+     * be 0, in which case the operating system picks a free port, which 
+     * {@link #getPort()} then tells.
+     * @throws IllegalArgumentException If <code>port</code> is outside the 
+     * range 0 to 65535.
+     * @throws IOException If the server socket can't be opened, such as 
+     * because some other program is already listening on the port.
+     */
+    public CardBinaryServer(CardJSONServer cardServer, int port) 
+            throws IOException {
+        if (port < 0 || port > 65535) {
+            String excMsg = "Port number " + port 
+                    + " should be from 0 to 65535";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.shoe = cardServer.getDefaultShoe();
+        this.metrics = cardServer.getMetrics();
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        try {
+            this.serverChannel.bind(new InetSocketAddress("localhost", port));
+            this.serverChannel.configureBlocking(false);
+            this.serverChannel.register(this.selector, 
+                    SelectionKey.OP_ACCEPT);
+        } catch (IOException ioe) {
+            this.serverChannel.close();
+            this.selector.close();
+            throw ioe;
+        }
+        this.selectorThread = new Thread(this::run, "CardBinaryServer-" 
+                + this.getPort());
+        this.selectorThread.setDaemon(true);
+        this.selectorThread.start();
+    }
+    
+}
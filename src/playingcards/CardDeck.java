@@ -17,8 +17,9 @@
 package playingcards;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Represents a standard deck of 52 cards, without Jokers. Since some card games
@@ -37,6 +38,10 @@ public class CardDeck implements CardSupplier {
     final List<PlayingCard> cards;
 
     int dealCount = 0;
+    
+    private long orderFingerprint;
+    
+    private boolean fingerprinted = false;
 
     /**
      * Tells whether the deck can give another card.
@@ -81,14 +86,33 @@ public class CardDeck implements CardSupplier {
     }
 
     /**
-     * Determines whether this deck is in the same order as another deck.
+     * Gives a 64-bit fingerprint of the order of the cards in this deck, 
+     * including the cards already dealt. Two decks with different fingerprints 
+     * are definitely in different orders. The fingerprint is worked out during 
+     * the shuffle, or the first time it's asked for, so that comparing 
+     * fingerprints takes constant time.
+     * @return The fingerprint. For example, 4127660385218723371.
+     */
+    public long fingerprint() {
+        if (!this.fingerprinted) {
+            this.orderFingerprint = CardOrder.fingerprintOf(this.cards);
+            this.fingerprinted = true;
+        }
+        return this.orderFingerprint;
+    }
+    
+    /**
+     * Determines whether this deck is in the same order as another deck. Decks 
+     * with different fingerprints are told apart without going through the 
+     * cards.
      * @param other The deck to compare this deck to for order.
      * @return True if both decks have dealt out the same number of cards 
      * <em>and</em> the remaining cards are in the same order, false otherwise.
      */
     public boolean sameOrderAs(CardDeck other) {
-        return (this.cards.equals(other.cards)) 
-                && (this.dealCount == other.dealCount);
+        return (this.dealCount == other.dealCount) 
+                && (this.fingerprint() == other.fingerprint()) 
+                && (this.cards.equals(other.cards));
     }
 
     /**
@@ -105,8 +129,13 @@ public class CardDeck implements CardSupplier {
             String excMsg = "Can't shuffle deck with one or no cards left";
             throw new IllegalStateException(excMsg);
         }
-        Collections.shuffle(this.cards.subList(this.dealCount, 
-                this.cards.size()));
+        this.shuffle(ThreadLocalRandom.current());
+    }
+    
+    void shuffle(Random random) {
+        this.orderFingerprint = CardOrder.shuffle(this.cards, this.dealCount, 
+                this.cards.size(), random);
+        this.fingerprinted = true;
     }
 
     /**
@@ -0,0 +1,322 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package playingcards;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Passes dealt cards and shoe rollovers on to any number of spectators, as 
+ * server-sent events. Publishing an event costs the same no matter how many 
+ * spectators there are: the event is encoded once and put in a ring of the 
+ * most recent events, and each spectator reads from the ring at its own pace. 
+ * So a spectator can only fall behind by as many events as the ring holds; 
+ * after that, depending on its {@link Overflow} policy, it either skips ahead 
+ * to the oldest event still in the ring or is disconnected. Either way, 
+ * dealing never waits on a spectator. Spectators that have read everything 
+ * can wait for the next event with {@link Subscription#awaitEvents(long)}, 
+ * and publishing wakes them up, but only takes a lock if any are waiting.
+ * @author Alonso del Arte
+ */
+final class CardEventStream {
+    
+    /**
+     * What to do with a spectator that falls so far behind that events it has 
+     * not read yet have been overwritten.
+     */
+    enum Overflow {
+        
+        /**
+         * Skip ahead to the oldest event still available, after telling the 
+         * spectator how many events were dropped.
+         */
+        DROP, 
+        
+        /**
+         * Stop sending events to the spectator.
+         */
+        DISCONNECT 
+        
+    }
+    
+    private static final byte[] CARD_EVENT_HEAD 
+            = "event: card\ndata: ".getBytes(StandardCharsets.UTF_8);
+    
+    private static final class Event {
+        
+        private final long sequence;
+        
+        private final byte[] frame;
+        
+        Event(long sequence, byte[] frame) {
+            this.sequence = sequence;
+            this.frame = frame;
+        }
+        
+    }
+    
+    private final int capacity;
+    
+    private final AtomicReferenceArray<Event> ring;
+    
+    private final AtomicLong nextSequence = new AtomicLong();
+    
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    
+    private final AtomicInteger waiterCount = new AtomicInteger();
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    private final Condition published = this.lock.newCondition();
+
+    private volatile boolean closed = false;
+    
+    static byte[] encode(String eventName, String data) {
+        return ("event: " + eventName + "\ndata: " + data + "\n\n") 
+                .getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Tells whether anyone is listening. Publishers can check this first to 
+     * avoid encoding events nobody will read.
+     * @return True if there is at least one subscription open, false 
+     * otherwise.
+     */
+    boolean hasSubscribers() {
+        return this.subscriberCount.get() > 0;
+    }
+    
+    int countSubscribers() {
+        return this.subscriberCount.get();
+    }
+    
+    /**
+     * Publishes an event to all subscribers. Safe to call from several threads 
+     * at once.
+     * @param eventName The name of the event. For example, "card".
+     * @param data The data of the event, all on one line. For example, the 
+     * JSON of a card.
+     */
+    void publish(String eventName, String data) {
+        this.publish(encode(eventName, data));
+    }
+    
+    private void publish(byte[] frame) {
+        long sequence = this.nextSequence.getAndIncrement();
+        this.ring.set((int) (sequence % this.capacity), 
+                new Event(sequence, frame));
+        if (this.waiterCount.get() > 0) {
+            this.wakeWaiters();
+        }
+    }
+    
+    private void wakeWaiters() {
+        this.lock.lock();
+        try {
+            this.published.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+    
+    /**
+     * Publishes a dealt card. The event is written with {@link 
+     * ProvenanceInscribedPlayingCard#writeJSON(byte[], int)}, so it takes only 
+     * one array copy to make.
+     * @param card The card. For example, 7&#9830;.
+     */
+    void publishCard(ProvenanceInscribedPlayingCard card) {
+        byte[] buffer = new byte[CARD_EVENT_HEAD.length 
+                + ProvenanceInscribedPlayingCard.MAXIMUM_JSON_LENGTH + 2];
+        System.arraycopy(CARD_EVENT_HEAD, 0, buffer, 0, 
+                CARD_EVENT_HEAD.length);
+        int position = card.writeJSON(buffer, CARD_EVENT_HEAD.length);
+        buffer[position++] = '\n';
+        buffer[position++] = '\n';
+        this.publish(Arrays.copyOf(buffer, position));
+    }
+    
+    /**
+     * Publishes the replacement of a shoe that ran out.
+     * @param previousShoeID The ID of the shoe that ran out. For example, 
+     * 135721597.
+     * @param nextShoeID The ID of the shoe that replaces it. For example, 
+     * 1867750575.
+     */
+    void publishRollover(int previousShoeID, int nextShoeID) {
+        this.publish("rollover", "{\"previousShoeID\":" + previousShoeID 
+                + ",\"shoeID\":" + nextShoeID + "}");
+    }
+    
+    /**
+     * Starts following the events. The subscription only gets events 
+     * published after this call.
+     * @param overflow What to do if the subscription falls too far behind. 
+     * For example, {@link Overflow#DROP}.
+     * @return A new subscription.
+     */
+    Subscription subscribe(Overflow overflow) {
+        return new Subscription(overflow);
+    }
+    
+    /**
+     * Closes the stream. Subscriptions find out the next time they read from 
+     * the stream, and any waiting for events stop waiting.
+     */
+    void close() {
+        this.closed = true;
+        this.wakeWaiters();
+    }
+    
+    /**
+     * Follows a card event stream for one spectator. Meant to be used from 
+     * only one thread at a time.
+     */
+    final class Subscription implements AutoCloseable {
+        
+        private final Overflow overflow;
+        
+        private long cursor;
+        
+        private boolean open = true;
+        
+        /**
+         * Writes out the events that have been published since the previous 
+         * call, or since subscribing.
+         * @param out Where to write the events. For example, the body of an 
+         * HTTP response.
+         * @return How many events were written, counting any notice of 
+         * dropped events. May be 0 if there were none, or &minus;1 if this 
+         * subscription has been closed, either because it fell too far behind 
+         * and its overflow policy is {@link Overflow#DISCONNECT} or because 
+         * the stream has been closed.
+         * @throws IOException If there is a problem writing to 
+         * <code>out</code>.
+         */
+        int drainTo(OutputStream out) throws IOException {
+            if (!this.open || CardEventStream.this.closed) {
+                this.close();
+                return -1;
+            }
+            int written = 0;
+            while (true) {
+                Event event = CardEventStream.this.ring 
+                        .get((int) (this.cursor % CardEventStream.this 
+                                .capacity));
+                if (event == null || event.sequence < this.cursor) {
+                    return written;
+                }
+                if (event.sequence > this.cursor) {
+                    if (this.overflow == Overflow.DISCONNECT) {
+                        this.close();
+                        return -1;
+                    }
+                    long oldest = CardEventStream.this.nextSequence.get() 
+                            - CardEventStream.this.capacity;
+                    long skipTo = Math.max(oldest, this.cursor + 1);
+                    out.write(encode("dropped", "{\"count\":" 
+                            + (skipTo - this.cursor) + "}"));
+                    this.cursor = skipTo;
+                    written++;
+                    continue;
+                }
+                out.write(event.frame);
+                this.cursor++;
+                written++;
+            }
+        }
+        
+        private boolean isReady() {
+            if (!this.open || CardEventStream.this.closed) {
+                return true;
+            }
+            Event event = CardEventStream.this.ring 
+                    .get((int) (this.cursor % CardEventStream.this.capacity));
+            return event != null && event.sequence >= this.cursor;
+        }
+        
+        /**
+         * Waits for an event to be published that this subscription has not 
+         * read yet. Returns right away if there already is one.
+         * @param timeout How many milliseconds to wait at most. For example, 
+         * 15000.
+         * @return True if there is an event to read or the subscription has 
+         * been closed, so that {@link #drainTo(OutputStream)} should be called 
+         * next; false if the time ran out first.
+         * @throws InterruptedException If the calling thread is interrupted 
+         * while waiting.
+         */
+        boolean awaitEvents(long timeout) throws InterruptedException {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeout);
+            CardEventStream.this.waiterCount.incrementAndGet();
+            CardEventStream.this.lock.lock();
+            try {
+                while (!this.isReady()) {
+                    if (remaining <= 0L) {
+                        return false;
+                    }
+                    remaining = CardEventStream.this.published 
+                            .awaitNanos(remaining);
+                }
+                return true;
+            } finally {
+                CardEventStream.this.lock.unlock();
+                CardEventStream.this.waiterCount.decrementAndGet();
+            }
+        }
+        
+        @Override
+        public void close() {
+            if (this.open) {
+                this.open = false;
+                CardEventStream.this.subscriberCount.decrementAndGet();
+            }
+        }
+        
+        private Subscription(Overflow overflow) {
+            this.overflow = overflow;
+            this.cursor = CardEventStream.this.nextSequence.get();
+            CardEventStream.this.subscriberCount.incrementAndGet();
+        }
+        
+    }
+    
+    /**
+     * Sole constructor.
+     * @param capacity How many of the most recent events to keep for 
+     * subscribers that have not read them yet. For example, 1024.
+     * @throws IllegalArgumentException If <code>capacity</code> is less than 
+     * 1.
+     */
+    CardEventStream(int capacity) {
+        if (capacity < 1) {
+            String excMsg = "Capacity " + capacity + " should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.capacity = capacity;
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+    
+}
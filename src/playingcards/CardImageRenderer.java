@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package playingcards;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Gives PNG images of card faces for {@link CardJSONServer} to send. The 
+ * server has no drawing code of its own, so that this package doesn't depend 
+ * on the user interface packages. Instead, an implementation that draws the 
+ * cards is handed to the server with {@link 
+ * CardJSONServer#useCardImageRenderer(CardImageRenderer)}.
+ * @author Alonso del Arte
+ */
+public interface CardImageRenderer {
+    
+    /**
+     * A card image encoded in PNG format, and its entity tag.
+     */
+    final class EncodedImage {
+        
+        private final byte[] png;
+        
+        private final String entityTag;
+        
+        /**
+         * Gives the image as encoded in PNG format. The array is not copied, 
+         * so callers must not change it.
+         * @return The encoded image. For example, an array of 4968 bytes 
+         * starting with the PNG signature.
+         */
+        public byte[] getPNG() {
+            return this.png;
+        }
+        
+        /**
+         * Gives the strong entity tag of the image, quotation marks included, 
+         * as it goes in an "ETag" header.
+         * @return The entity tag. For example, "3f2a9c0b71e4d856", with the 
+         * quotation marks.
+         */
+        public String getEntityTag() {
+            return this.entityTag;
+        }
+        
+        /**
+         * Sole constructor. The entity tag is made from a hash of the bytes 
+         * of the image.
+         * @param png The encoded image. For example, an array of 4968 bytes 
+         * starting with the PNG signature. The array is not copied, so the 
+         * caller must not change it afterwards.
+         */
+        public EncodedImage(byte[] png) {
+            this.png = png;
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException nsae) {
+                throw new RuntimeException(nsae);
+            }
+            this.entityTag = "\"" + HexFormat.of() 
+                    .formatHex(digest.digest(png), 0, 8) + "\"";
+        }
+        
+    }
+    
+    /**
+     * Tells the narrowest image that can be asked for.
+     * @return The width in pixels. For example, 25.
+     */
+    int getMinimumWidth();
+    
+    /**
+     * Tells the widest image that can be asked for.
+     * @return The width in pixels. For example, 1000.
+     */
+    int getMaximumWidth();
+    
+    /**
+     * Tells the width that cards are drawn at when no width is asked for.
+     * @return The width in pixels. For example, 250.
+     */
+    int getUsualWidth();
+    
+    /**
+     * Gives the image of a card face at a given width. The height follows 
+     * from the width.
+     * @param card The card. For example, 9&#9829;.
+     * @param width The width of the image in pixels. For example, 125. Should 
+     * be from {@link #getMinimumWidth()} to {@link #getMaximumWidth()}.
+     * @return The image and its entity tag.
+     * @throws IllegalArgumentException If <code>width</code> is out of range.
+     */
+    EncodedImage getImage(PlayingCard card, int width);
+    
+    /**
+     * Gets the images of all the card faces at the given widths, so that an 
+     * implementation that keeps the images can have them ready before they're 
+     * first asked for.
+     * @param widths The widths in pixels. For example, 125 and 250.
+     * @throws IllegalArgumentException If any of the widths is out of range.
+     */
+    default void prerender(int... widths) {
+        for (int width : widths) {
+            for (Suit suit : Suit.values()) {
+                for (Rank rank : Rank.values()) {
+                    this.getImage(new PlayingCard(rank, suit), width);
+                }
+            }
+        }
+    }
+    
+}
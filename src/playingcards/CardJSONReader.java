@@ -0,0 +1,435 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package playingcards;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Reads provenance-inscribed cards from UTF-8 JSON, such as the responses of a 
+ * {@link CardJSONServer}, one byte at a time. No strings are made along the 
+ * way: field names, ranks and suits are matched byte for byte against lookup 
+ * tables worked out when the class is loaded, and the shoe and deck IDs are 
+ * worked out digit by digit. The fields of a card may come in any order, and 
+ * fields other than the rank, the suit, the shoe ID and the deck ID are 
+ * skipped. The only objects made are the cards themselves.
+ * @author Alonso del Arte
+ */
+final class CardJSONReader {
+    
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    
+    private static final int SCRATCH_SIZE = 32;
+    
+    private static final int RANK_FIELD = 0;
+    
+    private static final int SUIT_FIELD = 1;
+    
+    private static final int SHOE_ID_FIELD = 2;
+    
+    private static final int DECK_ID_FIELD = 3;
+    
+    private static final int REQUIRED_FIELDS = (1 << 4) - 1;
+    
+    private static final Rank[] RANKS = Rank.values();
+    
+    private static final Suit[] SUITS = Suit.values();
+    
+    private static final Lookup FIELD_LOOKUP = new Lookup("rank", "suit", 
+            "shoeID", "deckID");
+    
+    private static final Lookup RANK_LOOKUP;
+    
+    private static final Lookup SUIT_LOOKUP;
+    
+    static {
+        String[] rankWords = new String[RANKS.length];
+        for (int i = 0; i < RANKS.length; i++) {
+            rankWords[i] = RANKS[i].getWord();
+        }
+        RANK_LOOKUP = new Lookup(rankWords);
+        String[] suitWords = new String[SUITS.length];
+        for (int i = 0; i < SUITS.length; i++) {
+            suitWords[i] = SUITS[i].getWord();
+        }
+        SUIT_LOOKUP = new Lookup(suitWords);
+    }
+    
+    private final InputStream source;
+    
+    private final ByteBuffer buffer;
+    
+    private final byte[] scratch = new byte[SCRATCH_SIZE];
+    
+    private long bytesBefore = 0L;
+    
+    /**
+     * Matches words against a small, fixed set of words, by way of an open 
+     * addressing hash table of the words' UTF-8 bytes.
+     */
+    private static final class Lookup {
+        
+        private final byte[][] words;
+        
+        private final int[] slots;
+        
+        private final int mask;
+        
+        private static int hash(byte[] bytes, int length) {
+            int h = 0;
+            for (int i = 0; i < length; i++) {
+                h = 31 * h + bytes[i];
+            }
+            return h ^ (h >>> 16);
+        }
+        
+        /**
+         * Tells which word, if any, the specified bytes make up.
+         * @param bytes The bytes. For example, the bytes of "Queen".
+         * @param length How many of the bytes to look at, starting from the 
+         * first. Negative if the word was too long to hold on to.
+         * @return The index of the word among the words this lookup was 
+         * constructed with, or &minus;1 if it's none of them.
+         */
+        int indexOf(byte[] bytes, int length) {
+            if (length < 0) {
+                return -1;
+            }
+            int slot = hash(bytes, length) & this.mask;
+            while (this.slots[slot] >= 0) {
+                byte[] word = this.words[this.slots[slot]];
+                if (Arrays.equals(word, 0, word.length, bytes, 0, length)) {
+                    return this.slots[slot];
+                }
+                slot = (slot + 1) & this.mask;
+            }
+            return -1;
+        }
+        
+        Lookup(String... words) {
+            this.words = new byte[words.length][];
+            int size = Integer.highestOneBit(4 * words.length - 1) << 1;
+            this.slots = new int[size];
+            Arrays.fill(this.slots, -1);
+            this.mask = size - 1;
+            for (int i = 0; i < words.length; i++) {
+                this.words[i] = words[i].getBytes(StandardCharsets.UTF_8);
+                int slot = hash(this.words[i], this.words[i].length) 
+                        & this.mask;
+                while (this.slots[slot] >= 0) {
+                    slot = (slot + 1) & this.mask;
+                }
+                this.slots[slot] = i;
+            }
+        }
+        
+    }
+    
+    private NoSuchElementException unexpected(String expected, int b) {
+        long position = this.bytesBefore + this.buffer.position() - 1;
+        String found = (b < 0) ? "end of input" : "'" + (char) b + "'";
+        String excMsg = "Expected " + expected + " at byte " + position 
+                + " but found " + found;
+        return new NoSuchElementException(excMsg);
+    }
+    
+    private NoSuchElementException unrecognized(String what) {
+        long position = this.bytesBefore + this.buffer.position() - 1;
+        String excMsg = "Unrecognized " + what + " ending at byte " + position;
+        return new NoSuchElementException(excMsg);
+    }
+    
+    private boolean fill() throws IOException {
+        if (this.source == null) {
+            return false;
+        }
+        this.bytesBefore += this.buffer.limit();
+        this.buffer.clear();
+        int count = this.source.read(this.buffer.array(), 0, 
+                this.buffer.capacity());
+        if (count < 0) {
+            this.buffer.limit(0);
+            return false;
+        }
+        this.buffer.limit(count);
+        return true;
+    }
+    
+    private int read() throws IOException {
+        while (!this.buffer.hasRemaining()) {
+            if (!this.fill()) {
+                return -1;
+            }
+        }
+        return this.buffer.get() & 0xFF;
+    }
+    
+    private int readPastWhitespace() throws IOException {
+        int b = this.read();
+        while (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+            b = this.read();
+        }
+        return b;
+    }
+    
+    private void unread() {
+        this.buffer.position(this.buffer.position() - 1);
+    }
+    
+    private int readWord() throws IOException {
+        int b = this.readPastWhitespace();
+        if (b != '"') {
+            throw this.unexpected("'\"'", b);
+        }
+        int length = 0;
+        while ((b = this.read()) != '"') {
+            if (b < 0) {
+                throw this.unexpected("'\"'", b);
+            }
+            if (b == '\\') {
+                this.read();
+                length = -1;
+            }
+            if (length >= 0 && length < SCRATCH_SIZE) {
+                this.scratch[length++] = (byte) b;
+            } else {
+                length = -1;
+            }
+        }
+        return length;
+    }
+    
+    private int readInt() throws IOException {
+        int b = this.readPastWhitespace();
+        boolean negative = b == '-';
+        if (negative) {
+            b = this.read();
+        }
+        if (b < '0' || b > '9') {
+            throw this.unexpected("digit", b);
+        }
+        long n = 0L;
+        while (b >= '0' && b <= '9') {
+            n = 10 * n + (b - '0');
+            if (n > 1L + Integer.MAX_VALUE) {
+                throw this.unexpected("32-bit integer", b);
+            }
+            b = this.read();
+        }
+        if (b >= 0) {
+            this.unread();
+        }
+        n = negative ? -n : n;
+        if (n > Integer.MAX_VALUE) {
+            throw this.unexpected("32-bit integer", b);
+        }
+        return (int) n;
+    }
+    
+    private void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            int b = this.readPastWhitespace();
+            switch (b) {
+                case '"':
+                    while ((b = this.read()) != '"') {
+                        if (b < 0) {
+                            throw this.unexpected("'\"'", b);
+                        }
+                        if (b == '\\') {
+                            this.read();
+                        }
+                    }
+                    break;
+                case '{', '[':
+                    depth++;
+                    break;
+                case '}', ']':
+                    depth--;
+                    break;
+                case ',', ':':
+                    if (depth == 0) {
+                        throw this.unexpected("value", b);
+                    }
+                    break;
+                case -1:
+                    throw this.unexpected("value", b);
+                default:
+                    while (b >= 0 && b != ',' && b != '}' && b != ']' 
+                            && b != ' ' && b != '\n' && b != '\r' 
+                            && b != '\t') {
+                        b = this.read();
+                    }
+                    if (b >= 0) {
+                        this.unread();
+                    }
+            }
+        } while (depth > 0);
+    }
+    
+    /**
+     * Reads the next card, which should be a JSON object.
+     * @return The card. For example, the Queen of Hearts from shoe 135721597, 
+     * deck 295530567.
+     * @throws IOException If there is a problem reading from the input 
+     * stream.
+     * @throws NoSuchElementException If the input isn't a JSON object with 
+     * the rank, suit, shoe ID and deck ID of a card, or if it ends early.
+     */
+    ProvenanceInscribedPlayingCard readCard() throws IOException {
+        int b = this.readPastWhitespace();
+        if (b != '{') {
+            throw this.unexpected("'{'", b);
+        }
+        Rank rank = null;
+        Suit suit = null;
+        int shoeID = 0;
+        int deckID = 0;
+        int found = 0;
+        b = this.readPastWhitespace();
+        if (b < 0) {
+            throw this.unexpected("field name or '}'", b);
+        }
+        if (b != '}') {
+            this.unread();
+            do {
+                int field = FIELD_LOOKUP.indexOf(this.scratch, 
+                        this.readWord());
+                b = this.readPastWhitespace();
+                if (b != ':') {
+                    throw this.unexpected("':'", b);
+                }
+                switch (field) {
+                    case RANK_FIELD -> {
+                        int index = RANK_LOOKUP.indexOf(this.scratch, 
+                                this.readWord());
+                        if (index < 0) {
+                            throw this.unrecognized("rank");
+                        }
+                        rank = RANKS[index];
+                    }
+                    case SUIT_FIELD -> {
+                        int index = SUIT_LOOKUP.indexOf(this.scratch, 
+                                this.readWord());
+                        if (index < 0) {
+                            throw this.unrecognized("suit");
+                        }
+                        suit = SUITS[index];
+                    }
+                    case SHOE_ID_FIELD -> shoeID = this.readInt();
+                    case DECK_ID_FIELD -> deckID = this.readInt();
+                    default -> this.skipValue();
+                }
+                if (field >= 0) {
+                    found |= 1 << field;
+                }
+                b = this.readPastWhitespace();
+            } while (b == ',');
+            if (b != '}') {
+                throw this.unexpected("',' or '}'", b);
+            }
+        }
+        if (found != REQUIRED_FIELDS) {
+            throw this.unexpected("rank, suit, shoe ID and deck ID", b);
+        }
+        return new ProvenanceInscribedPlayingCard(rank, suit, deckID, shoeID);
+    }
+    
+    /**
+     * Reads a JSON array of cards, passing each card on as soon as it's been 
+     * read, so that the cards can be used before the rest of the array comes 
+     * in.
+     * @param sink Where to pass the cards on to. For example, a function that 
+     * adds each card to a queue.
+     * @return How many cards were read. For example, 12.
+     * @throws IOException If there is a problem reading from the input 
+     * stream.
+     * @throws NoSuchElementException If the input isn't a JSON array of card 
+     * objects, or if it ends early.
+     */
+    int readCards(Consumer<ProvenanceInscribedPlayingCard> sink) 
+            throws IOException {
+        int b = this.readPastWhitespace();
+        if (b != '[') {
+            throw this.unexpected("'['", b);
+        }
+        b = this.readPastWhitespace();
+        if (b == ']') {
+            return 0;
+        }
+        if (b < 0) {
+            throw this.unexpected("'{' or ']'", b);
+        }
+        this.unread();
+        int count = 0;
+        do {
+            sink.accept(this.readCard());
+            count++;
+            b = this.readPastWhitespace();
+        } while (b == ',');
+        if (b != ']') {
+            throw this.unexpected("',' or ']'", b);
+        }
+        return count;
+    }
+    
+    /**
+     * Reads a JSON array of cards into a list.
+     * @return A list of the cards, in the order they were read. For example, 
+     * 8&#9827;, K&#9830;, 4&#9829;, ..., 10&#9824;.
+     * @throws IOException If there is a problem reading from the input 
+     * stream.
+     * @throws NoSuchElementException If the input isn't a JSON array of card 
+     * objects, or if it ends early.
+     */
+    List<ProvenanceInscribedPlayingCard> readCards() throws IOException {
+        List<ProvenanceInscribedPlayingCard> cards = new ArrayList<>();
+        this.readCards(cards::add);
+        return cards;
+    }
+    
+    /**
+     * Constructor for reading from a buffer. The cards are read starting at 
+     * the buffer's position, and the position moves ahead as they're read.
+     * @param buffer The buffer to read from. For example, the body of an HTTP 
+     * response.
+     */
+    CardJSONReader(ByteBuffer buffer) {
+        this.source = null;
+        this.buffer = buffer;
+    }
+    
+    /**
+     * Constructor for reading from an input stream. The stream is read in 
+     * blocks, so this reader may read past the last card it's asked for.
+     * @param source The stream to read from. For example, the input stream of 
+     * an HTTP connection.
+     */
+    CardJSONReader(InputStream source) {
+        this.source = source;
+        this.buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+        this.buffer.limit(0);
+    }
+    
+}
@@ -23,9 +23,23 @@ import com.sun.net.httpserver.HttpServer;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Provides playing cards in JSON format. The cards are inscribed with the hash 
@@ -52,30 +66,171 @@ public class CardJSONServer implements Closeable {
      */
     public static final int DEFAULT_CLOSING_DELAY = 2;
     
+    /**
+     * How many incoming connections the server socket queues up while all the 
+     * request handlers are busy, unless specified otherwise.
+     */
+    public static final int DEFAULT_BACKLOG = 256;
+    
+    /**
+     * The most cards that can be dealt in one request to "/dealcards/".
+     */
+    public static final int MAXIMUM_BATCH_SIZE = 4096;
+    
+    /**
+     * Batches of more than this many cards are sent with chunked transfer 
+     * encoding, written out card by card, rather than with the whole response 
+     * body put together beforehand.
+     */
+    static final int STREAMING_THRESHOLD = 64;
+    
+    /**
+     * How many bytes each response buffer holds: enough for a JSON array of 
+     * {@link #STREAMING_THRESHOLD} cards. Streamed batches are sent in pieces 
+     * of about this size.
+     */
+    static final int RESPONSE_BUFFER_SIZE = STREAMING_THRESHOLD 
+            * (ProvenanceInscribedPlayingCard.MAXIMUM_JSON_LENGTH + 1) + 1;
+    
+    private static final int RESPONSE_BUFFER_POOL_SIZE = 64;
+    
+    private static final String COUNT_PARAMETER = "count=";
+    
+    /**
+     * How many named shoes there can be at one time, unless specified 
+     * otherwise with {@link #limitNamedShoes(int, long)}.
+     */
+    public static final int DEFAULT_MAXIMUM_NAMED_SHOES = 1024;
+    
+    /**
+     * How many milliseconds a named shoe can go without dealing a card before 
+     * it expires, unless specified otherwise with {@link 
+     * #limitNamedShoes(int, long)}. That's half an hour.
+     */
+    public static final long DEFAULT_NAMED_SHOE_IDLE_LIMIT = 30 * 60 * 1000;
+    
+    /**
+     * How many requests may be waiting for or getting an answer at one time, 
+     * unless specified otherwise with {@link #limitAdmissions(int)}. Spectators 
+     * following the card events are not counted once their stream has 
+     * started.
+     */
+    public static final int DEFAULT_MAXIMUM_PENDING_REQUESTS = 4096;
+    
+    /**
+     * How many seconds a client turned away because the server is too busy is 
+     * told to wait before trying again.
+     */
+    public static final int BUSY_RETRY_AFTER = 1;
+    
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    
+    /**
+     * How many threads may be turning away requests at one time. Since 
+     * turning a request away only takes reading its headers and sending a 
+     * status, a couple of threads can keep up with a lot of them.
+     */
+    static final int REJECTION_THREADS = 2;
+    
+    /**
+     * How many requests may wait for a thread to turn them away. Once there 
+     * are that many, further requests over the admission limit have their 
+     * connections closed without an answer.
+     */
+    static final int REJECTION_QUEUE_CAPACITY = 256;
+
+    private static final String NAMED_SHOE_CONTEXT = "/shoe/";
+    
+    private static final int MAXIMUM_SHOE_NAME_LENGTH = 64;
+    
+    /**
+     * How many of the most recent card events are kept for spectators. A 
+     * spectator that falls further behind than this either misses some events 
+     * or is disconnected, depending on what it asked for.
+     */
+    static final int EVENT_BUFFER_CAPACITY = 1024;
+    
+    private static final long EVENT_HEARTBEAT_INTERVAL = 15000;
+    
+    private static final String EVENT_STREAM_CONTENT_TYPE 
+            = "text/event-stream; charset=UTF-8";
+    
+    private static final String OVERFLOW_PARAMETER = "overflow=";
+    
+    private static final byte[] EVENT_HEARTBEAT 
+            = ":\n\n".getBytes(StandardCharsets.UTF_8);
+    
+    private static final String CARD_IMAGE_CONTEXT = "/cardimage/";
+    
+    private static final String WIDTH_PARAMETER = "width=";
+    
+    private static final String PNG_CONTENT_TYPE = "image/png";
+    
+    /**
+     * How long clients may keep a card image before checking whether it's 
+     * still good: "public, max-age=86400", a day.
+     */
+    static final String CARD_IMAGE_CACHE_CONTROL = "public, max-age=86400";
+    
     private final int portNumber;
     
     private final int numberOfDecks;
     
     private final int plasticCardIndex;
     
+    private final int backlog;
+    
+    private final ExecutorService executor;
+    
+    private final boolean ownsExecutor;
+    
+    private final ExecutorService streamExecutor 
+            = Executors.newVirtualThreadPerTaskExecutor();
+    
+    private final ThreadPoolExecutor rejectionExecutor 
+            = makeRejectionExecutor();
+    
     private boolean active = false;
     
-    private ProvenanceInscribedPlayingCard.Shoe shoe;
+    private DealingShoe defaultShoe;
+    
+    private final ConcurrentHashMap<String, DealingShoe> namedShoes 
+            = new ConcurrentHashMap<>();
+    
+    private volatile int maximumNamedShoes = DEFAULT_MAXIMUM_NAMED_SHOES;
+    
+    private volatile long namedShoeIdleLimit = DEFAULT_NAMED_SHOE_IDLE_LIMIT;
+    
+    private final ServerMetrics metrics = new ServerMetrics();
+    
+    private final AtomicInteger pendingRequests = new AtomicInteger();
+    
+    private volatile int maximumPendingRequests 
+            = DEFAULT_MAXIMUM_PENDING_REQUESTS;
+    
+    private volatile ClientRateLimiter rateLimiter = null;
+    
+    private final Executor admissionExecutor = this::admit;
+    
+    private final CardEventStream events 
+            = new CardEventStream(EVENT_BUFFER_CAPACITY);
+    
+    private volatile CardImageRenderer cardImages = null;
     
     private HttpServer httpServer;
     
+    private final ArrayBlockingQueue<byte[]> responseBuffers 
+            = new ArrayBlockingQueue<>(RESPONSE_BUFFER_POOL_SIZE);
+    
     private final HttpHandler handler = (HttpExchange exchange) -> {
         final Headers headers = exchange.getResponseHeaders();
 //        final String method = exchange.getRequestMethod().toUpperCase();
 //        switch (method) {
 //            case "GET":
-                String responseBody = this.giveCard().toJSONString();
                 headers.set("Content-Type", CONTENT_TYPE_SPECIFICATION);
-                byte[] rawResponseBody 
-                        = responseBody.getBytes(StandardCharsets.UTF_8);
-                exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 
-                        rawResponseBody.length);
-                exchange.getResponseBody().write(rawResponseBody);
+                try (exchange) {
+                    this.sendCard(exchange, this.defaultShoe);
+                }
 //                break;
 //            case "OPTIONS":
 //                headers.set("Allow", "GET,OPTIONS,PUT");
@@ -83,28 +238,719 @@ public class CardJSONServer implements Closeable {
 //                break;
 //            default:
 //                headers.set("Allow", "GET,OPTIONS,PUT");
-//                exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_METHOD, 
+//                exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_METHOD,
 //                        -1);
 //        }
     };
     
+    private final HttpHandler batchHandler = (HttpExchange exchange) -> {
+        try (exchange) {
+            this.sendCards(exchange, this.defaultShoe);
+        }
+    };
+    
+    private final HttpHandler namedShoeHandler = (HttpExchange exchange) -> {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath() 
+                    .substring(NAMED_SHOE_CONTEXT.length());
+            int slashIndex = path.indexOf('/');
+            String name = (slashIndex < 0) ? path 
+                    : path.substring(0, slashIndex);
+            String action = (slashIndex < 0) ? "" 
+                    : path.substring(slashIndex + 1);
+            if (!isValidShoeName(name)) {
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, 
+                        -1);
+                return;
+            }
+            String method = exchange.getRequestMethod();
+            if (action.isEmpty()) {
+                if (!method.equalsIgnoreCase("DELETE")) {
+                    exchange.getResponseHeaders().set("Allow", "DELETE");
+                    exchange.sendResponseHeaders(HttpURLConnection
+                            .HTTP_BAD_METHOD, -1);
+                    return;
+                }
+                int status = this.removeNamedShoe(name) 
+                        ? HttpURLConnection.HTTP_NO_CONTENT 
+                        : HttpURLConnection.HTTP_NOT_FOUND;
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            boolean single = action.equals("dealcard") 
+                    || action.equals("dealcard/");
+            boolean batch = action.equals("dealcards") 
+                    || action.equals("dealcards/");
+            if (!single && !batch) {
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_FOUND, 
+                        -1);
+                return;
+            }
+            if (!method.equalsIgnoreCase("GET")) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_METHOD, 
+                        -1);
+                return;
+            }
+            DealingShoe namedShoe = this.getNamedShoe(name);
+            if (namedShoe == null) {
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_UNAVAILABLE, 
+                        -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", 
+                    CONTENT_TYPE_SPECIFICATION);
+            if (single) {
+                this.sendCard(exchange, namedShoe);
+            } else {
+                this.sendCards(exchange, namedShoe);
+            }
+        }
+    };
+    
+    private final HttpHandler metricsHandler = (HttpExchange exchange) -> {
+        try (exchange) {
+            sendJSON(exchange, HttpURLConnection.HTTP_OK, 
+                    this.metrics.toJSONString(this.countQueuedRequests(), 
+                            this.pendingRequests.get()));
+        }
+    };
+    
+    private final HttpHandler healthHandler = (HttpExchange exchange) -> {
+        try (exchange) {
+            boolean ready = this.defaultShoe.isSpareReady();
+            String body = "{\"status\":\"" + (ready ? "UP" : "REPLENISHING") 
+                    + "\",\"spareShoeReady\":" + ready + ",\"namedShoes\":" 
+                    + this.countNamedShoes() + "}";
+            sendJSON(exchange, ready ? HttpURLConnection.HTTP_OK 
+                    : HttpURLConnection.HTTP_UNAVAILABLE, body);
+        }
+    };
+    
+    private final HttpHandler eventsHandler = (HttpExchange exchange) -> {
+        CardEventStream.Overflow overflow 
+                = parseOverflow(exchange.getRequestURI().getRawQuery());
+        if (overflow == null) {
+            try (exchange) {
+                exchange.sendResponseHeaders(HttpURLConnection 
+                        .HTTP_BAD_REQUEST, -1);
+            }
+            return;
+        }
+        CardEventStream.Subscription subscription 
+                = this.events.subscribe(overflow);
+        try {
+            this.streamExecutor.execute(() -> this.streamEvents(exchange, 
+                    subscription));
+        } catch (RejectedExecutionException ree) {
+            subscription.close();
+            exchange.close();
+        }
+    };
+    
+    private final HttpHandler cardImageHandler = (HttpExchange exchange) -> {
+        try (exchange) {
+            this.sendCardImage(exchange);
+        }
+    };
+    
+    /**
+     * A thread that turns away requests over the admission limit. A handler 
+     * running on one of these knows the request it's handling was not let in.
+     */
+    private static final class RejectionThread extends Thread {
+        
+        RejectionThread(Runnable task) {
+            super(task, "CardJSONServer-rejection");
+            this.setDaemon(true);
+        }
+        
+    }
+    
+    /**
+     * Makes the executor that requests over the admission limit are turned 
+     * away on. Its threads are platform threads, since the virtual threads' 
+     * carriers may all be held by admitted exchanges still reading slow 
+     * clients' headers. It has only {@link #REJECTION_THREADS} threads and 
+     * room for {@link #REJECTION_QUEUE_CAPACITY} requests to wait, and it 
+     * throws {@code RejectedExecutionException} when full, which the HTTP 
+     * server answers by closing the connection.
+     * @return A new executor, with no threads until the first request is 
+     * turned away.
+     */
+    private static ThreadPoolExecutor makeRejectionExecutor() {
+        ThreadPoolExecutor rejecter = new ThreadPoolExecutor(REJECTION_THREADS, 
+                REJECTION_THREADS, 30, TimeUnit.SECONDS, 
+                new ArrayBlockingQueue<>(REJECTION_QUEUE_CAPACITY), 
+                RejectionThread::new);
+        rejecter.allowCoreThreadTimeOut(true);
+        return rejecter;
+    }
+    
+    /**
+     * Hands a request to the request executor if the admission limit allows, 
+     * or otherwise to the rejection executor, to be turned away there rather 
+     * than wait in line behind the requests that were let in. A request the 
+     * request executor refuses is also turned away.
+     * @param task The HTTP server's task for the request.
+     * @throws RejectedExecutionException If the rejection executor is full 
+     * too. The HTTP server then closes the connection.
+     */
+    private void admit(Runnable task) {
+        if (this.pendingRequests.incrementAndGet() 
+                <= this.maximumPendingRequests) {
+            try {
+                this.executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        this.pendingRequests.decrementAndGet();
+                    }
+                });
+                return;
+            } catch (RejectedExecutionException ree) {
+            }
+        }
+        this.pendingRequests.decrementAndGet();
+        try {
+            this.rejectionExecutor.execute(task);
+        } catch (RejectedExecutionException ree) {
+            this.metrics.requestRejected();
+            throw ree;
+        }
+    }
+    
+    private HttpHandler admitted(HttpHandler inner) {
+        return (HttpExchange exchange) -> {
+            if (Thread.currentThread() instanceof RejectionThread) {
+                this.metrics.requestRejected();
+                try (exchange) {
+                    exchange.getResponseHeaders().set("Retry-After", 
+                            Integer.toString(BUSY_RETRY_AFTER));
+                    exchange.sendResponseHeaders(HttpURLConnection 
+                            .HTTP_UNAVAILABLE, -1);
+                }
+                return;
+            }
+            ClientRateLimiter limiter = this.rateLimiter;
+            if (limiter != null) {
+                long wait = limiter.tryAcquire(exchange.getRemoteAddress() 
+                        .getAddress(), System.nanoTime());
+                if (wait > 0) {
+                    this.metrics.requestRateLimited();
+                    long seconds = (wait + 999999999L) / 1000000000L;
+                    try (exchange) {
+                        exchange.getResponseHeaders().set("Retry-After", 
+                                Long.toString(seconds));
+                        exchange.sendResponseHeaders(HTTP_TOO_MANY_REQUESTS, 
+                                -1);
+                    }
+                    return;
+                }
+            }
+            inner.handle(exchange);
+        };
+    }
+    
+    private int countQueuedRequests() {
+        if (this.executor instanceof ThreadPoolExecutor pool) {
+            return pool.getQueue().size();
+        }
+        return 0;
+    }
+    
+    private static void sendJSON(HttpExchange exchange, int status, 
+            String body) throws IOException {
+        byte[] rawResponseBody = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", 
+                CONTENT_TYPE_SPECIFICATION);
+        exchange.sendResponseHeaders(status, rawResponseBody.length);
+        exchange.getResponseBody().write(rawResponseBody);
+    }
+    
+    private HttpHandler timed(HttpHandler inner) {
+        return (HttpExchange exchange) -> {
+            long start = System.nanoTime();
+            this.metrics.requestStarted();
+            try {
+                inner.handle(exchange);
+            } finally {
+                this.metrics.requestFinished(System.nanoTime() - start);
+            }
+        };
+    }
+    
+    private void sendCard(HttpExchange exchange, DealingShoe from) 
+            throws IOException {
+        byte[] buffer = this.borrowBuffer();
+        try {
+            int length = from.giveCard().writeJSON(buffer, 0);
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, length);
+            exchange.getResponseBody().write(buffer, 0, length);
+        } finally {
+            this.returnBuffer(buffer);
+        }
+    }
+    
+    private void sendCards(HttpExchange exchange, DealingShoe from) 
+            throws IOException {
+        int count = parseCount(exchange.getRequestURI().getRawQuery());
+        if (count < 1 || count > MAXIMUM_BATCH_SIZE) {
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, 
+                    -1);
+            return;
+        }
+        List<ProvenanceInscribedPlayingCard> cards = from.giveCards(count);
+        exchange.getResponseHeaders().set("Content-Type", 
+                CONTENT_TYPE_SPECIFICATION);
+        byte[] buffer = this.borrowBuffer();
+        try {
+            OutputStream out = exchange.getResponseBody();
+            if (count <= STREAMING_THRESHOLD) {
+                int length = writeJSONArray(cards, buffer);
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 
+                        length);
+                out.write(buffer, 0, length);
+            } else {
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+                streamJSONArray(cards, buffer, out);
+            }
+        } finally {
+            this.returnBuffer(buffer);
+        }
+    }
+    
+    /**
+     * Sends card events to a spectator until the spectator goes away or the 
+     * server is closed. This runs on a virtual thread of its own rather than 
+     * on the request executor, so that spectators don't hold on to threads 
+     * meant for dealing. Between events it waits to be woken by the next 
+     * event, sending a heartbeat if none comes for a while. An {@code 
+     * IOException} means the spectator went away, so there is nothing more 
+     * to send.
+     * @param exchange The spectator's exchange. Closed when the stream ends.
+     * @param subscription The spectator's subscription. Closed when the 
+     * stream ends.
+     */
+    private void streamEvents(HttpExchange exchange, 
+            CardEventStream.Subscription subscription) {
+        try (exchange; subscription) {
+            Headers headers = exchange.getResponseHeaders();
+            headers.set("Content-Type", EVENT_STREAM_CONTENT_TYPE);
+            headers.set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+            OutputStream out = exchange.getResponseBody();
+            out.write(EVENT_HEARTBEAT);
+            out.flush();
+            int written;
+            while ((written = subscription.drainTo(out)) >= 0) {
+                if (written > 0) {
+                    out.flush();
+                } else if (!subscription 
+                        .awaitEvents(EVENT_HEARTBEAT_INTERVAL)) {
+                    out.write(EVENT_HEARTBEAT);
+                    out.flush();
+                }
+            }
+        } catch (IOException ioe) {
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void sendCardImage(HttpExchange exchange) throws IOException {
+        CardImageRenderer renderer = this.cardImages;
+        PlayingCard card = parseCardPath(exchange.getRequestURI().getPath() 
+                .substring(CARD_IMAGE_CONTEXT.length()));
+        if (renderer == null || card == null) {
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_FOUND, -1);
+            return;
+        }
+        int width = parseWidth(exchange.getRequestURI().getRawQuery(), 
+                renderer.getUsualWidth());
+        if (width < renderer.getMinimumWidth() 
+                || width > renderer.getMaximumWidth()) {
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, 
+                    -1);
+            return;
+        }
+        CardImageRenderer.EncodedImage image = renderer.getImage(card, width);
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("ETag", image.getEntityTag());
+        headers.set("Cache-Control", CARD_IMAGE_CACHE_CONTROL);
+        if (matchesEntityTag(exchange.getRequestHeaders() 
+                .getFirst("If-None-Match"), image.getEntityTag())) {
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_MODIFIED, 
+                    -1);
+            return;
+        }
+        headers.set("Content-Type", PNG_CONTENT_TYPE);
+        byte[] png = image.getPNG();
+        exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, png.length);
+        exchange.getResponseBody().write(png);
+    }
+    
+    private static PlayingCard parseCardPath(String path) {
+        int slashIndex = path.indexOf('/');
+        if (slashIndex < 0) {
+            return null;
+        }
+        try {
+            return new PlayingCard(Rank.parseRank(path.substring(0, 
+                    slashIndex)), Suit.parseSuit(path.substring(slashIndex 
+                            + 1)));
+        } catch (NoSuchElementException nsee) {
+            return null;
+        }
+    }
+    
+    private static int parseWidth(String query, int usualWidth) {
+        if (query == null) {
+            return usualWidth;
+        }
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith(WIDTH_PARAMETER)) {
+                try {
+                    return Integer.parseInt(parameter 
+                            .substring(WIDTH_PARAMETER.length()));
+                } catch (NumberFormatException nfe) {
+                    return -1;
+                }
+            }
+        }
+        return usualWidth;
+    }
+    
+    private static boolean matchesEntityTag(String ifNoneMatch, 
+            String entityTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(entityTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static CardEventStream.Overflow parseOverflow(String query) {
+        if (query == null) {
+            return CardEventStream.Overflow.DROP;
+        }
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith(OVERFLOW_PARAMETER)) {
+                switch (parameter.substring(OVERFLOW_PARAMETER.length())) {
+                    case "drop":
+                        return CardEventStream.Overflow.DROP;
+                    case "disconnect":
+                        return CardEventStream.Overflow.DISCONNECT;
+                    default:
+                        return null;
+                }
+            }
+        }
+        return CardEventStream.Overflow.DROP;
+    }
+    
+    private static boolean isValidShoeName(String name) {
+        int length = name.length();
+        if (length == 0 || length > MAXIMUM_SHOE_NAME_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char ch = name.charAt(i);
+            boolean allowed = (ch >= 'a' && ch <= 'z') 
+                    || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9') 
+                    || ch == '-' || ch == '_';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private byte[] borrowBuffer() {
+        byte[] buffer = this.responseBuffers.poll();
+        return (buffer == null) ? new byte[RESPONSE_BUFFER_SIZE] : buffer;
+    }
+    
+    private void returnBuffer(byte[] buffer) {
+        this.responseBuffers.offer(buffer);
+    }
+    
+    private static int parseCount(String query) {
+        if (query == null) {
+            return 1;
+        }
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith(COUNT_PARAMETER)) {
+                try {
+                    return Integer.parseInt(parameter 
+                            .substring(COUNT_PARAMETER.length()));
+                } catch (NumberFormatException nfe) {
+                    return -1;
+                }
+            }
+        }
+        return 1;
+    }
+    
+    /**
+     * Writes a JSON array of cards into a buffer as UTF-8.
+     * @param cards The cards. There should be no more than {@link 
+     * #STREAMING_THRESHOLD} of them.
+     * @param buffer The buffer. Should be at least {@link 
+     * #RESPONSE_BUFFER_SIZE} bytes long.
+     * @return How many bytes were written. For example, 365 for three cards.
+     */
+    static int writeJSONArray(List<ProvenanceInscribedPlayingCard> cards, 
+            byte[] buffer) {
+        int position = 0;
+        buffer[position++] = '[';
+        for (int i = 0; i < cards.size(); i++) {
+            if (i > 0) {
+                buffer[position++] = ',';
+            }
+            position = cards.get(i).writeJSON(buffer, position);
+        }
+        buffer[position++] = ']';
+        return position;
+    }
+    
+    private static void streamJSONArray(List<ProvenanceInscribedPlayingCard> 
+            cards, byte[] buffer, OutputStream out) throws IOException {
+        int position = 0;
+        buffer[position++] = '[';
+        for (int i = 0; i < cards.size(); i++) {
+            if (position + ProvenanceInscribedPlayingCard.MAXIMUM_JSON_LENGTH 
+                    + 2 > buffer.length) {
+                out.write(buffer, 0, position);
+                position = 0;
+            }
+            if (i > 0) {
+                buffer[position++] = ',';
+            }
+            position = cards.get(i).writeJSON(buffer, position);
+        }
+        buffer[position++] = ']';
+        out.write(buffer, 0, position);
+    }
+    
     /**
      * Gives a card. Activation of the JSON server is not required to use this 
-     * function, but this function is not meant for use outside of this package.
+     * function, but this function is not meant for use outside of this package. 
+     * This function is safe to call from several threads at once: each card is 
+     * given out only once, and only one thread replenishes the shoe when it 
+     * runs out. Only the dealing itself is done while holding the lock, the 
+     * JSON formatting of the card is left to the caller.
      * @return A card. For example, Two of Clubs.
      */
     ProvenanceInscribedPlayingCard giveCard() {
-        if (!this.shoe.hasNext()) {
-            this.shoe 
-                    = new ProvenanceInscribedPlayingCard.Shoe(this
-                            .numberOfDecks, this.plasticCardIndex);
-            this.shoe.shuffle();
+        return this.defaultShoe.giveCard();
+    }
+    
+    /**
+     * Gives several cards in a row. This is the same as calling {@link 
+     * #giveCard()} <code>count</code> times, with the shoe being replenished 
+     * as many times as needed along the way, except that the lock is taken 
+     * only once, so the cards given are consecutive in the shoe even if other 
+     * threads are being dealt cards at the same time.
+     * @param count How many cards to give. For example, 12.
+     * @return A list of the cards, in the order they were dealt. For example, 
+     * 8&#9827;, K&#9830;, 4&#9829;, ..., 10&#9824;.
+     * @throws IllegalArgumentException If <code>count</code> is negative.
+     */
+    List<ProvenanceInscribedPlayingCard> giveCards(int count) {
+        return this.defaultShoe.giveCards(count);
+    }
+    
+    /**
+     * Gives the shoe by the specified name, making a new one if there's no 
+     * such shoe yet or if it has expired. Each named shoe has as many decks 
+     * and the plastic card in the same place as the server's default shoe, 
+     * but it's shuffled and replenished on its own, and it has its own lock, 
+     * so dealing from one named shoe never waits on dealing from another. A 
+     * new shoe is made and shuffled inside {@link ConcurrentHashMap#compute 
+     * ConcurrentHashMap.compute()}, so that only requests for the same name 
+     * wait on it, not requests for every other named shoe.
+     * @param name The name of the shoe. For example, "table-17".
+     * @return The shoe. May be null if there's no shoe by that name yet and 
+     * there are already as many named shoes as allowed, none of them expired.
+     */
+    DealingShoe getNamedShoe(String name) {
+        long now = System.currentTimeMillis();
+        long idleLimit = this.namedShoeIdleLimit;
+        DealingShoe namedShoe = this.namedShoes.get(name);
+        if (namedShoe == null || namedShoe.isIdle(now, idleLimit)) {
+            if (this.namedShoes.size() >= this.maximumNamedShoes) {
+                this.removeIdleNamedShoes(now);
+            }
+            namedShoe = this.namedShoes.compute(name, (key, current) -> {
+                if (current != null && !current.isIdle(now, idleLimit)) {
+                    return current;
+                }
+                if (current == null 
+                        && this.namedShoes.size() >= this.maximumNamedShoes) {
+                    return null;
+                }
+                return new DealingShoe(this.numberOfDecks, 
+                        this.plasticCardIndex, this.executor, this.metrics, 
+                        this.events);
+            });
+            if (namedShoe == null) {
+                return null;
+            }
+        }
+        namedShoe.touch(now);
+        return namedShoe;
+    }
+    
+    private void removeIdleNamedShoes(long now) {
+        long idleLimit = this.namedShoeIdleLimit;
+        this.namedShoes.values() 
+                .removeIf(namedShoe -> namedShoe.isIdle(now, idleLimit));
+    }
+    
+    /**
+     * Removes the shoe by the specified name, if there is one.
+     * @param name The name of the shoe. For example, "table-17".
+     * @return True if there was a shoe by that name, false otherwise.
+     */
+    boolean removeNamedShoe(String name) {
+        return this.namedShoes.remove(name) != null;
+    }
+    
+    /**
+     * Tells how many named shoes there are, counting those that have expired 
+     * but have not been removed yet.
+     * @return How many named shoes there are. For example, 120.
+     */
+    int countNamedShoes() {
+        return this.namedShoes.size();
+    }
+    
+    int countPendingRequests() {
+        return this.pendingRequests.get();
+    }
+    
+    ServerMetrics getMetrics() {
+        return this.metrics;
+    }
+    
+    DealingShoe getDefaultShoe() {
+        return this.defaultShoe;
+    }
+    
+    boolean isSpareShoeReady() {
+        return this.defaultShoe.isSpareReady();
+    }
+    
+    /**
+     * Tells how many spectators are following the card events.
+     * @return How many spectators there are. For example, 2500.
+     */
+    int countSpectators() {
+        return this.events.countSubscribers();
+    }
+    
+    /**
+     * Sets the limits on named shoes. Named shoes are dealt from by requests 
+     * like "/shoe/table-17/dealcard" or "/shoe/table-17/dealcards?count=12", 
+     * and removed by a DELETE request to "/shoe/table-17". A named shoe is 
+     * made the first time it's asked for. It expires if it goes too long 
+     * without dealing a card, and once there are as many named shoes as 
+     * allowed, requests for new ones get HTTP status 503 until some expire or 
+     * are removed.
+     * @param maximum How many named shoes there can be at one time. For 
+     * example, 500. Should be at least 1.
+     * @param idleLimit How many milliseconds a named shoe can go without 
+     * dealing a card before it expires. For example, 600000 for ten minutes. 
+     * Should be at least 1.
+     * @throws IllegalArgumentException If <code>maximum</code> or 
+     * <code>idleLimit</code> is less than 1.
+     */
+    public void limitNamedShoes(int maximum, long idleLimit) {
+        if (maximum < 1 || idleLimit < 1) {
+            String excMsg = "Maximum " + maximum + " and idle limit " 
+                    + idleLimit + " should both be at least 1";
+            throw new IllegalArgumentException(excMsg);
         }
-        return this.shoe.getNextCard();
+        this.maximumNamedShoes = maximum;
+        this.namedShoeIdleLimit = idleLimit;
     }
     
     /**
-     * Activates the server.
+     * Sets how many requests may be pending at one time. A request is pending 
+     * from when it's handed to the request executor until it has been 
+     * answered. Once there are that many, further requests are answered right 
+     * away with HTTP status 503 and a "Retry-After" header of {@link 
+     * #BUSY_RETRY_AFTER} seconds, rather than being left to wait, so that the 
+     * requests that do get in are answered promptly. Requests for metrics and 
+     * health are always answered in full, even when the server is that busy, 
+     * in which case they're answered on one of the threads that turn other 
+     * requests away. They're not counted as rejected. Spectators following the 
+     * card events stop counting once their stream has started.
+     * @param maximum How many requests may be pending. For example, 1000. 
+     * Should be at least 1.
+     * @throws IllegalArgumentException If <code>maximum</code> is less than 
+     * 1.
+     */
+    public void limitAdmissions(int maximum) {
+        if (maximum < 1) {
+            String excMsg = "Maximum " + maximum + " should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.maximumPendingRequests = maximum;
+    }
+    
+    /**
+     * Sets how many requests each client may make. Clients are told apart by 
+     * their addresses, and each one gets a token bucket. A client that has 
+     * used up its bucket is answered with HTTP status 429 and a "Retry-After" 
+     * header giving the seconds until its bucket has a token again. There's no 
+     * limit until this procedure is called.
+     * @param requestsPerSecond How many requests each client may make per 
+     * second in the long run. For example, 50.0. Should be positive.
+     * @param burst How many requests a client that has been quiet for a while 
+     * may make all at once. For example, 20. Should be at least 1.
+     * @throws IllegalArgumentException If <code>requestsPerSecond</code> is 
+     * not positive, or if <code>burst</code> is less than 1.
+     */
+    public void limitRequestRate(double requestsPerSecond, int burst) {
+        this.rateLimiter = new ClientRateLimiter(requestsPerSecond, burst);
+    }
+    
+    /**
+     * Sets what draws the card images the server sends, for requests like 
+     * "/cardimage/Queen/Hearts?width=125". The width is in pixels and defaults 
+     * to the renderer's usual width. Each image is sent with an entity tag, so 
+     * that clients can check whether the image they already have is still 
+     * good. If this is called before the server is activated, all the card 
+     * images at the usual width and at half of it are rendered in the 
+     * background as soon as the server is running, so that the first requests 
+     * for those don't have to wait. Until this is called, requests for card 
+     * images are answered with HTTP status 404.
+     * @param renderer The renderer. For example, a {@code 
+     * ui.graphical.elements.CardPNGCache}.
+     * @throws NullPointerException If <code>renderer</code> is null.
+     */
+    public void useCardImageRenderer(CardImageRenderer renderer) {
+        if (renderer == null) {
+            String excMsg = "Card image renderer should not be null";
+            throw new NullPointerException(excMsg);
+        }
+        this.cardImages = renderer;
+    }
+    
+    /**
+     * Activates the server. Besides dealing cards, the server serves card 
+     * images, if it has been given a renderer with {@link 
+     * #useCardImageRenderer(CardImageRenderer)}.
      * @throws IllegalStateException If the server has already been activated.
      * @throws RuntimeException A runtime exception wrapping an {@code 
      * IOException} if an input/output problem occurs, such as {@code 
@@ -117,11 +963,29 @@ public class CardJSONServer implements Closeable {
         }
         String hostname = "localhost";
         try {
-            this.httpServer = HttpServer
+            this.httpServer = HttpServer 
                     .create(new InetSocketAddress(hostname, this.portNumber), 
-                            1);
-            this.httpServer.createContext("/dealcard/", this.handler);
+                            this.backlog);
+            this.httpServer.createContext("/dealcard/", 
+                    this.admitted(this.timed(this.handler)));
+            this.httpServer.createContext("/dealcards/", 
+                    this.admitted(this.timed(this.batchHandler)));
+            this.httpServer.createContext(NAMED_SHOE_CONTEXT, 
+                    this.admitted(this.timed(this.namedShoeHandler)));
+            this.httpServer.createContext("/metrics", this.metricsHandler);
+            this.httpServer.createContext("/health", this.healthHandler);
+            this.httpServer.createContext("/events", 
+                    this.admitted(this.eventsHandler));
+            this.httpServer.createContext(CARD_IMAGE_CONTEXT, 
+                    this.admitted(this.timed(this.cardImageHandler)));
+            this.httpServer.setExecutor(this.admissionExecutor);
             this.httpServer.start();
+            CardImageRenderer renderer = this.cardImages;
+            if (renderer != null) {
+                int usualWidth = renderer.getUsualWidth();
+                this.executor.execute(() -> renderer.prerender(usualWidth / 2, 
+                        usualWidth));
+            }
             System.out.println("Started server " + hostname + " on port " 
                     + this.portNumber);
         } catch (IOException ioe) {
@@ -146,7 +1010,9 @@ public class CardJSONServer implements Closeable {
             String excMsg = "Can't deactivate, already inactive";
             throw new IllegalStateException(excMsg);
         }
+        this.events.close();
         this.httpServer.stop(DEFAULT_CLOSING_DELAY);
+        this.shutDownExecutors();
         this.active = false;
     }
     
@@ -157,12 +1023,25 @@ public class CardJSONServer implements Closeable {
      */
     @Override
     public void close() {
+        this.events.close();
         this.httpServer.stop(DEFAULT_CLOSING_DELAY);
+        this.shutDownExecutors();
+    }
+    
+    private void shutDownExecutors() {
+        this.streamExecutor.shutdown();
+        this.rejectionExecutor.shutdown();
+        if (this.ownsExecutor) {
+            this.executor.shutdown();
+        }
     }
     
     /**
-     * Sole constructor. This constructor is not sufficient to activate. There  
-     * needs to be a call to {@link #activate()} to get the server running.
+     * Auxiliary constructor. Requests are handled on virtual threads, one per 
+     * request, and the server socket queues up to {@link #DEFAULT_BACKLOG} 
+     * incoming connections. This constructor is not sufficient to activate. 
+     * There needs to be a call to {@link #activate()} to get the server 
+     * running.
      * @param port Which local host port to send the cards to. Should probably 
      * be 80 or 445 or greater than 1024.
      * @param deckQty How many decks of cards to put in the shoe. Should be at 
@@ -177,17 +1056,56 @@ public class CardJSONServer implements Closeable {
      * than 0.
      */
     public CardJSONServer(int port, int deckQty, int stop) {
+        this(port, deckQty, stop, DEFAULT_BACKLOG, null);
+    }
+    
+    /**
+     * Primary constructor. This constructor is not sufficient to activate. 
+     * There needs to be a call to {@link #activate()} to get the server 
+     * running.
+     * @param port Which local host port to send the cards to. Should probably 
+     * be 80 or 445 or greater than 1024.
+     * @param deckQty How many decks of cards to put in the shoe. Should be at 
+     * least 1, preferably more than 2.
+     * @param stop How many cards from the bottommost card in the shoe to place 
+     * a figurative plastic card. Should be at least 0, preferably more than 52 
+     * but less than 78, and certainly less than <code>deckQty</code> times 52.
+     * @param backlog How many incoming connections the server socket may queue 
+     * up while all the request handlers are busy. For example, 1024. Should be 
+     * at least 1.
+     * @param requestExecutor The executor to handle requests on. For example, 
+     * a fixed thread pool with as many threads as there are processors. May be 
+     * null, in which case each request is handled on a new virtual thread. The 
+     * server shuts down an executor it makes for itself when it's closed, but 
+     * it leaves an executor supplied here for the caller to shut down. Either 
+     * way, spectators following the card events are sent the events on 
+     * virtual threads of their own once their stream has started.
+     * @throws IllegalArgumentException If <code>port</code> is outside the 
+     * range 0 to 65535 (other exceptions might occur for ports 0 to 1023), or 
+     * if <code>deckQty</code> is less than 1, or if <code>stop</code> is less 
+     * than 0, or if <code>backlog</code> is less than 1.
+     */
+    public CardJSONServer(int port, int deckQty, int stop, int backlog, 
+            ExecutorService requestExecutor) {
         if (port < 0 || port > 4 * Short.MAX_VALUE || stop < 0) {
             String excMsg = "Check port number " + port + ", deck quantity " 
                     + deckQty + ", stop " + stop;
             throw new IllegalArgumentException(excMsg);
         }
+        if (backlog < 1) {
+            String excMsg = "Backlog " + backlog + " should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
         this.portNumber = port;
+        this.backlog = backlog;
+        this.ownsExecutor = requestExecutor == null;
+        this.executor = this.ownsExecutor 
+                ? Executors.newVirtualThreadPerTaskExecutor() : requestExecutor;
         this.numberOfDecks = deckQty;
         this.plasticCardIndex = stop;
-        this.shoe = new ProvenanceInscribedPlayingCard.Shoe(this.numberOfDecks, 
-                this.plasticCardIndex);
-        this.shoe.shuffle();
+        this.defaultShoe = new DealingShoe(this.numberOfDecks, 
+                this.plasticCardIndex, this.executor, this.metrics, 
+                this.events);
     }
     
     public static void main(String[] args) {
@@ -215,4 +1133,173 @@ public class CardJSONServer implements Closeable {
         server.activate();
     }
     
+    /**
+     * A shoe of provenance-inscribed cards that replaces itself with a freshly 
+     * shuffled shoe whenever it runs out. Dealing is safe from several threads 
+     * at once. Besides the server's default shoe, there's one of these for 
+     * each named shoe. The replacement is put together and shuffled ahead of 
+     * time on another thread, so that the request that happens to get the 
+     * last card of a shoe doesn't have to wait for the next shoe to be 
+     * shuffled.
+     */
+    static final class DealingShoe {
+        
+        private final int numberOfDecks;
+        
+        private final int plasticCardIndex;
+        
+        private final Executor replenisher;
+        
+        private final ServerMetrics metrics;
+        
+        private final CardEventStream events;
+        
+        private ProvenanceInscribedPlayingCard.Shoe shoe;
+        
+        private ProvenanceInscribedPlayingCard.Shoe spare = null;
+        
+        private volatile long lastUsed;
+        
+        private ProvenanceInscribedPlayingCard.Shoe makeShuffledShoe() {
+            ProvenanceInscribedPlayingCard.Shoe shuffled 
+                    = new ProvenanceInscribedPlayingCard.Shoe(this 
+                            .numberOfDecks, this.plasticCardIndex);
+            shuffled.shuffle();
+            return shuffled;
+        }
+        
+        /**
+         * Shuffles the next shoe on the replenisher, if there is one, so that 
+         * it's ready by the time the current shoe runs out. If the replenisher 
+         * turns the task away, the next shoe is instead shuffled on the 
+         * dealing thread when it's needed.
+         */
+        private void prepareSpare() {
+            if (this.replenisher == null) {
+                return;
+            }
+            try {
+                this.replenisher.execute(() -> {
+                    ProvenanceInscribedPlayingCard.Shoe next 
+                            = this.makeShuffledShoe();
+                    synchronized (this) {
+                        if (this.spare == null) {
+                            this.spare = next;
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException ree) {
+            }
+        }
+        
+        /**
+         * Gives a card, replenishing the shoe first if it has run out.
+         * @return A card. For example, Two of Clubs.
+         */
+        synchronized ProvenanceInscribedPlayingCard giveCard() {
+            boolean watched = this.events != null 
+                    && this.events.hasSubscribers();
+            if (!this.shoe.hasNext()) {
+                int previousShoeID = this.shoe.hashCode();
+                this.shoe = (this.spare == null) ? this.makeShuffledShoe() 
+                        : this.spare;
+                this.spare = null;
+                this.metrics.shoeRolledOver();
+                if (watched) {
+                    this.events.publishRollover(previousShoeID, 
+                            this.shoe.hashCode());
+                }
+                this.prepareSpare();
+            }
+            this.metrics.cardDealt();
+            ProvenanceInscribedPlayingCard card = this.shoe.getNextCard();
+            if (watched) {
+                this.events.publishCard(card);
+            }
+            return card;
+        }
+        
+        /**
+         * Gives several cards in a row, replenishing the shoe as many times as 
+         * needed along the way.
+         * @param count How many cards to give. For example, 12.
+         * @return A list of the cards, in the order they were dealt.
+         * @throws IllegalArgumentException If <code>count</code> is negative.
+         */
+        List<ProvenanceInscribedPlayingCard> giveCards(int count) {
+            if (count < 0) {
+                String excMsg = "Count " + count + " should not be negative";
+                throw new IllegalArgumentException(excMsg);
+            }
+            List<ProvenanceInscribedPlayingCard> cards = new ArrayList<>(count);
+            this.deal(count, cards::add);
+            return cards;
+        }
+        
+        /**
+         * Deals several cards in a row to a consumer, replenishing the shoe as 
+         * many times as needed along the way. The consumer is called while the 
+         * shoe's lock is held, so it should be quick, such as putting the card 
+         * into a buffer.
+         * @param count How many cards to deal. For example, 12.
+         * @param sink Where to deal the cards to. For example, a function that 
+         * writes each card's code and IDs into a byte buffer.
+         */
+        synchronized void deal(int count, 
+                Consumer<ProvenanceInscribedPlayingCard> sink) {
+            for (int i = 0; i < count; i++) {
+                sink.accept(this.giveCard());
+            }
+        }
+        
+        /**
+         * Tells whether the replacement for the current shoe has been shuffled 
+         * and is ready to go.
+         * @return True if the replacement is ready, false if it's still being 
+         * shuffled or if there's no thread to shuffle it on.
+         */
+        synchronized boolean isSpareReady() {
+            return this.spare != null;
+        }
+        
+        void touch(long now) {
+            this.lastUsed = now;
+        }
+        
+        boolean isIdle(long now, long idleLimit) {
+            return now - this.lastUsed > idleLimit;
+        }
+        
+        /**
+         * Sole constructor. The shoe is shuffled right away, and the shuffling 
+         * of its replacement is started.
+         * @param deckQty How many decks of cards to put in the shoe. For 
+         * example, 6.
+         * @param stop How many cards from the bottommost card in the shoe to 
+         * place a figurative plastic card. For example, 75.
+         * @param replenisher The executor to shuffle replacement shoes on. For 
+         * example, the executor the server handles requests on. May be null, 
+         * in which case replacements are shuffled on the dealing thread when 
+         * they're needed.
+         * @param metrics Where to count cards dealt and shoes replaced.
+         * @param events Where to publish cards dealt and shoes replaced for 
+         * spectators. May be null if there are no spectators to tell.
+         * @throws IllegalArgumentException If <code>deckQty</code> is less 
+         * than 1 or <code>stop</code> is less than 0.
+         */
+        DealingShoe(int deckQty, int stop, Executor replenisher, 
+                ServerMetrics metrics, CardEventStream events) {
+            this.numberOfDecks = deckQty;
+            this.plasticCardIndex = stop;
+            this.replenisher = replenisher;
+            this.metrics = metrics;
+            this.events = events;
+            this.shoe = new ProvenanceInscribedPlayingCard.Shoe(deckQty, stop);
+            this.shoe.shuffle();
+            this.lastUsed = System.currentTimeMillis();
+            this.prepareSpare();
+        }
+        
+    }
+    
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package playingcards;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Card codes, shuffling and 64-bit order fingerprints shared by decks, shoes 
+ * and the shoe audit log. A card's code is its position in a brand new deck, 
+ * from 0 for the Ace of the first suit to 51 for the King of the last suit. 
+ * The fingerprint of an order of cards folds in the code of each card in turn, 
+ * FNV-1a style, then mixes in how many cards there are. Two orders with 
+ * different fingerprints are definitely different; two orders with the same 
+ * fingerprint are almost certainly the same.
+ * @author Alonso del Arte
+ */
+final class CardOrder {
+    
+    /**
+     * The fingerprint of no cards at all, before {@link #finish(long, int)}.
+     */
+    static final long START = 0xCBF29CE484222325L;
+    
+    private static final long PRIME = 0x100000001B3L;
+    
+    private static final int RANKS_PER_SUIT = Rank.values().length;
+    
+    /**
+     * Gives the code of a card.
+     * @param card The card. For example, 3&#9829;.
+     * @return The code. For example, 28 if Hearts is the third suit.
+     */
+    static int codeOf(PlayingCard card) {
+        return card.cardSuit.ordinal() * RANKS_PER_SUIT 
+                + card.cardRank.ordinal();
+    }
+    
+    /**
+     * Folds one more card into a fingerprint.
+     * @param fingerprint The fingerprint of the cards before this one, not 
+     * yet finished. For example, {@link #START} if this is the first card.
+     * @param card The card. For example, 3&#9829;.
+     * @return The fingerprint including the card, not yet finished.
+     */
+    static long update(long fingerprint, PlayingCard card) {
+        return (fingerprint ^ codeOf(card)) * PRIME;
+    }
+    
+    /**
+     * Finishes a fingerprint.
+     * @param fingerprint The fingerprint of all the cards. For example, what 
+     * {@link #update(long, PlayingCard)} gave for the last card.
+     * @param count How many cards went into the fingerprint. For example, 52.
+     * @return The finished fingerprint.
+     */
+    static long finish(long fingerprint, int count) {
+        long h = fingerprint ^ count;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+    
+    /**
+     * Works out the fingerprint of some cards in the order given.
+     * @param cards The cards. For example, a brand new deck.
+     * @return The finished fingerprint.
+     */
+    static long fingerprintOf(List<PlayingCard> cards) {
+        long fingerprint = START;
+        for (PlayingCard card : cards) {
+            fingerprint = update(fingerprint, card);
+        }
+        return finish(fingerprint, cards.size());
+    }
+    
+    /**
+     * Shuffles cards and works out the fingerprint of the shuffled order as it 
+     * goes. The cards before <code>from</code> are left where they are and go 
+     * into the fingerprint as they are. Then each position from 
+     * <code>from</code> to <code>to</code> gets a card picked at random from 
+     * that position on, and the card goes into the fingerprint right away. 
+     * Cards from <code>to</code> on are left in no particular order and don't 
+     * go into the fingerprint, which saves shuffling cards that will be 
+     * discarded.
+     * @param cards The cards to shuffle.
+     * @param from The first position to shuffle. For example, 0.
+     * @param to The position after the last one to settle. For example, 237 
+     * for a six-deck shoe with the plastic card 75 cards from the bottom.
+     * @param random The source of randomness. For example, a {@code Random} 
+     * seeded with the time of the shuffle.
+     * @return The finished fingerprint of the cards up to <code>to</code>.
+     */
+    static long shuffle(List<PlayingCard> cards, int from, int to, 
+            Random random) {
+        long fingerprint = START;
+        for (int i = 0; i < from; i++) {
+            fingerprint = update(fingerprint, cards.get(i));
+        }
+        int size = cards.size();
+        for (int i = from; i < to; i++) {
+            Collections.swap(cards, i, i + random.nextInt(size - i));
+            fingerprint = update(fingerprint, cards.get(i));
+        }
+        return finish(fingerprint, to);
+    }
+    
+    private CardOrder() {
+    }
+    
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package playingcards;
+
+import java.net.InetAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how many requests each client may make, with a token bucket for each 
+ * client address. A bucket holds up to the burst size in tokens and gains 
+ * tokens at the steady rate, and each request takes one token. Rather than 
+ * count tokens, each bucket keeps a single number, the time at which it will 
+ * be full again, so taking a token is one compare-and-set with no locks. A 
+ * client whose bucket is full is the same as a client never seen, so once 
+ * there are many clients, those with full buckets are forgotten.
+ * @author Alonso del Arte
+ */
+final class ClientRateLimiter {
+    
+    /**
+     * How many clients to keep buckets for before forgetting those whose 
+     * buckets are full.
+     */
+    static final int MAXIMUM_TRACKED_CLIENTS = 65536;
+    
+    private final long emissionInterval;
+    
+    private final long burstTolerance;
+    
+    private final ConcurrentHashMap<InetAddress, AtomicLong> fullTimes 
+            = new ConcurrentHashMap<>();
+    
+    private void forgetIdleClients(long now) {
+        this.fullTimes.values() 
+                .removeIf(fullTime -> fullTime.get() - now <= 0);
+    }
+    
+    /**
+     * Takes a token from a client's bucket, if there is one to take.
+     * @param client The address of the client. For example, 127.0.0.1.
+     * @param now The current time in nanoseconds, as given by {@code 
+     * System.nanoTime()}.
+     * @return 0 if the client may go ahead, otherwise how many nanoseconds 
+     * until the client's bucket has a token again. For example, 250000000.
+     */
+    long tryAcquire(InetAddress client, long now) {
+        AtomicLong fullTime = this.fullTimes.get(client);
+        if (fullTime == null) {
+            if (this.fullTimes.size() >= MAXIMUM_TRACKED_CLIENTS) {
+                this.forgetIdleClients(now);
+            }
+            fullTime = this.fullTimes.computeIfAbsent(client, 
+                    key -> new AtomicLong(now));
+        }
+        while (true) {
+            long previous = fullTime.get();
+            long start = (previous - now < 0) ? now : previous;
+            long wait = start - now - this.burstTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullTime.compareAndSet(previous, 
+                    start + this.emissionInterval)) {
+                return 0L;
+            }
+        }
+    }
+    
+    int countClients() {
+        return this.fullTimes.size();
+    }
+    
+    /**
+     * Sole constructor.
+     * @param requestsPerSecond How many requests each client may make per 
+     * second in the long run. For example, 50.0.
+     * @param burst How many requests a client that has been quiet for a while 
+     * may make all at once. For example, 20.
+     * @throws IllegalArgumentException If <code>requestsPerSecond</code> is 
+     * not positive, or if <code>burst</code> is less than 1.
+     */
+    ClientRateLimiter(double requestsPerSecond, int burst) {
+        if (!(requestsPerSecond > 0.0) || burst < 1) {
+            String excMsg = "Rate " + requestsPerSecond + " and burst " 
+                    + burst + " should both be positive";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.emissionInterval = Math.max((long) (1.0E9 / requestsPerSecond), 
+                1L);
+        this.burstTolerance = (burst - 1) * this.emissionInterval;
+    }
+    
+}
@@ -16,9 +16,14 @@
  */
 package playingcards;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 /**
  * A multi-deck card dispenser with the option of a plastic card to prevent a 
@@ -30,12 +35,16 @@ import java.util.List;
  */
 public class MultiDeckCardDispenser implements CardSupplier {
     
+    private static final int MAXIMUM_DECKS_IN_STATE = 255;
+    
     private List<PlayingCard> cards;
     
     private CardDeck[] decks;
     
     private int dispenseIndex = 0;
     
+    private long orderFingerprint;
+    
     /**
      * Tells whether this dispenser can give another card. Call this function to 
      * avoid incurring {@link RanOutOfCardsException} (or call the constructor 
@@ -89,6 +98,153 @@ public class MultiDeckCardDispenser implements CardSupplier {
         return matchFound;
     }
     
+    /**
+     * Gives a 64-bit fingerprint of the order of the cards in this dispenser, 
+     * from the first card to the last one before the plastic card, including 
+     * the cards already given out. The fingerprint is worked out during the 
+     * shuffle, so two dispensers can be compared in constant time: if their 
+     * fingerprints differ, they are definitely in different orders.
+     * @return The fingerprint. For example, &minus;2254136902219861046.
+     */
+    public long fingerprint() {
+        return this.orderFingerprint;
+    }
+    
+    int countDecks() {
+        return this.decks.length;
+    }
+    
+    int countCards() {
+        return this.cards.size();
+    }
+    
+    int codeAt(int position) {
+        return CardOrder.codeOf(this.cards.get(position));
+    }
+    
+    /**
+     * Tells how many cards this dispenser has given out so far.
+     * @return The number of cards given out. For example, 52.
+     */
+    public int countDealt() {
+        return this.dispenseIndex;
+    }
+    
+    /**
+     * Tells at which position a card that has been given out came out of this 
+     * dispenser. This looks for the very same card, not just a card of the 
+     * same rank and suit.
+     * @param card The card to look for. For example, 7&#9827;.
+     * @return The position, counting from 0 for the first card given out. For 
+     * example, 12. Or &minus;1 if the card has not been given out by this 
+     * dispenser.
+     */
+    public int positionOf(PlayingCard card) {
+        for (int i = 0; i < this.dispenseIndex; i++) {
+            if (this.cards.get(i) == card) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Gives the card that came out of this dispenser at a given position. The 
+     * card is not given out again, this only retrieves it for the caller. 
+     * Cards that have not been given out yet can't be retrieved this way.
+     * @param position The position, counting from 0 for the first card given 
+     * out. For example, 12.
+     * @return The card. For example, 7&#9827;.
+     * @throws IndexOutOfBoundsException If <code>position</code> is negative 
+     * or not less than {@link #countDealt()}.
+     */
+    public PlayingCard dealtCardAt(int position) {
+        if (position < 0 || position >= this.dispenseIndex) {
+            String excMsg = "Position " + position + " is not of a card dealt" 
+                    + " so far, only " + this.dispenseIndex + " dealt";
+            throw new IndexOutOfBoundsException(excMsg);
+        }
+        return this.cards.get(position);
+    }
+    
+    /**
+     * Writes the complete state of this dispenser: how many decks it has, the 
+     * order of all the cards before the plastic card, including the ones 
+     * already given out, and how many cards have been given out. Each card 
+     * takes up 2 bytes: the index of the deck it came from and its position 
+     * in a brand new deck.
+     * @param out Where to write the state. For example, a stream to a 
+     * snapshot file.
+     * @throws IOException If <code>out</code> throws it.
+     * @throws IllegalStateException If this dispenser has more than 255 
+     * decks.
+     */
+    public void writeState(DataOutput out) throws IOException {
+        if (this.decks.length > MAXIMUM_DECKS_IN_STATE) {
+            String excMsg = "Can't write state of dispenser with " 
+                    + this.decks.length + " decks";
+            throw new IllegalStateException(excMsg);
+        }
+        out.writeByte(this.decks.length);
+        out.writeShort(this.cards.size());
+        out.writeShort(this.dispenseIndex);
+        Map<PlayingCard, Integer> deckIndices = new IdentityHashMap<>();
+        for (int i = 0; i < this.decks.length; i++) {
+            for (PlayingCard card : this.decks[i].cards) {
+                deckIndices.put(card, i);
+            }
+        }
+        for (PlayingCard card : this.cards) {
+            out.writeByte(deckIndices.get(card));
+            out.writeByte(CardOrder.codeOf(card));
+        }
+    }
+    
+    /**
+     * Reads the state of a dispenser written by {@link 
+     * #writeState(DataOutput)}. The result gives out the same cards in the 
+     * same order as the original would have, and {@link 
+     * #provenance(PlayingCard)} works with the cards it has already given out 
+     * as retrieved by {@link #dealtCardAt(int)}.
+     * @param in Where to read the state from. For example, a stream from a 
+     * snapshot file.
+     * @return A new dispenser with the state that was written.
+     * @throws IOException If <code>in</code> throws it, or if the state is not 
+     * valid.
+     */
+    public static MultiDeckCardDispenser readState(DataInput in) 
+            throws IOException {
+        int numberOfDecks = in.readUnsignedByte();
+        int cardCount = in.readUnsignedShort();
+        int dealt = in.readUnsignedShort();
+        if (numberOfDecks == 0 || cardCount 
+                > numberOfDecks * CardDeck.INITIAL_NUMBER_OF_CARDS_PER_DECK 
+                || dealt > cardCount) {
+            String excMsg = "Dispenser state with " + numberOfDecks 
+                    + " decks, " + cardCount + " cards and " + dealt 
+                    + " dealt is not valid";
+            throw new IOException(excMsg);
+        }
+        CardDeck[] decks = new CardDeck[numberOfDecks];
+        for (int i = 0; i < numberOfDecks; i++) {
+            decks[i] = new CardDeck();
+            decks[i].dealCount = CardDeck.INITIAL_NUMBER_OF_CARDS_PER_DECK;
+        }
+        List<PlayingCard> cards = new ArrayList<>(cardCount);
+        for (int i = 0; i < cardCount; i++) {
+            int deckIndex = in.readUnsignedByte();
+            int code = in.readUnsignedByte();
+            if (deckIndex >= numberOfDecks 
+                    || code >= CardDeck.INITIAL_NUMBER_OF_CARDS_PER_DECK) {
+                String excMsg = "Card " + deckIndex + ":" + code 
+                        + " is not valid";
+                throw new IOException(excMsg);
+            }
+            cards.add(decks[deckIndex].cards.get(code));
+        }
+        return new MultiDeckCardDispenser(decks, cards, dealt);
+    }
+    
     /**
      * Constructs a new multi-deck card dispenser. The decks may or may not be 
      * shuffled individually, but the whole bunch of cards should be shuffled 
@@ -128,6 +284,34 @@ public class MultiDeckCardDispenser implements CardSupplier {
      * {@code plasticCardPos} is negative.
      */
     public MultiDeckCardDispenser(int numberOfDecks, int plasticCardPos) {
+        this(numberOfDecks, plasticCardPos, new Random());
+    }
+    
+    /**
+     * Constructs a new multi-deck card dispenser shuffled according to a seed. 
+     * Two dispensers constructed with the same number of decks, plastic card 
+     * position and seed give out the same cards in the same order, so a shoe 
+     * can be recreated from its seed, e.g., to replay a disputed round.
+     * @param numberOfDecks How many decks to put into the dispenser. Should be 
+     * a positive number, preferably greater than 1. For example, 6 for six 
+     * decks.
+     * @param plasticCardPos At which position from the bottom to place a 
+     * plastic card. May be 0 but should not be negative. For example, 75.
+     * @param seed The seed for shuffling the decks. For example, 
+     * 1742169600000.
+     * @throws IllegalArgumentException If {@code numberOfDecks} is 0, or if 
+     * {@code plasticCardPos} is in excess of how many cards there are in the 
+     * decks in total.
+     * @throws NegativeArraySizeException If either {@code numberOfDecks} or  
+     * {@code plasticCardPos} is negative.
+     */
+    public MultiDeckCardDispenser(int numberOfDecks, int plasticCardPos, 
+            long seed) {
+        this(numberOfDecks, plasticCardPos, new Random(seed));
+    }
+    
+    private MultiDeckCardDispenser(int numberOfDecks, int plasticCardPos, 
+            Random random) {
         if (numberOfDecks == 0) {
             String excMsg = "At least one deck of cards needed to dispense";
             throw new IllegalArgumentException(excMsg);
@@ -151,17 +335,23 @@ public class MultiDeckCardDispenser implements CardSupplier {
         this.cards = new ArrayList<>();
         for (int i = 0; i < numberOfDecks; i++) {
             this.decks[i] = new CardDeck();
-            this.decks[i].shuffle();
+            this.decks[i].shuffle(random);
             while (this.decks[i].hasNext()) {
                 this.cards.add(this.decks[i].getNextCard());
             }
         }
-        Collections.shuffle(this.cards);
-        int fromIndex = this.cards.size() - 1;
         int toIndex = this.cards.size() - plasticCardPos;
-        for (int j = fromIndex; j >= toIndex; j--) {
-            this.cards.remove(j);
-        }
+        this.orderFingerprint = CardOrder.shuffle(this.cards, 0, toIndex, 
+                random);
+        this.cards.subList(toIndex, this.cards.size()).clear();
+    }
+    
+    private MultiDeckCardDispenser(CardDeck[] decks, List<PlayingCard> cards, 
+            int dealt) {
+        this.decks = decks;
+        this.cards = cards;
+        this.dispenseIndex = dealt;
+        this.orderFingerprint = CardOrder.fingerprintOf(cards);
     }
     
 }
@@ -16,6 +16,10 @@
  */
 package playingcards;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -28,6 +32,47 @@ import java.util.NoSuchElementException;
  */
 final class ProvenanceInscribedPlayingCard extends PlayingCard {
     
+    private static final byte[][] JSON_HEADS;
+    
+    private static final byte[][] JSON_TAILS;
+    
+    private static final byte[] JSON_DECK_ID_FIELD 
+            = ",\"deckID\":".getBytes(StandardCharsets.UTF_8);
+    
+    private static final int MAXIMUM_INT_LENGTH 
+            = Integer.toString(Integer.MIN_VALUE).length();
+    
+    /**
+     * The most bytes the UTF-8 encoded JSON of any one card can take up.
+     */
+    static final int MAXIMUM_JSON_LENGTH;
+    
+    static {
+        Rank[] ranks = Rank.values();
+        Suit[] suits = Suit.values();
+        JSON_HEADS = new byte[ranks.length * suits.length][];
+        JSON_TAILS = new byte[JSON_HEADS.length][];
+        int maxHead = 0;
+        int maxTail = 0;
+        for (Suit suit : suits) {
+            for (Rank rank : ranks) {
+                PlayingCard card = new PlayingCard(rank, suit);
+                int code = CardOrder.codeOf(card);
+                JSON_HEADS[code] = ("{\"name\":\"" + card.toString() 
+                        + "\",\"rank\":\"" + rank.getWord() 
+                        + "\",\"suit\":\"" + suit.getWord() 
+                        + "\",\"shoeID\":").getBytes(StandardCharsets.UTF_8);
+                JSON_TAILS[code] = (",\"unicodeSMPChar\":\"" 
+                        + card.toUnicodeSMPChar() + "\"}") 
+                        .getBytes(StandardCharsets.UTF_8);
+                maxHead = Math.max(maxHead, JSON_HEADS[code].length);
+                maxTail = Math.max(maxTail, JSON_TAILS[code].length);
+            }
+        }
+        MAXIMUM_JSON_LENGTH = maxHead + JSON_DECK_ID_FIELD.length + maxTail 
+                + 2 * MAXIMUM_INT_LENGTH;
+    }
+    
     private final int deckHashCode, shoeHashCode;
     
     /**
@@ -64,6 +109,49 @@ final class ProvenanceInscribedPlayingCard extends PlayingCard {
                 + this.toUnicodeSMPChar() + "\"}";
     }
     
+    /**
+     * Writes the JSON representation of this card into a buffer as UTF-8. The 
+     * bytes are the same as those of {@link #toJSONString()}, but the parts 
+     * that don't depend on the deck and the shoe are copied from byte arrays 
+     * worked out when the class is loaded, and the hash codes are written out 
+     * digit by digit, so no strings are made along the way.
+     * @param buffer The buffer to write into. There should be room for at 
+     * least {@link #MAXIMUM_JSON_LENGTH} bytes from <code>offset</code> on.
+     * @param offset Where in the buffer to start writing. For example, 1.
+     * @return The position in the buffer right after the JSON. For example, 
+     * 122.
+     */
+    int writeJSON(byte[] buffer, int offset) {
+        int code = CardOrder.codeOf(this);
+        int position = copy(JSON_HEADS[code], buffer, offset);
+        position = writeInt(this.shoeHashCode, buffer, position);
+        position = copy(JSON_DECK_ID_FIELD, buffer, position);
+        position = writeInt(this.deckHashCode, buffer, position);
+        return copy(JSON_TAILS[code], buffer, position);
+    }
+    
+    private static int copy(byte[] source, byte[] buffer, int offset) {
+        System.arraycopy(source, 0, buffer, offset, source.length);
+        return offset + source.length;
+    }
+    
+    private static int writeInt(int n, byte[] buffer, int offset) {
+        long remaining = n;
+        if (remaining < 0) {
+            buffer[offset++] = '-';
+            remaining = -remaining;
+        }
+        int digits = 1;
+        for (long power = 10; power <= remaining; power *= 10) {
+            digits++;
+        }
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        return offset + digits;
+    }
+    
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
@@ -87,26 +175,30 @@ final class ProvenanceInscribedPlayingCard extends PlayingCard {
         return hash + super.hashCode();
     }
     
+    /**
+     * Parses a card from its JSON, with a {@link CardJSONReader} over the 
+     * UTF-8 bytes of the text. The reader can't actually fail to read from a 
+     * byte buffer, but should it somehow throw {@code IOException}, that is 
+     * wrapped in an {@code UncheckedIOException}.
+     * @param s The JSON of a card, as given by {@link #toJSONString()}. For 
+     * example, "{"name": "5&#9824;", "rank": "Five", "suit": "Spades", 
+     * "shoeID": 135721597, "deckID": 295530567, "unicodeSMPChar": 
+     * "&#127141;"}", but without any spaces.
+     * @return The card. For example, 5&#9824; from shoe 135721597.
+     * @throws NoSuchElementException If <code>s</code> does not represent a 
+     * valid card.
+     */
     static ProvenanceInscribedPlayingCard parseJSON(String s) {
-        int rankIndex = s.indexOf("\"rank\":");
-        int suitIndex = s.indexOf("\"suit\":");
-        int shoeIndex = s.indexOf("\"shoeID\":");
-        int deckIndex = s.indexOf("\"deckID\":");
-        int absentFlag = rankIndex | suitIndex | shoeIndex | deckIndex;
-        if (absentFlag < 0) {
+        ByteBuffer buffer = ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+        try {
+            return new CardJSONReader(buffer).readCard();
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        } catch (NoSuchElementException nsee) {
             String excMsg = "Input \"" + s 
                     + "\" does not represent a valid card";
-            throw new NoSuchElementException(excMsg);
+            throw new NoSuchElementException(excMsg, nsee);
         }
-        Rank rank = Rank.parseRank(s.substring(rankIndex + 8, s.indexOf('"', 
-                rankIndex + 9)));
-        Suit suit = Suit.parseSuit(s.substring(suitIndex + 8, s.indexOf('"', 
-                suitIndex + 9)));
-        int shoeID = Integer.parseInt(s.substring(shoeIndex + 9, s.indexOf(',', 
-                shoeIndex + 11)));
-        int deckID = Integer.parseInt(s.substring(deckIndex + 9, s.indexOf(',', 
-                deckIndex + 11)));
-        return new ProvenanceInscribedPlayingCard(rank, suit, deckID, shoeID);        
     }
 
     /**
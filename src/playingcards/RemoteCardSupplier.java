@@ -0,0 +1,387 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package playingcards;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Supplies cards dealt by a {@link CardJSONServer}, or anything else that 
+ * answers batch requests the same way. Cards are fetched ahead of time in 
+ * batches, on a thread of its own, and kept in a local buffer: whenever the 
+ * buffer runs down to the low watermark, another batch is requested to fill it 
+ * back up to the high watermark. So as long as the server keeps up, {@link 
+ * #getNextCard()} just takes a card from memory. The requests all go through 
+ * one HTTP client, which keeps its connection to the server open between 
+ * requests.
+ * <p>The remote shoe replenishes itself, so this supplier only runs out of 
+ * cards if the server stops answering or the supplier is closed. Provenance is 
+ * checked locally, against the shoe and deck IDs of the cards still in the 
+ * buffer, of the shoe the card most recently given came from, and of the shoe 
+ * before that one. The IDs of older shoes are forgotten, so that a supplier 
+ * that runs for a long time doesn't keep the IDs of every shoe it has ever 
+ * seen.</p>
+ * @author Alonso del Arte
+ */
+public final class RemoteCardSupplier implements CardSupplier, Closeable {
+    
+    /**
+     * How few cards may be left in the buffer before another batch is 
+     * requested, if no other low watermark is specified.
+     */
+    public static final int DEFAULT_LOW_WATERMARK = 64;
+    
+    /**
+     * How many cards the buffer is filled up to, if no other high watermark 
+     * is specified.
+     */
+    public static final int DEFAULT_HIGH_WATERMARK = 512;
+    
+    /**
+     * How many milliseconds {@link #getNextCard()} waits for a card when the 
+     * buffer is empty before giving up.
+     */
+    public static final long DEFAULT_WAIT_LIMIT = 5000;
+    
+    private static final long RETRY_DELAY = 250;
+    
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private final URI batchLocator;
+    
+    private final String requestPrefix;
+    
+    private final int lowWatermark;
+    
+    private final int highWatermark;
+    
+    private final HttpClient client;
+    
+    private final LinkedBlockingQueue<ProvenanceInscribedPlayingCard> buffer;
+    
+    private final LinkedHashMap<Integer, Set<Integer>> decksByShoe 
+            = new LinkedHashMap<>();
+    
+    private Integer currentShoeID = null;
+    
+    private Integer previousShoeID = null;
+    
+    private final Semaphore refillRequests = new Semaphore(1);
+    
+    private final AtomicBoolean refillRequested = new AtomicBoolean(true);
+    
+    private final Thread fetcher;
+    
+    private volatile String lastProblem = null;
+    
+    private long retryDelay = RETRY_DELAY;
+
+    private volatile boolean closed = false;
+    
+    private void accept(ProvenanceInscribedPlayingCard card) {
+        synchronized (this.decksByShoe) {
+            this.decksByShoe.computeIfAbsent(card.getShoeHash(), 
+                    shoeID -> new HashSet<>()).add(card.getDeckHash());
+        }
+        this.buffer.add(card);
+    }
+    
+    /**
+     * Notes which shoe a card being given came from. When that's a different 
+     * shoe than the previous card's, the IDs of any shoes before the previous 
+     * card's shoe are forgotten. Since the cards come in the order they were 
+     * dealt, no card from those shoes is left in the buffer.
+     * @param card The card being given. For example, 4&#9827; from shoe 
+     * 135721597.
+     */
+    private void noteGiven(ProvenanceInscribedPlayingCard card) {
+        int shoeID = card.getShoeHash();
+        synchronized (this.decksByShoe) {
+            if (this.currentShoeID != null && this.currentShoeID == shoeID) {
+                return;
+            }
+            this.previousShoeID = this.currentShoeID;
+            this.currentShoeID = shoeID;
+            Integer keepFrom = (this.previousShoeID == null) 
+                    ? this.currentShoeID : this.previousShoeID;
+            Iterator<Integer> shoeIDs = this.decksByShoe.keySet().iterator();
+            while (shoeIDs.hasNext() && !shoeIDs.next().equals(keepFrom)) {
+                shoeIDs.remove();
+            }
+        }
+    }
+    
+    /**
+     * Tells how long the server asked to be left alone for. A "Retry-After" 
+     * header may give either a number of seconds or an HTTP date.
+     * @param response The response to check. For example, a response with 
+     * status 503 and a "Retry-After" header of "1".
+     * @return How many milliseconds to wait before asking again. For example, 
+     * 1000. If the response has no "Retry-After" header, or one that can't be 
+     * understood, {@link #RETRY_DELAY}.
+     */
+    private static long retryAfter(HttpResponse<?> response) {
+        Optional<String> header = response.headers().firstValue("Retry-After");
+        if (header.isEmpty()) {
+            return RETRY_DELAY;
+        }
+        String value = header.get().trim();
+        try {
+            long seconds = Long.parseLong(value);
+            if (seconds >= 0L) {
+                return Math.min(seconds, Long.MAX_VALUE / 1000L) * 1000L;
+            }
+        } catch (NumberFormatException nfe) {
+            try {
+                ZonedDateTime then = ZonedDateTime.parse(value, 
+                        DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(Duration.between(ZonedDateTime.now(), then) 
+                        .toMillis(), 0L);
+            } catch (DateTimeParseException dtpe) {
+            }
+        }
+        return RETRY_DELAY;
+    }
+    
+    private void fetch(int count) throws IOException, InterruptedException {
+        this.retryDelay = RETRY_DELAY;
+        HttpRequest request = HttpRequest.newBuilder(URI 
+                .create(this.requestPrefix + count)).GET().build();
+        HttpResponse<InputStream> response = this.client.send(request, 
+                HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            int status = response.statusCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                if (status == HttpURLConnection.HTTP_UNAVAILABLE 
+                        || status == HTTP_TOO_MANY_REQUESTS) {
+                    this.retryDelay = retryAfter(response);
+                }
+                String excMsg = "Server at " + this.batchLocator 
+                        + " answered with status " + status;
+                throw new IOException(excMsg);
+            }
+            new CardJSONReader(body).readCards(this::accept);
+        }
+    }
+    
+    /**
+     * Fetches batches whenever a refill is requested, until the supplier is 
+     * closed. A fetch that fails for any reason is retried, after however long 
+     * the server asked for with a "Retry-After" header if it was busy or 
+     * limiting its rate, or after {@link #RETRY_DELAY} milliseconds otherwise. 
+     * Closing the supplier interrupts this thread, which ends it whether it 
+     * was waiting for a refill request or to retry a fetch.
+     */
+    private void run() {
+        try {
+            while (!this.closed) {
+                this.refillRequests.acquire();
+                this.refillRequested.set(false);
+                while (!this.closed 
+                        && this.buffer.size() <= this.lowWatermark) {
+                    try {
+                        this.fetch(this.highWatermark - this.buffer.size());
+                        this.lastProblem = null;
+                    } catch (IOException | RuntimeException e) {
+                        this.lastProblem = (e.getMessage() == null) 
+                                ? e.getClass().getName() : e.getMessage();
+                        Thread.sleep(this.retryDelay);
+                    }
+                }
+            }
+        } catch (InterruptedException ie) {
+        }
+    }
+    
+    private void requestRefill() {
+        if (this.buffer.size() <= this.lowWatermark 
+                && this.refillRequested.compareAndSet(false, true)) {
+            this.refillRequests.release();
+        }
+    }
+    
+    /**
+     * Tells whether this supplier can give another card. Since the remote 
+     * shoe replenishes itself, this is true until the supplier is closed.
+     * @return True if the supplier has not been closed, false otherwise.
+     */
+    @Override
+    public boolean hasNext() {
+        return !this.closed;
+    }
+    
+    /**
+     * Supplies the next card from the buffer. If the buffer is empty, this 
+     * waits up to {@link #DEFAULT_WAIT_LIMIT} milliseconds for the next batch 
+     * to come in.
+     * @return A card. For example, 4&#9827;.
+     * @throws RanOutOfCardsException If this supplier has been closed, or if 
+     * the buffer stayed empty for too long, such as because the server has 
+     * gone away.
+     */
+    @Override
+    public PlayingCard getNextCard() {
+        if (this.closed) {
+            String excMsg = "Supplier for " + this.batchLocator 
+                    + " has been closed";
+            throw new RanOutOfCardsException(excMsg);
+        }
+        ProvenanceInscribedPlayingCard card = this.buffer.poll();
+        if (card == null) {
+            this.requestRefill();
+            try {
+                card = this.buffer.poll(DEFAULT_WAIT_LIMIT, 
+                        TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            if (card == null) {
+                String problem = this.lastProblem;
+                String excMsg = "No cards from " + this.batchLocator 
+                        + ((problem == null) ? "" : ": " + problem);
+                throw new RanOutOfCardsException(excMsg);
+            }
+        }
+        this.noteGiven(card);
+        this.requestRefill();
+        return card;
+    }
+    
+    /**
+     * Tells how many cards are in the local buffer. Those are the cards that 
+     * can be given right away. The remote shoe has more.
+     * @return How many cards are buffered. For example, 300.
+     */
+    @Override
+    public int countRemaining() {
+        return this.buffer.size();
+    }
+    
+    /**
+     * Determines whether a card came from the remote shoe, by way of this 
+     * supplier. No request is made to the server.
+     * @param card The card to check the provenance of. For example, 5&#9824; 
+     * from shoe 135721597, deck 295530567.
+     * @return True if the card is a provenance-inscribed card with the shoe ID 
+     * and deck ID of a card this supplier has fetched, as long as that shoe 
+     * has not been forgotten, false otherwise.
+     */
+    @Override
+    public boolean provenance(PlayingCard card) {
+        if (card instanceof ProvenanceInscribedPlayingCard inscribed) {
+            synchronized (this.decksByShoe) {
+                Set<Integer> deckIDs 
+                        = this.decksByShoe.get(inscribed.getShoeHash());
+                return deckIDs != null 
+                        && deckIDs.contains(inscribed.getDeckHash());
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Stops fetching cards and closes the connection to the server. Closing a 
+     * supplier that has already been closed has no effect.
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.fetcher.interrupt();
+        this.client.shutdownNow();
+    }
+    
+    /**
+     * Auxiliary constructor. The buffer watermarks are {@link 
+     * #DEFAULT_LOW_WATERMARK} and {@link #DEFAULT_HIGH_WATERMARK}.
+     * @param batchLocator The locator of the batch endpoint of the server. 
+     * For example, "http://localhost:8080/dealcards/".
+     * @throws IllegalArgumentException If <code>batchLocator</code> is not an 
+     * HTTP or HTTPS locator.
+     */
+    public RemoteCardSupplier(URI batchLocator) {
+        this(batchLocator, DEFAULT_LOW_WATERMARK, DEFAULT_HIGH_WATERMARK);
+    }
+    
+    /**
+     * Primary constructor. Fetching the first batch starts right away, on a 
+     * virtual thread.
+     * @param batchLocator The locator of the batch endpoint of the server. 
+     * For example, "http://localhost:8080/shoe/table-17/dealcards". The count 
+     * is added as the query.
+     * @param lowWatermark How few cards may be left in the buffer before 
+     * another batch is requested. For example, 32. Should be at least 0.
+     * @param highWatermark How many cards to fill the buffer up to. For 
+     * example, 256. Should be more than <code>lowWatermark</code>, and no 
+     * more than {@link CardJSONServer#MAXIMUM_BATCH_SIZE}.
+     * @throws IllegalArgumentException If <code>batchLocator</code> is not an 
+     * HTTP or HTTPS locator, or if the watermarks are out of order or out of 
+     * range.
+     */
+    public RemoteCardSupplier(URI batchLocator, int lowWatermark, 
+            int highWatermark) {
+        String scheme = batchLocator.getScheme();
+        if (!"http".equalsIgnoreCase(scheme) 
+                && !"https".equalsIgnoreCase(scheme)) {
+            String excMsg = "Locator " + batchLocator 
+                    + " should be HTTP or HTTPS";
+            throw new IllegalArgumentException(excMsg);
+        }
+        if (lowWatermark < 0 || highWatermark <= lowWatermark 
+                || highWatermark > CardJSONServer.MAXIMUM_BATCH_SIZE) {
+            String excMsg = "Low watermark " + lowWatermark 
+                    + " and high watermark " + highWatermark 
+                    + " should satisfy 0 <= low < high <= " 
+                    + CardJSONServer.MAXIMUM_BATCH_SIZE;
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.batchLocator = batchLocator;
+        this.requestPrefix = batchLocator.toString() 
+                + ((batchLocator.getRawQuery() == null) ? "?" : "&") + "count=";
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.buffer = new LinkedBlockingQueue<>();
+        this.client = HttpClient.newBuilder() 
+                .version(HttpClient.Version.HTTP_1_1) 
+                .connectTimeout(Duration.ofMillis(DEFAULT_WAIT_LIMIT)) 
+                .build();
+        this.fetcher = Thread.ofVirtual().name("RemoteCardSupplier-" 
+                + batchLocator).start(this::run);
+    }
+    
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package playingcards;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps count of what a card server has been doing. The counters are striped 
+ * ({@code LongAdder}), so threads handling requests at the same time don't 
+ * contend with each other to update them; the cost is paid instead when the 
+ * counts are read, which is far less often. Request latencies go into a 
+ * histogram with eight buckets for each power of two microseconds, so that 
+ * percentiles are off by no more than an eighth.
+ * @author Alonso del Arte
+ */
+final class ServerMetrics {
+    
+    private static final int SUB_BUCKET_BITS = 3;
+    
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    
+    /**
+     * How many buckets the latency histogram has. The last bucket takes any 
+     * latency too long for the others, which would be more than a day.
+     */
+    static final int NUMBER_OF_BUCKETS = LINEAR_LIMIT + 34 * SUB_BUCKETS;
+    
+    private final long startTime = System.nanoTime();
+    
+    private final LongAdder requests = new LongAdder();
+    
+    private final LongAdder requestsInFlight = new LongAdder();
+    
+    private final LongAdder cardsDealt = new LongAdder();
+    
+    private final LongAdder shoeRollovers = new LongAdder();
+    
+    private final LongAdder requestsRejected = new LongAdder();
+    
+    private final LongAdder requestsRateLimited = new LongAdder();
+    
+    private final LongAdder[] latencyBuckets 
+            = new LongAdder[NUMBER_OF_BUCKETS];
+    
+    private final LongAccumulator maximumLatency 
+            = new LongAccumulator(Long::max, 0L);
+    
+    /**
+     * Tells which histogram bucket a latency goes in. Latencies under 16 
+     * microseconds each get a bucket of their own. After that, each power of 
+     * two is split into eight buckets of equal width.
+     * @param micros The latency in microseconds. For example, 250.
+     * @return The index of the bucket. For example, 47.
+     */
+    static int bucketOf(long micros) {
+        if (micros < LINEAR_LIMIT) {
+            return (int) Math.max(micros, 0L);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) 
+                & (SUB_BUCKETS - 1);
+        int index = LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) 
+                * SUB_BUCKETS + subBucket;
+        return Math.min(index, NUMBER_OF_BUCKETS - 1);
+    }
+    
+    /**
+     * Tells the highest latency that goes in a histogram bucket.
+     * @param bucket The index of the bucket. For example, 47.
+     * @return The highest latency in microseconds. For example, 255.
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS 
+                + 1;
+        long subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (subBucket + 1) * width - 1;
+    }
+    
+    /**
+     * Notes that a request has come in. Should be followed by a call to 
+     * {@link #requestFinished(long)} once the request has been handled.
+     */
+    void requestStarted() {
+        this.requestsInFlight.increment();
+    }
+    
+    /**
+     * Notes that a request has been handled.
+     * @param nanos How long it took to handle the request, in nanoseconds. 
+     * For example, 250000.
+     */
+    void requestFinished(long nanos) {
+        this.requestsInFlight.decrement();
+        this.requests.increment();
+        long micros = nanos / 1000;
+        this.latencyBuckets[bucketOf(micros)].increment();
+        this.maximumLatency.accumulate(micros);
+    }
+    
+    /**
+     * Notes that a card has been dealt.
+     */
+    void cardDealt() {
+        this.cardsDealt.increment();
+    }
+    
+    /**
+     * Notes that a shoe ran out and was replaced by a freshly shuffled one.
+     */
+    void shoeRolledOver() {
+        this.shoeRollovers.increment();
+    }
+    
+    /**
+     * Notes that a request was turned away because too many requests were 
+     * already pending.
+     */
+    void requestRejected() {
+        this.requestsRejected.increment();
+    }
+    
+    /**
+     * Notes that a request was turned away because its client had made too 
+     * many requests too quickly.
+     */
+    void requestRateLimited() {
+        this.requestsRateLimited.increment();
+    }
+    
+    long countRequests() {
+        return this.requests.sum();
+    }
+    
+    long countRequestsInFlight() {
+        return this.requestsInFlight.sum();
+    }
+    
+    long countCardsDealt() {
+        return this.cardsDealt.sum();
+    }
+    
+    long countShoeRollovers() {
+        return this.shoeRollovers.sum();
+    }
+    
+    long countRequestsRejected() {
+        return this.requestsRejected.sum();
+    }
+    
+    long countRequestsRateLimited() {
+        return this.requestsRateLimited.sum();
+    }
+    
+    /**
+     * Gives a percentile of the request latencies recorded so far.
+     * @param fraction Which percentile, as a fraction. For example, 0.99 for 
+     * the 99th percentile.
+     * @return The latency in microseconds, rounded up to the highest latency 
+     * in its histogram bucket, or to the highest latency recorded if that's 
+     * lower. For example, 255. If no requests have been recorded, 0.
+     */
+    long latencyPercentile(double fraction) {
+        long[] counts = new long[NUMBER_OF_BUCKETS];
+        long total = 0L;
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+            counts[i] = this.latencyBuckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+        long rank = Math.max((long) Math.ceil(fraction * total), 1L);
+        long cumulative = 0L;
+        int bucket = 0;
+        while (cumulative + counts[bucket] < rank 
+                && bucket < NUMBER_OF_BUCKETS - 1) {
+            cumulative += counts[bucket];
+            bucket++;
+        }
+        return Math.min(upperBoundOf(bucket), this.maximumLatency.get());
+    }
+    
+    /**
+     * Gives the metrics as JSON. The requests per second are worked out over 
+     * the time since the metrics started being kept, so reading the metrics 
+     * doesn't change what the next reader sees.
+     * @param executorQueueDepth How many requests are waiting for a thread to 
+     * handle them. For example, 3.
+     * @param pendingRequests How many requests have been let in and not yet 
+     * answered. For example, 5.
+     * @return The metrics as JSON. For example, "{"uptimeMillis":60000, 
+     * "requests":1200,"requestsPerSecond":20.0,"requestsInFlight":1, 
+     * "executorQueueDepth":0,"pendingRequests":1,"requestsRejected":0, 
+     * "requestsRateLimited":4,"cardsDealt":6000,"shoeRollovers":12, 
+     * "latencyMicros":{"p50":95,"p99":479,"p999":1023,"max":1390}}", but 
+     * without any spaces or line breaks.
+     */
+    String toJSONString(int executorQueueDepth, int pendingRequests) {
+        long now = System.nanoTime();
+        long requestCount = this.countRequests();
+        long elapsed = now - this.startTime;
+        double requestsPerSecond = (elapsed > 0L) 
+                ? requestCount * 1.0E9 / elapsed : 0.0;
+        return "{\"uptimeMillis\":" + (now - this.startTime) / 1000000 
+                + ",\"requests\":" + requestCount 
+                + ",\"requestsPerSecond\":" 
+                + Math.round(requestsPerSecond * 100.0) / 100.0 
+                + ",\"requestsInFlight\":" + this.countRequestsInFlight() 
+                + ",\"executorQueueDepth\":" + executorQueueDepth 
+                + ",\"pendingRequests\":" + pendingRequests 
+                + ",\"requestsRejected\":" + this.countRequestsRejected() 
+                + ",\"requestsRateLimited\":" 
+                + this.countRequestsRateLimited() 
+                + ",\"cardsDealt\":" + this.countCardsDealt() 
+                + ",\"shoeRollovers\":" + this.countShoeRollovers() 
+                + ",\"latencyMicros\":{\"p50\":" + this.latencyPercentile(0.5) 
+                + ",\"p99\":" + this.latencyPercentile(0.99) 
+                + ",\"p999\":" + this.latencyPercentile(0.999) 
+                + ",\"max\":" + this.maximumLatency.get() + "}}";
+    }
+    
+    ServerMetrics() {
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+            this.latencyBuckets[i] = new LongAdder();
+        }
+    }
+    
+}
@@ -0,0 +1,453 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package playingcards;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An audit log of the order of every shoe dealt from, so that it can be proven 
+ * later on what cards a shoe had and in what order. Shoes are identified by 
+ * their {@link MultiDeckCardDispenser#fingerprint() fingerprints}, and the log 
+ * keeps an index from fingerprints to records, so finding out whether a shoe 
+ * has been recorded takes constant time.
+ * <p>The log file starts with a header of {@value #HEADER_SIZE} bytes. Each 
+ * record has the fingerprint (8 bytes), the time it was recorded in 
+ * milliseconds since the epoch (8 bytes), the number of decks (1 byte), the 
+ * number of cards up to the plastic card (2 bytes) and then the code of each 
+ * card in 6 bits, packed into as many bytes as needed, all big-endian. A card's 
+ * code is its position in a brand new deck, from 0 to 51. So a six-deck shoe 
+ * with 237 cards before the plastic card takes up 197 bytes.</p>
+ * <p>The index is kept in a separate file, with the same name as the log plus 
+ * "{@value #INDEX_SUFFIX}". After the header, each entry has a fingerprint and 
+ * the offset of its record in the log (8 bytes each). The index is read into 
+ * memory when the log is opened. If the index is missing entries, as it might 
+ * be after a crash, they are rebuilt from the log, and a record only partly 
+ * written is cut off.</p>
+ * @author Alonso del Arte
+ */
+public final class ShoeAuditLog implements Closeable {
+    
+    static final int MAGIC = 0x424A5341;
+    
+    static final int INDEX_MAGIC = 0x424A5349;
+    
+    static final byte VERSION = 1;
+    
+    /**
+     * How many bytes the header of the log file and of the index file take 
+     * up.
+     */
+    public static final int HEADER_SIZE = 5;
+    
+    static final int RECORD_HEADER_SIZE = 19;
+    
+    static final int INDEX_ENTRY_SIZE = 16;
+    
+    /**
+     * What is added to the name of the log file to get the name of the index 
+     * file.
+     */
+    public static final String INDEX_SUFFIX = ".idx";
+    
+    private static final int BITS_PER_CODE = 6;
+    
+    private static final Rank[] RANKS = Rank.values();
+    
+    private static final Suit[] SUITS = Suit.values();
+    
+    private final FileChannel log;
+    
+    private final FileChannel index;
+    
+    private final Map<Long, Long> offsets = new HashMap<>();
+    
+    private long logEnd;
+    
+    private boolean closed = false;
+    
+    static int recordLength(int cardCount) {
+        return RECORD_HEADER_SIZE + (cardCount * BITS_PER_CODE + 7) / 8;
+    }
+    
+    private static ByteBuffer header(int magic) {
+        return ByteBuffer.allocate(HEADER_SIZE).putInt(magic).put(VERSION) 
+                .flip();
+    }
+    
+    private static void checkHeader(FileChannel channel, int magic, 
+            Path path) throws IOException {
+        if (channel.size() == 0) {
+            channel.write(header(magic), 0L);
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(buffer, 0L);
+        if (buffer.position() < HEADER_SIZE || buffer.getInt(0) != magic 
+                || buffer.get(4) != VERSION) {
+            String excMsg = path.toString() 
+                    + " does not have a valid shoe audit header";
+            throw new IOException(excMsg);
+        }
+    }
+    
+    private void readIndex() throws IOException {
+        long entries = (this.index.size() - HEADER_SIZE) / INDEX_ENTRY_SIZE;
+        long indexEnd = HEADER_SIZE + entries * INDEX_ENTRY_SIZE;
+        this.index.truncate(indexEnd);
+        ByteBuffer buffer = ByteBuffer.allocate((int) (indexEnd 
+                - HEADER_SIZE));
+        while (buffer.hasRemaining()) {
+            if (this.index.read(buffer, HEADER_SIZE + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        long lastOffset = -1L;
+        while (buffer.remaining() >= INDEX_ENTRY_SIZE) {
+            long fingerprint = buffer.getLong();
+            long offset = buffer.getLong();
+            this.offsets.put(fingerprint, offset);
+            lastOffset = Math.max(lastOffset, offset);
+        }
+        if (lastOffset < 0) {
+            this.logEnd = HEADER_SIZE;
+        } else {
+            ByteBuffer count = ByteBuffer.allocate(Short.BYTES);
+            this.log.read(count, lastOffset + RECORD_HEADER_SIZE 
+                    - Short.BYTES);
+            this.logEnd = lastOffset 
+                    + recordLength(Short.toUnsignedInt(count.getShort(0)));
+        }
+    }
+    
+    private void recoverIndex() throws IOException {
+        long size = this.log.size();
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        while (this.logEnd + RECORD_HEADER_SIZE <= size) {
+            recordHeader.clear();
+            this.log.read(recordHeader, this.logEnd);
+            int length = recordLength(Short.toUnsignedInt(recordHeader 
+                    .getShort(RECORD_HEADER_SIZE - Short.BYTES)));
+            if (this.logEnd + length > size) {
+                break;
+            }
+            this.addToIndex(recordHeader.getLong(0), this.logEnd);
+            this.logEnd += length;
+        }
+        this.log.truncate(this.logEnd);
+    }
+    
+    private void addToIndex(long fingerprint, long offset) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE) 
+                .putLong(fingerprint).putLong(offset).flip();
+        this.index.write(entry, this.index.size());
+        this.offsets.put(fingerprint, offset);
+    }
+    
+    /**
+     * Tells how many shoes are recorded in this log.
+     * @return The number of shoes. For example, 40.
+     */
+    public synchronized int getRecordCount() {
+        return this.offsets.size();
+    }
+    
+    /**
+     * Records the order of a shoe, unless a shoe in the same order has been 
+     * recorded already. This should be done as soon as the shoe is shuffled, 
+     * before any card is dealt from it.
+     * @param shoe The shoe to record. For example, a six-deck shoe with the 
+     * plastic card 75 cards from the bottom.
+     * @return The fingerprint of the shoe. For example, 
+     * &minus;2254136902219861046.
+     * @throws IllegalStateException If this log has been closed.
+     * @throws IOException If the record can't be written.
+     */
+    public synchronized long record(MultiDeckCardDispenser shoe) 
+            throws IOException {
+        if (this.closed) {
+            String excMsg = "Shoe audit log has been closed";
+            throw new IllegalStateException(excMsg);
+        }
+        long fingerprint = shoe.fingerprint();
+        if (this.offsets.containsKey(fingerprint)) {
+            return fingerprint;
+        }
+        int cardCount = shoe.countCards();
+        ByteBuffer buffer = ByteBuffer.allocate(recordLength(cardCount));
+        buffer.putLong(fingerprint).putLong(System.currentTimeMillis()) 
+                .put((byte) shoe.countDecks()).putShort((short) cardCount);
+        int bits = 0;
+        int pending = 0;
+        for (int i = 0; i < cardCount; i++) {
+            pending = (pending << BITS_PER_CODE) | shoe.codeAt(i);
+            bits += BITS_PER_CODE;
+            if (bits >= 8) {
+                bits -= 8;
+                buffer.put((byte) (pending >>> bits));
+            }
+        }
+        if (bits > 0) {
+            buffer.put((byte) (pending << (8 - bits)));
+        }
+        buffer.flip();
+        long offset = this.logEnd;
+        while (buffer.hasRemaining()) {
+            this.log.write(buffer, offset + buffer.position());
+        }
+        this.logEnd += buffer.limit();
+        this.addToIndex(fingerprint, offset);
+        return fingerprint;
+    }
+    
+    /**
+     * Tells whether a shoe with a given fingerprint has been recorded. This 
+     * takes constant time.
+     * @param fingerprint The fingerprint. For example, 
+     * &minus;2254136902219861046.
+     * @return True if a shoe with that fingerprint has been recorded, false 
+     * otherwise.
+     */
+    public synchronized boolean contains(long fingerprint) {
+        return this.offsets.containsKey(fingerprint);
+    }
+    
+    /**
+     * Reads the record of a shoe.
+     * @param fingerprint The fingerprint of the shoe. For example, 
+     * &minus;2254136902219861046.
+     * @return The record, or null if no shoe with that fingerprint has been 
+     * recorded.
+     * @throws IllegalStateException If this log has been closed.
+     * @throws IOException If the record can't be read.
+     */
+    public synchronized Entry find(long fingerprint) throws IOException {
+        if (this.closed) {
+            String excMsg = "Shoe audit log has been closed";
+            throw new IllegalStateException(excMsg);
+        }
+        Long offset = this.offsets.get(fingerprint);
+        if (offset == null) {
+            return null;
+        }
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        this.log.read(recordHeader, offset);
+        int cardCount = Short.toUnsignedInt(recordHeader 
+                .getShort(RECORD_HEADER_SIZE - Short.BYTES));
+        ByteBuffer packed = ByteBuffer.allocate(recordLength(cardCount) 
+                - RECORD_HEADER_SIZE);
+        while (packed.hasRemaining()) {
+            if (this.log.read(packed, offset + RECORD_HEADER_SIZE 
+                    + packed.position()) < 0) {
+                String excMsg = "Record for fingerprint " + fingerprint 
+                        + " is cut off";
+                throw new IOException(excMsg);
+            }
+        }
+        byte[] codes = new byte[cardCount];
+        int bits = 0;
+        int pending = 0;
+        int mask = (1 << BITS_PER_CODE) - 1;
+        packed.flip();
+        for (int i = 0; i < cardCount; i++) {
+            while (bits < BITS_PER_CODE) {
+                pending = (pending << 8) | Byte.toUnsignedInt(packed.get());
+                bits += 8;
+            }
+            bits -= BITS_PER_CODE;
+            codes[i] = (byte) ((pending >>> bits) & mask);
+        }
+        return new Entry(recordHeader.getLong(0), recordHeader.getLong(8), 
+                Byte.toUnsignedInt(recordHeader.get(16)), codes);
+    }
+    
+    /**
+     * Forces the records written so far, and their index entries, to disk.
+     * @throws IOException If either file can't be forced.
+     */
+    public synchronized void force() throws IOException {
+        this.log.force(false);
+        this.index.force(false);
+    }
+    
+    /**
+     * Forces the log and the index to disk and closes them. Calling this more 
+     * than once has no further effect.
+     * @throws IOException If either file can't be forced or closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            this.force();
+        } finally {
+            this.log.close();
+            this.index.close();
+        }
+    }
+    
+    /**
+     * Sole constructor.
+     * @param path The path of the log file. For example, "shoes.audit". The 
+     * index file goes in the same directory, e.g., "shoes.audit.idx". If the 
+     * files already exist, new records are added after the ones already in 
+     * them.
+     * @throws IOException If either file can't be opened, or if either of them 
+     * already exists but doesn't have a valid header.
+     */
+    public ShoeAuditLog(Path path) throws IOException {
+        this.log = FileChannel.open(path, StandardOpenOption.CREATE, 
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel indexChannel = null;
+        try {
+            checkHeader(this.log, MAGIC, path);
+            Path indexPath = path.resolveSibling(path.getFileName() 
+                    + INDEX_SUFFIX);
+            indexChannel = FileChannel.open(indexPath, 
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, 
+                    StandardOpenOption.WRITE);
+            checkHeader(indexChannel, INDEX_MAGIC, indexPath);
+        } catch (IOException ioe) {
+            this.log.close();
+            if (indexChannel != null) {
+                indexChannel.close();
+            }
+            throw ioe;
+        }
+        this.index = indexChannel;
+        try {
+            this.readIndex();
+            this.recoverIndex();
+        } catch (IOException ioe) {
+            this.log.close();
+            this.index.close();
+            throw ioe;
+        }
+    }
+    
+    /**
+     * The record of a shoe, as read from the log.
+     */
+    public static final class Entry {
+        
+        private final long shoeFingerprint;
+        
+        private final long recordTime;
+        
+        private final int numberOfDecks;
+        
+        private final byte[] cardCodes;
+        
+        /**
+         * Gives the fingerprint of the shoe.
+         * @return The fingerprint. For example, &minus;2254136902219861046.
+         */
+        public long getFingerprint() {
+            return this.shoeFingerprint;
+        }
+        
+        /**
+         * Gives the time the shoe was recorded.
+         * @return The time in milliseconds since the epoch. For example, 
+         * 1792346400000.
+         */
+        public long getRecordTime() {
+            return this.recordTime;
+        }
+        
+        /**
+         * Gives how many decks the shoe had.
+         * @return The number of decks. For example, 6.
+         */
+        public int getNumberOfDecks() {
+            return this.numberOfDecks;
+        }
+        
+        /**
+         * Gives how many cards the shoe had before the plastic card.
+         * @return The number of cards. For example, 237.
+         */
+        public int getCardCount() {
+            return this.cardCodes.length;
+        }
+        
+        /**
+         * Gives the rank of a card in the shoe.
+         * @param position The position of the card, starting from 0 for the 
+         * first card dealt. For example, 12.
+         * @return The rank. For example, {@link Rank#SEVEN}.
+         * @throws ArrayIndexOutOfBoundsException If <code>position</code> is 
+         * negative or not less than {@link #getCardCount()}.
+         */
+        public Rank getRank(int position) {
+            return RANKS[this.cardCodes[position] % RANKS.length];
+        }
+        
+        /**
+         * Gives the suit of a card in the shoe.
+         * @param position The position of the card, starting from 0 for the 
+         * first card dealt. For example, 12.
+         * @return The suit. For example, {@link Suit#CLUBS}.
+         * @throws ArrayIndexOutOfBoundsException If <code>position</code> is 
+         * negative or not less than {@link #getCardCount()}.
+         */
+        public Suit getSuit(int position) {
+            return SUITS[this.cardCodes[position] / RANKS.length];
+        }
+        
+        /**
+         * Determines whether a shoe is in the order recorded here. The 
+         * fingerprints are compared first, so a shoe in a different order is 
+         * usually told apart in constant time.
+         * @param shoe The shoe to check. For example, a shoe restored from a 
+         * table snapshot.
+         * @return True if the shoe has the same cards in the same order as 
+         * recorded here, false otherwise.
+         */
+        public boolean matches(MultiDeckCardDispenser shoe) {
+            if (shoe.fingerprint() != this.shoeFingerprint 
+                    || shoe.countCards() != this.cardCodes.length) {
+                return false;
+            }
+            for (int i = 0; i < this.cardCodes.length; i++) {
+                if (shoe.codeAt(i) != this.cardCodes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private Entry(long fingerprint, long time, int decks, byte[] codes) {
+            this.shoeFingerprint = fingerprint;
+            this.recordTime = time;
+            this.numberOfDecks = decks;
+            this.cardCodes = codes;
+        }
+        
+    }
+    
+}
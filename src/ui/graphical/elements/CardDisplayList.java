@@ -0,0 +1,459 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical.elements;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.text.AttributedCharacterIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The drawing commands for a card, recorded once so that they can be replayed 
+ * to any <code>Graphics</code> context, at any position. Fonts are made and 
+ * layout is figured when the commands are recorded, not each time they're 
+ * replayed, and against a fresh <code>Graphics</code> context, so what's 
+ * replayed doesn't depend on whatever font the target context was left with. 
+ * Since the commands are replayed as they are, rather than drawn from an 
+ * image, they come out as sharp as if the card had been painted directly, 
+ * whatever the resolution, which suits printing and exporting.
+ * <p>Display lists are made with {@link CardImage#compileFaceUp(Dimension)} 
+ * and {@link CardImage#compileFaceDown(Dimension)}. A display list keeps the 
+ * layout in effect when it was made, so for example toggling {@link 
+ * CardImage#toggleNinePipsAreSymmetrical()} afterwards does not change how a 
+ * nine already recorded is replayed.</p>
+ * @author Alonso del Arte
+ */
+public final class CardDisplayList {
+    
+    private static final BufferedImage SCRATCH_IMAGE 
+            = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+    
+    private final Command[] commands;
+    
+    private final Dimension cardSize;
+    
+    @FunctionalInterface
+    private interface Drawing {
+        
+        void draw(Graphics g);
+        
+    }
+    
+    private static final class Command {
+        
+        private final Color color;
+        
+        private final Font font;
+        
+        private final Drawing drawing;
+        
+        private Command(Color color, Font font, Drawing drawing) {
+            this.color = color;
+            this.font = font;
+            this.drawing = drawing;
+        }
+        
+    }
+    
+    /**
+     * Records drawing commands instead of carrying them out. Each command is 
+     * recorded with the color and font in effect at the time, and with any 
+     * translation already applied to its coordinates. Commands that can't be 
+     * replayed faithfully, like clipping or copying areas, are not supported.
+     */
+    private static final class Recorder extends Graphics {
+        
+        private final List<Command> commands;
+        
+        private Color currColor;
+        
+        private Font currFont;
+        
+        private int offsetX, offsetY;
+        
+        private void record(Drawing drawing) {
+            this.commands.add(new Command(this.currColor, this.currFont, 
+                    drawing));
+        }
+        
+        private static UnsupportedOperationException unsupported(String 
+                commandName) {
+            String excMsg = "Display lists can't record " + commandName;
+            return new UnsupportedOperationException(excMsg);
+        }
+        
+        private int[] shift(int[] points, int nPoints, int offset) {
+            int[] shifted = new int[nPoints];
+            for (int i = 0; i < nPoints; i++) {
+                shifted[i] = points[i] + offset;
+            }
+            return shifted;
+        }
+        
+        @Override
+        public Graphics create() {
+            Recorder copy = new Recorder(this.commands, this.currColor, 
+                    this.currFont);
+            copy.offsetX = this.offsetX;
+            copy.offsetY = this.offsetY;
+            return copy;
+        }
+        
+        @Override
+        public void translate(int x, int y) {
+            this.offsetX += x;
+            this.offsetY += y;
+        }
+        
+        @Override
+        public Color getColor() {
+            return this.currColor;
+        }
+        
+        @Override
+        public void setColor(Color c) {
+            if (c != null) {
+                this.currColor = c;
+            }
+        }
+        
+        /**
+         * Does nothing, since paint mode is the only mode recorded.
+         */
+        @Override
+        public void setPaintMode() {
+        }
+        
+        @Override
+        public void setXORMode(Color c1) {
+            throw unsupported("XOR mode");
+        }
+        
+        @Override
+        public Font getFont() {
+            return this.currFont;
+        }
+        
+        @Override
+        public void setFont(Font font) {
+            if (font != null) {
+                this.currFont = font;
+            }
+        }
+        
+        @Override
+        public FontMetrics getFontMetrics(Font f) {
+            Graphics2D g = SCRATCH_IMAGE.createGraphics();
+            try {
+                return g.getFontMetrics(f);
+            } finally {
+                g.dispose();
+            }
+        }
+        
+        @Override
+        public Rectangle getClipBounds() {
+            return null;
+        }
+        
+        @Override
+        public void clipRect(int x, int y, int width, int height) {
+            throw unsupported("clipping");
+        }
+        
+        @Override
+        public void setClip(int x, int y, int width, int height) {
+            throw unsupported("clipping");
+        }
+        
+        @Override
+        public Shape getClip() {
+            return null;
+        }
+        
+        @Override
+        public void setClip(Shape clip) {
+            throw unsupported("clipping");
+        }
+        
+        @Override
+        public void copyArea(int x, int y, int width, int height, int dx, 
+                int dy) {
+            throw unsupported("copying areas");
+        }
+        
+        @Override
+        public void drawLine(int x1, int y1, int x2, int y2) {
+            int rx1 = x1 + this.offsetX;
+            int ry1 = y1 + this.offsetY;
+            int rx2 = x2 + this.offsetX;
+            int ry2 = y2 + this.offsetY;
+            this.record(g -> g.drawLine(rx1, ry1, rx2, ry2));
+        }
+        
+        @Override
+        public void fillRect(int x, int y, int width, int height) {
+            int rx = x + this.offsetX;
+            int ry = y + this.offsetY;
+            this.record(g -> g.fillRect(rx, ry, width, height));
+        }
+        
+        @Override
+        public void drawRect(int x, int y, int width, int height) {
+            int rx = x + this.offsetX;
+            int ry = y + this.offsetY;
+            this.record(g -> g.drawRect(rx, ry, width, height));
+        }
+        
+        @Override
+        public void clearRect(int x, int y, int width, int height) {
+            int rx = x + this.offsetX;
+            int ry = y + this.offsetY;
+            this.record(g -> g.clearRect(rx, ry, width, height));
+        }
+        
+        @Override
+        public void drawRoundRect(int x, int y, int width, int height, 
+                int arcWidth, int arcHeight) {
+            int rx = x + this.offsetX;
+            int ry = y + this.offsetY;
+            this.record(g -> g.drawRoundRect(rx, ry, width, height, arcWidth, 
+                    arcHeight));
+        }
+        
+        @Override
+        public void fillRoundRect(int x, int y, int width, int height, 
+                int arcWidth, int arcHeight) {
+            int rx = x + this.offsetX;
+            int ry = y + this.offsetY;
+            this.record(g -> g.fillRoundRect(rx, ry, width, height, arcWidth, 
+                    arcHeight));
+        }
+        
+        @Override
+        public void drawOval(int x, int y, int width, int height) {
+            int rx = x + this.offsetX;
+            int ry = y + this.offsetY;
+            this.record(g -> g.drawOval(rx, ry, width, height));
+        }
+        
+        @Override
+        public void fillOval(int x, int y, int width, int height) {
+            int rx = x + this.offsetX;
+            int ry = y + this.offsetY;
+            this.record(g -> g.fillOval(rx, ry, width, height));
+        }
+        
+        @Override
+        public void drawArc(int x, int y, int width, int height, 
+                int startAngle, int arcAngle) {
+            int rx = x + this.offsetX;
+            int ry = y + this.offsetY;
+            this.record(g -> g.drawArc(rx, ry, width, height, startAngle, 
+                    arcAngle));
+        }
+        
+        @Override
+        public void fillArc(int x, int y, int width, int height, 
+                int startAngle, int arcAngle) {
+            int rx = x + this.offsetX;
+            int ry = y + this.offsetY;
+            this.record(g -> g.fillArc(rx, ry, width, height, startAngle, 
+                    arcAngle));
+        }
+        
+        @Override
+        public void drawPolyline(int[] xPoints, int[] yPoints, int nPoints) {
+            int[] xs = this.shift(xPoints, nPoints, this.offsetX);
+            int[] ys = this.shift(yPoints, nPoints, this.offsetY);
+            this.record(g -> g.drawPolyline(xs, ys, nPoints));
+        }
+        
+        @Override
+        public void drawPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+            int[] xs = this.shift(xPoints, nPoints, this.offsetX);
+            int[] ys = this.shift(yPoints, nPoints, this.offsetY);
+            this.record(g -> g.drawPolygon(xs, ys, nPoints));
+        }
+        
+        @Override
+        public void fillPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+            int[] xs = this.shift(xPoints, nPoints, this.offsetX);
+            int[] ys = this.shift(yPoints, nPoints, this.offsetY);
+            this.record(g -> g.fillPolygon(xs, ys, nPoints));
+        }
+        
+        @Override
+        public void drawString(String str, int x, int y) {
+            if (str == null) {
+                String excMsg = "String to draw should not be null";
+                throw new NullPointerException(excMsg);
+            }
+            int rx = x + this.offsetX;
+            int ry = y + this.offsetY;
+            this.record(g -> g.drawString(str, rx, ry));
+        }
+        
+        @Override
+        public void drawString(AttributedCharacterIterator iterator, int x, 
+                int y) {
+            throw unsupported("attributed text");
+        }
+        
+        @Override
+        public boolean drawImage(Image img, int x, int y, 
+                ImageObserver observer) {
+            throw unsupported("images");
+        }
+        
+        @Override
+        public boolean drawImage(Image img, int x, int y, int width, 
+                int height, ImageObserver observer) {
+            throw unsupported("images");
+        }
+        
+        @Override
+        public boolean drawImage(Image img, int x, int y, Color bgcolor, 
+                ImageObserver observer) {
+            throw unsupported("images");
+        }
+        
+        @Override
+        public boolean drawImage(Image img, int x, int y, int width, 
+                int height, Color bgcolor, ImageObserver observer) {
+            throw unsupported("images");
+        }
+        
+        @Override
+        public boolean drawImage(Image img, int dx1, int dy1, int dx2, 
+                int dy2, int sx1, int sy1, int sx2, int sy2, 
+                ImageObserver observer) {
+            throw unsupported("images");
+        }
+        
+        @Override
+        public boolean drawImage(Image img, int dx1, int dy1, int dx2, 
+                int dy2, int sx1, int sy1, int sx2, int sy2, Color bgcolor, 
+                ImageObserver observer) {
+            throw unsupported("images");
+        }
+        
+        /**
+         * Does nothing, since a recorder holds no system resources to let go 
+         * of.
+         */
+        @Override
+        public void dispose() {
+        }
+        
+        private Recorder(List<Command> commands, Color color, Font font) {
+            this.commands = commands;
+            this.currColor = color;
+            this.currFont = font;
+        }
+        
+    }
+    
+    /**
+     * Records the drawing commands of a painting procedure. The procedure is 
+     * given a <code>Graphics</code> context that starts out with the same 
+     * color and font as a <code>Graphics</code> context for an image would.
+     * @param painting The painting procedure. For example, one that paints 
+     * 9&#9829; face up with its top left corner at (0, 0).
+     * @param size The size of the card that the procedure paints. For 
+     * example, 250 by 350.
+     * @return The recorded commands.
+     */
+    static CardDisplayList record(Consumer<Graphics> painting, 
+            Dimension size) {
+        Graphics2D scratch = SCRATCH_IMAGE.createGraphics();
+        Color color = scratch.getColor();
+        Font font = scratch.getFont();
+        scratch.dispose();
+        List<Command> commands = new ArrayList<>();
+        painting.accept(new Recorder(commands, color, font));
+        return new CardDisplayList(commands.toArray(new Command[0]), 
+                new Dimension(size));
+    }
+    
+    /**
+     * Replays the recorded commands to a <code>Graphics</code> context. The 
+     * color and font of the context are the same afterwards as before.
+     * @param g The <code>Graphics</code> context. For example, one for a 
+     * printer page.
+     * @param p The point for the top left corner of the card. For example, 
+     * (10, 10).
+     */
+    public void replay(Graphics g, final Point p) {
+        Color savedColor = g.getColor();
+        Font savedFont = g.getFont();
+        Color color = null;
+        Font font = null;
+        g.translate(p.x, p.y);
+        try {
+            for (Command command : this.commands) {
+                if (command.color != color) {
+                    color = command.color;
+                    g.setColor(color);
+                }
+                if (command.font != font) {
+                    font = command.font;
+                    g.setFont(font);
+                }
+                command.drawing.draw(g);
+            }
+        } finally {
+            g.translate(-p.x, -p.y);
+            g.setColor(savedColor);
+            g.setFont(savedFont);
+        }
+    }
+    
+    /**
+     * Tells how many drawing commands were recorded.
+     * @return How many commands there are. For example, 16.
+     */
+    public int countCommands() {
+        return this.commands.length;
+    }
+    
+    /**
+     * Gives the size of the card that was recorded.
+     * @return The size. For example, 250 by 350.
+     */
+    public Dimension getSize() {
+        return new Dimension(this.cardSize);
+    }
+    
+    private CardDisplayList(Command[] commands, Dimension size) {
+        this.commands = commands;
+        this.cardSize = size;
+    }
+    
+}
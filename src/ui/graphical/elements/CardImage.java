@@ -33,6 +33,17 @@ import java.awt.Point;
  */
 public class CardImage {
     
+    /**
+     * The color of the panel on the back of a card, a dark blue.
+     */
+    static final Color BACK_COLOR = new Color(0x1F3A93);
+    
+    /**
+     * The color of the lattice of diamonds on the back of a card, a lighter 
+     * blue.
+     */
+    static final Color BACK_PATTERN_COLOR = new Color(0x4A69BD);
+    
     private static boolean ninePipsSymmetrical = true;
 
     private final PlayingCard playingCard;
@@ -228,11 +239,66 @@ public class CardImage {
         this.writeEdgeLegend(g, p, size);
     }
     
+    /**
+     * Paints a card face down. All cards look the same face down: a dark blue 
+     * panel inside a white margin, covered with a lattice of lighter blue 
+     * diamonds. The margin and the diamonds are sized in proportion to the 
+     * card, so the back looks the same at any size.
+     * @param g The <code>Graphics</code> context in which to paint the card.
+     * @param p The point for the top left corner of the face down card.
+     * @param size The size of the card. For example, 250 by 350.
+     */
     public void paintFaceDown(Graphics g, final Point p, final Dimension size) {
-        // TODO: Write tests for this
         this.paintBlankCard(g, p, size);
-        g.setColor(Color.YELLOW);
-        g.drawString("TODO: Write tests for this", p.x, p.y);
+        int margin = Math.max(size.width / 16, 2);
+        int panelWidth = size.width - 2 * margin;
+        int panelHeight = size.height - 2 * margin;
+        if (panelWidth < 1 || panelHeight < 1) {
+            return;
+        }
+        g.setColor(BACK_COLOR);
+        g.fillRoundRect(p.x + margin, p.y + margin, panelWidth, panelHeight, 
+                8, 8);
+        int cell = Math.max(panelWidth / 10, 4);
+        int half = cell / 2;
+        int columns = panelWidth / cell;
+        int rows = panelHeight / cell;
+        int startX = p.x + margin + (panelWidth - columns * cell) / 2 + half;
+        int startY = p.y + margin + (panelHeight - rows * cell) / 2 + half;
+        g.setColor(BACK_PATTERN_COLOR);
+        for (int row = 0; row < rows; row++) {
+            int y = startY + row * cell;
+            for (int column = 0; column < columns; column++) {
+                int x = startX + column * cell;
+                int[] xPoints = {x, x + half - 1, x, x - half + 1};
+                int[] yPoints = {y - half + 1, y, y + half - 1, y};
+                g.fillPolygon(xPoints, yPoints, 4);
+            }
+        }
+    }
+    
+    /**
+     * Records the commands to paint this card face up, so that they can be 
+     * replayed later without figuring the layout or making the fonts again.
+     * @param size The size of the card. For example, 250 by 350.
+     * @return The recorded commands, relative to the top left corner of the 
+     * card.
+     */
+    public CardDisplayList compileFaceUp(final Dimension size) {
+        return CardDisplayList.record(g -> this.paintFaceUp(g, 
+                new Point(0, 0), size), size);
+    }
+    
+    /**
+     * Records the commands to paint this card face down, so that they can be 
+     * replayed later.
+     * @param size The size of the card. For example, 250 by 350.
+     * @return The recorded commands, relative to the top left corner of the 
+     * card.
+     */
+    public CardDisplayList compileFaceDown(final Dimension size) {
+        return CardDisplayList.record(g -> this.paintFaceDown(g, 
+                new Point(0, 0), size), size);
     }
     
     public CardImage(PlayingCard card) {
@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical.elements;
+
+import playingcards.PlayingCard;
+import playingcards.Rank;
+import playingcards.Suit;
+
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps card images painted by {@link CardImage} as rasters, so that painting 
+ * a card again is a single <code>drawImage</code>. Images are kept for each 
+ * card, face up or face down, at each size, and at each scale factor: on a 
+ * display that scales everything up, such as by 150% or 200%, the image is 
+ * rendered with that many more pixels, so that it looks as sharp as if it had 
+ * been painted directly. The backs of the cards look all the same, so there's 
+ * just one face down image for each size and scale factor. Once the cache 
+ * holds as many images as its capacity, the image that was painted least 
+ * recently is let go to make room for the next one.
+ * @author Alonso del Arte
+ */
+public final class CardImageCache {
+    
+    /**
+     * How many images the cache holds, unless specified otherwise. That's 
+     * enough for all the card faces and the back at two sizes and two scale 
+     * factors.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+    
+    /**
+     * How finely scale factors are told apart. Scale factors are rounded to 
+     * the nearest multiple of 1/{@value}, so 1.26 and 1.24 both count as 
+     * 1.25.
+     */
+    static final int SCALE_STEPS = 4;
+    
+    private static final int FACE_DOWN_INDEX 
+            = Rank.values().length * Suit.values().length;
+    
+    private final LinkedHashMap<Long, BufferedImage> images;
+    
+    /**
+     * Figures the scale factor that a <code>Graphics</code> context draws 
+     * with, rounded to the nearest multiple of 1/{@link #SCALE_STEPS}.
+     * @param g The <code>Graphics</code> context. For example, one for a 
+     * component on a display scaled to 150%.
+     * @return The scale factor. For example, 1.5. At least 1/{@link 
+     * #SCALE_STEPS}. If <code>g</code> is not a <code>Graphics2D</code>, this 
+     * is 1.0.
+     */
+    static double scaleOf(Graphics g) {
+        if (g instanceof Graphics2D g2) {
+            AffineTransform transform = g2.getTransform();
+            return roundScale(Math.max(Math.hypot(transform.getScaleX(), 
+                    transform.getShearY()), Math.hypot(transform.getShearX(), 
+                            transform.getScaleY())));
+        }
+        return 1.0;
+    }
+    
+    private static double roundScale(double scale) {
+        long steps = Math.max(Math.round(scale * SCALE_STEPS), 1L);
+        return (double) steps / SCALE_STEPS;
+    }
+    
+    private static long keyFor(PlayingCard card, boolean faceUp, 
+            Dimension size, double scale) {
+        long index = faceUp ? card.getRank().ordinal() * Suit.values().length 
+                + card.getSuit().ordinal() : FACE_DOWN_INDEX;
+        long layout = CardImage.ninePipsAreSymmetrical() ? 1L : 0L;
+        long steps = Math.round(scale * SCALE_STEPS);
+        return (((((steps << 16) | size.width) << 16 | size.height) << 6 
+                | index) << 1) | layout;
+    }
+    
+    private static BufferedImage render(PlayingCard card, boolean faceUp, 
+            Dimension size, double scale) {
+        int width = (int) Math.ceil((size.width + 1) * scale);
+        int height = (int) Math.ceil((size.height + 1) * scale);
+        BufferedImage image = new BufferedImage(width, height, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.scale(scale, scale);
+            CardImage cardImage = new CardImage(card);
+            Point origin = new Point(0, 0);
+            if (faceUp) {
+                cardImage.paintFaceUp(g, origin, size);
+            } else {
+                cardImage.paintFaceDown(g, origin, size);
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+    
+    /**
+     * Gives the image of a card, rendering it if it's not already in the 
+     * cache.
+     * @param card The card. For example, 9&#9829;.
+     * @param faceUp Whether the card is face up. If not, the image is the 
+     * back of the card, the same for all cards.
+     * @param size The size of the card as it would be painted by {@link 
+     * CardImage}. For example, 250 by 350. The image is one pixel wider and 
+     * taller than that, times the scale factor, since the border of the card 
+     * is drawn on its last row and column.
+     * @param scale The scale factor. For example, 2.0 for a display scaled to 
+     * 200%. Should be positive. Rounded to the nearest multiple of 1/{@link 
+     * #SCALE_STEPS}, but no less than that.
+     * @return The image. Callers must not draw on it.
+     * @throws IllegalArgumentException If <code>size</code> is less than 1 by 
+     * 1 or more than 65535 by 65535, or if <code>scale</code> is not positive.
+     */
+    BufferedImage getImage(PlayingCard card, boolean faceUp, Dimension size, 
+            double scale) {
+        if (size.width < 1 || size.height < 1 || size.width > 0xFFFF 
+                || size.height > 0xFFFF || !(scale > 0.0)) {
+            String excMsg = "Size " + size.width + " by " + size.height 
+                    + " and scale " + scale + " should both be positive";
+            throw new IllegalArgumentException(excMsg);
+        }
+        double rounded = roundScale(scale);
+        long key = keyFor(card, faceUp, size, rounded);
+        BufferedImage image;
+        synchronized (this.images) {
+            image = this.images.get(key);
+        }
+        if (image == null) {
+            image = render(card, faceUp, size, rounded);
+            synchronized (this.images) {
+                BufferedImage previous = this.images.putIfAbsent(key, image);
+                if (previous != null) {
+                    image = previous;
+                }
+            }
+        }
+        return image;
+    }
+    
+    private void paint(Graphics g, PlayingCard card, boolean faceUp, 
+            final Point p, final Dimension size) {
+        double scale = scaleOf(g);
+        BufferedImage image = this.getImage(card, faceUp, size, scale);
+        if (scale == 1.0) {
+            g.drawImage(image, p.x, p.y, null);
+        } else {
+            g.drawImage(image, p.x, p.y, size.width + 1, size.height + 1, 
+                    null);
+        }
+    }
+    
+    /**
+     * Paints a card face up, the same as {@link CardImage#paintFaceUp 
+     * CardImage.paintFaceUp()} would, but from the cache.
+     * @param g The <code>Graphics</code> context in which to paint the card.
+     * @param card The card to paint. For example, 10&#9830;.
+     * @param p The point for the top left corner of the card. For example, 
+     * (10, 10).
+     * @param size The size of the card. For example, 250 by 350.
+     * @throws IllegalArgumentException If <code>size</code> is less than 1 by 
+     * 1.
+     */
+    public void paintFaceUp(Graphics g, PlayingCard card, final Point p, 
+            final Dimension size) {
+        this.paint(g, card, true, p, size);
+    }
+    
+    /**
+     * Paints a card face down, the same as {@link CardImage#paintFaceDown 
+     * CardImage.paintFaceDown()} would, but from the cache.
+     * @param g The <code>Graphics</code> context in which to paint the card.
+     * @param card The card to paint. For example, 10&#9830;.
+     * @param p The point for the top left corner of the card. For example, 
+     * (10, 10).
+     * @param size The size of the card. For example, 250 by 350.
+     * @throws IllegalArgumentException If <code>size</code> is less than 1 by 
+     * 1.
+     */
+    public void paintFaceDown(Graphics g, PlayingCard card, final Point p, 
+            final Dimension size) {
+        this.paint(g, card, false, p, size);
+    }
+    
+    /**
+     * Tells how many images are in the cache.
+     * @return How many images there are. For example, 53.
+     */
+    public int countImages() {
+        synchronized (this.images) {
+            return this.images.size();
+        }
+    }
+    
+    /**
+     * Auxiliary constructor. The cache holds up to {@link #DEFAULT_CAPACITY} 
+     * images.
+     */
+    public CardImageCache() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Primary constructor.
+     * @param capacity How many images to hold. For example, 120. Should be at 
+     * least 1.
+     * @throws IllegalArgumentException If <code>capacity</code> is less than 
+     * 1.
+     */
+    public CardImageCache(int capacity) {
+        if (capacity < 1) {
+            String excMsg = "Capacity " + capacity + " should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.images = new LinkedHashMap<>(Math.min(capacity, 64), 0.75F, 
+                true) {
+            
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> 
+                    eldest) {
+                return this.size() > capacity;
+            }
+            
+        };
+    }
+    
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical.elements;
+
+import playingcards.CardImageRenderer;
+import playingcards.PlayingCard;
+import playingcards.Rank;
+import playingcards.Suit;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Renders card faces as PNG images with {@link CardImage} and keeps the 
+ * encoded images in memory. Each card is drawn at the usual size of {@value 
+ * #USUAL_WIDTH} by {@value #USUAL_HEIGHT} pixels, scaled to the requested 
+ * width, with the height following in proportion. Once the cache holds more 
+ * bytes than its capacity, the images that were asked for least recently are 
+ * let go. Each image comes with a strong entity tag made from a hash of its 
+ * bytes, so a client that already has an image can be told it's still good 
+ * without being sent the image again. This is the renderer to hand to {@link 
+ * playingcards.CardJSONServer#useCardImageRenderer(CardImageRenderer)} for 
+ * the server to send card images.
+ * @author Alonso del Arte
+ */
+public final class CardPNGCache implements CardImageRenderer {
+    
+    /**
+     * The width in pixels that {@link CardImage} lays out a card for.
+     */
+    static final int USUAL_WIDTH = 250;
+    
+    /**
+     * The height in pixels that {@link CardImage} lays out a card for.
+     */
+    static final int USUAL_HEIGHT = 350;
+    
+    /**
+     * The narrowest image that can be asked for, in pixels.
+     */
+    static final int MINIMUM_WIDTH = 25;
+    
+    /**
+     * The widest image that can be asked for, in pixels.
+     */
+    static final int MAXIMUM_WIDTH = 1000;
+    
+    /**
+     * How many bytes of encoded images the cache holds, unless specified 
+     * otherwise. That's 16 megabytes.
+     */
+    public static final long DEFAULT_CAPACITY = 16 * 1024 * 1024;
+    
+    private static final int NUMBER_OF_CARDS 
+            = Rank.values().length * Suit.values().length;
+    
+    private final long capacity;
+    
+    private long byteCount = 0L;
+    
+    private final LinkedHashMap<Integer, EncodedImage> entries 
+            = new LinkedHashMap<>(64, 0.75F, true);
+    
+    /**
+     * Figures the height of a card image from its width, keeping the 
+     * proportions of the usual size.
+     * @param width The width in pixels. For example, 125.
+     * @return The height in pixels. For example, 175.
+     */
+    static int heightFor(int width) {
+        return (width * USUAL_HEIGHT + USUAL_WIDTH / 2) / USUAL_WIDTH;
+    }
+    
+    /**
+     * Renders a card face to a PNG image.
+     * @param card The card to render. For example, 9&#9829;.
+     * @param width The width of the image in pixels. For example, 125.
+     * @return The encoded image.
+     * @throws UncheckedIOException If the image can't be encoded, which should 
+     * not happen when encoding to memory.
+     */
+    static byte[] render(PlayingCard card, int width) {
+        BufferedImage image = new BufferedImage(width, heightFor(width), 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, 
+                    RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, 
+                    RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.scale((double) width / USUAL_WIDTH, 
+                    (double) width / USUAL_WIDTH);
+            new CardImage(card).paintFaceUp(g, new Point(0, 0), 
+                    new Dimension(USUAL_WIDTH - 1, USUAL_HEIGHT - 1));
+        } finally {
+            g.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+        return out.toByteArray();
+    }
+    
+    private static int keyFor(PlayingCard card, int width) {
+        int cardIndex = card.getRank().ordinal() * Suit.values().length 
+                + card.getSuit().ordinal();
+        int layout = CardImage.ninePipsAreSymmetrical() ? 1 : 0;
+        return ((width * NUMBER_OF_CARDS) + cardIndex) * 2 + layout;
+    }
+    
+    private synchronized EncodedImage lookUp(int key) {
+        return this.entries.get(key);
+    }
+    
+    private synchronized EncodedImage store(int key, EncodedImage entry) {
+        EncodedImage previous = this.entries.putIfAbsent(key, entry);
+        if (previous != null) {
+            return previous;
+        }
+        this.byteCount += entry.getPNG().length;
+        Iterator<Map.Entry<Integer, EncodedImage>> iterator 
+                = this.entries.entrySet().iterator();
+        while (this.byteCount > this.capacity && this.entries.size() > 1) {
+            EncodedImage eldest = iterator.next().getValue();
+            iterator.remove();
+            this.byteCount -= eldest.getPNG().length;
+        }
+        return entry;
+    }
+    
+    /**
+     * Tells the narrowest image that can be asked for.
+     * @return {@value #MINIMUM_WIDTH}.
+     */
+    @Override
+    public int getMinimumWidth() {
+        return MINIMUM_WIDTH;
+    }
+    
+    /**
+     * Tells the widest image that can be asked for.
+     * @return {@value #MAXIMUM_WIDTH}.
+     */
+    @Override
+    public int getMaximumWidth() {
+        return MAXIMUM_WIDTH;
+    }
+    
+    /**
+     * Tells the width that {@link CardImage} lays out a card for.
+     * @return {@value #USUAL_WIDTH}.
+     */
+    @Override
+    public int getUsualWidth() {
+        return USUAL_WIDTH;
+    }
+    
+    /**
+     * Gives the image of a card face at a given width, rendering it if it's 
+     * not already in the cache. Two threads asking for the same image at the 
+     * same time might both render it, but only one of the renderings is kept.
+     * @param card The card. For example, 9&#9829;.
+     * @param width The width of the image in pixels. For example, 125. Should 
+     * be from {@link #MINIMUM_WIDTH} to {@link #MAXIMUM_WIDTH}.
+     * @return The image and its entity tag.
+     * @throws IllegalArgumentException If <code>width</code> is out of range.
+     */
+    @Override
+    public EncodedImage getImage(PlayingCard card, int width) {
+        if (width < MINIMUM_WIDTH || width > MAXIMUM_WIDTH) {
+            String excMsg = "Width " + width + " should be from " 
+                    + MINIMUM_WIDTH + " to " + MAXIMUM_WIDTH;
+            throw new IllegalArgumentException(excMsg);
+        }
+        int key = keyFor(card, width);
+        EncodedImage entry = this.lookUp(key);
+        if (entry == null) {
+            entry = this.store(key, new EncodedImage(render(card, width)));
+        }
+        return entry;
+    }
+    
+    /**
+     * Tells how many images are in the cache.
+     * @return How many images there are. For example, 104.
+     */
+    synchronized int countImages() {
+        return this.entries.size();
+    }
+    
+    /**
+     * Tells how many bytes the images in the cache take up altogether.
+     * @return How many bytes there are. For example, 516000.
+     */
+    synchronized long countBytes() {
+        return this.byteCount;
+    }
+    
+    /**
+     * Sole constructor.
+     * @param capacity How many bytes of encoded images to hold. For example, 
+     * 16777216. Should be at least 1. The cache always holds at least the 
+     * most recent image, even one bigger than this.
+     * @throws IllegalArgumentException If <code>capacity</code> is less than 
+     * 1.
+     */
+    public CardPNGCache(long capacity) {
+        if (capacity < 1) {
+            String excMsg = "Capacity " + capacity 
+                    + " should be at least 1 byte";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.capacity = capacity;
+    }
+    
+}
@@ -0,0 +1,435 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical.elements;
+
+import playingcards.CardDeck;
+import playingcards.PlayingCard;
+import playingcards.Rank;
+import playingcards.Suit;
+
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * All the card faces and the back of the cards, painted by {@link CardImage} 
+ * at one size into a single image. The faces are laid out in a grid with one 
+ * row for each suit and one column for each rank, and the back goes in the 
+ * last column of the first row, so finding a card in the atlas is just a 
+ * matter of arithmetic on the ordinals of its rank and suit. The faces are 
+ * painted in parallel when the atlas is built. The atlas can be saved to a 
+ * file and loaded from it on the next start, so that the cards don't have to 
+ * be painted again. The file starts with a header of five integers: {@link 
+ * #MAGIC}, {@link #VERSION}, the width and height of the cards, and 1 or 0 
+ * for whether nines have symmetrical pips. Then come the pixels of the atlas 
+ * as ARGB integers, one row after another, in big endian order.
+ * @author Alonso del Arte
+ */
+public final class CardSpriteAtlas {
+    
+    /**
+     * The widest card that can be put in an atlas, in pixels.
+     */
+    public static final int MAXIMUM_WIDTH = 1000;
+    
+    /**
+     * The tallest card that can be put in an atlas, in pixels.
+     */
+    public static final int MAXIMUM_HEIGHT = 1400;
+    
+    /**
+     * The first four bytes of an atlas file. That's "BJSA" in ASCII.
+     */
+    static final int MAGIC = 0x424A5341;
+    
+    /**
+     * The version of the atlas file, which goes up whenever the layout of the 
+     * file or the way the cards are painted changes, so that atlases saved 
+     * before then are painted again instead of loaded. Files saved before the 
+     * header had a version, which still have the placeholder back of the 
+     * cards, have the width of the cards where the version would be.
+     */
+    static final int VERSION = 2;
+    
+    /**
+     * How many bytes the header of an atlas file takes.
+     */
+    static final int HEADER_SIZE = 5 * Integer.BYTES;
+    
+    /**
+     * How many columns the atlas has. That's one for each rank and one more 
+     * for the back of the cards.
+     */
+    static final int COLUMNS = Rank.values().length + 1;
+    
+    /**
+     * How many rows the atlas has. That's one for each suit.
+     */
+    static final int ROWS = Suit.values().length;
+    
+    private static final int FACE_DOWN_INDEX = COLUMNS - 1;
+    
+    private final Dimension cardSize;
+    
+    private final int cellWidth;
+    
+    private final int cellHeight;
+    
+    private final boolean ninePipsSymmetrical;
+    
+    private final BufferedImage atlas;
+    
+    /**
+     * Tells where in the atlas a card face is.
+     * @param card The card. For example, 9&#9829;.
+     * @return The index of the cell, counting across the rows from 0 at the 
+     * top left. For example, 22 for 9&#9829;, since that's in column 8 of row 
+     * 1.
+     */
+    static int indexOf(PlayingCard card) {
+        return card.getSuit().ordinal() * COLUMNS + card.getRank().ordinal();
+    }
+    
+    private static void checkSize(Dimension size) {
+        if (size.width < 1 || size.height < 1 || size.width > MAXIMUM_WIDTH 
+                || size.height > MAXIMUM_HEIGHT) {
+            String excMsg = "Size " + size.width + " by " + size.height 
+                    + " should be at least 1 by 1 and at most " 
+                    + MAXIMUM_WIDTH + " by " + MAXIMUM_HEIGHT;
+            throw new IllegalArgumentException(excMsg);
+        }
+    }
+    
+    private static long countFileBytes(Dimension size) {
+        return HEADER_SIZE + (long) Integer.BYTES * COLUMNS * ROWS 
+                * (size.width + 1) * (size.height + 1);
+    }
+    
+    /**
+     * What the header of an atlas file says: the version of the file and, if 
+     * that's {@link #VERSION}, the size of the cards and the layout of the 
+     * nines. The header of a file of another version is not read any further, 
+     * so the size is null.
+     */
+    private static final class Header {
+        
+        private final int version;
+        
+        private final Dimension size;
+        
+        private final boolean ninePipsSymmetrical;
+        
+        private Header(int version, Dimension size, 
+                boolean ninePipsSymmetrical) {
+            this.version = version;
+            this.size = size;
+            this.ninePipsSymmetrical = ninePipsSymmetrical;
+        }
+        
+    }
+    
+    /**
+     * Reads and checks the header of an atlas file. The header is read into a 
+     * buffer of its own rather than mapped, so that checking whether a file 
+     * is any good doesn't keep it mapped.
+     * @param channel The channel to read the file from.
+     * @param file The path of the file, for exception messages.
+     * @return The header. If the file is of another version, only the 
+     * version is given.
+     * @throws IOException If the file can't be read, or if it doesn't start 
+     * with a valid header or has the wrong length for the size in the header.
+     */
+    private static Header readHeader(FileChannel channel, Path file) 
+            throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SIZE) {
+            String excMsg = file.toString() 
+                    + " is too short to be an atlas file";
+            throw new IOException(excMsg);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                String excMsg = file.toString() + " ended during its header";
+                throw new IOException(excMsg);
+            }
+        }
+        buffer.flip();
+        if (buffer.getInt() != MAGIC) {
+            String excMsg = file.toString() + " is not an atlas file";
+            throw new IOException(excMsg);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            return new Header(version, null, false);
+        }
+        Dimension size = new Dimension(buffer.getInt(), buffer.getInt());
+        int layout = buffer.getInt();
+        if (size.width < 1 || size.height < 1 || size.width > MAXIMUM_WIDTH 
+                || size.height > MAXIMUM_HEIGHT || layout < 0 || layout > 1 
+                || fileSize != countFileBytes(size)) {
+            String excMsg = file.toString() 
+                    + " does not have a valid atlas header for size " 
+                    + size.width + " by " + size.height;
+            throw new IOException(excMsg);
+        }
+        return new Header(version, size, layout == 1);
+    }
+    
+    private static BufferedImage render(PlayingCard card, boolean faceUp, 
+            Dimension size) {
+        BufferedImage image = new BufferedImage(size.width + 1, 
+                size.height + 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            CardImage cardImage = new CardImage(card);
+            Point origin = new Point(0, 0);
+            if (faceUp) {
+                cardImage.paintFaceUp(g, origin, size);
+            } else {
+                cardImage.paintFaceDown(g, origin, size);
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+    
+    private void put(int index, BufferedImage image) {
+        this.atlas.getRaster().setDataElements((index % COLUMNS) 
+                * this.cellWidth, (index / COLUMNS) * this.cellHeight,
+                image.getRaster());
+    }
+    
+    /**
+     * Paints all the card faces and the back of the cards into a new atlas. 
+     * The faces are painted in parallel, each into an image of its own, and 
+     * then copied into place.
+     * @param size The size of the cards. For example, 250 by 350. Each cell 
+     * of the atlas is one pixel wider and taller than that, since the border 
+     * of a card is drawn on its last row and column.
+     * @return The atlas.
+     * @throws IllegalArgumentException If <code>size</code> is less than 1 by 
+     * 1 or more than {@value #MAXIMUM_WIDTH} by {@value #MAXIMUM_HEIGHT}.
+     */
+    public static CardSpriteAtlas build(Dimension size) {
+        checkSize(size);
+        CardSpriteAtlas spriteAtlas = new CardSpriteAtlas(size, 
+                CardImage.ninePipsAreSymmetrical());
+        CardDeck deck = new CardDeck();
+        List<PlayingCard> cards = new ArrayList<>( 
+                CardDeck.INITIAL_NUMBER_OF_CARDS_PER_DECK);
+        while (deck.hasNext()) {
+            cards.add(deck.getNextCard());
+        }
+        BufferedImage[] faces = new BufferedImage[COLUMNS * ROWS];
+        cards.parallelStream().forEach(card -> faces[indexOf(card)] 
+                = render(card, true, size));
+        faces[FACE_DOWN_INDEX] = render(cards.get(0), false, size);
+        for (int i = 0; i < faces.length; i++) {
+            if (faces[i] != null) {
+                spriteAtlas.put(i, faces[i]);
+            }
+        }
+        return spriteAtlas;
+    }
+    
+    /**
+     * Loads an atlas from a file saved by {@link #save(Path)}, if it's of the 
+     * current version and has the cards at the right size and with the current 
+     * layout of the nines. Otherwise, builds the atlas and saves it to the 
+     * file for next time. 
+     * Only the header of the file is read to decide, so a file that's about 
+     * to be replaced is never mapped into memory, which would keep some 
+     * operating systems from replacing it.
+     * @param file The path of the file. For example, "cards-250x350.atlas". 
+     * The file need not exist yet.
+     * @param size The size of the cards. For example, 250 by 350.
+     * @return The atlas.
+     * @throws IOException If the file exists but can't be read, or if it 
+     * can't be written.
+     * @throws IllegalArgumentException If <code>size</code> is less than 1 by 
+     * 1 or more than {@value #MAXIMUM_WIDTH} by {@value #MAXIMUM_HEIGHT}.
+     */
+    public static CardSpriteAtlas loadOrBuild(Path file, Dimension size) 
+            throws IOException {
+        checkSize(size);
+        if (Files.isRegularFile(file)) {
+            Header header;
+            try (FileChannel channel = FileChannel.open(file, 
+                    StandardOpenOption.READ)) {
+                header = readHeader(channel, file);
+            }
+            if (header.version == VERSION && header.size.equals(size) 
+                    && header.ninePipsSymmetrical 
+                            == CardImage.ninePipsAreSymmetrical()) {
+                return load(file);
+            }
+        }
+        CardSpriteAtlas spriteAtlas = build(size);
+        spriteAtlas.save(file);
+        return spriteAtlas;
+    }
+    
+    /**
+     * Loads an atlas from a file saved by {@link #save(Path)}. The header is 
+     * read first, then the pixels are mapped into memory read-only and copied 
+     * into the atlas in one go. The mapping is not used once this returns, 
+     * but it's only let go when it's garbage collected, so on some operating 
+     * systems the file can't be replaced until then.
+     * @param file The path of the file. For example, "cards-250x350.atlas".
+     * @return The atlas.
+     * @throws IOException If the file can't be read, or if it's not a valid 
+     * atlas file of the current version.
+     */
+    public static CardSpriteAtlas load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, 
+                StandardOpenOption.READ)) {
+            Header header = readHeader(channel, file);
+            if (header.version != VERSION) {
+                String excMsg = file.toString() 
+                        + " is an atlas file of version " + header.version 
+                        + ", not " + VERSION;
+                throw new IOException(excMsg);
+            }
+            CardSpriteAtlas spriteAtlas = new CardSpriteAtlas(header.size, 
+                    header.ninePipsSymmetrical);
+            int width = spriteAtlas.atlas.getWidth();
+            int height = spriteAtlas.atlas.getHeight();
+            int[] pixels = new int[width * height];
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 
+                    HEADER_SIZE, channel.size() - HEADER_SIZE);
+            buffer.asIntBuffer().get(pixels);
+            spriteAtlas.atlas.getRaster().setDataElements(0, 0, width, height, 
+                    pixels);
+            return spriteAtlas;
+        }
+    }
+    
+    /**
+     * Saves this atlas to a file, so that it can be loaded by {@link 
+     * #load(Path)} later. The atlas is first written to a temporary file next 
+     * to the file, which is then moved into place, so that a file that's only 
+     * partly written is never left behind under the given name. The temporary 
+     * file is written with ordinary writes rather than through a mapping, so 
+     * nothing keeps it mapped when it's moved. Writing goes on until all the 
+     * bytes are written, since a channel may write fewer bytes than asked.
+     * @param file The path of the file. For example, "cards-250x350.atlas". 
+     * If there's already a file there, it is replaced.
+     * @throws IOException If the file can't be written.
+     */
+    public void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        int width = this.atlas.getWidth();
+        int height = this.atlas.getHeight();
+        int[] pixels = (int[]) this.atlas.getRaster().getDataElements(0, 0, 
+                width, height, null);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC) 
+                .putInt(VERSION).putInt(this.cardSize.width) 
+                .putInt(this.cardSize.height) 
+                .putInt(this.ninePipsSymmetrical ? 1 : 0).flip();
+        ByteBuffer pixelBytes 
+                = ByteBuffer.allocate(pixels.length * Integer.BYTES);
+        pixelBytes.asIntBuffer().put(pixels);
+        try (FileChannel channel = FileChannel.open(temp, 
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, 
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = {header, pixelBytes};
+            while (pixelBytes.hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, 
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private void paint(Graphics g, int index, final Point p) {
+        int x = (index % COLUMNS) * this.cellWidth;
+        int y = (index / COLUMNS) * this.cellHeight;
+        g.drawImage(this.atlas, p.x, p.y, p.x + this.cellWidth, 
+                p.y + this.cellHeight, x, y, x + this.cellWidth, 
+                y + this.cellHeight, null);
+    }
+    
+    /**
+     * Paints a card face up, the same as {@link CardImage#paintFaceUp 
+     * CardImage.paintFaceUp()} would at the size of this atlas, but from the 
+     * atlas. Only what falls within the card is painted, which matters for 
+     * cards much smaller than 250 by 350, since {@link CardImage} lays out 
+     * the lettering for that size.
+     * @param g The <code>Graphics</code> context in which to paint the card.
+     * @param card The card to paint. For example, 10&#9830;.
+     * @param p The point for the top left corner of the card. For example, 
+     * (10, 10).
+     */
+    public void paintFaceUp(Graphics g, PlayingCard card, final Point p) {
+        this.paint(g, indexOf(card), p);
+    }
+    
+    /**
+     * Paints the back of a card, the same as {@link CardImage#paintFaceDown 
+     * CardImage.paintFaceDown()} would at the size of this atlas, but from the 
+     * atlas. Only what falls within the card is painted.
+     * @param g The <code>Graphics</code> context in which to paint the card.
+     * @param p The point for the top left corner of the card. For example, 
+     * (10, 10).
+     */
+    public void paintFaceDown(Graphics g, final Point p) {
+        this.paint(g, FACE_DOWN_INDEX, p);
+    }
+    
+    /**
+     * Gives the size of the cards in this atlas.
+     * @return The size. For example, 250 by 350. This is a copy, so changing 
+     * it won't change the atlas.
+     */
+    public Dimension getSize() {
+        return new Dimension(this.cardSize);
+    }
+    
+    /**
+     * Tells whether the nines in this atlas were painted with symmetrical 
+     * pips. See {@link CardImage#ninePipsAreSymmetrical()}.
+     * @return True if they were, false if not.
+     */
+    public boolean hasSymmetricalNinePips() {
+        return this.ninePipsSymmetrical;
+    }
+    
+    private CardSpriteAtlas(Dimension size, boolean symmetrical) {
+        this.cardSize = new Dimension(size);
+        this.cellWidth = size.width + 1;
+        this.cellHeight = size.height + 1;
+        this.ninePipsSymmetrical = symmetrical;
+        this.atlas = new BufferedImage(COLUMNS * this.cellWidth, 
+                ROWS * this.cellHeight, BufferedImage.TYPE_INT_ARGB);
+    }
+    
+}
@@ -17,13 +17,26 @@
 package blackjack;
 
 import currency.CurrencyAmount;
+import currency.CurrencyConversionNeededException;
+import currency.CurrencyConverter;
+import currency.ExchangeRateTable;
+import playingcards.CardDeck;
+import playingcards.MultiDeckCardDispenser;
 import playingcards.PlayingCard;
 import playingcards.Rank;
+import playingcards.ShoeAuditLog;
 import playingcards.matchers.RankPairSpec;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Currency;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 
@@ -88,7 +101,7 @@ public class DealerTest {
         assert actual.containsAll(expected) : msg;
         assertEquals(expected.size(), actual.size());
     }
-
+    
     @Test
     public void testGiveSplittablePairsDoesNotLeakReference() {
         RankPairSpec pairSpec1 = new RankPairSpec(Rank.EIGHT, Rank.EIGHT);
@@ -157,6 +170,259 @@ public class DealerTest {
         assertEquals(expected, actual);
     }
     
+    @Test
+    public void testReportBankrollMixedCurrencies() {
+        Dealer dealer = new Dealer();
+        Currency euros = Currency.getInstance("EUR");
+        ExchangeRateTable table = new ExchangeRateTable(WagerTest.DOLLARS, 
+                Map.of(euros, 0.8));
+        dealer.useConverter(new CurrencyConverter(table));
+        int dollarCents = RANDOM.nextInt(262144) + 256;
+        int euroCents = 4 * (RANDOM.nextInt(65536) + 64);
+        Player[] players = {new Player("Dollar Player", 
+                new CurrencyAmount(dollarCents, WagerTest.DOLLARS)), 
+            new Player("Euro Player", new CurrencyAmount(euroCents, euros))};
+        Round round = new Round(dealer, players);
+        dealer.start(round);
+        CurrencyAmount total = new CurrencyAmount(dollarCents 
+                + euroCents * 5 / 4, WagerTest.DOLLARS);
+        CurrencyAmount expected = total.times(Dealer.RESERVE_MULTIPLIER);
+        CurrencyAmount actual = dealer.reportBankroll();
+        assertEquals(expected, actual);
+    }
+    
+    /**
+     * Test of the settle procedure, of the Dealer class.
+     */
+    @Test
+    public void testSettle() {
+        System.out.println("settle");
+        Dealer dealer = new Dealer();
+        Player[] players = makePlayers();
+        Round round = new Round(dealer, players);
+        dealer.start(round);
+        CurrencyAmount dealerBefore = dealer.reportBankroll();
+        Player player = players[0];
+        CurrencyAmount playerBefore = player.getBalance();
+        long settlementCents = PayoutSchedule.STANDARD.settle( 
+                RANDOM.nextInt(10000) + 1, Wager.Outcome.NATURAL_BLACKJACK);
+        dealer.settle(player, 0, Wager.Outcome.NATURAL_BLACKJACK, 
+                settlementCents);
+        assertEquals(playerBefore.getAmountInCents() + settlementCents, 
+                player.getBalance().getAmountInCents());
+        assertEquals(dealerBefore.getAmountInCents() - settlementCents, 
+                dealer.reportBankroll().getAmountInCents());
+    }
+    
+    @Test
+    public void testSettleMixedCurrencies() throws IOException {
+        Dealer dealer = new Dealer();
+        Currency euros = Currency.getInstance("EUR");
+        ExchangeRateTable table = new ExchangeRateTable(WagerTest.DOLLARS, 
+                Map.of(euros, 0.8));
+        dealer.useConverter(new CurrencyConverter(table));
+        Player dollarPlayer = new Player("Dollar Player", 
+                new CurrencyAmount(RANDOM.nextInt(262144) + 256, 
+                        WagerTest.DOLLARS));
+        Player euroPlayer = new Player("Euro Player", 
+                new CurrencyAmount(RANDOM.nextInt(262144) + 256, euros));
+        Path path = Files.createTempFile("dealer", ".jrnl");
+        Files.delete(path);
+        long settlementCents = 4 * (RANDOM.nextInt(2500) + 1);
+        CurrencyAmount euroPlayerBefore = euroPlayer.getBalance();
+        CurrencyAmount dealerBefore;
+        try (SettlementJournal journal = new SettlementJournal(path)) {
+            dealer.useJournal(journal, 1);
+            dealer.start(new Round(dealer, new Player[]{dollarPlayer, 
+                euroPlayer}));
+            dealerBefore = dealer.reportBankroll();
+            dealer.settle(euroPlayer, 0, Wager.Outcome.BETTER_SCORE, 
+                    settlementCents);
+        }
+        try {
+            assertEquals(euroPlayerBefore.getAmountInCents() + settlementCents, 
+                    euroPlayer.getBalance().getAmountInCents());
+            assertEquals(euros, euroPlayer.getBalance().getCurrency());
+            CurrencyAmount expected = new CurrencyAmount( 
+                    dealerBefore.getAmountInCents() - settlementCents * 5 / 4, 
+                    WagerTest.DOLLARS);
+            assertEquals(expected, dealer.reportBankroll());
+            try (SettlementJournal.Reader reader 
+                    = SettlementJournal.read(path)) {
+                assertTrue("Journal should have a record", reader.next());
+                assertEquals(settlementCents, reader.getAmountInCents());
+                assertEquals(euros, reader.getCurrency());
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+    
+    @Test
+    public void testSettleMixedCurrenciesNeedsConverter() {
+        Dealer dealer = new Dealer();
+        Currency euros = Currency.getInstance("EUR");
+        ExchangeRateTable table = new ExchangeRateTable(WagerTest.DOLLARS, 
+                Map.of(euros, 0.8));
+        dealer.useConverter(new CurrencyConverter(table));
+        Player euroPlayer = new Player("Euro Player", 
+                new CurrencyAmount(RANDOM.nextInt(262144) + 256, euros));
+        dealer.start(new Round(dealer, new Player[]{makePlayers()[0], 
+            euroPlayer}));
+        dealer.useConverter(null);
+        CurrencyAmount dealerBefore = dealer.reportBankroll();
+        CurrencyAmount playerBefore = euroPlayer.getBalance();
+        String msg = "Settling euro wager from dollar bankroll without " 
+                + "converter should cause an exception";
+        Throwable t = assertThrows(() -> {
+            dealer.settle(euroPlayer, 0, Wager.Outcome.BETTER_SCORE, 1000L);
+            System.out.println(msg + ", not given bankroll " 
+                    + dealer.reportBankroll().toString());
+        }, CurrencyConversionNeededException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+        assertEquals(dealerBefore, dealer.reportBankroll());
+        assertEquals(playerBefore, euroPlayer.getBalance());
+    }
+    
+    @Test
+    public void testSettleRecordsInJournal() throws IOException {
+        Dealer dealer = new Dealer();
+        Path path = Files.createTempFile("dealer", ".jrnl");
+        Files.delete(path);
+        int table = RANDOM.nextInt(64) + 1;
+        long settlementCents = -(RANDOM.nextInt(10000) + 1);
+        try (SettlementJournal journal = new SettlementJournal(path)) {
+            dealer.useJournal(journal, table);
+            Player[] players = makePlayers();
+            Round round = new Round(dealer, players);
+            dealer.start(round);
+            dealer.settle(players[0], 1, Wager.Outcome.BUST, settlementCents);
+        }
+        try (SettlementJournal.Reader reader = SettlementJournal.read(path)) {
+            assertTrue("Journal should have a record", reader.next());
+            assertEquals(table, reader.getTable());
+            assertEquals(1L, reader.getRound());
+            assertEquals(1, reader.getHand());
+            assertEquals(Wager.Outcome.BUST, reader.getOutcome());
+            assertEquals(settlementCents, reader.getAmountInCents());
+            assertEquals(WagerTest.DOLLARS, reader.getCurrency());
+            assertFalse("Journal should have only one record", reader.next());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+    
+    @Test
+    public void testUseJournalCarriesOnRoundNumbers() throws IOException {
+        Path path = Files.createTempFile("dealer", ".jrnl");
+        Files.delete(path);
+        int table = RANDOM.nextInt(64) + 1;
+        int rounds = RANDOM.nextInt(8) + 2;
+        try {
+            try (SettlementJournal journal = new SettlementJournal(path)) {
+                for (int round = 1; round <= rounds; round++) {
+                    journal.append(table, round, 0, Wager.Outcome.STANDOFF, 
+                            0L, WagerTest.DOLLARS);
+                }
+                journal.append(table + 1, 10L * rounds, 0, 
+                        Wager.Outcome.STANDOFF, 0L, WagerTest.DOLLARS);
+            }
+            try (SettlementJournal journal = new SettlementJournal(path)) {
+                Dealer dealer = new Dealer();
+                dealer.useJournal(journal, table);
+                assertEquals(rounds, dealer.getRoundNumber());
+                Player[] players = makePlayers();
+                dealer.start(new Round(dealer, players));
+                dealer.settle(players[0], 0, Wager.Outcome.STANDOFF, 0L);
+            }
+            try (SettlementJournal.Reader reader 
+                    = SettlementJournal.read(path)) {
+                for (int i = 0; i <= rounds; i++) {
+                    assertTrue("Journal should have record " + i, 
+                            reader.next());
+                }
+                assertTrue("Journal should have new record", reader.next());
+                assertEquals(table, reader.getTable());
+                assertEquals(rounds + 1, reader.getRound());
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+    
+    @Test
+    public void testUseShoeAuditRecordsCurrentShoe() throws IOException {
+        MultiDeckCardDispenser shoe = new MultiDeckCardDispenser(6, 75);
+        Dealer dealer = new Dealer(BlackJack.DEFAULT_SPLITTABLE_PAIRS, shoe);
+        Path path = Files.createTempFile("dealer", ".audit");
+        Files.delete(path);
+        Path indexPath = path.resolveSibling(path.getFileName() 
+                + ShoeAuditLog.INDEX_SUFFIX);
+        try (ShoeAuditLog log = new ShoeAuditLog(path)) {
+            dealer.useShoeAudit(log);
+            assertEquals(1, log.getRecordCount());
+            ShoeAuditLog.Entry entry = log.find(shoe.fingerprint());
+            assertNotNull(entry);
+            assertEquals(6, entry.getNumberOfDecks());
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(indexPath);
+        }
+    }
+    
+    /**
+     * Test of the recordHand procedure, of the Dealer class.
+     */
+    @Test
+    public void testRecordHand() throws IOException {
+        System.out.println("recordHand");
+        Dealer dealer = new Dealer();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int table = RANDOM.nextInt(64) + 1;
+        CardDeck deck = new CardDeck();
+        Hand playerHand = new Hand(HandTest.DEFAULT_WAGER);
+        playerHand.add(deck.getNextCard());
+        playerHand.add(deck.getNextCard());
+        Hand dealerHand = new Hand(HandTest.DEFAULT_WAGER);
+        dealerHand.add(deck.getNextCard());
+        dealerHand.add(deck.getNextCard());
+        try (HandHistory.Writer writer = new HandHistory.Writer(out)) {
+            dealer.useHandHistory(writer, table);
+            dealer.start(new Round(dealer, makePlayers()));
+            dealer.recordHand(0, playerHand, dealerHand, 
+                    Wager.Outcome.LOWER_SCORE, -10000L, Decision.STAND);
+        }
+        try (HandHistory.Reader reader = new HandHistory.Reader( 
+                new ByteArrayInputStream(out.toByteArray()))) {
+            assertTrue("History should have a record", reader.next());
+            assertEquals(table, reader.getTable());
+            assertEquals(1L, reader.getRound());
+            assertEquals(Wager.Outcome.LOWER_SCORE, reader.getOutcome());
+            assertEquals(2, reader.getPlayerCardCount());
+            assertEquals(Decision.STAND, reader.getDecision(0));
+            assertFalse("History should have only one record", reader.next());
+        }
+    }
+    
+    @Test
+    public void testNoSettleBeforeRoundStarts() {
+        Dealer dealer = new Dealer();
+        Player player = PlayerTest.getPlayer();
+        String msg = "Should not be able to settle before a round starts";
+        Throwable t = assertThrows(() -> {
+            dealer.settle(player, 0, Wager.Outcome.BETTER_SCORE, 
+                    RANDOM.nextInt(10000) + 1);
+            System.out.println(msg);
+        }, IllegalStateException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
     @Test
     public void testNoStartNewRoundWhileCurrentRoundActive() {
         Dealer dealer = new Dealer();
@@ -188,7 +454,7 @@ public class DealerTest {
         assert card != null : "Dealer's face up card shouldn't be null";
         System.out.println("Dealer's face up card is " + card.toASCIIString());
     }
-    
+
 //    @Test
     public void testBankrollCarriesOverToNextRound() {
         fail("Haven't written test yet");
@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package blackjack;
+
+import playingcards.CardDeck;
+import playingcards.PlayingCard;
+import playingcards.Rank;
+
+import static blackjack.DealerTest.RANDOM;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+/**
+ * Tests of the HandHistoryIndex class.
+ * @author Alonso del Arte
+ */
+public class HandHistoryIndexTest {
+    
+    private static final int BLOCK_SIZE = 64;
+    
+    private static final Decision[] DECISIONS = Decision.values();
+    
+    private static final Wager.Outcome[] OUTCOMES = Wager.Outcome.values();
+    
+    private static final List<Row> ROWS = new ArrayList<>();
+    
+    private static Path directory;
+    
+    private static HandHistoryIndex index;
+    
+    /**
+     * What the test expects the index to have for one hand.
+     */
+    private static final class Row {
+        
+        final Rank upcard;
+        
+        final int total;
+        
+        final boolean soft;
+        
+        final int decisions;
+        
+        final Wager.Outcome outcome;
+        
+        final long amount;
+        
+        Row(Rank upcard, int total, boolean soft, int decisions, 
+                Wager.Outcome outcome, long amount) {
+            this.upcard = upcard;
+            this.total = total;
+            this.soft = soft;
+            this.decisions = decisions;
+            this.outcome = outcome;
+            this.amount = amount;
+        }
+        
+    }
+    
+    private static Row makeRow(Hand playerHand, Hand dealerHand, 
+            Decision[] decisions, Wager.Outcome outcome, long amount) {
+        int total = 0;
+        boolean hasAce = false;
+        for (PlayingCard card : playerHand.inspectCards()) {
+            hasAce |= card.isOf(Rank.ACE);
+            total += card.isOf(Rank.ACE) ? 1 : Math.min(card.integerValue(), 
+                    10);
+        }
+        boolean soft = hasAce && total < 12;
+        if (soft) {
+            total += 10;
+        }
+        int decisionMask = 0;
+        for (Decision decision : decisions) {
+            decisionMask |= 1 << decision.ordinal();
+        }
+        return new Row(dealerHand.inspectCards()[0].getRank(), total, soft, 
+                decisionMask, outcome, amount);
+    }
+    
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        int count = BLOCK_SIZE * 20 + RANDOM.nextInt(BLOCK_SIZE - 1) + 1;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CardDeck deck = new CardDeck();
+        try (HandHistory.Writer writer = new HandHistory.Writer(out)) {
+            for (int i = 0; i < count; i++) {
+                if (deck.countRemaining() < 8) {
+                    deck = new CardDeck();
+                    deck.shuffle();
+                }
+                Hand playerHand = new Hand(HandTest.DEFAULT_WAGER);
+                playerHand.add(deck.getNextCard());
+                playerHand.add(deck.getNextCard());
+                if (RANDOM.nextBoolean() && playerHand.isOpen()) {
+                    playerHand.add(deck.getNextCard());
+                }
+                Hand dealerHand = new Hand(HandTest.DEFAULT_WAGER);
+                dealerHand.add(deck.getNextCard());
+                dealerHand.add(deck.getNextCard());
+                Decision[] decisions = {DECISIONS[RANDOM 
+                        .nextInt(DECISIONS.length)]};
+                Wager.Outcome outcome = OUTCOMES[RANDOM 
+                        .nextInt(OUTCOMES.length)];
+                long amount = (i < count / 2) ? RANDOM.nextInt(10000) + 1 
+                        : -RANDOM.nextInt(10000) - 1;
+                writer.write(1, i, 0, playerHand, dealerHand, outcome, amount, 
+                        decisions);
+                ROWS.add(makeRow(playerHand, dealerHand, decisions, outcome, 
+                        amount));
+            }
+        }
+        directory = Files.createTempDirectory("index");
+        try (HandHistory.Reader reader = new HandHistory.Reader( 
+                new ByteArrayInputStream(out.toByteArray()))) {
+            long indexed = HandHistoryIndex.build(reader, directory, 
+                    BLOCK_SIZE);
+            assertEquals(count, indexed);
+        }
+        index = HandHistoryIndex.open(directory);
+    }
+    
+    @AfterClass
+    public static void tearDownClass() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()) 
+                    .toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+    
+    private static long[] expectedRows(Predicate<Row> predicate) {
+        return IntStream.range(0, ROWS.size()) 
+                .filter(i -> predicate.test(ROWS.get(i))) 
+                .mapToLong(i -> i).toArray();
+    }
+    
+    @Test
+    public void testGetRowCount() {
+        System.out.println("getRowCount");
+        assertEquals(ROWS.size(), index.getRowCount());
+        int expected = (ROWS.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        assertEquals(expected, index.getBlockCount());
+    }
+    
+    /**
+     * Test of the findRows function, of the HandHistoryIndex class.
+     */
+    @Test
+    public void testFindRows() {
+        System.out.println("findRows");
+        HandHistoryIndex.Query query = new HandHistoryIndex.Query() 
+                .upcard(Rank.ACE, Rank.KING).playerTotal(12, 16).soft(false);
+        long[] expected = expectedRows(row -> (row.upcard == Rank.ACE 
+                || row.upcard == Rank.KING) && row.total >= 12 
+                && row.total <= 16 && !row.soft);
+        long[] actual = index.findRows(query);
+        assertArrayEquals(expected, actual);
+    }
+    
+    @Test
+    public void testFindRowsByDecisionAndOutcome() {
+        HandHistoryIndex.Query query = new HandHistoryIndex.Query() 
+                .decision(Decision.HIT) 
+                .outcome(Wager.Outcome.BUST, Wager.Outcome.LOWER_SCORE);
+        int hitMask = 1 << Decision.HIT.ordinal();
+        long[] expected = expectedRows(row -> (row.decisions & hitMask) != 0 
+                && (row.outcome == Wager.Outcome.BUST 
+                || row.outcome == Wager.Outcome.LOWER_SCORE));
+        long[] actual = index.findRows(query);
+        assertArrayEquals(expected, actual);
+    }
+    
+    /**
+     * Test of the count function, of the HandHistoryIndex class.
+     */
+    @Test
+    public void testCount() {
+        System.out.println("count");
+        HandHistoryIndex.Query query = new HandHistoryIndex.Query().soft(true);
+        long expected = expectedRows(row -> row.soft).length;
+        long actual = index.count(query);
+        assertEquals(expected, actual);
+    }
+    
+    @Test
+    public void testCountAll() {
+        assertEquals(ROWS.size(), index.count(new HandHistoryIndex.Query()));
+    }
+    
+    /**
+     * Test of the sumAmounts function, of the HandHistoryIndex class.
+     */
+    @Test
+    public void testSumAmounts() {
+        System.out.println("sumAmounts");
+        HandHistoryIndex.Query query = new HandHistoryIndex.Query() 
+                .upcard(Rank.SIX);
+        long expected = ROWS.stream().filter(row -> row.upcard == Rank.SIX) 
+                .mapToLong(row -> row.amount).sum();
+        long actual = index.sumAmounts(query);
+        assertEquals(expected, actual);
+    }
+    
+    @Test
+    public void testQuerySkipsBlocks() {
+        HandHistoryIndex.Query query = new HandHistoryIndex.Query() 
+                .amount(Long.MIN_VALUE, -1L);
+        int candidates = index.countCandidateBlocks(query);
+        String msg = "Query for losses should skip the blocks of wins, but " 
+                + candidates + " of " + index.getBlockCount() 
+                + " blocks are candidates";
+        assert candidates <= index.getBlockCount() / 2 + 1 : msg;
+        long expected = expectedRows(row -> row.amount < 0).length;
+        assertEquals(expected, index.count(query));
+    }
+    
+    @Test
+    public void testPlayerTotalRejectsInvertedRange() {
+        String msg = "Minimum total more than maximum should be rejected";
+        Throwable t = assertThrows(() -> {
+            HandHistoryIndex.Query query = new HandHistoryIndex.Query() 
+                    .playerTotal(17, 12);
+            System.out.println(msg + ", not given " + query.toString());
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testOpenRejectsInvalidDirectory() throws IOException {
+        Path empty = Files.createTempDirectory("notindex");
+        Files.write(empty.resolve(HandHistoryIndex.BLOCKS_FILE_NAME), 
+                new byte[HandHistoryIndex.BLOCKS_HEADER_SIZE]);
+        try {
+            String msg = "Directory without valid index should be rejected";
+            Throwable t = assertThrows(() -> {
+                HandHistoryIndex badIndex = HandHistoryIndex.open(empty);
+                System.out.println(msg + ", not given " 
+                        + badIndex.toString());
+            }, IOException.class, msg);
+            String excMsg = t.getMessage();
+            assert excMsg != null : "Exception message should not be null";
+            assert !excMsg.isBlank() 
+                    : "Exception message should not be blank";
+            System.out.println("\"" + excMsg + "\"");
+        } finally {
+            Files.delete(empty.resolve(HandHistoryIndex.BLOCKS_FILE_NAME));
+            Files.delete(empty);
+        }
+    }
+    
+}
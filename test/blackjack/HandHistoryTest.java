@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package blackjack;
+
+import currency.CurrencyAmount;
+import playingcards.CardDeck;
+import playingcards.PlayingCard;
+
+import static blackjack.DealerTest.RANDOM;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Currency;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+/**
+ * Tests of the HandHistory class.
+ * @author Alonso del Arte
+ */
+public class HandHistoryTest {
+    
+    private static final Currency EUROS = Currency.getInstance("EUR");
+    
+    private static final Wager.Outcome[] OUTCOMES = Wager.Outcome.values();
+    
+    private static final Decision[] DECISIONS = Decision.values();
+    
+    private static Hand makeHand(CardDeck deck, Wager wager) {
+        Hand hand = new Hand(wager);
+        int cardCount = RANDOM.nextInt(3) + 2;
+        for (int i = 0; i < cardCount && hand.isOpen(); i++) {
+            hand.add(deck.getNextCard());
+        }
+        return hand;
+    }
+    
+    private static Wager makeWager(int index) {
+        Currency currency = (index % 3 == 0) ? EUROS : WagerTest.DOLLARS;
+        return new Wager(new CurrencyAmount(RANDOM.nextInt(50000) + 100, 
+                currency));
+    }
+    
+    private static Decision[] makeDecisions() {
+        Decision[] decisions = new Decision[RANDOM.nextInt(4)];
+        for (int i = 0; i < decisions.length; i++) {
+            decisions[i] = DECISIONS[RANDOM.nextInt(DECISIONS.length)];
+        }
+        return decisions;
+    }
+    
+    private static void assertCurrentHand(HandHistory.Reader reader, 
+            Hand playerHand, Hand dealerHand) {
+        PlayingCard[] expected = playerHand.inspectCards();
+        assertEquals(expected.length, reader.getPlayerCardCount());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].getRank(), reader.getPlayerCardRank(i));
+            assertEquals(expected[i].getSuit(), reader.getPlayerCardSuit(i));
+        }
+        expected = dealerHand.inspectCards();
+        assertEquals(expected.length, reader.getDealerCardCount());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].getRank(), reader.getDealerCardRank(i));
+            assertEquals(expected[i].getSuit(), reader.getDealerCardSuit(i));
+        }
+    }
+    
+    /**
+     * Test of the write function, of the HandHistory.Writer class, and the 
+     * next function, of the HandHistory.Reader class.
+     */
+    @Test
+    public void testWriteAndRead() throws IOException {
+        System.out.println("write");
+        int count = RANDOM.nextInt(64) + 16;
+        CardDeck deck = new CardDeck();
+        deck.shuffle();
+        Hand[] playerHands = new Hand[count];
+        Hand[] dealerHands = new Hand[count];
+        Decision[][] decisions = new Decision[count][];
+        long[] settlements = new long[count];
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (HandHistory.Writer writer = new HandHistory.Writer(out)) {
+            for (int i = 0; i < count; i++) {
+                if (deck.countRemaining() < 12) {
+                    deck = new CardDeck();
+                    deck.shuffle();
+                }
+                playerHands[i] = makeHand(deck, makeWager(i));
+                dealerHands[i] = makeHand(deck, HandTest.DEFAULT_WAGER);
+                decisions[i] = makeDecisions();
+                settlements[i] = RANDOM.nextInt(100000) - 50000;
+                writer.write(i % 5, 1000L + i, i % 2, playerHands[i], 
+                        dealerHands[i], OUTCOMES[i % OUTCOMES.length], 
+                        settlements[i], decisions[i]);
+            }
+            assertEquals(count, writer.getRecordCount());
+        }
+        try (HandHistory.Reader reader = new HandHistory.Reader( 
+                new ByteArrayInputStream(out.toByteArray()))) {
+            for (int i = 0; i < count; i++) {
+                assertTrue("History should have record " + i, reader.next());
+                assertEquals(i % 5, reader.getTable());
+                assertEquals(1000L + i, reader.getRound());
+                assertEquals(i % 2, reader.getHand());
+                assertEquals(OUTCOMES[i % OUTCOMES.length], 
+                        reader.getOutcome());
+                CurrencyAmount wager = playerHands[i].getWager().getAmount();
+                assertEquals(wager.getCurrency(), reader.getCurrency());
+                assertEquals(wager.getAmountInCents(), 
+                        reader.getWagerInCents());
+                assertEquals(settlements[i], reader.getSettlementInCents());
+                assertCurrentHand(reader, playerHands[i], dealerHands[i]);
+                Decision[] actual = new Decision[reader.getDecisionCount()];
+                for (int j = 0; j < actual.length; j++) {
+                    actual[j] = reader.getDecision(j);
+                }
+                assertArrayEquals(decisions[i], actual);
+            }
+            assertFalse("History should have no more records", reader.next());
+        }
+    }
+    
+    @Test
+    public void testRecordsAreCompact() throws IOException {
+        CardDeck deck = new CardDeck();
+        deck.shuffle();
+        Wager wager = new Wager(new CurrencyAmount(1000, WagerTest.DOLLARS));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int count = 1000;
+        try (HandHistory.Writer writer = new HandHistory.Writer(out)) {
+            for (int i = 0; i < count; i++) {
+                if (deck.countRemaining() < 12) {
+                    deck = new CardDeck();
+                    deck.shuffle();
+                }
+                Hand playerHand = makeHand(deck, wager);
+                Hand dealerHand = makeHand(deck, HandTest.DEFAULT_WAGER);
+                writer.write(1, i, 0, playerHand, dealerHand, 
+                        Wager.Outcome.BUST, -1000L, Decision.HIT, 
+                        Decision.STAND);
+            }
+        }
+        int bytesPerRecord = (out.size() - HandHistory.HEADER_SIZE) / count;
+        String msg = "Records averaging " + bytesPerRecord 
+                + " bytes should be at most 24 bytes";
+        assert bytesPerRecord <= 24 : msg;
+    }
+    
+    @Test
+    public void testReadEmptyHistory() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new HandHistory.Writer(out).close();
+        assertEquals(HandHistory.HEADER_SIZE, out.size());
+        try (HandHistory.Reader reader = new HandHistory.Reader( 
+                new ByteArrayInputStream(out.toByteArray()))) {
+            assertFalse("Empty history should have no records", 
+                    reader.next());
+        }
+    }
+    
+    @Test
+    public void testReadTruncatedHistory() throws IOException {
+        CardDeck deck = new CardDeck();
+        deck.shuffle();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (HandHistory.Writer writer = new HandHistory.Writer(out)) {
+            writer.write(1, 1L, 0, makeHand(deck, makeWager(1)), 
+                    makeHand(deck, HandTest.DEFAULT_WAGER), 
+                    Wager.Outcome.LOWER_SCORE, -100L, Decision.STAND);
+        }
+        byte[] bytes = out.toByteArray();
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+        HandHistory.Reader reader = new HandHistory.Reader( 
+                new ByteArrayInputStream(truncated));
+        String msg = "Truncated record should cause an exception";
+        Throwable t = assertThrows(() -> {
+            reader.next();
+            System.out.println(msg);
+        }, EOFException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testReaderRejectsInvalidHeader() {
+        byte[] bytes = {'N', 'O', 'P', 'E', 1, 0, 0};
+        String msg = "Invalid header should cause an exception";
+        Throwable t = assertThrows(() -> {
+            HandHistory.Reader reader = new HandHistory.Reader( 
+                    new ByteArrayInputStream(bytes));
+            System.out.println(msg + ", not given " + reader.toString());
+        }, IOException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testNoGettersBeforeNext() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new HandHistory.Writer(out).close();
+        HandHistory.Reader reader = new HandHistory.Reader( 
+                new ByteArrayInputStream(out.toByteArray()));
+        String msg = "Should not be able to get outcome before next()";
+        Throwable t = assertThrows(() -> {
+            Wager.Outcome outcome = reader.getOutcome();
+            System.out.println(msg + ", not given " + outcome);
+        }, IllegalStateException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testNoWriteAfterClose() throws IOException {
+        CardDeck deck = new CardDeck();
+        deck.shuffle();
+        HandHistory.Writer writer 
+                = new HandHistory.Writer(new ByteArrayOutputStream());
+        writer.close();
+        Hand playerHand = makeHand(deck, makeWager(2));
+        Hand dealerHand = makeHand(deck, HandTest.DEFAULT_WAGER);
+        String msg = "Should not be able to write after closing";
+        Throwable t = assertThrows(() -> {
+            writer.write(1, 1L, 0, playerHand, dealerHand, 
+                    Wager.Outcome.STANDOFF, 0L);
+            System.out.println(msg);
+        }, IllegalStateException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testZigzag() {
+        System.out.println("zigzag");
+        long[] values = {0L, -1L, 1L, Long.MIN_VALUE, Long.MAX_VALUE, 
+            RANDOM.nextLong()};
+        for (long value : values) {
+            assertEquals(value, 
+                    HandHistory.unzigzag(HandHistory.zigzag(value)));
+        }
+        assertEquals(1L, HandHistory.zigzag(-1L));
+        assertEquals(2L, HandHistory.zigzag(1L));
+    }
+    
+}
@@ -600,6 +600,40 @@ public class HandTest {
         assertEquals(message, expected, actual);
     }
     
+    /**
+     * Test of the isNatural function of the Hand class.
+     */
+    @Test
+    public void testIsNatural() {
+        System.out.println("isNatural");
+        Hand hand = new Hand(DEFAULT_WAGER);
+        PlayingCard ace = CardStream.giveCard(Rank.ACE);
+        PlayingCard tenCard = CardStream.giveCard(TEN_CARD_PREDICATE);
+        hand.add(ace);
+        hand.add(tenCard);
+        String msg = hand.toString() + " should be considered natural";
+        assert hand.isNatural() : msg;
+    }
+    
+    @Test
+    public void testBlackjackMoreThanTwoCardsIsNotNatural() {
+        Hand hand = new Hand(DEFAULT_WAGER);
+        hand.add(CardStream.giveCard(Rank.SEVEN));
+        hand.add(CardStream.giveCard(Rank.SEVEN));
+        hand.add(CardStream.giveCard(Rank.SEVEN));
+        String msg = hand.toString() + " should not be considered natural";
+        assert !hand.isNatural() : msg;
+    }
+    
+    @Test
+    public void testOpenHandIsNotNatural() {
+        Hand hand = new Hand(DEFAULT_WAGER);
+        hand.add(CardStream.giveCard(REGULAR_PIP_CARD_PREDICATE));
+        hand.add(CardStream.giveCard(REGULAR_PIP_CARD_PREDICATE));
+        String msg = hand.toString() + " should not be considered natural";
+        assert !hand.isNatural() : msg;
+    }
+    
     /**
      * Test of the isWinning function of the Hand class.
      */
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package blackjack;
+
+import static blackjack.DealerTest.RANDOM;
+import currency.CurrencyAmount;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+import playingcards.CardStream;
+import playingcards.Rank;
+
+/**
+ * Tests of the OutcomeResolver class.
+ * @author Alonso del Arte
+ */
+public class OutcomeResolverTest {
+    
+    private static final OutcomeResolver DEFAULT_RESOLVER 
+            = new OutcomeResolver();
+    
+    private static Hand makeNatural() {
+        Hand hand = new Hand(HandTest.DEFAULT_WAGER);
+        hand.add(CardStream.giveCard(Rank.ACE));
+        hand.add(CardStream.giveCard(Rank.KING));
+        return hand;
+    }
+    
+    private static Hand makeHand(Rank... ranks) {
+        Hand hand = new Hand(HandTest.DEFAULT_WAGER);
+        for (Rank rank : ranks) {
+            hand.add(CardStream.giveCard(rank));
+        }
+        return hand;
+    }
+    
+    @Test
+    public void testDefaultResolverDoesNotPushOn22() {
+        String msg = "Default resolver should treat dealer's 22 as bust";
+        assert !DEFAULT_RESOLVER.dealerPushesOn22() : msg;
+    }
+    
+    @Test
+    public void testNaturalBlackjack() {
+        int dealerValue = RANDOM.nextInt(10) + 17;
+        OutcomeResolver.Resolution resolution 
+                = DEFAULT_RESOLVER.resolve(21, true, dealerValue, false);
+        String msg = "Natural blackjack against dealer's " + dealerValue;
+        assertEquals(msg, Wager.Outcome.NATURAL_BLACKJACK, 
+                resolution.getOutcome());
+        assertEquals(3, resolution.getNumerator());
+        assertEquals(2, resolution.getDenominator());
+    }
+    
+    @Test
+    public void testNaturalBlackjackSixToFive() {
+        OutcomeResolver resolver = new OutcomeResolver(6, 5, false);
+        OutcomeResolver.Resolution resolution = resolver.resolve(21, true, 20, 
+                false);
+        assertEquals(Wager.Outcome.NATURAL_BLACKJACK, resolution.getOutcome());
+        assertEquals(6, resolution.getNumerator());
+        assertEquals(5, resolution.getDenominator());
+    }
+    
+    @Test
+    public void testNaturalAgainstNaturalIsStandoff() {
+        OutcomeResolver.Resolution resolution 
+                = DEFAULT_RESOLVER.resolve(21, true, 21, true);
+        assertEquals(Wager.Outcome.STANDOFF, resolution.getOutcome());
+        assertEquals(0, resolution.getNumerator());
+    }
+    
+    @Test
+    public void testDealerNaturalBeatsAccumulatedBlackjack() {
+        OutcomeResolver.Resolution resolution 
+                = DEFAULT_RESOLVER.resolve(21, false, 21, true);
+        assertEquals(Wager.Outcome.LOWER_SCORE, resolution.getOutcome());
+        assertEquals(-1, resolution.getNumerator());
+    }
+    
+    @Test
+    public void testAccumulatedBlackjack() {
+        int dealerValue = RANDOM.nextInt(4) + 17;
+        OutcomeResolver.Resolution resolution 
+                = DEFAULT_RESOLVER.resolve(21, false, dealerValue, false);
+        String msg = "Accumulated blackjack against dealer's " + dealerValue;
+        assertEquals(msg, Wager.Outcome.BLACKJACK, resolution.getOutcome());
+    }
+    
+    @Test
+    public void testAccumulatedBlackjackAgainstDealer21IsStandoff() {
+        OutcomeResolver.Resolution resolution 
+                = DEFAULT_RESOLVER.resolve(21, false, 21, false);
+        assertEquals(Wager.Outcome.STANDOFF, resolution.getOutcome());
+    }
+    
+    @Test
+    public void testBustEvenIfDealerBusts() {
+        int playerValue = RANDOM.nextInt(9) + 22;
+        int dealerValue = RANDOM.nextInt(9) + 22;
+        OutcomeResolver.Resolution resolution 
+                = DEFAULT_RESOLVER.resolve(playerValue, false, dealerValue, 
+                        false);
+        String msg = "Player's " + playerValue + " against dealer's " 
+                + dealerValue;
+        assertEquals(msg, Wager.Outcome.BUST, resolution.getOutcome());
+        assertEquals(-1, resolution.getNumerator());
+    }
+    
+    @Test
+    public void testBetterScore() {
+        for (int dealerValue = 17; dealerValue < 20; dealerValue++) {
+            for (int playerValue = dealerValue + 1; playerValue < 21;
+                    playerValue++) {
+                OutcomeResolver.Resolution resolution = DEFAULT_RESOLVER 
+                        .resolve(playerValue, false, dealerValue, false);
+                String msg = "Player's " + playerValue + " against dealer's " 
+                        + dealerValue;
+                assertEquals(msg, Wager.Outcome.BETTER_SCORE, 
+                        resolution.getOutcome());
+                assertEquals(1, resolution.getNumerator());
+                assertEquals(1, resolution.getDenominator());
+            }
+        }
+    }
+    
+    @Test
+    public void testDealerBustGivesBetterScore() {
+        int playerValue = RANDOM.nextInt(16) + 4;
+        int dealerValue = RANDOM.nextInt(9) + 22;
+        OutcomeResolver.Resolution resolution 
+                = DEFAULT_RESOLVER.resolve(playerValue, false, dealerValue, 
+                        false);
+        String msg = "Player's " + playerValue + " against dealer's " 
+                + dealerValue;
+        assertEquals(msg, Wager.Outcome.BETTER_SCORE, resolution.getOutcome());
+    }
+    
+    @Test
+    public void testStandoff() {
+        for (int value = 17; value < 21; value++) {
+            OutcomeResolver.Resolution resolution 
+                    = DEFAULT_RESOLVER.resolve(value, false, value, false);
+            String msg = "Player's " + value + " against dealer's " + value;
+            assertEquals(msg, Wager.Outcome.STANDOFF, resolution.getOutcome());
+        }
+    }
+    
+    @Test
+    public void testLowerScore() {
+        int dealerValue = RANDOM.nextInt(4) + 17;
+        int playerValue = RANDOM.nextInt(dealerValue - 4) + 4;
+        OutcomeResolver.Resolution resolution 
+                = DEFAULT_RESOLVER.resolve(playerValue, false, dealerValue, 
+                        false);
+        String msg = "Player's " + playerValue + " against dealer's " 
+                + dealerValue;
+        assertEquals(msg, Wager.Outcome.LOWER_SCORE, resolution.getOutcome());
+    }
+    
+    @Test
+    public void testDealer22IsStandoffWhenRulesSaySo() {
+        OutcomeResolver resolver = new OutcomeResolver(1, 1, true);
+        assert resolver.dealerPushesOn22() : "Resolver should push on 22";
+        int playerValue = RANDOM.nextInt(17) + 4;
+        OutcomeResolver.Resolution resolution = resolver.resolve(playerValue, 
+                false, 22, false);
+        String msg = "Player's " + playerValue + " against dealer's 22";
+        assertEquals(msg, Wager.Outcome.STANDOFF, resolution.getOutcome());
+        resolution = resolver.resolve(playerValue, false, 23, false);
+        msg = "Player's " + playerValue + " against dealer's 23";
+        assertEquals(msg, Wager.Outcome.BETTER_SCORE, resolution.getOutcome());
+    }
+    
+    @Test
+    public void testSameOutcomeGivesSameResolutionObject() {
+        OutcomeResolver.Resolution expected 
+                = DEFAULT_RESOLVER.resolve(20, false, 18, false);
+        OutcomeResolver.Resolution actual 
+                = DEFAULT_RESOLVER.resolve(19, false, 17, false);
+        assertSame(expected, actual);
+    }
+    
+    /**
+     * Test of the resolve function, of the OutcomeResolver class, with hands 
+     * rather than values.
+     */
+    @Test
+    public void testResolveHands() {
+        System.out.println("resolve");
+        Hand playerHand = makeNatural();
+        Hand dealerHand = makeHand(Rank.TEN, Rank.SEVEN);
+        OutcomeResolver.Resolution resolution 
+                = DEFAULT_RESOLVER.resolve(playerHand, dealerHand);
+        assertEquals(Wager.Outcome.NATURAL_BLACKJACK, resolution.getOutcome());
+        playerHand = makeHand(Rank.SEVEN, Rank.SEVEN, Rank.SEVEN);
+        dealerHand = makeNatural();
+        resolution = DEFAULT_RESOLVER.resolve(playerHand, dealerHand);
+        assertEquals(Wager.Outcome.LOWER_SCORE, resolution.getOutcome());
+        playerHand = makeHand(Rank.TEN, Rank.NINE);
+        dealerHand = makeHand(Rank.QUEEN, Rank.SIX, Rank.EIGHT);
+        resolution = DEFAULT_RESOLVER.resolve(playerHand, dealerHand);
+        assertEquals(Wager.Outcome.BETTER_SCORE, resolution.getOutcome());
+    }
+    
+    @Test
+    public void testApply() {
+        int cents = RANDOM.nextInt(Short.MAX_VALUE) + 1;
+        CurrencyAmount amount = new CurrencyAmount(cents, WagerTest.DOLLARS);
+        OutcomeResolver.Resolution resolution 
+                = DEFAULT_RESOLVER.resolve(21, true, 19, false);
+        CurrencyAmount expected = amount.times(3).divides(2);
+        CurrencyAmount actual = resolution.apply(amount);
+        assertEquals(expected, actual);
+        resolution = DEFAULT_RESOLVER.resolve(25, false, 19, false);
+        expected = amount.negate();
+        actual = resolution.apply(amount);
+        assertEquals(expected, actual);
+    }
+    
+    @Test
+    public void testResolveRejectsNaturalFlagWithWrongValue() {
+        int value = RANDOM.nextInt(17) + 4;
+        String msg = "Natural flag with value " + value 
+                + " should cause exception";
+        Throwable t = assertThrows(() -> {
+            OutcomeResolver.Resolution badResolution 
+                    = DEFAULT_RESOLVER.resolve(value, true, 18, false);
+            System.out.println(msg + ", not given " + badResolution.toString());
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testResolveRejectsNegativeValue() {
+        int value = -RANDOM.nextInt(128) - 1;
+        String msg = "Value " + value + " should cause exception";
+        Throwable t = assertThrows(() -> {
+            OutcomeResolver.Resolution badResolution 
+                    = DEFAULT_RESOLVER.resolve(value, false, 18, false);
+            System.out.println(msg + ", not given " + badResolution.toString());
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testConstructorRejectsInvalidNaturalPayout() {
+        int denominator = RANDOM.nextInt(5) + 1;
+        String msg = "Natural payout 0:" + denominator 
+                + " should cause exception";
+        Throwable t = assertThrows(() -> {
+            OutcomeResolver badResolver = new OutcomeResolver(0, denominator, 
+                    false);
+            System.out.println(msg + ", not created " + badResolver.toString());
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package blackjack;
+
+import static blackjack.DealerTest.RANDOM;
+import currency.CurrencyAmount;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+/**
+ * Tests of the PayoutRatio class.
+ * @author Alonso del Arte
+ */
+public class PayoutRatioTest {
+    
+    /**
+     * Test of the getNumerator function, of the PayoutRatio class.
+     */
+    @Test
+    public void testGetNumerator() {
+        System.out.println("getNumerator");
+        assertEquals(3, PayoutRatio.THREE_TO_TWO.getNumerator());
+        assertEquals(-1, PayoutRatio.SURRENDER_HALF.getNumerator());
+    }
+    
+    /**
+     * Test of the getDenominator function, of the PayoutRatio class.
+     */
+    @Test
+    public void testGetDenominator() {
+        System.out.println("getDenominator");
+        assertEquals(5, PayoutRatio.SIX_TO_FIVE.getDenominator());
+        assertEquals(2, PayoutRatio.SURRENDER_HALF.getDenominator());
+    }
+    
+    @Test
+    public void testConstructorReducesToLowestTerms() {
+        int multiplier = RANDOM.nextInt(16) + 2;
+        PayoutRatio ratio = new PayoutRatio(6 * multiplier, 5 * multiplier);
+        assertEquals(PayoutRatio.SIX_TO_FIVE, ratio);
+        ratio = new PayoutRatio(-multiplier, 2 * multiplier);
+        assertEquals(PayoutRatio.SURRENDER_HALF, ratio);
+        ratio = new PayoutRatio(0, multiplier);
+        assertEquals(PayoutRatio.PUSH, ratio);
+    }
+    
+    /**
+     * Test of the divide function, of the PayoutRatio class. The result should 
+     * match what {@code BigDecimal} gives for every rounding mode except 
+     * {@code RoundingMode.UNNECESSARY}.
+     */
+    @Test
+    public void testDivide() {
+        System.out.println("divide");
+        for (RoundingMode mode : RoundingMode.values()) {
+            if (mode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            for (long dividend = -25; dividend < 26; dividend++) {
+                for (long divisor = 1; divisor < 7; divisor++) {
+                    long expected = BigDecimal.valueOf(dividend) 
+                            .divide(BigDecimal.valueOf(divisor), 0, mode) 
+                            .longValueExact();
+                    long actual = PayoutRatio.divide(dividend, divisor, mode);
+                    String message = dividend + " divided by " + divisor 
+                            + " rounded " + mode.toString();
+                    assertEquals(message, expected, actual);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testDivideUnnecessaryExact() {
+        long divisor = RANDOM.nextInt(16) + 1;
+        long expected = RANDOM.nextInt(1024) - 512;
+        long actual = PayoutRatio.divide(expected * divisor, divisor, 
+                RoundingMode.UNNECESSARY);
+        assertEquals(expected, actual);
+    }
+    
+    @Test
+    public void testDivideUnnecessaryInexact() {
+        long dividend = 2 * RANDOM.nextInt(1024) + 1;
+        String msg = "Dividing " + dividend 
+                + " by 2 without rounding should cause exception";
+        Throwable t = assertThrows(() -> {
+            long badResult = PayoutRatio.divide(dividend, 2, 
+                    RoundingMode.UNNECESSARY);
+            System.out.println(msg + ", not given " + badResult);
+        }, ArithmeticException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    /**
+     * Test of the applyTo function, of the PayoutRatio class.
+     */
+    @Test
+    public void testApplyTo() {
+        System.out.println("applyTo");
+        assertEquals(3757, PayoutRatio.THREE_TO_TWO.applyTo(2505, 
+                RoundingMode.FLOOR));
+        assertEquals(3758, PayoutRatio.THREE_TO_TWO.applyTo(2505, 
+                RoundingMode.HALF_EVEN));
+        assertEquals(-1253, PayoutRatio.SURRENDER_HALF.applyTo(2505, 
+                RoundingMode.FLOOR));
+        assertEquals(-1252, PayoutRatio.SURRENDER_HALF.applyTo(2505, 
+                RoundingMode.DOWN));
+    }
+    
+    @Test
+    public void testApplyToCurrencyAmount() {
+        int cents = RANDOM.nextInt(Short.MAX_VALUE) + 1;
+        CurrencyAmount amount = new CurrencyAmount(cents, WagerTest.DOLLARS);
+        CurrencyAmount expected = amount.times(6).divides(5);
+        CurrencyAmount actual = PayoutRatio.SIX_TO_FIVE.applyTo(amount, 
+                RoundingMode.FLOOR);
+        assertEquals(expected, actual);
+    }
+    
+    @Test
+    public void testApplyToOverflow() {
+        long cents = Long.MAX_VALUE / 2 + RANDOM.nextInt(1024);
+        String msg = "Applying 3:2 to " + cents + " should cause exception";
+        Throwable t = assertThrows(() -> {
+            long badResult = PayoutRatio.THREE_TO_TWO.applyTo(cents, 
+                    RoundingMode.FLOOR);
+            System.out.println(msg + ", not given " + badResult);
+        }, ArithmeticException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    /**
+     * Test of the toString function, of the PayoutRatio class.
+     */
+    @Test
+    public void testToString() {
+        System.out.println("toString");
+        assertEquals("3:2", PayoutRatio.THREE_TO_TWO.toString());
+        assertEquals("-1:2", PayoutRatio.SURRENDER_HALF.toString());
+    }
+    
+    /**
+     * Test of the equals function, of the PayoutRatio class.
+     */
+    @Test
+    public void testEquals() {
+        System.out.println("equals");
+        PayoutRatio someRatio = new PayoutRatio(3, 2);
+        PayoutRatio sameRatio = new PayoutRatio(3, 2);
+        assertEquals(someRatio, sameRatio);
+        assertNotEquals(someRatio, PayoutRatio.SIX_TO_FIVE);
+        assertNotEquals(someRatio, null);
+        assertNotEquals(someRatio, "3:2");
+    }
+    
+    /**
+     * Test of the hashCode function, of the PayoutRatio class.
+     */
+    @Test
+    public void testHashCode() {
+        System.out.println("hashCode");
+        PayoutRatio[] ratios = {PayoutRatio.THREE_TO_TWO, 
+            PayoutRatio.SIX_TO_FIVE, PayoutRatio.ONE_TO_ONE, 
+            PayoutRatio.TWO_TO_ONE, PayoutRatio.PUSH, 
+            PayoutRatio.SURRENDER_HALF, PayoutRatio.LOSS};
+        Set<Integer> hashes = new HashSet<>();
+        for (PayoutRatio ratio : ratios) {
+            hashes.add(ratio.hashCode());
+            PayoutRatio same = new PayoutRatio(ratio.getNumerator(), 
+                    ratio.getDenominator());
+            assertEquals(ratio.hashCode(), same.hashCode());
+        }
+        assertEquals(ratios.length, hashes.size());
+    }
+    
+    @Test
+    public void testConstructorRejectsNonPositiveDenominator() {
+        int denominator = -RANDOM.nextInt(16);
+        String msg = "Denominator " + denominator + " should cause exception";
+        Throwable t = assertThrows(() -> {
+            PayoutRatio badRatio = new PayoutRatio(1, denominator);
+            System.out.println(msg + ", not created " + badRatio.toString());
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+}
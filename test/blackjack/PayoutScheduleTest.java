@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package blackjack;
+
+import static blackjack.DealerTest.RANDOM;
+import currency.CurrencyAmount;
+
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+/**
+ * Tests of the PayoutSchedule class.
+ * @author Alonso del Arte
+ */
+public class PayoutScheduleTest {
+    
+    private static final String PERFECT_PAIRS = "Perfect Pairs";
+    
+    private static final Map<String, PayoutRatio> PERFECT_PAIRS_TABLE 
+            = Map.of("Mixed pair", new PayoutRatio(6, 1), 
+                    "Colored pair", new PayoutRatio(12, 1), 
+                    "Perfect pair", new PayoutRatio(25, 1));
+    
+    private static PayoutSchedule makeScheduleWithSideBet() {
+        return new PayoutSchedule(Map.of(), Map.of(PERFECT_PAIRS, 
+                PERFECT_PAIRS_TABLE), RoundingMode.HALF_EVEN);
+    }
+    
+    /**
+     * Test of the getRoundingMode function, of the PayoutSchedule class.
+     */
+    @Test
+    public void testGetRoundingMode() {
+        System.out.println("getRoundingMode");
+        assertEquals(PayoutSchedule.DEFAULT_ROUNDING, 
+                PayoutSchedule.STANDARD.getRoundingMode());
+        assertEquals(RoundingMode.HALF_EVEN, 
+                makeScheduleWithSideBet().getRoundingMode());
+    }
+    
+    /**
+     * Test of the getRatio function, of the PayoutSchedule class.
+     */
+    @Test
+    public void testGetRatio() {
+        System.out.println("getRatio");
+        for (Wager.Outcome outcome : Wager.Outcome.values()) {
+            String message = "Standard ratio for " + outcome.toString();
+            assertEquals(message, outcome.standardPayout, 
+                    PayoutSchedule.STANDARD.getRatio(outcome));
+        }
+    }
+    
+    @Test
+    public void testGetRatioOverridden() {
+        PayoutSchedule schedule = new PayoutSchedule(PayoutRatio.SIX_TO_FIVE, 
+                PayoutSchedule.DEFAULT_ROUNDING);
+        assertEquals(PayoutRatio.SIX_TO_FIVE, 
+                schedule.getRatio(Wager.Outcome.NATURAL_BLACKJACK));
+        assertEquals(PayoutRatio.ONE_TO_ONE, 
+                schedule.getRatio(Wager.Outcome.BETTER_SCORE));
+    }
+    
+    /**
+     * Test of the settle function, of the PayoutSchedule class.
+     */
+    @Test
+    public void testSettle() {
+        System.out.println("settle");
+        long cents = 2 * RANDOM.nextInt(Short.MAX_VALUE) + 1;
+        assertEquals(cents * 3 / 2, PayoutSchedule.STANDARD.settle(cents, 
+                Wager.Outcome.NATURAL_BLACKJACK));
+        assertEquals(2 * cents, PayoutSchedule.STANDARD.settle(cents, 
+                Wager.Outcome.INSURANCE_WON));
+        assertEquals(0, PayoutSchedule.STANDARD.settle(cents, 
+                Wager.Outcome.STANDOFF));
+        assertEquals(-(cents + 1) / 2, PayoutSchedule.STANDARD.settle(cents, 
+                Wager.Outcome.SURRENDER));
+        assertEquals(-cents, PayoutSchedule.STANDARD.settle(cents, 
+                Wager.Outcome.BUST));
+    }
+    
+    @Test
+    public void testSettleCurrencyAmount() {
+        int cents = RANDOM.nextInt(Short.MAX_VALUE) + 1;
+        CurrencyAmount amount = new CurrencyAmount(cents, WagerTest.DOLLARS);
+        CurrencyAmount expected = amount.negate();
+        CurrencyAmount actual = PayoutSchedule.STANDARD.settle(amount, 
+                Wager.Outcome.LOWER_SCORE);
+        assertEquals(expected, actual);
+    }
+    
+    /**
+     * Test of the getSideBetRatio function, of the PayoutSchedule class.
+     */
+    @Test
+    public void testGetSideBetRatio() {
+        System.out.println("getSideBetRatio");
+        PayoutSchedule schedule = makeScheduleWithSideBet();
+        for (Map.Entry<String, PayoutRatio> entry 
+                : PERFECT_PAIRS_TABLE.entrySet()) {
+            assertEquals(entry.getValue(), 
+                    schedule.getSideBetRatio(PERFECT_PAIRS, entry.getKey()));
+        }
+        assertEquals(PayoutRatio.LOSS, 
+                schedule.getSideBetRatio(PERFECT_PAIRS, "No pair"));
+    }
+    
+    @Test
+    public void testGetSideBetRatioUnknownBet() {
+        String betName = "21+3";
+        String msg = "Asking for side bet " + betName 
+                + " not in schedule should cause exception";
+        Throwable t = assertThrows(() -> {
+            PayoutRatio badRatio = PayoutSchedule.STANDARD 
+                    .getSideBetRatio(betName, "Flush");
+            System.out.println(msg + ", not given " + badRatio.toString());
+        }, NoSuchElementException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    /**
+     * Test of the settleSideBet function, of the PayoutSchedule class.
+     */
+    @Test
+    public void testSettleSideBet() {
+        System.out.println("settleSideBet");
+        PayoutSchedule schedule = makeScheduleWithSideBet();
+        long cents = RANDOM.nextInt(Short.MAX_VALUE) + 1;
+        assertEquals(12 * cents, schedule.settleSideBet(cents, PERFECT_PAIRS, 
+                "Colored pair"));
+        assertEquals(-cents, schedule.settleSideBet(cents, PERFECT_PAIRS, 
+                "No pair"));
+    }
+    
+    /**
+     * Test of the precompute function, of the PayoutSchedule class.
+     */
+    @Test
+    public void testPrecompute() {
+        System.out.println("precompute");
+        long unit = 500;
+        int count = 100;
+        PayoutSchedule schedule = new PayoutSchedule(PayoutRatio.SIX_TO_FIVE, 
+                RoundingMode.HALF_UP);
+        PayoutSchedule.Buckets buckets = schedule.precompute(unit, count);
+        for (long cents = 1; cents <= unit * count + 3 * unit; cents += 37) {
+            for (Wager.Outcome outcome : Wager.Outcome.values()) {
+                String message = "Settlement of " + cents + " on " 
+                        + outcome.toString();
+                assertEquals(message, schedule.settle(cents, outcome), 
+                        buckets.settle(cents, outcome));
+            }
+        }
+        for (int i = 1; i <= count + 2; i++) {
+            long cents = i * unit;
+            assertEquals(schedule.settle(cents, Wager.Outcome.SURRENDER), 
+                    buckets.settle(cents, Wager.Outcome.SURRENDER));
+        }
+    }
+    
+    @Test
+    public void testPrecomputeRejectsNonPositiveUnit() {
+        long unit = -RANDOM.nextInt(1024);
+        String msg = "Unit " + unit + " should cause exception";
+        Throwable t = assertThrows(() -> {
+            PayoutSchedule.Buckets badBuckets 
+                    = PayoutSchedule.STANDARD.precompute(unit, 10);
+            System.out.println(msg + ", not created " + badBuckets.toString());
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testConstructorRejectsNullRounding() {
+        String msg = "Null rounding mode should cause exception";
+        Throwable t = assertThrows(() -> {
+            PayoutSchedule badSchedule = new PayoutSchedule(Map.of(), 
+                    Map.of(), null);
+            System.out.println(msg + ", not created " 
+                    + badSchedule.toString());
+        }, NullPointerException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+}
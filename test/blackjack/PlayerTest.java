@@ -16,6 +16,7 @@
  */
 package blackjack;
 
+import currency.CurrencyAccumulator;
 import currency.CurrencyAmount;
 
 import java.util.ArrayList;
@@ -58,6 +59,38 @@ public class PlayerTest {
         assertEquals(expected, actual);
     }
     
+    /**
+     * Test of the settle procedure, of the Player class.
+     */
+    @Test
+    public void testSettle() {
+        System.out.println("settle");
+        Player player = getPlayer();
+        long wagerCents = DealerTest.RANDOM.nextInt(10000) + 1;
+        long win = PayoutSchedule.STANDARD.settle(wagerCents, 
+                Wager.Outcome.NATURAL_BLACKJACK);
+        long loss = PayoutSchedule.STANDARD.settle(wagerCents, 
+                Wager.Outcome.BUST);
+        player.settle(win);
+        player.settle(loss);
+        CurrencyAmount expected = new CurrencyAmount(
+                DEFAULT_INITIAL_BANKROLL.getAmountInCents() + win + loss, 
+                WagerTest.DOLLARS);
+        CurrencyAmount actual = player.getBalance();
+        assertEquals(expected, actual);
+    }
+    
+    @Test
+    public void testAddBalanceTo() {
+        Player player = getPlayer();
+        long cents = DealerTest.RANDOM.nextInt(10000);
+        CurrencyAccumulator total = new CurrencyAccumulator(WagerTest.DOLLARS)
+                .add(cents);
+        player.addBalanceTo(total);
+        long expected = cents + DEFAULT_INITIAL_BANKROLL.getAmountInCents();
+        assertEquals(expected, total.getAmountInCents());
+    }
+    
     @Test
     public void testNoAddNegativeToBankroll() {
         Player player = getPlayer();
@@ -207,6 +240,20 @@ public class PlayerTest {
         assertEquals(expected, actual);
     }
     
+    /**
+     * Test of the restore function, of the Player class.
+     */
+    @Test
+    public void testRestore() {
+        System.out.println("restore");
+        long cents = DealerTest.RANDOM.nextInt(100000) - 50000;
+        CurrencyAmount expected = new CurrencyAmount(cents, WagerTest.DOLLARS);
+        Player player = Player.restore(DEFAULT_PLAYER_NAME, expected);
+        assertEquals(DEFAULT_PLAYER_NAME, player.getName());
+        assertEquals(expected, player.getBalance());
+        assertEquals(0, player.getActiveHandsCount());
+    }
+    
     @Test
     public void testConstructorRejectsNullBankroll() {
         String msg = "Null bankroll should cause NPE";
@@ -0,0 +1,331 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package blackjack;
+
+import currency.CurrencyAmount;
+import playingcards.CardDeck;
+import playingcards.MultiDeckCardDispenser;
+
+import static blackjack.DealerTest.RANDOM;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+/**
+ * Tests of the RoundReplayer class.
+ * @author Alonso del Arte
+ */
+public class RoundReplayerTest {
+    
+    private static final int TABLE = 7;
+    
+    private static final int OTHER_TABLE = 8;
+    
+    private static final int NUMBER_OF_DECKS = 6;
+    
+    private static final int PLASTIC_CARD_POS = 75;
+    
+    private static final Decision[][] SAFE_DECISIONS = {{}, {Decision.STAND}, 
+        {Decision.SURRENDER}};
+    
+    private Path path;
+    
+    @Before
+    public void setUp() throws IOException {
+        this.path = Files.createTempFile("replay", ".jrnl");
+        Files.delete(this.path);
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.path);
+    }
+    
+    private static CurrencyAmount dollars(long cents) {
+        return new CurrencyAmount(cents, WagerTest.DOLLARS);
+    }
+    
+    /**
+     * Plays a shift at the table with decisions that can't fail, such as 
+     * standing, and records it in a hand history and a journal. The journal 
+     * also gets records for another table in between.
+     * @param seed The seed of the shoe.
+     * @param rounds How many rounds to play.
+     * @param tamperedRound The round for which to record the wrong settlement 
+     * for the first hand in the journal, 0 for none.
+     * @param journal The journal to append settlements to.
+     * @return The hand history.
+     */
+    private static byte[] playShift(long seed, int rounds, int tamperedRound, 
+            SettlementJournal journal) throws IOException {
+        RoundReplayer replayer = new RoundReplayer(new MultiDeckCardDispenser( 
+                NUMBER_OF_DECKS, PLASTIC_CARD_POS, seed), 
+                new OutcomeResolver());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (HandHistory.Writer writer = new HandHistory.Writer(out)) {
+            for (int round = 1; round <= rounds; round++) {
+                int count = RANDOM.nextInt(1, 4);
+                CurrencyAmount[] wagers = new CurrencyAmount[count];
+                Decision[][] decisions = new Decision[count][];
+                for (int i = 0; i < count; i++) {
+                    wagers[i] = dollars(100 * RANDOM.nextInt(5, 100));
+                    decisions[i] = SAFE_DECISIONS[RANDOM 
+                            .nextInt(SAFE_DECISIONS.length)];
+                }
+                replayer.replay(wagers, decisions);
+                for (int i = 0; i < count; i++) {
+                    writer.write(TABLE, round, i, replayer.getPlayerHand(i), 
+                            replayer.getDealerHand(), replayer.getOutcome(i), 
+                            replayer.getSettlementInCents(i), decisions[i]);
+                    long cents = replayer.getSettlementInCents(i);
+                    if (round == tamperedRound && i == 0) {
+                        cents += 100L;
+                    }
+                    journal.append(TABLE, round, i, replayer.getOutcome(i), 
+                            cents, WagerTest.DOLLARS);
+                }
+                journal.append(OTHER_TABLE, round, 0, Wager.Outcome.BUST, 
+                        -500L, WagerTest.DOLLARS);
+            }
+        }
+        return out.toByteArray();
+    }
+    
+    /**
+     * Test of the replay function, of the RoundReplayer class.
+     */
+    @Test
+    public void testReplay() {
+        System.out.println("replay");
+        RoundReplayer replayer = new RoundReplayer(new CardDeck(), 
+                new OutcomeResolver());
+        CurrencyAmount[] wagers = {dollars(1000)};
+        Decision[][] decisions = {{Decision.STAND}};
+        int expected = 1;
+        int actual = replayer.replay(wagers, decisions);
+        assertEquals(expected, actual);
+        assertEquals("Player's A, 3 should be a soft 14", 14, 
+                replayer.getPlayerHand(0).cardsValue());
+        assertEquals("Dealer's 2, 4 should draw 5, 6", 4, 
+                replayer.getDealerHand().inspectCards().length);
+        assertEquals(17, replayer.getDealerHand().cardsValue());
+        assertEquals(Wager.Outcome.LOWER_SCORE, replayer.getOutcome(0));
+        assertEquals(-1000L, replayer.getSettlementInCents(0));
+    }
+    
+    @Test
+    public void testReplayDoubleDownAndHit() {
+        RoundReplayer replayer = new RoundReplayer(new CardDeck(), 
+                new OutcomeResolver());
+        CurrencyAmount[] wagers = {dollars(1000), dollars(2500)};
+        Decision[][] decisions = {{Decision.DOUBLE_DOWN}, 
+            {Decision.HIT, Decision.STAND}};
+        replayer.replay(wagers, decisions);
+        assertEquals("First hand A, 4, 7 should be 12", 12, 
+                replayer.getPlayerHand(0).cardsValue());
+        assertEquals("Second hand 2, 5, 8 should be 15", 15, 
+                replayer.getPlayerHand(1).cardsValue());
+        assertEquals("Dealer's 3, 6, 9 should be 18", 18, 
+                replayer.getDealerHand().cardsValue());
+        assertEquals(Wager.Outcome.LOWER_SCORE, replayer.getOutcome(0));
+        assertEquals(-2000L, replayer.getSettlementInCents(0));
+        assertEquals(Wager.Outcome.LOWER_SCORE, replayer.getOutcome(1));
+        assertEquals(-2500L, replayer.getSettlementInCents(1));
+    }
+    
+    @Test
+    public void testReplaySurrender() {
+        RoundReplayer replayer = new RoundReplayer(new CardDeck(), 
+                new OutcomeResolver());
+        CurrencyAmount[] wagers = {dollars(1000)};
+        Decision[][] decisions = {{Decision.SURRENDER}};
+        replayer.replay(wagers, decisions);
+        assertEquals(Wager.Outcome.SURRENDER, replayer.getOutcome(0));
+        assertEquals(-500L, replayer.getSettlementInCents(0));
+    }
+    
+    @Test
+    public void testReplayIsDeterministic() {
+        long seed = RANDOM.nextLong();
+        RoundReplayer replayer = new RoundReplayer(new MultiDeckCardDispenser( 
+                NUMBER_OF_DECKS, PLASTIC_CARD_POS, seed), 
+                new OutcomeResolver());
+        RoundReplayer sameSeedReplayer = new RoundReplayer( 
+                new MultiDeckCardDispenser(NUMBER_OF_DECKS, PLASTIC_CARD_POS, 
+                        seed), new OutcomeResolver());
+        CurrencyAmount[] wagers = {dollars(1000), dollars(500), dollars(2000)};
+        Decision[][] decisions = {{Decision.STAND}, {}, {Decision.SURRENDER}};
+        for (int round = 0; round < 20; round++) {
+            replayer.replay(wagers, decisions);
+            sameSeedReplayer.replay(wagers, decisions);
+            assertArrayEquals(replayer.getDealerHand().inspectCards(), 
+                    sameSeedReplayer.getDealerHand().inspectCards());
+            for (int i = 0; i < wagers.length; i++) {
+                assertArrayEquals(replayer.getPlayerHand(i).inspectCards(), 
+                        sameSeedReplayer.getPlayerHand(i).inspectCards());
+                assertEquals(replayer.getOutcome(i), 
+                        sameSeedReplayer.getOutcome(i));
+                assertEquals(replayer.getSettlementInCents(i), 
+                        sameSeedReplayer.getSettlementInCents(i));
+            }
+        }
+    }
+    
+    @Test
+    public void testReplayRejectsSplit() {
+        RoundReplayer replayer = new RoundReplayer(new CardDeck(), 
+                new OutcomeResolver());
+        CurrencyAmount[] wagers = {dollars(1000)};
+        Decision[][] decisions = {{Decision.SPLIT}};
+        String msg = "Split should be rejected since it's not supported yet";
+        Throwable t = assertThrows(() -> {
+            int count = replayer.replay(wagers, decisions);
+            System.out.println(msg + ", not given count " + count);
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testReplayRejectsDecisionAfterStand() {
+        RoundReplayer replayer = new RoundReplayer(new CardDeck(), 
+                new OutcomeResolver());
+        CurrencyAmount[] wagers = {dollars(1000)};
+        Decision[][] decisions = {{Decision.STAND, Decision.HIT}};
+        String msg = "Hit after stand should be rejected";
+        Throwable t = assertThrows(() -> {
+            int count = replayer.replay(wagers, decisions);
+            System.out.println(msg + ", not given count " + count);
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testReplayRejectsMismatchedDecisions() {
+        RoundReplayer replayer = new RoundReplayer(new CardDeck(), 
+                new OutcomeResolver());
+        CurrencyAmount[] wagers = {dollars(1000), dollars(1000)};
+        Decision[][] decisions = {{Decision.STAND}};
+        String msg = "Fewer decision arrays than wagers should be rejected";
+        Throwable t = assertThrows(() -> {
+            int count = replayer.replay(wagers, decisions);
+            System.out.println(msg + ", not given count " + count);
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testGetOutcomeRejectsInvalidHand() {
+        RoundReplayer replayer = new RoundReplayer(new CardDeck(), 
+                new OutcomeResolver());
+        replayer.replay(new CurrencyAmount[]{dollars(1000)}, 
+                new Decision[][]{{Decision.STAND}});
+        String msg = "Hand index past last hand should be rejected";
+        Throwable t = assertThrows(() -> {
+            Wager.Outcome outcome = replayer.getOutcome(1);
+            System.out.println(msg + ", not given " + outcome);
+        }, IndexOutOfBoundsException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    /**
+     * Test of the audit function, of the RoundReplayer class.
+     */
+    @Test
+    public void testAudit() throws IOException {
+        System.out.println("audit");
+        long seed = RANDOM.nextLong();
+        byte[] history;
+        try (SettlementJournal journal = new SettlementJournal(this.path)) {
+            history = playShift(seed, 20, 0, journal);
+        }
+        RoundReplayer replayer = new RoundReplayer(new MultiDeckCardDispenser( 
+                NUMBER_OF_DECKS, PLASTIC_CARD_POS, seed), 
+                new OutcomeResolver());
+        List<RoundReplayer.Discrepancy> discrepancies;
+        try (HandHistory.Reader reader = new HandHistory.Reader( 
+                new ByteArrayInputStream(history));
+                SettlementJournal.Reader journal 
+                        = SettlementJournal.read(this.path)) {
+            discrepancies = replayer.audit(TABLE, reader, journal);
+        }
+        String msg = "Replay of the same shoe should match the journal, not " 
+                + discrepancies.toString();
+        assert discrepancies.isEmpty() : msg;
+    }
+    
+    @Test
+    public void testAuditFindsDiscrepancies() throws IOException {
+        long seed = RANDOM.nextLong();
+        int tamperedRound = RANDOM.nextInt(1, 11);
+        byte[] history;
+        try (SettlementJournal journal = new SettlementJournal(this.path)) {
+            history = playShift(seed, 10, tamperedRound, journal);
+            journal.append(TABLE, 11L, 0, Wager.Outcome.NATURAL_BLACKJACK, 
+                    1500L, WagerTest.DOLLARS);
+        }
+        RoundReplayer replayer = new RoundReplayer(new MultiDeckCardDispenser( 
+                NUMBER_OF_DECKS, PLASTIC_CARD_POS, seed), 
+                new OutcomeResolver());
+        List<RoundReplayer.Discrepancy> discrepancies;
+        try (HandHistory.Reader reader = new HandHistory.Reader( 
+                new ByteArrayInputStream(history));
+                SettlementJournal.Reader journal 
+                        = SettlementJournal.read(this.path)) {
+            discrepancies = replayer.audit(TABLE, reader, journal);
+        }
+        for (RoundReplayer.Discrepancy discrepancy : discrepancies) {
+            System.out.println(discrepancy.toString());
+        }
+        assertEquals(2, discrepancies.size());
+        RoundReplayer.Discrepancy first = discrepancies.get(0);
+        assertEquals(tamperedRound, first.getRound());
+        assertEquals(0, first.getHand());
+        assertEquals(first.getReplayedOutcome(), first.getJournalOutcome());
+        assertEquals(first.getReplayedSettlementInCents() + 100L, 
+                first.getJournalSettlementInCents());
+        RoundReplayer.Discrepancy last = discrepancies.get(1);
+        assertEquals(11L, last.getRound());
+        assertEquals(0, last.getHand());
+        assertNull(last.getReplayedOutcome());
+        assertEquals(Wager.Outcome.NATURAL_BLACKJACK, last.getJournalOutcome());
+        assertEquals(1500L, last.getJournalSettlementInCents());
+    }
+    
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package blackjack;
+
+import currency.CurrencyAmount;
+
+import static blackjack.DealerTest.RANDOM;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Currency;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+/**
+ * Tests of the SettlementJournal class.
+ * @author Alonso del Arte
+ */
+public class SettlementJournalTest {
+    
+    private static final Currency EUROS = Currency.getInstance("EUR");
+    
+    private static final Wager.Outcome[] OUTCOMES = Wager.Outcome.values();
+    
+    private Path path;
+    
+    @Before
+    public void setUp() throws IOException {
+        this.path = Files.createTempFile("settlements", ".jrnl");
+        Files.delete(this.path);
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.path);
+    }
+    
+    private static void appendRecords(SettlementJournal journal, long[] amounts, 
+            int firstRound) throws IOException {
+        for (int i = 0; i < amounts.length; i++) {
+            Currency currency = (i % 2 == 0) ? WagerTest.DOLLARS : EUROS;
+            journal.append(i % 7, firstRound + i, i % 4, 
+                    OUTCOMES[i % OUTCOMES.length], amounts[i], currency);
+        }
+    }
+    
+    private static long[] makeAmounts(int count) {
+        long[] amounts = new long[count];
+        for (int i = 0; i < count; i++) {
+            amounts[i] = RANDOM.nextInt(20000) - 10000;
+        }
+        return amounts;
+    }
+    
+    private static void assertRecords(SettlementJournal.Reader reader, 
+            long[] amounts, int firstRound) throws IOException {
+        for (int i = 0; i < amounts.length; i++) {
+            String msg = "Journal should have record " + i;
+            assertTrue(msg, reader.next());
+            Currency currency = (i % 2 == 0) ? WagerTest.DOLLARS : EUROS;
+            assertEquals(i % 7, reader.getTable());
+            assertEquals(firstRound + i, reader.getRound());
+            assertEquals(i % 4, reader.getHand());
+            assertEquals(OUTCOMES[i % OUTCOMES.length], reader.getOutcome());
+            assertEquals(amounts[i], reader.getAmountInCents());
+            assertEquals(currency, reader.getCurrency());
+        }
+    }
+    
+    /**
+     * Test of the append function, of the SettlementJournal class.
+     */
+    @Test
+    public void testAppend() throws IOException {
+        System.out.println("append");
+        long[] amounts = makeAmounts(RANDOM.nextInt(64) + 16);
+        try (SettlementJournal journal = new SettlementJournal(this.path)) {
+            appendRecords(journal, amounts, 1);
+            assertEquals(amounts.length, journal.getRecordCount());
+        }
+        try (SettlementJournal.Reader reader 
+                = SettlementJournal.read(this.path)) {
+            assertRecords(reader, amounts, 1);
+            assertFalse("Journal should have no more records", reader.next());
+        }
+    }
+    
+    @Test
+    public void testAppendAcrossRegions() throws IOException {
+        long[] amounts = makeAmounts(RANDOM.nextInt(64) + 40);
+        try (SettlementJournal journal = new SettlementJournal(this.path, 8, 5, 
+                10L)) {
+            appendRecords(journal, amounts, 1);
+        }
+        try (SettlementJournal.Reader reader 
+                = SettlementJournal.read(this.path)) {
+            assertRecords(reader, amounts, 1);
+            assertFalse("Journal should have no more records", reader.next());
+        }
+    }
+    
+    @Test
+    public void testReopenAndAppend() throws IOException {
+        long[] firstAmounts = makeAmounts(RANDOM.nextInt(16) + 8);
+        long[] secondAmounts = makeAmounts(RANDOM.nextInt(16) + 8);
+        try (SettlementJournal journal = new SettlementJournal(this.path, 4, 3, 
+                10L)) {
+            appendRecords(journal, firstAmounts, 1);
+        }
+        int nextRound = firstAmounts.length + 1;
+        try (SettlementJournal journal = new SettlementJournal(this.path, 4, 3, 
+                10L)) {
+            assertEquals(firstAmounts.length, journal.getRecordCount());
+            appendRecords(journal, secondAmounts, nextRound);
+            assertEquals(firstAmounts.length + secondAmounts.length, 
+                    journal.getRecordCount());
+        }
+        try (SettlementJournal.Reader reader 
+                = SettlementJournal.read(this.path)) {
+            assertRecords(reader, firstAmounts, 1);
+            assertRecords(reader, secondAmounts, nextRound);
+            assertFalse("Journal should have no more records", reader.next());
+        }
+    }
+    
+    /**
+     * Test of the getLastRound function, of the SettlementJournal class.
+     */
+    @Test
+    public void testGetLastRound() throws IOException {
+        System.out.println("getLastRound");
+        long[] amounts = makeAmounts(RANDOM.nextInt(16) + 14);
+        int firstRound = RANDOM.nextInt(1000) + 1;
+        try (SettlementJournal journal = new SettlementJournal(this.path)) {
+            assertEquals(0L, journal.getLastRound(0));
+            appendRecords(journal, amounts, firstRound);
+            assertEquals(firstRound + amounts.length - 1, 
+                    journal.getLastRound((amounts.length - 1) % 7));
+        }
+        try (SettlementJournal journal = new SettlementJournal(this.path)) {
+            for (int table = 0; table < 7; table++) {
+                int lastIndex = amounts.length - 1 
+                        - (amounts.length - 1 - table) % 7;
+                assertEquals(firstRound + lastIndex, 
+                        journal.getLastRound(table));
+            }
+            assertEquals(0L, journal.getLastRound(7));
+        }
+    }
+    
+    /**
+     * Test of the getAmount function, of the SettlementJournal.Reader class.
+     */
+    @Test
+    public void testGetAmount() throws IOException {
+        System.out.println("getAmount");
+        int cents = RANDOM.nextInt(10000) + 1;
+        try (SettlementJournal journal = new SettlementJournal(this.path)) {
+            journal.append(1, 1L, 0, Wager.Outcome.BETTER_SCORE, cents, EUROS);
+        }
+        try (SettlementJournal.Reader reader 
+                = SettlementJournal.read(this.path)) {
+            reader.next();
+            CurrencyAmount expected = new CurrencyAmount(cents, EUROS);
+            CurrencyAmount actual = reader.getAmount();
+            assertEquals(expected, actual);
+        }
+    }
+    
+    @Test
+    public void testNoGettersBeforeNext() throws IOException {
+        try (SettlementJournal journal = new SettlementJournal(this.path)) {
+            journal.append(1, 1L, 0, Wager.Outcome.STANDOFF, 0L, EUROS);
+        }
+        try (SettlementJournal.Reader reader 
+                = SettlementJournal.read(this.path)) {
+            String msg = "Should not be able to get table before next()";
+            Throwable t = assertThrows(() -> {
+                int table = reader.getTable();
+                System.out.println(msg + ", not given " + table);
+            }, IllegalStateException.class, msg);
+            String excMsg = t.getMessage();
+            assert excMsg != null : "Exception message should not be null";
+            assert !excMsg.isBlank() : "Exception message should not be blank";
+            System.out.println("\"" + excMsg + "\"");
+        }
+    }
+    
+    /**
+     * Test of the close procedure, of the SettlementJournal class.
+     */
+    @Test
+    public void testClose() throws IOException {
+        System.out.println("close");
+        SettlementJournal journal = new SettlementJournal(this.path);
+        journal.append(1, 1L, 0, Wager.Outcome.BUST, -1000L, WagerTest.DOLLARS);
+        journal.close();
+        journal.close();
+        String msg = "Should not be able to append after closing";
+        Throwable t = assertThrows(() -> {
+            journal.append(1, 2L, 0, Wager.Outcome.BUST, -1000L, 
+                    WagerTest.DOLLARS);
+            System.out.println(msg);
+        }, IllegalStateException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testReadRejectsInvalidHeader() throws IOException {
+        byte[] garbage = new byte[SettlementJournal.RECORD_SIZE * 4];
+        RANDOM.nextBytes(garbage);
+        Files.write(this.path, garbage);
+        String msg = "Should not be able to read file without valid header";
+        Throwable t = assertThrows(() -> {
+            SettlementJournal.Reader reader = SettlementJournal.read(this.path);
+            System.out.println(msg + ", not given " + reader.toString());
+        }, IOException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testConstructorRejectsInvalidHeader() throws IOException {
+        Files.write(this.path, new byte[]{1, 2, 3});
+        String msg = "Should not be able to append to file without header";
+        Throwable t = assertThrows(() -> {
+            SettlementJournal journal = new SettlementJournal(this.path);
+            System.out.println(msg + ", not given " + journal.toString());
+        }, IOException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testConstructorRejectsZeroRegionSize() {
+        String msg = "Should not be able to use region size 0";
+        Throwable t = assertThrows(() -> {
+            SettlementJournal journal = new SettlementJournal(this.path, 0, 
+                    4096, 100L);
+            System.out.println(msg + ", not created " + journal.toString());
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+}
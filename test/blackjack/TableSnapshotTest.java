@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package blackjack;
+
+import currency.CurrencyAmount;
+import currency.CurrencyConverter;
+import currency.ExchangeRateTable;
+import playingcards.CardDeck;
+import playingcards.CardSupplier;
+import playingcards.MultiDeckCardDispenser;
+import playingcards.PlayingCard;
+import playingcards.Rank;
+import playingcards.matchers.RankPairSpec;
+
+import static blackjack.DealerTest.RANDOM;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+/**
+ * Tests of the TableSnapshot class.
+ * @author Alonso del Arte
+ */
+public class TableSnapshotTest {
+    
+    private static final Currency EUROS = Currency.getInstance("EUR");
+    
+    private Path path;
+    
+    @Before
+    public void setUp() throws IOException {
+        this.path = Files.createTempFile("table", ".snap");
+        Files.delete(this.path);
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.path);
+        Files.deleteIfExists(this.path.resolveSibling(this.path.getFileName() 
+                + ".tmp"));
+    }
+    
+    private static Set<RankPairSpec> makePairs() {
+        Set<RankPairSpec> pairs = new HashSet<>();
+        pairs.add(new RankPairSpec(Rank.ACE, Rank.ACE));
+        pairs.add(new RankPairSpec(Rank.EIGHT, Rank.EIGHT));
+        pairs.add(new RankPairSpec(Rank.TEN, Rank.KING));
+        pairs.add(new RankPairSpec(Rank.KING, Rank.KING));
+        return pairs;
+    }
+    
+    private static Player[] makePlayers() {
+        return new Player[]{new Player("Dollar Player", 
+                    new CurrencyAmount(RANDOM.nextInt(100000) + 10000, 
+                            WagerTest.DOLLARS)), 
+            new Player("Euro Player", 
+                    new CurrencyAmount(RANDOM.nextInt(100000) + 10000, EUROS))};
+    }
+    
+    private static void dealHands(Dealer dealer, Player... players) {
+        CardSupplier shoe = dealer.getDispenser();
+        for (Player player : players) {
+            Currency currency = player.getBalance().getCurrency();
+            Hand hand = new Hand(new Wager(new CurrencyAmount(RANDOM 
+                    .nextInt(5000) + 100, currency), RANDOM.nextBoolean()));
+            hand.add(shoe.getNextCard());
+            hand.add(shoe.getNextCard());
+            player.add(hand);
+        }
+    }
+    
+    private static void assertSameHands(Player expected, Player actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getBalance(), actual.getBalance());
+        List<Hand> expHands = expected.getHands();
+        expHands.removeIf(Hand::isSettled);
+        List<Hand> actHands = actual.getHands();
+        assertEquals(expHands.size(), actHands.size());
+        for (int i = 0; i < expHands.size(); i++) {
+            Wager expWager = expHands.get(i).getWager();
+            Wager actWager = actHands.get(i).getWager();
+            assertEquals(expWager.getAmount(), actWager.getAmount());
+            assertEquals(expWager.isInsuranceWager(), 
+                    actWager.isInsuranceWager());
+            assertArrayEquals(expHands.get(i).inspectCards(), 
+                    actHands.get(i).inspectCards());
+        }
+    }
+    
+    private static void assertSameTable(Dealer dealer, Player[] players, 
+            TableSnapshot snapshot) {
+        Dealer restored = snapshot.getDealer();
+        assertEquals(dealer.giveSplittablePairs(), 
+                restored.giveSplittablePairs());
+        assertEquals(dealer.getTableNumber(), restored.getTableNumber());
+        assertEquals(dealer.getRoundNumber(), restored.getRoundNumber());
+        assertEquals(dealer.active(), restored.active());
+        assertEquals(dealer.reportBankroll(), restored.reportBankroll());
+        Player[] restoredPlayers = snapshot.getPlayers();
+        assertEquals(players.length, restoredPlayers.length);
+        for (int i = 0; i < players.length; i++) {
+            assertSameHands(players[i], restoredPlayers[i]);
+        }
+        MultiDeckCardDispenser restoredShoe 
+                = (MultiDeckCardDispenser) restored.getDispenser();
+        for (Player player : restoredPlayers) {
+            for (Hand hand : player.getHands()) {
+                for (PlayingCard card : hand.inspectCards()) {
+                    String msg = "Restored card " + card.toString() 
+                            + " should come from restored shoe";
+                    assert restoredShoe.provenance(card) : msg;
+                }
+            }
+        }
+        CardSupplier shoe = dealer.getDispenser();
+        while (shoe.hasNext()) {
+            assertEquals(shoe.getNextCard(), restoredShoe.getNextCard());
+        }
+        assert !restoredShoe.hasNext() : "Restored shoe should be depleted";
+    }
+    
+    /**
+     * Test of the checkpoint function, of the TableSnapshot.Writer class, and 
+     * the restore function, of the TableSnapshot class.
+     */
+    @Test
+    public void testCheckpointAndRestore() throws IOException {
+        System.out.println("checkpoint/restore");
+        Dealer dealer = new Dealer(makePairs(), 
+                new MultiDeckCardDispenser(2, RANDOM.nextInt(20, 40)));
+        dealer.useJournal(null, RANDOM.nextInt(1, 100));
+        Player[] players = makePlayers();
+        dealer.useConverter(new CurrencyConverter(new ExchangeRateTable( 
+                WagerTest.DOLLARS, Map.of(EUROS, 0.8))));
+        dealer.start(new Round(dealer, players));
+        dealHands(dealer, players);
+        try (TableSnapshot.Writer writer 
+                = new TableSnapshot.Writer(this.path)) {
+            assertTrue("First snapshot should be full", 
+                    writer.checkpoint(dealer, players));
+        }
+        TableSnapshot snapshot = TableSnapshot.restore(this.path);
+        assertSameTable(dealer, players, snapshot);
+    }
+    
+    @Test
+    public void testCheckpointAppendsDelta() throws IOException {
+        Dealer dealer = new Dealer(makePairs(), 
+                new MultiDeckCardDispenser(6, RANDOM.nextInt(20, 40)));
+        Player[] players = {makePlayers()[0]};
+        dealer.start(new Round(dealer, players));
+        dealHands(dealer, players);
+        try (TableSnapshot.Writer writer 
+                = new TableSnapshot.Writer(this.path)) {
+            assertTrue("First snapshot should be full", 
+                    writer.checkpoint(dealer, players));
+            long fullSize = Files.size(this.path);
+            dealHands(dealer, players);
+            dealHands(dealer, players);
+            assertFalse("Second snapshot with same shoe should be a delta", 
+                    writer.checkpoint(dealer, players));
+            long deltaSize = Files.size(this.path) - fullSize;
+            String msg = "Delta of " + deltaSize 
+                    + " bytes should be much smaller than full snapshot of " 
+                    + fullSize + " bytes";
+            assert deltaSize * 3 < fullSize : msg;
+        }
+        TableSnapshot snapshot = TableSnapshot.restore(this.path);
+        assertSameTable(dealer, players, snapshot);
+    }
+    
+    @Test
+    public void testCheckpointAfterNewShoeIsFull() throws IOException {
+        Dealer dealer = new Dealer(makePairs(), 
+                new MultiDeckCardDispenser(2));
+        Player[] players = makePlayers();
+        try (TableSnapshot.Writer writer 
+                = new TableSnapshot.Writer(this.path)) {
+            assertTrue("First snapshot should be full", 
+                    writer.checkpoint(dealer, players));
+            dealer = new Dealer(makePairs(), new MultiDeckCardDispenser(3));
+            dealHands(dealer, players);
+            assertTrue("Snapshot after new shoe should be full", 
+                    writer.checkpoint(dealer, players));
+            dealHands(dealer, players);
+            assertFalse("Next snapshot should be a delta", 
+                    writer.checkpoint(dealer, players));
+        }
+        TableSnapshot snapshot = TableSnapshot.restore(this.path);
+        assertSameTable(dealer, players, snapshot);
+    }
+    
+    @Test
+    public void testSettledHandsNotInSnapshot() throws IOException {
+        Dealer dealer = new Dealer(makePairs(), 
+                new MultiDeckCardDispenser(2));
+        Player[] players = makePlayers();
+        dealHands(dealer, players);
+        players[0].getHands().get(0).markSettled();
+        dealHands(dealer, players);
+        try (TableSnapshot.Writer writer 
+                = new TableSnapshot.Writer(this.path)) {
+            writer.checkpoint(dealer, players);
+        }
+        Player[] restoredPlayers = TableSnapshot.restore(this.path) 
+                .getPlayers();
+        assertEquals(1, restoredPlayers[0].getHands().size());
+        assertEquals(2, restoredPlayers[1].getHands().size());
+    }
+    
+    @Test
+    public void testRestoreIgnoresTornSnapshot() throws IOException {
+        Dealer dealer = new Dealer(makePairs(), 
+                new MultiDeckCardDispenser(2));
+        Player[] players = makePlayers();
+        dealHands(dealer, players);
+        Dealer expectedDealer = new Dealer(makePairs(), 
+                new MultiDeckCardDispenser(2));
+        try (TableSnapshot.Writer writer 
+                = new TableSnapshot.Writer(this.path)) {
+            writer.checkpoint(dealer, players);
+            TableSnapshot expected = TableSnapshot.restore(this.path);
+            expectedDealer = expected.getDealer();
+            dealHands(dealer, players);
+            writer.checkpoint(dealer, players);
+        }
+        byte[] bytes = Files.readAllBytes(this.path);
+        Files.write(this.path, Arrays.copyOf(bytes, bytes.length 
+                - RANDOM.nextInt(1, 8)));
+        TableSnapshot snapshot = TableSnapshot.restore(this.path);
+        Player[] restoredPlayers = snapshot.getPlayers();
+        for (Player player : restoredPlayers) {
+            String msg = "Torn delta should be ignored, so " 
+                    + player.getName() + " should have just one hand";
+            assert player.getHands().size() == 1 : msg;
+        }
+        assertEquals(expectedDealer.getDispenser().countRemaining(), 
+                snapshot.getDealer().getDispenser().countRemaining());
+    }
+    
+    @Test
+    public void testRestoreRejectsInvalidHeader() throws IOException {
+        Files.write(this.path, new byte[]{'N', 'O', 'P', 'E', 1, 0, 0, 0});
+        String msg = "Invalid header should cause an exception";
+        Throwable t = assertThrows(() -> {
+            TableSnapshot snapshot = TableSnapshot.restore(this.path);
+            System.out.println(msg + ", not given " + snapshot.toString());
+        }, IOException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testCheckpointRejectsOtherDispenser() {
+        Dealer dealer = new Dealer(makePairs(), new CardDeck());
+        Player[] players = makePlayers();
+        TableSnapshot.Writer writer = new TableSnapshot.Writer(this.path);
+        String msg = "Dealer without multi-deck dispenser should be rejected";
+        Throwable t = assertThrows(() -> {
+            boolean full = writer.checkpoint(dealer, players);
+            System.out.println(msg + ", not given full = " + full);
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testCheckpointAfterClose() throws IOException {
+        Dealer dealer = new Dealer(makePairs(), 
+                new MultiDeckCardDispenser(2));
+        Player[] players = makePlayers();
+        TableSnapshot.Writer writer = new TableSnapshot.Writer(this.path);
+        writer.checkpoint(dealer, players);
+        writer.close();
+        long size = Files.size(this.path);
+        String msg = "Checkpoint after close should cause an exception";
+        Throwable t = assertThrows(() -> {
+            boolean full = writer.checkpoint(dealer, players);
+            System.out.println(msg + ", not given full = " + full);
+        }, IllegalStateException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+        assertEquals(size, Files.size(this.path));
+    }
+    
+    @Test
+    public void testCheckpointRejectsCardsFromElsewhere() {
+        Dealer dealer = new Dealer(makePairs(), 
+                new MultiDeckCardDispenser(2));
+        Player[] players = makePlayers();
+        CardDeck deck = new CardDeck();
+        Hand hand = new Hand(HandTest.DEFAULT_WAGER);
+        hand.add(deck.getNextCard());
+        players[1].add(hand);
+        TableSnapshot.Writer writer = new TableSnapshot.Writer(this.path);
+        String msg = "Card not from dealer's shoe should be rejected";
+        Throwable t = assertThrows(() -> {
+            boolean full = writer.checkpoint(dealer, players);
+            System.out.println(msg + ", not given full = " + full);
+        }, IllegalStateException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+}
@@ -212,12 +212,13 @@ public class WagerTest {
     
     @Test
     public void testPayoutFunctionInsuranceWon() {
-        CurrencyAmount expected = chooseAmount();
-        Wager instance = new Wager(expected);
+        CurrencyAmount amount = chooseAmount();
+        Wager instance = new Wager(amount);
         instance.settle(Wager.Outcome.INSURANCE_WON);
+        CurrencyAmount expected = amount.times(2);
         CurrencyAmount actual = Wager.Outcome.INSURANCE_WON.payoutFunction
-                .apply(expected);
-        String message = "Payout for wager of " + expected.toString() 
+                .apply(amount);
+        String message = "Payout for wager of " + amount.toString() 
                 + " on insurance won";
         assertEquals(message, expected, actual);
     }
@@ -248,6 +249,37 @@ public class WagerTest {
         assertEquals(message, expected, actual);
     }
     
+    @Test
+    public void testPayoutFunctionSurrender() {
+        int cents = DealerTest.RANDOM.nextInt(DEFAULT_CENTS) + DEFAULT_CENTS;
+        CurrencyAmount amount = new CurrencyAmount(cents, DOLLARS);
+        Wager instance = new Wager(amount);
+        instance.settle(Wager.Outcome.SURRENDER);
+        CurrencyAmount expected = new CurrencyAmount(-((cents + 1) / 2), 
+                DOLLARS);
+        CurrencyAmount actual = Wager.Outcome.SURRENDER.payoutFunction
+                .apply(amount);
+        String message = "Payout for wager of " + amount.toString() 
+                + " on surrender";
+        assertEquals(message, expected, actual);
+    }
+    
+    @Test
+    public void testSettleWithSchedule() {
+        CurrencyAmount amount = chooseAmount();
+        Wager instance = new Wager(amount);
+        PayoutSchedule schedule = new PayoutSchedule(PayoutRatio.SIX_TO_FIVE, 
+                PayoutSchedule.DEFAULT_ROUNDING);
+        instance.settle(Wager.Outcome.NATURAL_BLACKJACK, schedule);
+        Wager.Settlement settlement = instance.getSettlement();
+        assertEquals(Wager.Outcome.NATURAL_BLACKJACK, settlement.getOutcome());
+        CurrencyAmount expected = amount.times(6).divides(5);
+        CurrencyAmount actual = settlement.getAmount();
+        String message = "Settlement for wager of " + amount.toString() 
+                + " on natural blackjack at 6:5";
+        assertEquals(message, expected, actual);
+    }
+    
     @Test
     public void testPayoutFunctionInsuranceLost() {
         CurrencyAmount amount = chooseAmount();
@@ -286,10 +318,27 @@ public class WagerTest {
         assertEquals(message, expected, actual);
     }
     
+    @Test
+    public void testSettleWithResolution() {
+        CurrencyAmount amount = chooseAmount();
+        Wager instance = new Wager(amount);
+        OutcomeResolver resolver = new OutcomeResolver(6, 5, false);
+        OutcomeResolver.Resolution resolution = resolver.resolve(21, true, 20, 
+                false);
+        instance.settle(resolution);
+        assert instance.isSettled() : "Wager should be settled";
+        Wager.Settlement settlement = instance.getSettlement();
+        assertEquals(Wager.Outcome.NATURAL_BLACKJACK, settlement.getOutcome());
+        CurrencyAmount expected = amount.times(6).divides(5);
+        CurrencyAmount actual = settlement.getAmount();
+        String message = "Settlement for wager of " + amount.toString() 
+                + " on natural blackjack at 6:5";
+        assertEquals(message, expected, actual);
+    }
+    
     /**
      * Test of the getSettlement function, of the Wager class.
      */
-    @org.junit.Ignore
     @Test
     public void testGetSettlement() {
         System.out.println("getSettlement");
@@ -308,8 +357,11 @@ public class WagerTest {
             CurrencyAmount actual = settlement.getAmount();
             switch (outcome) {
                 case NATURAL_BLACKJACK -> expected = amount.times(3).divides(2);
-                case BLACKJACK, BETTER_SCORE, INSURANCE_WON -> expected = amount;
+                case BLACKJACK, BETTER_SCORE -> expected = amount;
+                case INSURANCE_WON -> expected = amount.times(2);
                 case REPLACED, STANDOFF -> expected = new CurrencyAmount(0, DOLLARS);
+                case SURRENDER -> expected = new CurrencyAmount(-((cents + 1) 
+                        / 2), DOLLARS);
                 case INSURANCE_LOST, BUST, LOWER_SCORE -> expected = amount.negate();
                 default -> {
                     expected = amount;
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package currency;
+
+import static currency.CurrencyAmountTest.DOLLARS;
+import static currency.CurrencyAmountTest.EUROS;
+
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the CurrencyAccumulator class.
+ * @author Alonso del Arte
+ */
+public class CurrencyAccumulatorTest {
+    
+    private static final Random RANDOM = new Random();
+    
+    @Test
+    public void testStartsAtZero() {
+        CurrencyAccumulator accumulator = new CurrencyAccumulator(EUROS);
+        assertEquals(0L, accumulator.getAmountInCents());
+        assertEquals(EUROS, accumulator.getCurrency());
+    }
+    
+    @Test
+    public void testAdd() {
+        System.out.println("add");
+        int centsA = RANDOM.nextInt(262144) + 16;
+        int centsB = RANDOM.nextInt(262144) + 16;
+        CurrencyAmount initial = new CurrencyAmount(centsA, DOLLARS);
+        CurrencyAmount addend = new CurrencyAmount(centsB, DOLLARS);
+        CurrencyAccumulator accumulator = new CurrencyAccumulator(initial);
+        accumulator.add(addend);
+        CurrencyAmount expected = initial.plus(addend);
+        CurrencyAmount actual = accumulator.toCurrencyAmount();
+        assertEquals(expected, actual);
+    }
+    
+    @Test
+    public void testAddCents() {
+        int centsA = RANDOM.nextInt(262144) + 16;
+        int centsB = RANDOM.nextInt(262144) - 131072;
+        CurrencyAccumulator accumulator 
+                = new CurrencyAccumulator(DOLLARS).add(centsA).add(centsB);
+        assertEquals(centsA + centsB, accumulator.getAmountInCents());
+    }
+    
+    @Test(expected = CurrencyConversionNeededException.class)
+    public void testAddDifferentCurrencies() {
+        int cents = RANDOM.nextInt(131072) + 8;
+        CurrencyAccumulator accumulator = new CurrencyAccumulator(DOLLARS);
+        CurrencyAmount euros = new CurrencyAmount(cents, EUROS);
+        accumulator.add(euros);
+        System.out.println("Trying to add " + euros.toString() 
+                + " to dollars accumulator should have caused an exception," 
+                + " not given result " + accumulator.toString());
+    }
+    
+    @Test(expected = ArithmeticException.class)
+    public void testAddTooMuch() {
+        CurrencyAccumulator accumulator 
+                = new CurrencyAccumulator(new CurrencyAmount(Long.MAX_VALUE 
+                        - RANDOM.nextInt(1024), DOLLARS));
+        accumulator.add(1024L);
+        System.out.println("Overflow should have caused an exception, not" 
+                + " given result " + accumulator.toString());
+    }
+    
+    @Test
+    public void testSubtract() {
+        System.out.println("subtract");
+        int centsA = RANDOM.nextInt(262144) + 16;
+        int centsB = RANDOM.nextInt(262144) + 16;
+        CurrencyAmount initial = new CurrencyAmount(centsA, EUROS);
+        CurrencyAmount subtrahend = new CurrencyAmount(centsB, EUROS);
+        CurrencyAccumulator accumulator = new CurrencyAccumulator(initial);
+        accumulator.subtract(subtrahend);
+        CurrencyAmount expected = initial.minus(subtrahend);
+        CurrencyAmount actual = accumulator.toCurrencyAmount();
+        assertEquals(expected, actual);
+    }
+    
+    @Test(expected = ArithmeticException.class)
+    public void testSubtractTooMuch() {
+        CurrencyAccumulator accumulator 
+                = new CurrencyAccumulator(new CurrencyAmount(Long.MIN_VALUE 
+                        + RANDOM.nextInt(1024), DOLLARS));
+        accumulator.subtract(1024L);
+        System.out.println("Overflow should have caused an exception, not" 
+                + " given result " + accumulator.toString());
+    }
+    
+    @Test
+    public void testMultiply() {
+        System.out.println("multiply");
+        int cents = RANDOM.nextInt(262144) + 16;
+        int multiplier = RANDOM.nextInt(64) + 2;
+        CurrencyAmount initial = new CurrencyAmount(cents, DOLLARS);
+        CurrencyAccumulator accumulator = new CurrencyAccumulator(initial);
+        accumulator.multiply(multiplier);
+        assertEquals(initial.times(multiplier), accumulator.toCurrencyAmount());
+    }
+    
+    @Test
+    public void testMultiplyDouble() {
+        int cents = RANDOM.nextInt(262144) + 16;
+        double multiplier = 3.25;
+        CurrencyAmount initial = new CurrencyAmount(cents, DOLLARS);
+        CurrencyAccumulator accumulator = new CurrencyAccumulator(initial);
+        accumulator.multiply(multiplier);
+        assertEquals(initial.times(multiplier), accumulator.toCurrencyAmount());
+    }
+    
+    @Test(expected = ArithmeticException.class)
+    public void testMultiplyTooMuch() {
+        CurrencyAccumulator accumulator = new CurrencyAccumulator( 
+                new CurrencyAmount(Long.MAX_VALUE / 2 + 1, DOLLARS));
+        accumulator.multiply(2L);
+        System.out.println("Overflow should have caused an exception, not" 
+                + " given result " + accumulator.toString());
+    }
+    
+    @Test(expected = ArithmeticException.class)
+    public void testMultiplyNaN() {
+        CurrencyAccumulator accumulator = new CurrencyAccumulator( 
+                new CurrencyAmount(RANDOM.nextInt(1024) + 1, DOLLARS));
+        accumulator.multiply(Double.NaN);
+        System.out.println("Multiplying by NaN should have caused an" 
+                + " exception, not given result " + accumulator.toString());
+    }
+    
+    @Test
+    public void testClear() {
+        System.out.println("clear");
+        CurrencyAccumulator accumulator = new CurrencyAccumulator(DOLLARS);
+        accumulator.add(RANDOM.nextInt(1024) + 1).clear();
+        assertEquals(0L, accumulator.getAmountInCents());
+    }
+    
+    @Test
+    public void testCompareTo() {
+        System.out.println("compareTo");
+        int cents = RANDOM.nextInt(262144) + 16;
+        CurrencyAmount amount = new CurrencyAmount(cents, DOLLARS);
+        CurrencyAccumulator accumulator = new CurrencyAccumulator(amount);
+        assertEquals(0, accumulator.compareTo(amount));
+        accumulator.add(1L);
+        assert accumulator.compareTo(amount) > 0 : "Total should be more";
+        accumulator.subtract(2L);
+        assert accumulator.compareTo(amount) < 0 : "Total should be less";
+    }
+    
+    @Test(expected = CurrencyConversionNeededException.class)
+    public void testCompareDifferentCurrencies() {
+        int cents = RANDOM.nextInt(1048576) + 1024;
+        CurrencyAccumulator accumulator 
+                = new CurrencyAccumulator(new CurrencyAmount(cents, DOLLARS));
+        CurrencyAmount euros = new CurrencyAmount(cents, EUROS);
+        int result = accumulator.compareTo(euros);
+        System.out.println("Trying to compare to " + euros.toString() 
+                + " should have caused an exception, not given result " 
+                + result);
+    }
+    
+    @Test
+    public void testIsNegative() {
+        System.out.println("isNegative");
+        CurrencyAccumulator accumulator = new CurrencyAccumulator(DOLLARS);
+        assert !accumulator.isNegative() : "Zero should not be negative";
+        accumulator.subtract(RANDOM.nextInt(1024) + 1);
+        assert accumulator.isNegative() : "Total should be negative";
+    }
+    
+    @Test
+    public void testToString() {
+        System.out.println("toString");
+        CurrencyAccumulator accumulator 
+                = new CurrencyAccumulator(new CurrencyAmount(49989, DOLLARS));
+        assertEquals("$499.89", accumulator.toString());
+    }
+    
+}
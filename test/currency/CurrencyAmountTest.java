@@ -27,7 +27,6 @@ import java.util.Locale;
 import java.util.Random;
 import java.util.Set;
 
-import org.junit.Ignore;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -609,7 +608,6 @@ public class CurrencyAmountTest {
         assertEquals(expected, actual);
     }
 
-    @Ignore
     @Test
     public void testParseDinarAmount() {
         System.out.println("parseAmount");
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package currency;
+
+import static currency.CurrencyAmountTest.DOLLARS;
+import static currency.CurrencyAmountTest.EUROS;
+import static currency.CurrencyAmountTest.YEN;
+import static currency.ExchangeRateTableTest.TABLE;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Currency;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the CurrencyConverter class.
+ * @author Alonso del Arte
+ */
+public class CurrencyConverterTest {
+    
+    private static final Random RANDOM = new Random();
+    
+    private static CurrencyAmount[] makeMixedAmounts(int dollars) {
+        return new CurrencyAmount[]{new CurrencyAmount(100L * dollars, 
+            DOLLARS), new CurrencyAmount(80L * dollars, EUROS), 
+            new CurrencyAmount(150L * dollars, YEN)};
+    }
+    
+    @Test
+    public void testGetTable() {
+        System.out.println("getTable");
+        CurrencyConverter converter = new CurrencyConverter(TABLE);
+        assertSame(TABLE, converter.getTable());
+    }
+    
+    @Test
+    public void testSetTable() {
+        System.out.println("setTable");
+        CurrencyConverter converter = new CurrencyConverter(TABLE);
+        ExchangeRateTable newTable = new ExchangeRateTable(DOLLARS, 
+                Map.of(EUROS, 0.5));
+        converter.setTable(newTable);
+        assertSame(newTable, converter.getTable());
+        CurrencyAmount amount = new CurrencyAmount(1000, DOLLARS);
+        assertEquals(new CurrencyAmount(500, EUROS), 
+                converter.convert(amount, EUROS));
+    }
+    
+    @Test(expected = NullPointerException.class)
+    public void testSetTableRejectsNull() {
+        CurrencyConverter converter = new CurrencyConverter(TABLE);
+        converter.setTable(null);
+        System.out.println("Should not have been able to set null table");
+    }
+    
+    @Test(expected = NullPointerException.class)
+    public void testConstructorRejectsNull() {
+        CurrencyConverter converter = new CurrencyConverter(null);
+        System.out.println("Should not have been able to create " 
+                + converter.toString() + " with null table");
+    }
+    
+    @Test
+    public void testConvertCents() {
+        System.out.println("convertCents");
+        CurrencyConverter converter = new CurrencyConverter(TABLE);
+        long cents = RANDOM.nextInt(1048576) + 1;
+        assertEquals(TABLE.convertCents(cents, DOLLARS, EUROS), 
+                converter.convertCents(cents, DOLLARS, EUROS));
+        assertEquals(cents, converter.convertCents(cents, YEN, YEN));
+    }
+    
+    @Test
+    public void testReload() throws IOException {
+        System.out.println("reload");
+        CurrencyConverter converter = new CurrencyConverter(TABLE);
+        Path path = Files.createTempFile("rates", ".txt");
+        try {
+            Files.writeString(path, "base USD\nEUR 0.5\n", 
+                    StandardCharsets.UTF_8);
+            converter.reload(path);
+            assertEquals(0.5, converter.getTable().getRate(DOLLARS, EUROS), 
+                    0.0000001);
+        } finally {
+            Files.delete(path);
+        }
+    }
+    
+    @Test
+    public void testConvert() {
+        System.out.println("convert");
+        CurrencyConverter converter = new CurrencyConverter(TABLE);
+        int dollars = RANDOM.nextInt(10000) + 1;
+        CurrencyAmount amount = new CurrencyAmount(80L * dollars, EUROS);
+        CurrencyAmount expected = new CurrencyAmount(100L * dollars, DOLLARS);
+        assertEquals(expected, converter.convert(amount, DOLLARS));
+        assertSame(amount, converter.convert(amount, EUROS));
+    }
+    
+    @Test
+    public void testConvertAll() {
+        System.out.println("convertAll");
+        CurrencyConverter converter = new CurrencyConverter(TABLE);
+        int dollars = RANDOM.nextInt(10000) + 1;
+        CurrencyAmount[] amounts = makeMixedAmounts(dollars);
+        long[] results = new long[amounts.length];
+        converter.convertAll(amounts, DOLLARS, results);
+        for (long result : results) {
+            assertEquals(100L * dollars, result);
+        }
+    }
+    
+    @Test(expected = CurrencyConversionNeededException.class)
+    public void testConvertAllNoRate() {
+        CurrencyConverter converter = new CurrencyConverter(TABLE);
+        CurrencyAmount[] amounts = makeMixedAmounts(1);
+        Currency pounds = Currency.getInstance("GBP");
+        converter.convertAll(amounts, pounds, new long[amounts.length]);
+        System.out.println("Converting to pounds without a rate should have" 
+                + " caused an exception");
+    }
+    
+    @Test
+    public void testTotal() {
+        System.out.println("total");
+        CurrencyConverter converter = new CurrencyConverter(TABLE);
+        int dollars = RANDOM.nextInt(10000) + 1;
+        CurrencyAmount[] amounts = makeMixedAmounts(dollars);
+        CurrencyAmount expected = new CurrencyAmount(300L * dollars, DOLLARS);
+        assertEquals(expected, converter.total(amounts, DOLLARS));
+        expected = new CurrencyAmount(240L * dollars, EUROS);
+        assertEquals(expected, converter.total(amounts, EUROS));
+    }
+    
+    @Test
+    public void testAddTo() {
+        System.out.println("addTo");
+        CurrencyConverter converter = new CurrencyConverter(TABLE);
+        int dollars = RANDOM.nextInt(10000) + 1;
+        CurrencyAccumulator total = new CurrencyAccumulator(YEN);
+        for (CurrencyAmount amount : makeMixedAmounts(dollars)) {
+            converter.addTo(total, amount);
+        }
+        assertEquals(450L * dollars, total.getAmountInCents());
+    }
+    
+    @Test
+    public void testConcurrentConversionsDuringSwap() 
+            throws InterruptedException {
+        CurrencyConverter converter = new CurrencyConverter(TABLE);
+        ExchangeRateTable otherTable = new ExchangeRateTable(DOLLARS, 
+                Map.of(EUROS, 0.5));
+        CurrencyAmount[] amounts = {new CurrencyAmount(10000, DOLLARS), 
+            new CurrencyAmount(10000, DOLLARS)};
+        Thread swapper = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                converter.setTable((i % 2 == 0) ? otherTable : TABLE);
+            }
+        });
+        swapper.start();
+        for (int i = 0; i < 1000; i++) {
+            long[] results = new long[2];
+            converter.convertAll(amounts, EUROS, results);
+            String msg = "Batch should use one table throughout";
+            assertEquals(msg, results[0], results[1]);
+        }
+        swapper.join();
+    }
+    
+}
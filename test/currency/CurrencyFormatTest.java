@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package currency;
+
+import static currency.CurrencyAmountTest.DINARS;
+import static currency.CurrencyAmountTest.DOLLARS;
+import static currency.CurrencyAmountTest.EUROS;
+import static currency.CurrencyAmountTest.YEN;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the CurrencyFormat class.
+ * @author Alonso del Arte
+ */
+public class CurrencyFormatTest {
+    
+    private static final Random RANDOM = new Random();
+    
+    @Test
+    public void testForCurrencyGivesSameInstance() {
+        System.out.println("forCurrency");
+        CurrencyFormat expected = CurrencyFormat.forCurrency(EUROS);
+        CurrencyFormat actual = CurrencyFormat.forCurrency(EUROS);
+        assertSame(expected, actual);
+        assertEquals(EUROS, actual.getCurrency());
+    }
+    
+    @Test
+    public void testGetSymbol() {
+        System.out.println("getSymbol");
+        assertEquals(DOLLARS.getSymbol(), 
+                CurrencyFormat.forCurrency(DOLLARS).getSymbol());
+    }
+    
+    @Test
+    public void testForCurrencyWithLocale() {
+        CurrencyFormat format = CurrencyFormat.forCurrency(DOLLARS, 
+                Locale.CANADA);
+        assertEquals(DOLLARS.getSymbol(Locale.CANADA), format.getSymbol());
+        assertEquals(DOLLARS.getSymbol(Locale.CANADA) + "499.89", 
+                format.format(49989));
+        assertSame(format, CurrencyFormat.forCurrency(DOLLARS, Locale.CANADA));
+    }
+    
+    @Test
+    public void testForCurrencyFollowsDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        CurrencyFormat.forCurrency(DOLLARS);
+        try {
+            Locale.setDefault(Locale.CANADA);
+            String expected = DOLLARS.getSymbol(Locale.CANADA);
+            String msg = "Symbol for " + Locale.CANADA + " should not be \"" 
+                    + DOLLARS.getSymbol(previous) + "\"";
+            assert !expected.equals(DOLLARS.getSymbol(previous)) : msg;
+            assertEquals(expected, 
+                    CurrencyFormat.forCurrency(DOLLARS).getSymbol());
+            CurrencyAmount amount = CurrencyFormat.parse(expected + "5.00");
+            assertEquals(new CurrencyAmount(500, DOLLARS), amount);
+        } finally {
+            Locale.setDefault(previous);
+        }
+        assertEquals(DOLLARS.getSymbol(previous), 
+                CurrencyFormat.forCurrency(DOLLARS).getSymbol());
+    }
+
+    @Test
+    public void testFormat() {
+        System.out.println("format");
+        CurrencyFormat format = CurrencyFormat.forCurrency(DOLLARS);
+        assertEquals("$499.89", format.format(49989));
+        assertEquals("$0.05", format.format(5));
+        assertEquals("$-0.08", format.format(-8));
+        assertEquals("$1042.50", format.format(104250));
+    }
+    
+    @Test
+    public void testFormatOtherFractionDigits() {
+        String dinarSymbol = DINARS.getSymbol();
+        assertEquals(dinarSymbol + "29.505", 
+                CurrencyFormat.forCurrency(DINARS).format(29505));
+        assertEquals(dinarSymbol + "0.009", 
+                CurrencyFormat.forCurrency(DINARS).format(9));
+        String yenSymbol = YEN.getSymbol();
+        assertEquals(yenSymbol + "20167", 
+                CurrencyFormat.forCurrency(YEN).format(20167));
+    }
+    
+    @Test
+    public void testFormatExtremes() {
+        CurrencyFormat format = CurrencyFormat.forCurrency(DOLLARS);
+        assertEquals("$92233720368547758.07", format.format(Long.MAX_VALUE));
+        assertEquals("$-92233720368547758.08", format.format(Long.MIN_VALUE));
+    }
+    
+    @Test
+    public void testFormatMatchesToString() {
+        for (int i = 0; i < 100; i++) {
+            long cents = RANDOM.nextLong() >> RANDOM.nextInt(64);
+            CurrencyAmount amount = new CurrencyAmount(cents, EUROS);
+            assertEquals(amount.toString(), 
+                    CurrencyFormat.forCurrency(EUROS).format(cents));
+        }
+    }
+    
+    @Test
+    public void testAppendToStringBuilder() {
+        System.out.println("appendTo");
+        StringBuilder builder = new StringBuilder("Paid ");
+        StringBuilder result = CurrencyFormat.forCurrency(DOLLARS) 
+                .appendTo(-8, builder);
+        assertSame(builder, result);
+        assertEquals("Paid $-0.08", builder.toString());
+    }
+    
+    @Test
+    public void testAppendToWriter() throws IOException {
+        StringWriter writer = new StringWriter();
+        CurrencyFormat format = CurrencyFormat.forCurrency(DOLLARS);
+        format.appendTo(19897, writer);
+        writer.append(',');
+        format.appendTo(-2000, writer);
+        assertEquals("$198.97,$-20.00", writer.toString());
+    }
+    
+    @Test
+    public void testParseCents() {
+        System.out.println("parseCents");
+        CurrencyFormat format = CurrencyFormat.forCurrency(DOLLARS);
+        assertEquals(19897L, format.parseCents("$198.97"));
+        assertEquals(2000L, format.parseCents("$20"));
+        assertEquals(2050L, format.parseCents("$20.5"));
+        assertEquals(-8L, format.parseCents("$-0.08"));
+        assertEquals(-8L, format.parseCents("-$0.08"));
+        assertEquals(214796L, format.parseCents("USD2,147.96"));
+    }
+    
+    @Test
+    public void testParseCentsRoundTrip() {
+        CurrencyFormat format = CurrencyFormat.forCurrency(DINARS);
+        for (int i = 0; i < 100; i++) {
+            long expected = RANDOM.nextLong() >> RANDOM.nextInt(64);
+            if (expected == Long.MIN_VALUE) {
+                continue;
+            }
+            long actual = format.parseCents(format.format(expected));
+            assertEquals(expected, actual);
+        }
+    }
+    
+    @Test
+    public void testParseCentsLargeAmount() {
+        long expected = ((long) Integer.MAX_VALUE) * 1000 
+                + RANDOM.nextInt(100);
+        CurrencyFormat format = CurrencyFormat.forCurrency(DOLLARS);
+        assertEquals(expected, format.parseCents(format.format(expected)));
+    }
+    
+    @Test(expected = NumberFormatException.class)
+    public void testParseCentsTooLarge() {
+        long result = CurrencyFormat.forCurrency(DOLLARS) 
+                .parseCents("$92233720368547758.08");
+        System.out.println("Parsing amount too large for long should have" 
+                + " caused an exception, not given result " + result);
+    }
+    
+    @Test(expected = NumberFormatException.class)
+    public void testParseCentsTooManyFractionDigits() {
+        long result = CurrencyFormat.forCurrency(DOLLARS).parseCents("$1.005");
+        System.out.println("Parsing $1.005 should have caused an exception," 
+                + " not given result " + result);
+    }
+    
+    @Test(expected = NumberFormatException.class)
+    public void testParseCentsWrongCurrency() {
+        long result = CurrencyFormat.forCurrency(DOLLARS) 
+                .parseCents("EUR73.20");
+        System.out.println("Parsing euros as dollars should have caused an" 
+                + " exception, not given result " + result);
+    }
+    
+    @Test(expected = NumberFormatException.class)
+    public void testParseCentsNoDigits() {
+        long result = CurrencyFormat.forCurrency(DOLLARS).parseCents("$.");
+        System.out.println("Parsing \"$.\" should have caused an exception," 
+                + " not given result " + result);
+    }
+    
+    @Test
+    public void testParse() {
+        System.out.println("parse");
+        assertEquals(new CurrencyAmount(19897, DOLLARS), 
+                CurrencyFormat.parse("$198.97"));
+        assertEquals(new CurrencyAmount(7063255, DINARS), 
+                CurrencyFormat.parse("LYD7063.255"));
+        assertEquals(new CurrencyAmount(-7320, EUROS), 
+                CurrencyFormat.parse("EUR-73.20"));
+        assertEquals(new CurrencyAmount(20167, YEN), 
+                CurrencyFormat.parse("JPY20167"));
+    }
+    
+    @Test
+    public void testParseToStringRoundTrip() {
+        Currency[] currencies = {DOLLARS, EUROS, DINARS, YEN};
+        for (Currency currency : currencies) {
+            long cents = RANDOM.nextInt() - RANDOM.nextInt();
+            CurrencyAmount expected = new CurrencyAmount(cents, currency);
+            CurrencyAmount actual = CurrencyFormat.parse(expected.toString());
+            assertEquals(expected, actual);
+        }
+    }
+    
+    @Test(expected = NumberFormatException.class)
+    public void testParseUnknownCurrency() {
+        CurrencyAmount result = CurrencyFormat.parse("QQQ12.34");
+        System.out.println("Parsing \"QQQ12.34\" should have caused an" 
+                + " exception, not given result " + result.toString());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testForCurrencyRejectsMetals() {
+        Currency gold = Currency.getInstance("XAU");
+        CurrencyFormat format = CurrencyFormat.forCurrency(gold);
+        System.out.println("Should not have been able to get format for " 
+                + format.getCurrency().getDisplayName());
+    }
+    
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package currency;
+
+import static currency.CurrencyAmountTest.DINARS;
+import static currency.CurrencyAmountTest.DOLLARS;
+import static currency.CurrencyAmountTest.EUROS;
+import static currency.CurrencyAmountTest.YEN;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Currency;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the ExchangeRateTable class.
+ * @author Alonso del Arte
+ */
+public class ExchangeRateTableTest {
+    
+    private static final Random RANDOM = new Random();
+    
+    static final String RATES_TEXT = """
+            # Test rates
+            base USD
+            EUR 0.8
+            JPY 150
+            LYD 4.8
+            """;
+    
+    static final ExchangeRateTable TABLE = new ExchangeRateTable(DOLLARS, 
+            Map.of(EUROS, 0.8, YEN, 150.0, DINARS, 4.8));
+    
+    @Test
+    public void testGetBaseCurrency() {
+        System.out.println("getBaseCurrency");
+        assertEquals(DOLLARS, TABLE.getBaseCurrency());
+    }
+    
+    @Test
+    public void testHasRate() {
+        System.out.println("hasRate");
+        assert TABLE.hasRate(DOLLARS) : "Table should have base currency";
+        assert TABLE.hasRate(YEN) : "Table should have yen";
+        Currency pounds = Currency.getInstance("GBP");
+        assert !TABLE.hasRate(pounds) : "Table should not have pounds";
+    }
+    
+    @Test
+    public void testGetRate() {
+        System.out.println("getRate");
+        assertEquals(0.8, TABLE.getRate(DOLLARS, EUROS), 0.0000001);
+        assertEquals(1.25, TABLE.getRate(EUROS, DOLLARS), 0.0000001);
+        assertEquals(187.5, TABLE.getRate(EUROS, YEN), 0.0000001);
+    }
+    
+    @Test
+    public void testConvertCents() {
+        System.out.println("convertCents");
+        int dollars = RANDOM.nextInt(10000) + 1;
+        long cents = 100L * dollars;
+        assertEquals(80L * dollars, TABLE.convertCents(cents, DOLLARS, EUROS));
+        assertEquals(150L * dollars, TABLE.convertCents(cents, DOLLARS, YEN));
+        assertEquals(4800L * dollars, TABLE.convertCents(cents, DOLLARS, 
+                DINARS));
+        assertEquals(cents, TABLE.convertCents(150L * dollars, YEN, DOLLARS));
+        assertEquals(cents, TABLE.convertCents(cents, DOLLARS, DOLLARS));
+    }
+    
+    @Test(expected = CurrencyConversionNeededException.class)
+    public void testConvertCentsNoRate() {
+        Currency pounds = Currency.getInstance("GBP");
+        long result = TABLE.convertCents(10000, pounds, DOLLARS);
+        System.out.println("Converting pounds without a rate should have" 
+                + " caused an exception, not given result " + result);
+    }
+    
+    @Test(expected = ArithmeticException.class)
+    public void testConvertCentsOverflow() {
+        long result = TABLE.convertCents(Long.MAX_VALUE / 2, DOLLARS, DINARS);
+        System.out.println("Overflow should have caused an exception, not" 
+                + " given result " + result);
+    }
+    
+    @Test
+    public void testRead() throws IOException {
+        System.out.println("read");
+        ExchangeRateTable table 
+                = ExchangeRateTable.read(new StringReader(RATES_TEXT));
+        assertEquals(DOLLARS, table.getBaseCurrency());
+        for (Currency currency : new Currency[]{EUROS, YEN, DINARS}) {
+            assertEquals(TABLE.getRate(DOLLARS, currency), 
+                    table.getRate(DOLLARS, currency), 0.0000001);
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadNoBase() throws IOException {
+        ExchangeRateTable table 
+                = ExchangeRateTable.read(new StringReader("EUR 0.8\n"));
+        System.out.println("Should not have read table with base " 
+                + table.getBaseCurrency());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadBadRate() throws IOException {
+        ExchangeRateTable table = ExchangeRateTable.read( 
+                new StringReader("base USD\nEUR zero point eight\n"));
+        System.out.println("Should not have read table with base " 
+                + table.getBaseCurrency());
+    }
+    
+    @Test
+    public void testLoad() throws IOException {
+        System.out.println("load");
+        Path path = Files.createTempFile("rates", ".txt");
+        try {
+            Files.writeString(path, RATES_TEXT, StandardCharsets.UTF_8);
+            ExchangeRateTable table = ExchangeRateTable.load(path);
+            assertEquals(15000L, table.convertCents(10000, DOLLARS, YEN));
+        } finally {
+            Files.delete(path);
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRejectsNegativeRate() {
+        double rate = -RANDOM.nextDouble() - 0.01;
+        ExchangeRateTable table = new ExchangeRateTable(DOLLARS, 
+                Map.of(EUROS, rate));
+        System.out.println("Should not have created table with rate " + rate 
+                + " for base " + table.getBaseCurrency());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRejectsBaseRateOtherThanOne() {
+        ExchangeRateTable table = new ExchangeRateTable(DOLLARS, 
+                Map.of(DOLLARS, 1.5));
+        System.out.println("Should not have created table with base " 
+                + table.getBaseCurrency() + " at 1.5");
+    }
+    
+}
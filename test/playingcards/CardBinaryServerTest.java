@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package playingcards;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+import static playingcards.PlayingCardTest.RANDOM;
+
+/**
+ * Tests of the CardBinaryServer class.
+ * @author Alonso del Arte
+ */
+public class CardBinaryServerTest {
+    
+    private static final int DEFAULT_TESTING_PORT = 8093;
+    
+    private static final int MINIMUM_DECK_QTY = 2;
+    
+    private static final int TESTING_STOP = 75;
+    
+    private static CardJSONServer makeCardServer() {
+        return new CardJSONServer(DEFAULT_TESTING_PORT, 
+                RANDOM.nextInt(4) + MINIMUM_DECK_QTY, TESTING_STOP);
+    }
+    
+    private static SocketChannel connect(CardBinaryServer server) 
+            throws IOException {
+        return SocketChannel.open(new InetSocketAddress("localhost", 
+                server.getPort()));
+    }
+    
+    private static ByteBuffer readFully(SocketChannel channel, int length) 
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                String excMsg = "Connection closed with " + buffer.remaining() 
+                        + " bytes still expected";
+                throw new IOException(excMsg);
+            }
+        }
+        return buffer.flip();
+    }
+    
+    private static void request(SocketChannel channel, int... counts) 
+            throws IOException {
+        ByteBuffer buffer 
+                = ByteBuffer.allocate(counts.length 
+                        * CardBinaryServer.REQUEST_SIZE);
+        for (int count : counts) {
+            buffer.putInt(count);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+    
+    private static Set<String> readResponse(SocketChannel channel, 
+            int expectedCount) throws IOException {
+        ByteBuffer header = readFully(channel, 
+                CardBinaryServer.RESPONSE_HEADER_SIZE);
+        assertEquals(expectedCount, header.getInt());
+        ByteBuffer records = readFully(channel, 
+                expectedCount * CardBinaryServer.RECORD_SIZE);
+        Set<String> cards = new HashSet<>(expectedCount);
+        for (int i = 0; i < expectedCount; i++) {
+            int code = records.get();
+            String msg = "Card code " + code + " should be from 0 to 51";
+            assert code >= 0 && code < 52 : msg;
+            int shoeID = records.getInt();
+            int deckID = records.getInt();
+            cards.add(code + "/" + shoeID + "/" + deckID);
+        }
+        return cards;
+    }
+    
+    @Test
+    public void testDealsRequestedCards() throws IOException {
+        CardJSONServer cardServer = makeCardServer();
+        int shoeID = cardServer.giveCard().getShoeHash();
+        int count = RANDOM.nextInt(MINIMUM_DECK_QTY 
+                * CardDeck.INITIAL_NUMBER_OF_CARDS_PER_DECK - TESTING_STOP - 1) 
+                + 1;
+        try (CardBinaryServer server = new CardBinaryServer(cardServer, 0);
+                SocketChannel channel = connect(server)) {
+            request(channel, count);
+            Set<String> cards = readResponse(channel, count);
+            assertEquals(count, cards.size());
+            for (String card : cards) {
+                String msg = "Card " + card 
+                        + " should come from JSON server's shoe " + shoeID;
+                assert card.contains("/" + shoeID + "/") : msg;
+            }
+        }
+    }
+    
+    @Test
+    public void testPipelinedRequests() throws IOException {
+        CardJSONServer cardServer = makeCardServer();
+        int[] counts = new int[RANDOM.nextInt(8) + 2];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = RANDOM.nextInt(CardJSONServer.MAXIMUM_BATCH_SIZE) + 1;
+        }
+        try (CardBinaryServer server = new CardBinaryServer(cardServer, 0);
+                SocketChannel channel = connect(server)) {
+            request(channel, counts);
+            for (int count : counts) {
+                readResponse(channel, count);
+            }
+        }
+        long expected = 0;
+        for (int count : counts) {
+            expected += count;
+        }
+        assertEquals(expected, cardServer.getMetrics().countCardsDealt());
+    }
+    
+    @Test
+    public void testRejectsBadCount() throws IOException {
+        CardJSONServer cardServer = makeCardServer();
+        int badCount = RANDOM.nextBoolean() ? -RANDOM.nextInt(100) 
+                : CardJSONServer.MAXIMUM_BATCH_SIZE + RANDOM.nextInt(100) + 1;
+        try (CardBinaryServer server = new CardBinaryServer(cardServer, 0);
+                SocketChannel channel = connect(server)) {
+            request(channel, badCount);
+            ByteBuffer header = readFully(channel, 
+                    CardBinaryServer.RESPONSE_HEADER_SIZE);
+            assertEquals(-1, header.getInt());
+            ByteBuffer rest = ByteBuffer.allocate(1);
+            assertEquals(-1, channel.read(rest));
+        }
+    }
+    
+    /**
+     * Test of the close procedure, of the CardBinaryServer class.
+     */
+    @Test
+    public void testClose() throws IOException {
+        System.out.println("close");
+        CardBinaryServer server = new CardBinaryServer(makeCardServer(), 0);
+        int port = server.getPort();
+        server.close();
+        server.close();
+        String msg = "Should not be able to connect to port " + port 
+                + " after closing";
+        Throwable t = assertThrows(() -> {
+            SocketChannel channel = SocketChannel.open( 
+                    new InetSocketAddress("localhost", port));
+            System.out.println(msg + ", not connected " + channel.toString());
+        }, IOException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testConstructorRejectsOutOfRangePort() {
+        int badPort = 65536 + RANDOM.nextInt(Short.MAX_VALUE);
+        String msg = "Port " + badPort + " should cause an exception";
+        Throwable t = assertThrows(() -> {
+            CardBinaryServer badServer 
+                    = new CardBinaryServer(makeCardServer(), badPort);
+            System.out.println(msg + ", not created instance " 
+                    + badServer.toString());
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        String numStr = Integer.toString(badPort);
+        String containsMsg = "Exception message should contain \"" + numStr 
+                + "\"";
+        assert excMsg.contains(numStr) : containsMsg;
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+}
@@ -368,6 +368,47 @@ public class CardDeckTest {
         }
     }
 
+    /**
+     * Test of the fingerprint function, of the CardDeck class.
+     */
+    @Test
+    public void testFingerprint() {
+        System.out.println("fingerprint");
+        CardDeck deck = new CardDeck();
+        CardDeck other = new CardDeck();
+        assertEquals(deck.fingerprint(), other.fingerprint());
+        long expected = deck.fingerprint();
+        int dealCount = RANDOM.nextInt(1, 52);
+        for (int i = 0; i < dealCount; i++) {
+            deck.getNextCard();
+        }
+        String msg = "Dealing cards should not change the fingerprint";
+        assertEquals(msg, expected, deck.fingerprint());
+    }
+    
+    @Test
+    public void testFingerprintChangesWithShuffle() {
+        CardDeck deck = new CardDeck();
+        long unshuffled = deck.fingerprint();
+        deck.shuffle();
+        String msg = "Shuffled deck should not have unshuffled fingerprint";
+        assert deck.fingerprint() != unshuffled : msg;
+        CardDeck copy = new CardDeck();
+        copy.cards.clear();
+        copy.cards.addAll(deck.cards);
+        msg = "Fingerprint worked out during the shuffle should match " 
+                + "fingerprint of the same order worked out afterwards";
+        assertEquals(msg, deck.fingerprint(), copy.fingerprint());
+    }
+    
+    @Test
+    public void testFingerprintOfAbridgedDeck() {
+        CardDeck deck = new CardDeck();
+        CardDeck abridged = new AbridgedDeck(Rank.TWO, Rank.THREE);
+        String msg = "Abridged deck should not have full deck's fingerprint";
+        assert deck.fingerprint() != abridged.fingerprint() : msg;
+    }
+    
     /**
      * Test of the provenance function, of the CardDeck class.
      */
@@ -0,0 +1,326 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package playingcards;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+import static playingcards.PlayingCardTest.RANDOM;
+
+/**
+ * Tests of the CardEventStream class. And also of the classes nested within 
+ * it.
+ * @author Alonso del Arte
+ */
+public class CardEventStreamTest {
+    
+    private static String drain(CardEventStream.Subscription subscription, 
+            int expectedCount) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(expectedCount, subscription.drainTo(out));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Test of the encode function, of the CardEventStream class.
+     */
+    @Test
+    public void testEncode() {
+        System.out.println("encode");
+        String data = "{\"count\":" + RANDOM.nextInt(1000) + "}";
+        String expected = "event: dropped\ndata: " + data + "\n\n";
+        String actual = new String(CardEventStream.encode("dropped", data), 
+                StandardCharsets.UTF_8);
+        assertEquals(expected, actual);
+    }
+    
+    /**
+     * Test of the publish procedure, of the CardEventStream class.
+     */
+    @Test
+    public void testPublish() throws Exception {
+        System.out.println("publish");
+        CardEventStream events = new CardEventStream(16);
+        CardEventStream.Subscription subscription 
+                = events.subscribe(CardEventStream.Overflow.DROP);
+        int count = RANDOM.nextInt(16) + 1;
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            String data = "{\"number\":" + i + "}";
+            events.publish("test", data);
+            expected.append("event: test\ndata: ").append(data) 
+                    .append("\n\n");
+        }
+        String actual = drain(subscription, count);
+        assertEquals(expected.toString(), actual);
+        assertEquals("", drain(subscription, 0));
+    }
+    
+    @Test
+    public void testSubscriptionOnlyGetsLaterEvents() throws Exception {
+        CardEventStream events = new CardEventStream(16);
+        events.publish("test", "{\"number\":0}");
+        CardEventStream.Subscription subscription 
+                = events.subscribe(CardEventStream.Overflow.DROP);
+        events.publish("test", "{\"number\":1}");
+        String actual = drain(subscription, 1);
+        assertEquals("event: test\ndata: {\"number\":1}\n\n", actual);
+    }
+    
+    /**
+     * Test of the publishCard procedure, of the CardEventStream class.
+     */
+    @Test
+    public void testPublishCard() throws Exception {
+        System.out.println("publishCard");
+        CardEventStream events = new CardEventStream(64);
+        CardEventStream.Subscription subscription 
+                = events.subscribe(CardEventStream.Overflow.DROP);
+        ProvenanceInscribedPlayingCard.Shoe shoe 
+                = new ProvenanceInscribedPlayingCard.Shoe(1, 0);
+        shoe.shuffle();
+        int count = RANDOM.nextInt(52) + 1;
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            ProvenanceInscribedPlayingCard card = shoe.getNextCard();
+            events.publishCard(card);
+            expected.append("event: card\ndata: ").append(card.toJSONString()) 
+                    .append("\n\n");
+        }
+        String actual = drain(subscription, count);
+        assertEquals(expected.toString(), actual);
+    }
+    
+    /**
+     * Test of the publishRollover procedure, of the CardEventStream class.
+     */
+    @Test
+    public void testPublishRollover() throws Exception {
+        System.out.println("publishRollover");
+        CardEventStream events = new CardEventStream(4);
+        CardEventStream.Subscription subscription 
+                = events.subscribe(CardEventStream.Overflow.DROP);
+        int previousShoeID = RANDOM.nextInt();
+        int nextShoeID = RANDOM.nextInt();
+        events.publishRollover(previousShoeID, nextShoeID);
+        String expected = "event: rollover\ndata: {\"previousShoeID\":" 
+                + previousShoeID + ",\"shoeID\":" + nextShoeID + "}\n\n";
+        String actual = drain(subscription, 1);
+        assertEquals(expected, actual);
+    }
+    
+    @Test
+    public void testDropOverflowSkipsToOldestEvent() throws Exception {
+        int capacity = 8;
+        CardEventStream events = new CardEventStream(capacity);
+        CardEventStream.Subscription subscription 
+                = events.subscribe(CardEventStream.Overflow.DROP);
+        int count = capacity + RANDOM.nextInt(32) + 1;
+        for (int i = 0; i < count; i++) {
+            events.publish("test", "{\"number\":" + i + "}");
+        }
+        String actual = drain(subscription, capacity + 1);
+        int dropped = count - capacity;
+        String expected = "event: dropped\ndata: {\"count\":" + dropped 
+                + "}\n\n";
+        String msg = "Stream " + actual + " should start with " + expected;
+        assert actual.startsWith(expected) : msg;
+        for (int i = dropped; i < count; i++) {
+            String event = "data: {\"number\":" + i + "}";
+            String containsMsg = "Stream should include " + event;
+            assert actual.contains(event) : containsMsg;
+        }
+        events.publish("test", "{\"number\":" + count + "}");
+        assertEquals("event: test\ndata: {\"number\":" + count + "}\n\n", 
+                drain(subscription, 1));
+    }
+    
+    @Test
+    public void testDisconnectOverflowClosesSubscription() throws Exception {
+        int capacity = 8;
+        CardEventStream events = new CardEventStream(capacity);
+        CardEventStream.Subscription subscription 
+                = events.subscribe(CardEventStream.Overflow.DISCONNECT);
+        assert events.hasSubscribers() : "Stream should have a subscriber";
+        for (int i = 0; i <= capacity; i++) {
+            events.publish("test", "{\"number\":" + i + "}");
+        }
+        assertEquals("", drain(subscription, -1));
+        assert !events.hasSubscribers() : "Subscriber should be gone";
+        assertEquals(-1, subscription.drainTo(new ByteArrayOutputStream()));
+    }
+    
+    /**
+     * Test of the close procedure, of the CardEventStream class.
+     */
+    @Test
+    public void testClose() throws Exception {
+        System.out.println("close");
+        CardEventStream events = new CardEventStream(16);
+        CardEventStream.Subscription subscription 
+                = events.subscribe(CardEventStream.Overflow.DROP);
+        events.publish("test", "{}");
+        events.close();
+        assertEquals("", drain(subscription, -1));
+        assertEquals(0, events.countSubscribers());
+    }
+    
+    /**
+     * Test of the countSubscribers function, of the CardEventStream class.
+     */
+    @Test
+    public void testCountSubscribers() {
+        System.out.println("countSubscribers");
+        CardEventStream events = new CardEventStream(16);
+        assert !events.hasSubscribers() : "Stream should have no subscribers";
+        int expected = RANDOM.nextInt(64) + 1;
+        List<CardEventStream.Subscription> subscriptions 
+                = new ArrayList<>(expected);
+        for (int i = 0; i < expected; i++) {
+            subscriptions.add(events 
+                    .subscribe(CardEventStream.Overflow.DROP));
+        }
+        assertEquals(expected, events.countSubscribers());
+        CardEventStream.Subscription subscription = subscriptions.get(0);
+        subscription.close();
+        subscription.close();
+        assertEquals(expected - 1, events.countSubscribers());
+    }
+    
+    /**
+     * Test of the awaitEvents function, of the Subscription class.
+     */
+    @Test
+    public void testAwaitEvents() throws Exception {
+        System.out.println("awaitEvents");
+        CardEventStream events = new CardEventStream(16);
+        CardEventStream.Subscription subscription 
+                = events.subscribe(CardEventStream.Overflow.DROP);
+        String msg = "With no events published, waiting should time out";
+        assertFalse(msg, subscription.awaitEvents(10L));
+        events.publish("test", "{}");
+        msg = "With an event published, waiting should not time out";
+        assertTrue(msg, subscription.awaitEvents(0L));
+        drain(subscription, 1);
+        msg = "With all events read, waiting should time out";
+        assertFalse(msg, subscription.awaitEvents(0L));
+    }
+    
+    @Test
+    public void testPublishWakesWaitingSubscription() throws Exception {
+        CardEventStream events = new CardEventStream(16);
+        CardEventStream.Subscription subscription 
+                = events.subscribe(CardEventStream.Overflow.DROP);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> woken 
+                    = pool.submit(() -> subscription.awaitEvents(60000L));
+            Thread.sleep(50L);
+            events.publish("test", "{}");
+            String msg = "Publishing should wake the waiting subscription";
+            assertTrue(msg, woken.get(10L, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        String expected = "event: test\ndata: {}\n\n";
+        assertEquals(expected, drain(subscription, 1));
+    }
+    
+    @Test
+    public void testCloseWakesWaitingSubscription() throws Exception {
+        CardEventStream events = new CardEventStream(16);
+        CardEventStream.Subscription subscription 
+                = events.subscribe(CardEventStream.Overflow.DROP);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> woken 
+                    = pool.submit(() -> subscription.awaitEvents(60000L));
+            Thread.sleep(50L);
+            events.close();
+            String msg = "Closing should wake the waiting subscription";
+            assertTrue(msg, woken.get(10L, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals("", drain(subscription, -1));
+    }
+    
+    @Test
+    public void testPublishFromSeveralThreads() throws Exception {
+        int threadQty = 8;
+        int perThread = 1000;
+        CardEventStream events = new CardEventStream(threadQty * perThread);
+        CardEventStream.Subscription subscription 
+                = events.subscribe(CardEventStream.Overflow.DISCONNECT);
+        ExecutorService pool = Executors.newFixedThreadPool(threadQty);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threadQty);
+            for (int i = 0; i < threadQty; i++) {
+                int thread = i;
+                futures.add(pool.submit(() -> {
+                    for (int j = 0; j < perThread; j++) {
+                        events.publish("test", "{\"thread\":" + thread 
+                                + "}");
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        String actual = drain(subscription, threadQty * perThread);
+        for (int i = 0; i < threadQty; i++) {
+            String event = "data: {\"thread\":" + i + "}";
+            int count = 0;
+            int index = actual.indexOf(event);
+            while (index > -1) {
+                count++;
+                index = actual.indexOf(event, index + 1);
+            }
+            assertEquals(perThread, count);
+        }
+    }
+    
+    @Test
+    public void testConstructorRejectsCapacityZero() {
+        int badCapacity = 0;
+        String msg = "Capacity " + badCapacity + " should cause an exception";
+        Throwable t = assertThrows(() -> {
+            CardEventStream badStream = new CardEventStream(badCapacity);
+            System.out.println(msg + ", not created instance " 
+                    + badStream.toString());
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+}
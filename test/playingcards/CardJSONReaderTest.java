@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package playingcards;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+import static playingcards.PlayingCardTest.RANDOM;
+
+/**
+ * Tests of the CardJSONReader class.
+ * @author Alonso del Arte
+ */
+public class CardJSONReaderTest {
+    
+    private static List<ProvenanceInscribedPlayingCard> makeCards(int count) {
+        ProvenanceInscribedPlayingCard.Shoe shoe 
+                = new ProvenanceInscribedPlayingCard.Shoe(count / 52 + 1, 0);
+        shoe.shuffle();
+        List<ProvenanceInscribedPlayingCard> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cards.add(shoe.getNextCard());
+        }
+        return cards;
+    }
+    
+    private static String toJSONArray(List<ProvenanceInscribedPlayingCard> 
+            cards) {
+        StringBuilder builder = new StringBuilder("[");
+        for (ProvenanceInscribedPlayingCard card : cards) {
+            if (builder.length() > 1) {
+                builder.append(',');
+            }
+            builder.append(card.toJSONString());
+        }
+        return builder.append(']').toString();
+    }
+    
+    private static CardJSONReader makeReader(String json) {
+        return new CardJSONReader(ByteBuffer 
+                .wrap(json.getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    private static CardJSONReader makeStreamReader(String json) {
+        return new CardJSONReader(new ByteArrayInputStream(json 
+                .getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    /**
+     * Test of the readCard function, of the CardJSONReader class.
+     */
+    @Test
+    public void testReadCard() throws Exception {
+        System.out.println("readCard");
+        int shoeHash = RANDOM.nextInt();
+        int deckHash = RANDOM.nextInt();
+        for (Rank rank : Rank.values()) {
+            for (Suit suit : Suit.values()) {
+                ProvenanceInscribedPlayingCard expected 
+                        = new ProvenanceInscribedPlayingCard(rank, suit, 
+                                deckHash, shoeHash);
+                ProvenanceInscribedPlayingCard actual 
+                        = makeReader(expected.toJSONString()).readCard();
+                assertEquals(expected, actual);
+            }
+        }
+    }
+    
+    @Test
+    public void testReadCardWithFieldsInAnyOrderAndWhitespace() 
+            throws Exception {
+        int shoeHash = Integer.MIN_VALUE;
+        int deckHash = Integer.MAX_VALUE;
+        String json = " {\n  \"deckID\" : " + deckHash 
+                + ",\n  \"extra\" : [1, {\"nested\": \"}\"}, null],\n" 
+                + "  \"suit\" : \"Hearts\",\t\"shoeID\":" + shoeHash 
+                + ", \"name\": \"Q\\u2665\", \"rank\": \"Queen\"\n}";
+        ProvenanceInscribedPlayingCard expected 
+                = new ProvenanceInscribedPlayingCard(Rank.QUEEN, Suit.HEARTS, 
+                        deckHash, shoeHash);
+        ProvenanceInscribedPlayingCard actual = makeReader(json).readCard();
+        assertEquals(expected, actual);
+    }
+    
+    @Test
+    public void testReadCardRejectsMissingField() {
+        ProvenanceInscribedPlayingCard card = makeCards(1).get(0);
+        String json = card.toJSONString().replace("\"deckID\"", "\"deck\"");
+        String msg = "Reading " + json + " should cause an exception";
+        Throwable t = assertThrows(() -> {
+            ProvenanceInscribedPlayingCard badCard 
+                    = makeReader(json).readCard();
+            System.out.println(msg + ", not given " + badCard.toString());
+        }, NoSuchElementException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testReadCardRejectsUnknownRank() {
+        ProvenanceInscribedPlayingCard card = makeCards(1).get(0);
+        String json = card.toJSONString().replace("\"rank\":\"" 
+                + card.getRank().getWord(), "\"rank\":\"Knight");
+        String msg = "Reading " + json + " should cause an exception";
+        Throwable t = assertThrows(() -> {
+            ProvenanceInscribedPlayingCard badCard 
+                    = makeReader(json).readCard();
+            System.out.println(msg + ", not given " + badCard.toString());
+        }, NoSuchElementException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testReadCardRejectsOutOfRangeID() {
+        ProvenanceInscribedPlayingCard card = makeCards(1).get(0);
+        String json = card.toJSONString().replace("\"shoeID\":" 
+                + card.getShoeHash(), "\"shoeID\":2147483648");
+        String msg = "Reading " + json + " should cause an exception";
+        Throwable t = assertThrows(() -> {
+            ProvenanceInscribedPlayingCard badCard 
+                    = makeReader(json).readCard();
+            System.out.println(msg + ", not given " + badCard.toString());
+        }, NoSuchElementException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testReadCardRejectsTruncatedInput() {
+        String full = makeCards(1).get(0).toJSONString();
+        for (int end = 0; end < full.length(); end++) {
+            String json = full.substring(0, end);
+            String msg = "Reading " + json + " should cause an exception";
+            Throwable t = assertThrows(() -> {
+                ProvenanceInscribedPlayingCard badCard 
+                        = makeReader(json).readCard();
+                System.out.println(msg + ", not given " + badCard.toString());
+            }, NoSuchElementException.class, msg);
+            String excMsg = t.getMessage();
+            assert excMsg != null : "Exception message should not be null";
+            assert !excMsg.isBlank() : "Exception message should not be blank";
+            String streamMsg = msg + " from stream";
+            Throwable streamT = assertThrows(() -> {
+                ProvenanceInscribedPlayingCard badCard 
+                        = makeStreamReader(json).readCard();
+                System.out.println(streamMsg + ", not given " 
+                        + badCard.toString());
+            }, NoSuchElementException.class, streamMsg);
+            assertEquals(excMsg, streamT.getMessage());
+            System.out.println("\"" + excMsg + "\"");
+        }
+    }
+    
+    /**
+     * Test of the readCards function, of the CardJSONReader class.
+     */
+    @Test
+    public void testReadCards() throws Exception {
+        System.out.println("readCards");
+        List<ProvenanceInscribedPlayingCard> expected 
+                = makeCards(RANDOM.nextInt(200) + 1);
+        List<ProvenanceInscribedPlayingCard> actual 
+                = makeReader(toJSONArray(expected)).readCards();
+        assertEquals(expected, actual);
+    }
+    
+    @Test
+    public void testReadCardsFromEmptyArray() throws Exception {
+        List<ProvenanceInscribedPlayingCard> actual 
+                = makeReader(" [ ] ").readCards();
+        assert actual.isEmpty() : "List should be empty";
+    }
+    
+    @Test
+    public void testReadCardsFromStream() throws Exception {
+        List<ProvenanceInscribedPlayingCard> expected = makeCards(500);
+        byte[] bytes = toJSONArray(expected).getBytes(StandardCharsets.UTF_8);
+        InputStream source = new ByteArrayInputStream(bytes) {
+            
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+            
+        };
+        List<ProvenanceInscribedPlayingCard> actual = new ArrayList<>();
+        int count = new CardJSONReader(source).readCards(actual::add);
+        assertEquals(expected.size(), count);
+        assertEquals(expected, actual);
+    }
+    
+    @Test
+    public void testReadCardsRejectsTruncatedInput() {
+        String full = toJSONArray(makeCards(2));
+        for (int end = 0; end < full.length(); end++) {
+            String json = full.substring(0, end);
+            String msg = "Reading " + json 
+                    + " from stream should cause an exception";
+            Throwable t = assertThrows(() -> {
+                List<ProvenanceInscribedPlayingCard> badCards 
+                        = makeStreamReader(json).readCards();
+                System.out.println(msg + ", not given " 
+                        + badCards.toString());
+            }, NoSuchElementException.class, msg);
+            String excMsg = t.getMessage();
+            assert excMsg != null : "Exception message should not be null";
+            assert !excMsg.isBlank() : "Exception message should not be blank";
+            System.out.println("\"" + excMsg + "\"");
+        }
+    }
+    
+    @Test
+    public void testReadCardsRejectsObject() {
+        String json = makeCards(1).get(0).toJSONString();
+        String msg = "Reading " + json + " as array should cause an exception";
+        Throwable t = assertThrows(() -> {
+            List<ProvenanceInscribedPlayingCard> badCards 
+                    = makeReader(json).readCards();
+            System.out.println(msg + ", not given " + badCards.toString());
+        }, NoSuchElementException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+}
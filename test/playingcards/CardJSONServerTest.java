@@ -16,16 +16,28 @@
  */
 package playingcards;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.ConnectException;
 import java.net.HttpURLConnection;
+import java.net.Socket;
 import java.net.URI;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 import static org.junit.Assert.*;
@@ -52,6 +64,48 @@ public class CardJSONServerTest {
     
     private static final int DEFAULT_STOP = 75;
     
+    /**
+     * Stands in for a card image renderer without drawing anything. The 
+     * "image" of a card is just the bytes of a few words naming the card and 
+     * the width.
+     */
+    private static final class StubRenderer implements CardImageRenderer {
+        
+        static final int MINIMUM_WIDTH = 25;
+        
+        static final int MAXIMUM_WIDTH = 1000;
+        
+        static byte[] render(PlayingCard card, int width) {
+            return (card.toString() + " at " + width + " pixels wide") 
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+        
+        @Override
+        public int getMinimumWidth() {
+            return MINIMUM_WIDTH;
+        }
+        
+        @Override
+        public int getMaximumWidth() {
+            return MAXIMUM_WIDTH;
+        }
+        
+        @Override
+        public int getUsualWidth() {
+            return 250;
+        }
+        
+        @Override
+        public EncodedImage getImage(PlayingCard card, int width) {
+            if (width < MINIMUM_WIDTH || width > MAXIMUM_WIDTH) {
+                String excMsg = "Width " + width + " is out of range";
+                throw new IllegalArgumentException(excMsg);
+            }
+            return new EncodedImage(render(card, width));
+        }
+        
+    }
+
     @Test
     public void testContentTypeSpecification() {
         String expected = "application/json; charset=" 
@@ -124,6 +178,288 @@ public class CardJSONServerTest {
         });
     }
     
+    @Test
+    public void testGiveCardFromSeveralThreadsAtOnce() throws Exception {
+        int deckQty = 2;
+        int stop = 25;
+        int capacity = deckQty * CardDeck.INITIAL_NUMBER_OF_CARDS_PER_DECK 
+                - stop;
+        CardJSONServer server = new CardJSONServer(DEFAULT_TESTING_HTTP_PORT, 
+                deckQty, stop);
+        int threadQty = 8;
+        int cardsPerThread = 3 * capacity / threadQty;
+        Set<ProvenanceInscribedPlayingCard> cards 
+                = ConcurrentHashMap.newKeySet();
+        CountDownLatch latch = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threadQty);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>(threadQty);
+            for (int i = 0; i < threadQty; i++) {
+                futures.add(pool.submit(() -> {
+                    latch.await();
+                    int duplicates = 0;
+                    for (int j = 0; j < cardsPerThread; j++) {
+                        if (!cards.add(server.giveCard())) {
+                            duplicates++;
+                        }
+                    }
+                    return duplicates;
+                }));
+            }
+            latch.countDown();
+            for (Future<Integer> future : futures) {
+                int duplicates = future.get();
+                String msg = "No card should be given out twice";
+                assertEquals(msg, 0, duplicates);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        int expected = threadQty * cardsPerThread;
+        int actual = cards.size();
+        assertEquals(expected, actual);
+    }
+    
+    /**
+     * Test of the giveCards function, of the CardJSONServer class.
+     */
+    @Test
+    public void testGiveCards() {
+        System.out.println("giveCards");
+        int deckQty = 2;
+        int stop = 25;
+        int capacity = deckQty * CardDeck.INITIAL_NUMBER_OF_CARDS_PER_DECK 
+                - stop;
+        CardJSONServer server = new CardJSONServer(DEFAULT_TESTING_HTTP_PORT, 
+                deckQty, stop);
+        int expected = RANDOM.nextInt(capacity - 1) + 1;
+        List<ProvenanceInscribedPlayingCard> cards = server.giveCards(expected);
+        assertEquals(expected, cards.size());
+        assertEquals(expected, new HashSet<>(cards).size());
+    }
+    
+    @Test
+    public void testGiveCardsReplenishesAfterRunningOut() {
+        int deckQty = 2;
+        int stop = 25;
+        int capacity = deckQty * CardDeck.INITIAL_NUMBER_OF_CARDS_PER_DECK 
+                - stop;
+        CardJSONServer server = new CardJSONServer(DEFAULT_TESTING_HTTP_PORT, 
+                deckQty, stop);
+        int count = 2 * capacity + RANDOM.nextInt(capacity - 1) + 1;
+        List<ProvenanceInscribedPlayingCard> cards = server.giveCards(count);
+        assertEquals(count, cards.size());
+        assertEquals(count, new HashSet<>(cards).size());
+        Set<Integer> deckHashes = new HashSet<>();
+        for (int i = 0; i < capacity; i++) {
+            deckHashes.add(cards.get(i).getDeckHash());
+        }
+        assertEquals(deckQty, deckHashes.size());
+        int hash = cards.get(capacity).getDeckHash();
+        String msg = "Card after first " + capacity 
+                + " should come from replenishment shoe";
+        assert !deckHashes.contains(hash) : msg;
+    }
+    
+    @Test
+    public void testGiveCardsRejectsNegativeCount() {
+        CardJSONServer server = new CardJSONServer(DEFAULT_TESTING_HTTP_PORT, 
+                2, DEFAULT_STOP);
+        int badCount = -RANDOM.nextInt(256) - 1;
+        String msg = "Count " + badCount + " should cause an exception";
+        Throwable t = assertThrows(() -> {
+            List<ProvenanceInscribedPlayingCard> cards 
+                    = server.giveCards(badCount);
+            System.out.println(msg + ", not given " + cards.toString());
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    /**
+     * Test of the writeJSONArray function, of the CardJSONServer class.
+     */
+    @Test
+    public void testWriteJSONArray() {
+        System.out.println("writeJSONArray");
+        CardJSONServer server = new CardJSONServer(DEFAULT_TESTING_HTTP_PORT, 
+                2, DEFAULT_STOP);
+        List<ProvenanceInscribedPlayingCard> cards 
+                = server.giveCards(CardJSONServer.STREAMING_THRESHOLD);
+        StringBuilder builder = new StringBuilder("[");
+        for (ProvenanceInscribedPlayingCard card : cards) {
+            builder.append(card.toJSONString()).append(',');
+        }
+        builder.setCharAt(builder.length() - 1, ']');
+        String expected = builder.toString();
+        byte[] buffer = new byte[CardJSONServer.RESPONSE_BUFFER_SIZE];
+        int length = CardJSONServer.writeJSONArray(cards, buffer);
+        String actual = new String(buffer, 0, length, StandardCharsets.UTF_8);
+        assertEquals(expected, actual);
+    }
+    
+    /**
+     * Test of the getNamedShoe function, of the CardJSONServer class.
+     */
+    @Test
+    public void testGetNamedShoe() {
+        System.out.println("getNamedShoe");
+        CardJSONServer server = new CardJSONServer(DEFAULT_TESTING_HTTP_PORT, 
+                2, DEFAULT_STOP);
+        String name = "table-" + RANDOM.nextInt(100);
+        CardJSONServer.DealingShoe expected = server.getNamedShoe(name);
+        assertNotNull(expected);
+        CardJSONServer.DealingShoe actual = server.getNamedShoe(name);
+        assertSame(expected, actual);
+        assertEquals(1, server.countNamedShoes());
+    }
+    
+    @Test
+    public void testNamedShoesAreSeparate() {
+        CardJSONServer server = new CardJSONServer(DEFAULT_TESTING_HTTP_PORT, 
+                2, DEFAULT_STOP);
+        int defaultShoeHash = server.giveCard().getShoeHash();
+        int shoeQty = RANDOM.nextInt(8) + 2;
+        Set<Integer> shoeHashes = new HashSet<>(shoeQty);
+        for (int i = 0; i < shoeQty; i++) {
+            CardJSONServer.DealingShoe namedShoe 
+                    = server.getNamedShoe("table-" + i);
+            int hash = namedShoe.giveCard().getShoeHash();
+            String msg = "Named shoe should not share cards with default shoe";
+            assert hash != defaultShoeHash : msg;
+            shoeHashes.add(hash);
+        }
+        assertEquals(shoeQty, shoeHashes.size());
+    }
+    
+    @Test
+    public void testGetNamedShoeGivesNullWhenAtLimit() {
+        CardJSONServer server = new CardJSONServer(DEFAULT_TESTING_HTTP_PORT, 
+                2, DEFAULT_STOP);
+        int maximum = RANDOM.nextInt(8) + 2;
+        server.limitNamedShoes(maximum, 
+                CardJSONServer.DEFAULT_NAMED_SHOE_IDLE_LIMIT);
+        for (int i = 0; i < maximum; i++) {
+            assertNotNull(server.getNamedShoe("table-" + i));
+        }
+        assertNull(server.getNamedShoe("table-" + maximum));
+        assertNotNull(server.getNamedShoe("table-0"));
+        assertEquals(maximum, server.countNamedShoes());
+    }
+    
+    @Test
+    public void testIdleNamedShoesExpire() throws InterruptedException {
+        CardJSONServer server = new CardJSONServer(DEFAULT_TESTING_HTTP_PORT, 
+                2, DEFAULT_STOP);
+        int maximum = RANDOM.nextInt(8) + 2;
+        server.limitNamedShoes(maximum, 10);
+        CardJSONServer.DealingShoe first = server.getNamedShoe("table-0");
+        for (int i = 1; i < maximum; i++) {
+            server.getNamedShoe("table-" + i);
+        }
+        Thread.sleep(50);
+        CardJSONServer.DealingShoe replacement 
+                = server.getNamedShoe("table-0");
+        assert first != replacement : "Expired shoe should be replaced";
+        assertNotNull(server.getNamedShoe("table-" + maximum));
+        assertEquals(2, server.countNamedShoes());
+    }
+    
+    /**
+     * Test of the removeNamedShoe function, of the CardJSONServer class.
+     */
+    @Test
+    public void testRemoveNamedShoe() {
+        System.out.println("removeNamedShoe");
+        CardJSONServer server = new CardJSONServer(DEFAULT_TESTING_HTTP_PORT, 
+                2, DEFAULT_STOP);
+        String name = "table-" + RANDOM.nextInt(100);
+        CardJSONServer.DealingShoe namedShoe = server.getNamedShoe(name);
+        assertTrue("Should remove " + name, server.removeNamedShoe(name));
+        assertFalse("Should not remove " + name + " twice", 
+                server.removeNamedShoe(name));
+        assertEquals(0, server.countNamedShoes());
+        assert namedShoe != server.getNamedShoe(name) 
+                : "Removed shoe should be replaced";
+    }
+    
+    @Test
+    public void testLimitNamedShoesRejectsZero() {
+        CardJSONServer server = new CardJSONServer(DEFAULT_TESTING_HTTP_PORT, 
+                2, DEFAULT_STOP);
+        String msg = "Maximum of 0 named shoes should cause an exception";
+        Throwable t = assertThrows(() -> {
+            server.limitNamedShoes(0, 
+                    CardJSONServer.DEFAULT_NAMED_SHOE_IDLE_LIMIT);
+            System.out.println(msg + ", not set limits on " 
+                    + server.toString());
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testDealingShoeUsesSpareShoe() {
+        int deckQty = 2;
+        int stop = 25;
+        int capacity = deckQty * CardDeck.INITIAL_NUMBER_OF_CARDS_PER_DECK 
+                - stop;
+        ServerMetrics metrics = new ServerMetrics();
+        CardJSONServer.DealingShoe dealingShoe 
+                = new CardJSONServer.DealingShoe(deckQty, stop, Runnable::run, 
+                        metrics, null);
+        assert dealingShoe.isSpareReady() : "Spare should be ready at first";
+        List<ProvenanceInscribedPlayingCard> cards 
+                = dealingShoe.giveCards(capacity + 1);
+        assertEquals(capacity + 1, new HashSet<>(cards).size());
+        assertEquals(capacity + 1, metrics.countCardsDealt());
+        assertEquals(1, metrics.countShoeRollovers());
+        assert dealingShoe.isSpareReady() 
+                : "Spare should be ready again after rollover";
+    }
+    
+    @Test
+    public void testDealingShoeWithoutReplenisherHasNoSpare() {
+        ServerMetrics metrics = new ServerMetrics();
+        CardJSONServer.DealingShoe dealingShoe 
+                = new CardJSONServer.DealingShoe(1, 0, null, metrics, null);
+        assert !dealingShoe.isSpareReady() : "There should be no spare";
+        List<ProvenanceInscribedPlayingCard> cards = dealingShoe.giveCards(53);
+        assertEquals(53, new HashSet<>(cards).size());
+        assertEquals(1, metrics.countShoeRollovers());
+    }
+    
+    @Test
+    public void testDealingShoePublishesCardsAndRollovers() throws Exception {
+        CardEventStream events = new CardEventStream(128);
+        CardJSONServer.DealingShoe dealingShoe 
+                = new CardJSONServer.DealingShoe(1, 0, null, 
+                        new ServerMetrics(), events);
+        try (CardEventStream.Subscription subscription 
+                = events.subscribe(CardEventStream.Overflow.DROP)) {
+            List<ProvenanceInscribedPlayingCard> cards 
+                    = dealingShoe.giveCards(53);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(54, subscription.drainTo(out));
+            String stream = out.toString(StandardCharsets.UTF_8);
+            for (ProvenanceInscribedPlayingCard card : cards) {
+                String expected = "event: card\ndata: " + card.toJSONString() 
+                        + "\n\n";
+                String msg = "Stream should include " + expected;
+                assert stream.contains(expected) : msg;
+            }
+            String expected = "event: rollover\ndata: {\"previousShoeID\":" 
+                    + cards.get(0).getShoeHash() + ",\"shoeID\":" 
+                    + cards.get(52).getShoeHash() + "}";
+            String msg = "Stream should include " + expected;
+            assert stream.contains(expected) : msg;
+        }
+    }
+    
     // TODO: Rewrite this test
     @Test
     public void testGiveCardReplenishesWithSameDeckQtyAndStop() {
@@ -196,6 +532,435 @@ public class CardJSONServerTest {
             assertEquals(expected, actual);
         });
     }
+    
+    @Test
+    public void testServerHandlesConcurrentRequests() throws Exception {
+        int port = 8080 + RANDOM.nextInt(1000);
+        int deckQty = RANDOM.nextInt(4) + 2;
+        int stop = 75 + RANDOM.nextInt(15);
+        int threadQty = 4;
+        ExecutorService requestExecutor 
+                = Executors.newFixedThreadPool(threadQty);
+        ExecutorService clients = Executors.newFixedThreadPool(threadQty);
+        String locator = LOCATOR_START_FRAGMENT + port + LOCATOR_END_FRAGMENT;
+        int requestQty = 16 * threadQty;
+        try (CardJSONServer server = new CardJSONServer(port, deckQty, stop, 
+                16, requestExecutor)) {
+            server.activate();
+            List<Callable<String>> requests = new ArrayList<>(requestQty);
+            for (int i = 0; i < requestQty; i++) {
+                requests.add(() -> {
+                    URL url = new URI(locator).toURL();
+                    HttpURLConnection conn 
+                            = (HttpURLConnection) url.openConnection();
+                    assertEquals(HttpURLConnection.HTTP_OK, 
+                            conn.getResponseCode());
+                    try (InputStream source = conn.getInputStream()) {
+                        return new String(source.readAllBytes(), 
+                                StandardCharsets.UTF_8);
+                    }
+                });
+            }
+            Set<String> bodies = new HashSet<>(requestQty);
+            for (Future<String> future : clients.invokeAll(requests)) {
+                String body = future.get();
+                String msg = "Response " + body + " should not be repeated";
+                assertTrue(msg, bodies.add(body));
+            }
+        } finally {
+            clients.shutdown();
+        }
+        String msg = "Server should leave supplied executor for caller";
+        assert !requestExecutor.isShutdown() : msg;
+        requestExecutor.shutdown();
+    }
+    
+    private static String fetch(String locator, int expectedStatus) 
+            throws Exception {
+        URL url = new URI(locator).toURL();
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        assertEquals(expectedStatus, conn.getResponseCode());
+        if (expectedStatus != HttpURLConnection.HTTP_OK) {
+            return null;
+        }
+        assertEquals(CardJSONServer.CONTENT_TYPE_SPECIFICATION, 
+                conn.getContentType());
+        try (InputStream source = conn.getInputStream()) {
+            return new String(source.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+    
+    private static void waitForRequests(CardJSONServer server, long expected) 
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (server.getMetrics().countRequests() < expected 
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, server.getMetrics().countRequests());
+    }
+    
+    private static int countCardsInArray(String body) {
+        assert body.startsWith("[") && body.endsWith("]") 
+                : "Body " + body + " should be a JSON array";
+        int count = 0;
+        int index = body.indexOf("\"name\":");
+        while (index > -1) {
+            count++;
+            index = body.indexOf("\"name\":", index + 1);
+        }
+        return count;
+    }
+    
+    @Test
+    public void testServerDealsBatch() throws Exception {
+        int port = 8080 + RANDOM.nextInt(1000);
+        int deckQty = RANDOM.nextInt(4) + 2;
+        int stop = 75 + RANDOM.nextInt(15);
+        int expected = RANDOM.nextInt(CardJSONServer.STREAMING_THRESHOLD) + 1;
+        try (CardJSONServer server = new CardJSONServer(port, deckQty, stop)) {
+            server.activate();
+            String body = fetch(LOCATOR_START_FRAGMENT + port 
+                    + "/dealcards/?count=" + expected, 
+                    HttpURLConnection.HTTP_OK);
+            int actual = countCardsInArray(body);
+            assertEquals(expected, actual);
+        }
+    }
+    
+    @Test
+    public void testServerStreamsLargeBatch() throws Exception {
+        int port = 8080 + RANDOM.nextInt(1000);
+        int deckQty = 2;
+        int stop = 25;
+        int expected = CardJSONServer.STREAMING_THRESHOLD 
+                + RANDOM.nextInt(CardJSONServer.MAXIMUM_BATCH_SIZE 
+                        - CardJSONServer.STREAMING_THRESHOLD) + 1;
+        try (CardJSONServer server = new CardJSONServer(port, deckQty, stop)) {
+            server.activate();
+            String body = fetch(LOCATOR_START_FRAGMENT + port 
+                    + "/dealcards/?count=" + expected, 
+                    HttpURLConnection.HTTP_OK);
+            int actual = countCardsInArray(body);
+            assertEquals(expected, actual);
+        }
+    }
+    
+    @Test
+    public void testServerRejectsBadBatchCount() throws Exception {
+        int port = 8080 + RANDOM.nextInt(1000);
+        int deckQty = RANDOM.nextInt(4) + 2;
+        int stop = 75 + RANDOM.nextInt(15);
+        String[] badCounts = {"0", "-1", "many", 
+            Integer.toString(CardJSONServer.MAXIMUM_BATCH_SIZE + 1)};
+        try (CardJSONServer server = new CardJSONServer(port, deckQty, stop)) {
+            server.activate();
+            for (String badCount : badCounts) {
+                fetch(LOCATOR_START_FRAGMENT + port + "/dealcards/?count=" 
+                        + badCount, HttpURLConnection.HTTP_BAD_REQUEST);
+            }
+        }
+    }
+    
+    @Test
+    public void testServerDealsFromNamedShoe() throws Exception {
+        int port = 8080 + RANDOM.nextInt(1000);
+        int deckQty = RANDOM.nextInt(4) + 2;
+        int stop = 75 + RANDOM.nextInt(15);
+        String shoeLocator = LOCATOR_START_FRAGMENT + port + "/shoe/table-" 
+                + RANDOM.nextInt(100);
+        try (CardJSONServer server = new CardJSONServer(port, deckQty, stop)) {
+            server.activate();
+            String body = fetch(shoeLocator + "/dealcard", 
+                    HttpURLConnection.HTTP_OK);
+            ProvenanceInscribedPlayingCard card 
+                    = ProvenanceInscribedPlayingCard.parseJSON(body);
+            String batch = fetch(shoeLocator + "/dealcards?count=5", 
+                    HttpURLConnection.HTTP_OK);
+            assertEquals(5, countCardsInArray(batch));
+            String msg = "Batch should come from same shoe as " + body;
+            assert batch.contains("\"shoeID\":" + card.getShoeHash() + ",") 
+                    : msg;
+            assertEquals(1, server.countNamedShoes());
+            fetch(shoeLocator + "/shuffle", HttpURLConnection.HTTP_NOT_FOUND);
+            fetch(LOCATOR_START_FRAGMENT + port + "/shoe/no.dots/dealcard", 
+                    HttpURLConnection.HTTP_BAD_REQUEST);
+            URL url = new URI(shoeLocator).toURL();
+            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+            conn.setRequestMethod("DELETE");
+            assertEquals(HttpURLConnection.HTTP_NO_CONTENT, 
+                    conn.getResponseCode());
+            assertEquals(0, server.countNamedShoes());
+        }
+    }
+    
+    @Test
+    public void testServerChecksMethodForNamedShoe() throws Exception {
+        int port = 8080 + RANDOM.nextInt(1000);
+        int deckQty = RANDOM.nextInt(4) + 2;
+        int stop = 75 + RANDOM.nextInt(15);
+        String shoeLocator = LOCATOR_START_FRAGMENT + port + "/shoe/table-" 
+                + RANDOM.nextInt(100);
+        try (CardJSONServer server = new CardJSONServer(port, deckQty, stop)) {
+            server.activate();
+            String[] actions = {"/dealcard", "/dealcards?count=5"};
+            for (String action : actions) {
+                URL url = new URI(shoeLocator + action).toURL();
+                HttpURLConnection conn 
+                        = (HttpURLConnection) url.openConnection();
+                conn.setRequestMethod("DELETE");
+                assertEquals(HttpURLConnection.HTTP_BAD_METHOD, 
+                        conn.getResponseCode());
+                assertEquals("GET", conn.getHeaderField("Allow"));
+            }
+            fetch(shoeLocator, HttpURLConnection.HTTP_BAD_METHOD);
+            assertEquals(0, server.countNamedShoes());
+            assertEquals(0L, server.getMetrics().countCardsDealt());
+        }
+    }
+    
+    @Test
+    public void testServerTurnsAwayNamedShoesOverLimit() throws Exception {
+        int port = 8080 + RANDOM.nextInt(1000);
+        int deckQty = RANDOM.nextInt(4) + 2;
+        int stop = 75 + RANDOM.nextInt(15);
+        try (CardJSONServer server = new CardJSONServer(port, deckQty, stop)) {
+            server.limitNamedShoes(1, 
+                    CardJSONServer.DEFAULT_NAMED_SHOE_IDLE_LIMIT);
+            server.activate();
+            String locator = LOCATOR_START_FRAGMENT + port + "/shoe/";
+            fetch(locator + "first/dealcard", HttpURLConnection.HTTP_OK);
+            fetch(locator + "second/dealcard", 
+                    HttpURLConnection.HTTP_UNAVAILABLE);
+        }
+    }
+    
+    @Test
+    public void testServerReportsMetrics() throws Exception {
+        int port = 8080 + RANDOM.nextInt(1000);
+        int deckQty = RANDOM.nextInt(4) + 2;
+        int stop = 75 + RANDOM.nextInt(15);
+        int requestQty = RANDOM.nextInt(8) + 2;
+        try (CardJSONServer server = new CardJSONServer(port, deckQty, stop)) {
+            server.activate();
+            String locator = LOCATOR_START_FRAGMENT + port;
+            for (int i = 0; i < requestQty; i++) {
+                fetch(locator + LOCATOR_END_FRAGMENT, 
+                        HttpURLConnection.HTTP_OK);
+            }
+            fetch(locator + "/dealcards/?count=3", HttpURLConnection.HTTP_OK);
+            waitForRequests(server, requestQty + 1);
+            String body = fetch(locator + "/metrics", 
+                    HttpURLConnection.HTTP_OK);
+            String[] expectedFragments = {"\"requests\":" + (requestQty + 1) 
+                    + ",", "\"cardsDealt\":" + (requestQty + 3) + ",", 
+                "\"latencyMicros\":{\"p50\":", "\"p99\":", "\"p999\":"};
+            for (String fragment : expectedFragments) {
+                String msg = "Metrics " + body + " should contain " + fragment;
+                assert body.contains(fragment) : msg;
+            }
+        }
+    }
+    
+    @Test
+    public void testServerReportsHealth() throws Exception {
+        int port = 8080 + RANDOM.nextInt(1000);
+        int deckQty = RANDOM.nextInt(4) + 2;
+        int stop = 75 + RANDOM.nextInt(15);
+        try (CardJSONServer server = new CardJSONServer(port, deckQty, stop)) {
+            server.activate();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!server.isSpareShoeReady() 
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            String body = fetch(LOCATOR_START_FRAGMENT + port + "/health", 
+                    HttpURLConnection.HTTP_OK);
+            String msg = "Health " + body + " should report spare shoe ready";
+            assert body.contains("\"spareShoeReady\":true") : msg;
+        }
+    }
+    
+    private static void waitForPendingRequests(CardJSONServer server, 
+            int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (server.countPendingRequests() != expected 
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, server.countPendingRequests());
+    }
+    
+    @Test
+    public void testServerTurnsAwayRequestsOverAdmissionLimit() 
+            throws Exception {
+        int port = 8080 + RANDOM.nextInt(1000);
+        int deckQty = RANDOM.nextInt(4) + 2;
+        int stop = 75 + RANDOM.nextInt(15);
+        String locator = LOCATOR_START_FRAGMENT + port + LOCATOR_END_FRAGMENT;
+        try (CardJSONServer server = new CardJSONServer(port, deckQty, stop)) {
+            server.limitAdmissions(1);
+            server.activate();
+            try (Socket slowClient = new Socket("localhost", port)) {
+                slowClient.getOutputStream().write(("GET " 
+                        + LOCATOR_END_FRAGMENT + " HTTP/1.1\r\n") 
+                        .getBytes(StandardCharsets.US_ASCII));
+                slowClient.getOutputStream().flush();
+                waitForPendingRequests(server, 1);
+                URL url = new URI(locator).toURL();
+                HttpURLConnection conn 
+                        = (HttpURLConnection) url.openConnection();
+                assertEquals(HttpURLConnection.HTTP_UNAVAILABLE, 
+                        conn.getResponseCode());
+                assertEquals(Integer.toString(CardJSONServer 
+                        .BUSY_RETRY_AFTER), conn.getHeaderField("Retry-After"));
+                assertEquals(1, server.getMetrics().countRequestsRejected());
+            }
+            waitForPendingRequests(server, 0);
+            fetch(locator, HttpURLConnection.HTTP_OK);
+        }
+    }
+    
+    @Test
+    public void testRejectionsShareFewThreads() throws Exception {
+        int port = 8080 + RANDOM.nextInt(1000);
+        String locator = LOCATOR_START_FRAGMENT + port + LOCATOR_END_FRAGMENT;
+        try (CardJSONServer server = new CardJSONServer(port, 2, 75)) {
+            server.limitAdmissions(1);
+            server.activate();
+            try (Socket slowClient = new Socket("localhost", port)) {
+                slowClient.getOutputStream().write(("GET " 
+                        + LOCATOR_END_FRAGMENT + " HTTP/1.1\r\n") 
+                        .getBytes(StandardCharsets.US_ASCII));
+                slowClient.getOutputStream().flush();
+                waitForPendingRequests(server, 1);
+                int requestQty = 4 * CardJSONServer.REJECTION_THREADS 
+                        + RANDOM.nextInt(16);
+                ExecutorService pool = Executors.newFixedThreadPool(requestQty);
+                try {
+                    List<Future<String>> futures = new ArrayList<>(requestQty);
+                    for (int i = 0; i < requestQty; i++) {
+                        futures.add(pool.submit(() -> fetch(locator, 
+                                HttpURLConnection.HTTP_UNAVAILABLE)));
+                    }
+                    for (Future<String> future : futures) {
+                        future.get();
+                    }
+                } finally {
+                    pool.shutdown();
+                }
+                long threadQty = Thread.getAllStackTraces().keySet().stream()
+                        .filter(thread -> thread.getName() 
+                                .equals("CardJSONServer-rejection"))
+                        .count();
+                String msg = "Turning away " + requestQty 
+                        + " requests should take no more than " 
+                        + CardJSONServer.REJECTION_THREADS + " threads, took " 
+                        + threadQty;
+                assert threadQty <= CardJSONServer.REJECTION_THREADS : msg;
+                assertEquals(requestQty, 
+                        server.getMetrics().countRequestsRejected());
+            }
+        }
+    }
+    
+    @Test
+    public void testServerLimitsRequestRate() throws Exception {
+        int port = 8080 + RANDOM.nextInt(1000);
+        int deckQty = RANDOM.nextInt(4) + 2;
+        int stop = 75 + RANDOM.nextInt(15);
+        int burst = RANDOM.nextInt(4) + 1;
+        String locator = LOCATOR_START_FRAGMENT + port + LOCATOR_END_FRAGMENT;
+        try (CardJSONServer server = new CardJSONServer(port, deckQty, stop)) {
+            server.limitRequestRate(0.1, burst);
+            server.activate();
+            for (int i = 0; i < burst; i++) {
+                fetch(locator, HttpURLConnection.HTTP_OK);
+            }
+            URL url = new URI(locator).toURL();
+            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+            assertEquals(429, conn.getResponseCode());
+            int retryAfter = Integer.parseInt(conn 
+                    .getHeaderField("Retry-After"));
+            String msg = "Retry-After " + retryAfter 
+                    + " should be about 10 seconds";
+            assert retryAfter > 0 && retryAfter <= 10 : msg;
+            assertEquals(1, server.getMetrics().countRequestsRateLimited());
+            assertEquals(burst, server.getMetrics().countCardsDealt());
+        }
+    }
+    
+    @Test
+    public void testLimitAdmissionsRejectsZero() {
+        CardJSONServer server = new CardJSONServer(DEFAULT_TESTING_HTTP_PORT, 
+                2, DEFAULT_STOP);
+        String msg = "Admission limit 0 should cause an exception";
+        Throwable t = assertThrows(() -> {
+            server.limitAdmissions(0);
+            System.out.println(msg + ", not limited " + server.toString());
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testLimitRequestRateRejectsZeroRate() {
+        CardJSONServer server = new CardJSONServer(DEFAULT_TESTING_HTTP_PORT, 
+                2, DEFAULT_STOP);
+        String msg = "Request rate 0.0 should cause an exception";
+        Throwable t = assertThrows(() -> {
+            server.limitRequestRate(0.0, 10);
+            System.out.println(msg + ", not limited " + server.toString());
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testServerStreamsCardEvents() throws Exception {
+        int port = 8080 + RANDOM.nextInt(1000);
+        int deckQty = RANDOM.nextInt(4) + 2;
+        int stop = 75 + RANDOM.nextInt(15);
+        try (CardJSONServer server = new CardJSONServer(port, deckQty, stop)) {
+            server.activate();
+            URL url = new URI(LOCATOR_START_FRAGMENT + port 
+                    + "/events?overflow=disconnect").toURL();
+            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+            assertEquals(HttpURLConnection.HTTP_OK, conn.getResponseCode());
+            String contentType = conn.getContentType();
+            String msg = "Content type " + contentType 
+                    + " should be event stream";
+            assert contentType.startsWith("text/event-stream") : msg;
+            assertEquals(1, server.countSpectators());
+            ProvenanceInscribedPlayingCard card = server.giveCard();
+            try (BufferedReader reader = new BufferedReader( 
+                    new InputStreamReader(conn.getInputStream(), 
+                            StandardCharsets.UTF_8))) {
+                String line = reader.readLine();
+                while (line != null && !line.startsWith("data: ")) {
+                    line = reader.readLine();
+                }
+                assertEquals("data: " + card.toJSONString(), line);
+            }
+        }
+    }
+    
+    @Test
+    public void testServerRejectsBadOverflowPolicy() throws Exception {
+        int port = 8080 + RANDOM.nextInt(1000);
+        int deckQty = RANDOM.nextInt(4) + 2;
+        int stop = 75 + RANDOM.nextInt(15);
+        try (CardJSONServer server = new CardJSONServer(port, deckQty, stop)) {
+            server.activate();
+            fetch(LOCATOR_START_FRAGMENT + port + "/events?overflow=block", 
+                    HttpURLConnection.HTTP_BAD_REQUEST);
+            assertEquals(0, server.countSpectators());
+        }
+    }
 
 @org.junit.Ignore
     @Test
@@ -438,6 +1203,23 @@ public class CardJSONServerTest {
         System.out.println("\"" + excMsg + "\"");
     }
     
+    @Test
+    public void testConstructorRejectsBacklogZero() {
+        int badBacklog = 0;
+        String msg = "Backlog " + badBacklog + " should cause an exception";
+        Throwable t = assertThrows(() -> {
+            CardJSONServer badServer = new CardJSONServer( 
+                    DEFAULT_TESTING_HTTP_PORT, 2, DEFAULT_STOP, badBacklog, 
+                    null);
+            System.out.println(msg + ", not created instance " 
+                    + badServer.toString());
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
     @Test
     public void testConstructorRejectsNegativeStop() {
         int deckQty = RANDOM.nextInt(8) + 2;
@@ -460,4 +1242,88 @@ public class CardJSONServerTest {
         }
     }
     
+    @Test
+    public void testServerSendsCardImages() throws Exception {
+        int port = 8080 + RANDOM.nextInt(1000);
+        Rank rank = Rank.values()[RANDOM.nextInt(Rank.values().length)];
+        Suit suit = Suit.values()[RANDOM.nextInt(Suit.values().length)];
+        int width = StubRenderer.MINIMUM_WIDTH + RANDOM.nextInt(200);
+        try (CardJSONServer server = new CardJSONServer(port, 2, 
+                DEFAULT_STOP)) {
+            server.useCardImageRenderer(new StubRenderer());
+            server.activate();
+            URL url = new URI(LOCATOR_START_FRAGMENT + port + "/cardimage/" 
+                    + rank.getWord() + "/" + suit.getWord() + "?width=" 
+                    + width).toURL();
+            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+            assertEquals(HttpURLConnection.HTTP_OK, conn.getResponseCode());
+            assertEquals("image/png", conn.getContentType());
+            assertEquals(CardJSONServer.CARD_IMAGE_CACHE_CONTROL, 
+                    conn.getHeaderField("Cache-Control"));
+            String entityTag = conn.getHeaderField("ETag");
+            String msg = "Entity tag " + entityTag + " should be quoted";
+            assert entityTag != null && entityTag.startsWith("\"") 
+                    && entityTag.endsWith("\"") : msg;
+            byte[] expected = StubRenderer.render(new PlayingCard(rank, suit), 
+                    width);
+            try (InputStream source = conn.getInputStream()) {
+                assertArrayEquals(expected, source.readAllBytes());
+            }
+            HttpURLConnection again 
+                    = (HttpURLConnection) url.openConnection();
+            again.setRequestProperty("If-None-Match", entityTag);
+            assertEquals(HttpURLConnection.HTTP_NOT_MODIFIED, 
+                    again.getResponseCode());
+            assertEquals(entityTag, again.getHeaderField("ETag"));
+        }
+    }
+    
+    @Test
+    public void testServerRejectsBadCardImageRequests() throws Exception {
+        int port = 8080 + RANDOM.nextInt(1000);
+        String start = LOCATOR_START_FRAGMENT + port + "/cardimage/";
+        try (CardJSONServer server = new CardJSONServer(port, 2, 
+                DEFAULT_STOP)) {
+            server.useCardImageRenderer(new StubRenderer());
+            server.activate();
+            fetch(start + "Knight/Hearts", HttpURLConnection.HTTP_NOT_FOUND);
+            fetch(start + "Queen/Roses", HttpURLConnection.HTTP_NOT_FOUND);
+            fetch(start + "Queen", HttpURLConnection.HTTP_NOT_FOUND);
+            fetch(start + "Queen/Hearts?width=" 
+                    + (StubRenderer.MINIMUM_WIDTH - 1), 
+                    HttpURLConnection.HTTP_BAD_REQUEST);
+            fetch(start + "Queen/Hearts?width=" 
+                    + (StubRenderer.MAXIMUM_WIDTH + 1), 
+                    HttpURLConnection.HTTP_BAD_REQUEST);
+            fetch(start + "Queen/Hearts?width=wide", 
+                    HttpURLConnection.HTTP_BAD_REQUEST);
+        }
+    }
+    
+    @Test
+    public void testServerWithoutRendererHasNoCardImages() throws Exception {
+        int port = 8080 + RANDOM.nextInt(1000);
+        try (CardJSONServer server = new CardJSONServer(port, 2, 
+                DEFAULT_STOP)) {
+            server.activate();
+            fetch(LOCATOR_START_FRAGMENT + port + "/cardimage/Queen/Hearts", 
+                    HttpURLConnection.HTTP_NOT_FOUND);
+        }
+    }
+    
+    @Test
+    public void testUseCardImageRendererRejectsNull() {
+        CardJSONServer server = new CardJSONServer(DEFAULT_TESTING_HTTP_PORT, 
+                2, DEFAULT_STOP);
+        String msg = "Null card image renderer should cause an exception";
+        Throwable t = assertThrows(() -> {
+            server.useCardImageRenderer(null);
+            System.out.println(msg + ", not accepted");
+        }, NullPointerException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package playingcards;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static playingcards.PlayingCardTest.RANDOM;
+
+/**
+ * Tests of the CardOrder class.
+ * @author Alonso del Arte
+ */
+public class CardOrderTest {
+    
+    /**
+     * Test of the codeOf function, of the CardOrder class.
+     */
+    @Test
+    public void testCodeOf() {
+        System.out.println("codeOf");
+        CardDeck deck = new CardDeck();
+        for (int expected = 0; expected < 52; expected++) {
+            assertEquals(expected, CardOrder.codeOf(deck.getNextCard()));
+        }
+    }
+    
+    /**
+     * Test of the shuffle function, of the CardOrder class.
+     */
+    @Test
+    public void testShuffle() {
+        System.out.println("shuffle");
+        List<PlayingCard> cards = new ArrayList<>(new CardDeck().cards);
+        Set<PlayingCard> expected = new HashSet<>(cards);
+        long seed = RANDOM.nextLong();
+        long fingerprint = CardOrder.shuffle(cards, 0, cards.size(), 
+                new Random(seed));
+        Set<PlayingCard> actual = new HashSet<>(cards);
+        assertEquals(expected, actual);
+        assertEquals(CardOrder.fingerprintOf(cards), fingerprint);
+        List<PlayingCard> sameSeedCards = new ArrayList<>(new CardDeck().cards);
+        CardOrder.shuffle(sameSeedCards, 0, sameSeedCards.size(), 
+                new Random(seed));
+        assertEquals(cards, sameSeedCards);
+    }
+    
+    @Test
+    public void testShuffleLeavesCardsBeforeFrom() {
+        List<PlayingCard> cards = new ArrayList<>(new CardDeck().cards);
+        List<PlayingCard> expected = new ArrayList<>(cards.subList(0, 20));
+        CardOrder.shuffle(cards, 20, cards.size(), new Random());
+        assertEquals(expected, cards.subList(0, 20));
+    }
+    
+    @Test
+    public void testShufflePartiallyFingerprintsPrefix() {
+        List<PlayingCard> cards = new ArrayList<>(new CardDeck().cards);
+        int to = RANDOM.nextInt(10, 40);
+        long fingerprint = CardOrder.shuffle(cards, 0, to, new Random());
+        assertEquals(CardOrder.fingerprintOf(cards.subList(0, to)), 
+                fingerprint);
+    }
+    
+    @Test
+    public void testShuffleGivesEachCardEachPosition() {
+        int[][] counts = new int[52][52];
+        Random random = new Random(RANDOM.nextLong());
+        int trials = 20000;
+        for (int trial = 0; trial < trials; trial++) {
+            List<PlayingCard> cards = new ArrayList<>(new CardDeck().cards);
+            CardOrder.shuffle(cards, 0, cards.size(), random);
+            for (int position = 0; position < 52; position++) {
+                counts[CardOrder.codeOf(cards.get(position))][position]++;
+            }
+        }
+        double expected = trials / 52.0;
+        for (int code = 0; code < 52; code++) {
+            for (int position = 0; position < 52; position++) {
+                String msg = "Card " + code + " was at position " + position 
+                        + " " + counts[code][position] + " times, expected " 
+                        + "about " + expected;
+                assert Math.abs(counts[code][position] - expected) 
+                        < expected / 2 : msg;
+            }
+        }
+    }
+    
+    @Test
+    public void testFingerprintTellsOrdersApart() {
+        List<PlayingCard> cards = new CardDeck().cards;
+        List<PlayingCard> swapped = new ArrayList<>(cards);
+        int i = RANDOM.nextInt(51);
+        PlayingCard card = swapped.get(i);
+        swapped.set(i, swapped.get(i + 1));
+        swapped.set(i + 1, card);
+        String msg = "Swapping positions " + i + " and " + (i + 1) 
+                + " should change fingerprint";
+        assert CardOrder.fingerprintOf(cards) 
+                != CardOrder.fingerprintOf(swapped) : msg;
+        msg = "Dropping the last card should change fingerprint";
+        assert CardOrder.fingerprintOf(cards) 
+                != CardOrder.fingerprintOf(cards.subList(0, 51)) : msg;
+    }
+    
+}
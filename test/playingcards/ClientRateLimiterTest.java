@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package playingcards;
+
+import java.net.InetAddress;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+import static playingcards.PlayingCardTest.RANDOM;
+
+/**
+ * Tests of the ClientRateLimiter class.
+ * @author Alonso del Arte
+ */
+public class ClientRateLimiterTest {
+    
+    private static final long NANOS_PER_SECOND = 1000000000L;
+    
+    private static InetAddress makeAddress(int n) throws Exception {
+        return InetAddress.getByAddress(new byte[]{10, (byte) (n >> 16), 
+            (byte) (n >> 8), (byte) n});
+    }
+    
+    /**
+     * Test of the tryAcquire function, of the ClientRateLimiter class.
+     */
+    @Test
+    public void testTryAcquire() throws Exception {
+        System.out.println("tryAcquire");
+        int burst = RANDOM.nextInt(16) + 1;
+        ClientRateLimiter limiter = new ClientRateLimiter(4.0, burst);
+        InetAddress client = makeAddress(1);
+        long now = RANDOM.nextLong();
+        for (int i = 0; i < burst; i++) {
+            assertEquals(0L, limiter.tryAcquire(client, now));
+        }
+        long wait = limiter.tryAcquire(client, now);
+        assertEquals(NANOS_PER_SECOND / 4, wait);
+        assertEquals(0L, limiter.tryAcquire(client, now + wait));
+        String msg = "Client should have to wait again right after";
+        long nextWait = limiter.tryAcquire(client, now + wait);
+        assert nextWait > 0L : msg;
+    }
+    
+    @Test
+    public void testBucketRefillsUpToBurst() throws Exception {
+        int burst = RANDOM.nextInt(16) + 1;
+        ClientRateLimiter limiter = new ClientRateLimiter(10.0, burst);
+        InetAddress client = makeAddress(2);
+        long now = 0L;
+        for (int i = 0; i < burst; i++) {
+            limiter.tryAcquire(client, now);
+        }
+        now += 60 * NANOS_PER_SECOND;
+        for (int i = 0; i < burst; i++) {
+            assertEquals(0L, limiter.tryAcquire(client, now));
+        }
+        String msg = "Bucket should not hold more than burst " + burst;
+        long wait = limiter.tryAcquire(client, now);
+        assert wait > 0L : msg;
+    }
+    
+    @Test
+    public void testClientsHaveSeparateBuckets() throws Exception {
+        ClientRateLimiter limiter = new ClientRateLimiter(1.0, 1);
+        InetAddress first = makeAddress(3);
+        InetAddress second = makeAddress(4);
+        long now = System.nanoTime();
+        assertEquals(0L, limiter.tryAcquire(first, now));
+        String msg = "First client should have to wait";
+        long wait = limiter.tryAcquire(first, now);
+        assert wait > 0L : msg;
+        assertEquals(0L, limiter.tryAcquire(second, now));
+    }
+    
+    /**
+     * Test of the countClients function, of the ClientRateLimiter class.
+     */
+    @Test
+    public void testCountClients() throws Exception {
+        System.out.println("countClients");
+        ClientRateLimiter limiter = new ClientRateLimiter(1000.0, 1);
+        int expected = RANDOM.nextInt(64) + 1;
+        for (int i = 0; i < expected; i++) {
+            limiter.tryAcquire(makeAddress(i), 0L);
+        }
+        assertEquals(expected, limiter.countClients());
+    }
+    
+    @Test
+    public void testForgetsIdleClientsWhenFull() throws Exception {
+        ClientRateLimiter limiter = new ClientRateLimiter(1000.0, 1);
+        for (int i = 0; i < ClientRateLimiter.MAXIMUM_TRACKED_CLIENTS; i++) {
+            limiter.tryAcquire(makeAddress(i), 0L);
+        }
+        assertEquals(ClientRateLimiter.MAXIMUM_TRACKED_CLIENTS, 
+                limiter.countClients());
+        limiter.tryAcquire(makeAddress(ClientRateLimiter 
+                .MAXIMUM_TRACKED_CLIENTS), NANOS_PER_SECOND);
+        assertEquals(1, limiter.countClients());
+    }
+    
+    @Test
+    public void testConstructorRejectsBadRateOrBurst() {
+        double[][] badSettings = {{0.0, 1}, {-1.0, 1}, {Double.NaN, 1}, 
+            {1.0, 0}};
+        for (double[] settings : badSettings) {
+            String msg = "Rate " + settings[0] + " and burst " 
+                    + (int) settings[1] + " should cause an exception";
+            Throwable t = assertThrows(() -> {
+                ClientRateLimiter badLimiter 
+                        = new ClientRateLimiter(settings[0], 
+                                (int) settings[1]);
+                System.out.println(msg + ", not created instance " 
+                        + badLimiter.toString());
+            }, IllegalArgumentException.class, msg);
+            String excMsg = t.getMessage();
+            assert excMsg != null : "Exception message should not be null";
+            assert !excMsg.isBlank() : "Exception message should not be blank";
+            System.out.println("\"" + excMsg + "\"");
+        }
+    }
+    
+}
@@ -16,9 +16,16 @@
  */
 package playingcards;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
 import org.junit.Test;
 import static org.junit.Assert.*;
 
+import static org.testframe.api.Asserters.assertThrows;
 import static org.testframe.api.Asserters.assertZero;
 
 import static playingcards.PlayingCardTest.RANDOM;
@@ -198,6 +205,191 @@ public class MultiDeckCardDispenserTest {
         }
     }
     
+    /**
+     * Test of the countDealt function, of the MultiDeckCardDispenser class.
+     */
+    @Test
+    public void testCountDealt() {
+        System.out.println("countDealt");
+        MultiDeckCardDispenser dispenser = new MultiDeckCardDispenser(2);
+        int expected = RANDOM.nextInt(1, 100);
+        for (int i = 0; i < expected; i++) {
+            dispenser.getNextCard();
+        }
+        assertEquals(expected, dispenser.countDealt());
+    }
+    
+    /**
+     * Test of the positionOf function, of the MultiDeckCardDispenser class.
+     */
+    @Test
+    public void testPositionOf() {
+        System.out.println("positionOf");
+        MultiDeckCardDispenser dispenser = new MultiDeckCardDispenser(3);
+        int count = RANDOM.nextInt(10, 100);
+        PlayingCard[] dealt = new PlayingCard[count];
+        for (int i = 0; i < count; i++) {
+            dealt[i] = dispenser.getNextCard();
+        }
+        for (int expected = 0; expected < count; expected++) {
+            assertEquals(expected, dispenser.positionOf(dealt[expected]));
+        }
+    }
+    
+    @Test
+    public void testPositionOfCopiedCard() {
+        MultiDeckCardDispenser dispenser = new MultiDeckCardDispenser(3);
+        PlayingCard card = dispenser.getNextCard();
+        PlayingCard copy = new PlayingCard(card.getRank(), card.getSuit());
+        assertEquals(-1, dispenser.positionOf(copy));
+    }
+    
+    /**
+     * Test of the dealtCardAt function, of the MultiDeckCardDispenser class.
+     */
+    @Test
+    public void testDealtCardAt() {
+        System.out.println("dealtCardAt");
+        MultiDeckCardDispenser dispenser = new MultiDeckCardDispenser(3);
+        int count = RANDOM.nextInt(10, 100);
+        PlayingCard[] dealt = new PlayingCard[count];
+        for (int i = 0; i < count; i++) {
+            dealt[i] = dispenser.getNextCard();
+        }
+        for (int i = 0; i < count; i++) {
+            assertSame(dealt[i], dispenser.dealtCardAt(i));
+        }
+        assertEquals(count, dispenser.countDealt());
+    }
+    
+    @Test
+    public void testDealtCardAtRejectsUndealtPosition() {
+        MultiDeckCardDispenser dispenser = new MultiDeckCardDispenser(2);
+        dispenser.getNextCard();
+        String msg = "Card not dealt yet should not be retrievable";
+        Throwable t = assertThrows(() -> {
+            PlayingCard card = dispenser.dealtCardAt(1);
+            System.out.println(msg + ", not given " + card.toString());
+        }, IndexOutOfBoundsException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    /**
+     * Test of the writeState and readState functions, of the 
+     * MultiDeckCardDispenser class.
+     */
+    @Test
+    public void testWriteStateReadState() throws IOException {
+        System.out.println("writeState/readState");
+        int numberOfDecks = RANDOM.nextInt(2, 8);
+        int plasticCardPos = RANDOM.nextInt(40, 80);
+        MultiDeckCardDispenser dispenser 
+                = new MultiDeckCardDispenser(numberOfDecks, plasticCardPos);
+        int dealtCount = RANDOM.nextInt(1, 50);
+        PlayingCard[] dealt = new PlayingCard[dealtCount];
+        for (int i = 0; i < dealtCount; i++) {
+            dealt[i] = dispenser.getNextCard();
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        dispenser.writeState(new DataOutputStream(bytes));
+        MultiDeckCardDispenser restored = MultiDeckCardDispenser.readState( 
+                new DataInputStream(new ByteArrayInputStream( 
+                        bytes.toByteArray())));
+        assertEquals(dealtCount, restored.countDealt());
+        for (int i = 0; i < dealtCount; i++) {
+            PlayingCard card = restored.dealtCardAt(i);
+            assertEquals(dealt[i], card);
+            String msg = "Restored card " + card.toString() 
+                    + " should come from restored dispenser";
+            assert restored.provenance(card) : msg;
+        }
+        assertEquals(dispenser.countRemaining(), restored.countRemaining());
+        while (dispenser.hasNext()) {
+            assertEquals(dispenser.getNextCard(), restored.getNextCard());
+        }
+        assert !restored.hasNext() : "Restored dispenser should be depleted";
+    }
+    
+    @Test
+    public void testReadStateRejectsInvalidState() {
+        byte[] bytes = {1, 0, 53, 0, 0};
+        String msg = "Invalid dispenser state should cause exception";
+        Throwable t = assertThrows(() -> {
+            MultiDeckCardDispenser dispenser 
+                    = MultiDeckCardDispenser.readState(new DataInputStream( 
+                            new ByteArrayInputStream(bytes)));
+            System.out.println(msg + ", not given " + dispenser.toString());
+        }, IOException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testSameSeedSameOrder() {
+        int numberOfDecks = RANDOM.nextInt(2, 8);
+        int plasticCardPos = RANDOM.nextInt(40, 80);
+        long seed = RANDOM.nextLong();
+        MultiDeckCardDispenser dispenser = new MultiDeckCardDispenser( 
+                numberOfDecks, plasticCardPos, seed);
+        MultiDeckCardDispenser sameSeedDispenser = new MultiDeckCardDispenser( 
+                numberOfDecks, plasticCardPos, seed);
+        assertEquals(dispenser.countRemaining(), 
+                sameSeedDispenser.countRemaining());
+        while (dispenser.hasNext()) {
+            assertEquals(dispenser.getNextCard(), 
+                    sameSeedDispenser.getNextCard());
+        }
+    }
+    
+    /**
+     * Test of the fingerprint function, of the MultiDeckCardDispenser class.
+     */
+    @Test
+    public void testFingerprint() throws IOException {
+        System.out.println("fingerprint");
+        long seed = RANDOM.nextLong();
+        MultiDeckCardDispenser dispenser = new MultiDeckCardDispenser(6, 75, 
+                seed);
+        MultiDeckCardDispenser sameSeedDispenser 
+                = new MultiDeckCardDispenser(6, 75, seed);
+        MultiDeckCardDispenser otherDispenser 
+                = new MultiDeckCardDispenser(6, 75, seed + 1);
+        assertEquals(dispenser.fingerprint(), sameSeedDispenser.fingerprint());
+        String msg = "Dispensers with different seeds should have different " 
+                + "fingerprints";
+        assert dispenser.fingerprint() != otherDispenser.fingerprint() : msg;
+        dispenser.getNextCard();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        dispenser.writeState(new DataOutputStream(bytes));
+        MultiDeckCardDispenser restored = MultiDeckCardDispenser.readState( 
+                new DataInputStream(new ByteArrayInputStream( 
+                        bytes.toByteArray())));
+        assertEquals(dispenser.fingerprint(), restored.fingerprint());
+    }
+    
+    @Test
+    public void testDifferentSeedDifferentOrder() {
+        long seed = RANDOM.nextLong();
+        MultiDeckCardDispenser dispenser = new MultiDeckCardDispenser(6, 75, 
+                seed);
+        MultiDeckCardDispenser otherDispenser = new MultiDeckCardDispenser(6, 
+                75, seed + 1);
+        int sameCount = 0;
+        while (dispenser.hasNext()) {
+            if (dispenser.getNextCard().equals(otherDispenser.getNextCard())) {
+                sameCount++;
+            }
+        }
+        String msg = "Dispensers with different seeds should differ in order, " 
+                + sameCount + " cards in same position is too many";
+        assert sameCount < 52 : msg;
+    }
+    
     /**
      * Tests that zero is an invalid number of decks constructor parameter.
      */
@@ -16,6 +16,7 @@
  */
 package playingcards;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -99,6 +100,35 @@ public class ProvenanceInscribedPlayingCardTest {
         }
     }
     
+    /**
+     * Test of the writeJSON function, of the ProvenanceInscribedPlayingCard 
+     * class.
+     */
+    @Test
+    public void testWriteJSON() {
+        System.out.println("writeJSON");
+        int[] hashes = {RANDOM.nextInt(), -RANDOM.nextInt(Integer.MAX_VALUE), 0, 
+            Integer.MIN_VALUE, Integer.MAX_VALUE};
+        byte[] buffer 
+                = new byte[ProvenanceInscribedPlayingCard.MAXIMUM_JSON_LENGTH 
+                + 1];
+        for (int deckHash : hashes) {
+            int shoeHash = hashes[RANDOM.nextInt(hashes.length)];
+            for (Suit suit : Suit.values()) {
+                for (Rank rank : Rank.values()) {
+                    ProvenanceInscribedPlayingCard card 
+                            = new ProvenanceInscribedPlayingCard(rank, suit, 
+                                    deckHash, shoeHash);
+                    String expected = card.toJSONString();
+                    int end = card.writeJSON(buffer, 1);
+                    String actual = new String(buffer, 1, end - 1, 
+                            StandardCharsets.UTF_8);
+                    assertEquals(expected, actual);
+                }
+            }
+        }
+    }
+    
     @Test
     public void testReferentialEquality() {
         int deckHash = RANDOM.nextInt();
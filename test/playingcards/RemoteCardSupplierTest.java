@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package playingcards;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+import static playingcards.PlayingCardTest.RANDOM;
+
+/**
+ * Tests of the RemoteCardSupplier class. These tests start card servers on 
+ * random ports, so they take a few seconds longer than they otherwise would.
+ * @author Alonso del Arte
+ */
+public class RemoteCardSupplierTest {
+    
+    private static final String LOCATOR_START_FRAGMENT = "http://localhost:";
+    
+    private static int choosePort() {
+        return 9100 + RANDOM.nextInt(800);
+    }
+    
+    private static URI batchLocator(int port) {
+        return URI.create(LOCATOR_START_FRAGMENT + port + "/dealcards/");
+    }
+    
+    private static void waitForBuffer(RemoteCardSupplier supplier, 
+            int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (supplier.countRemaining() < expected 
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+    
+    /**
+     * Test of the getNextCard function, of the RemoteCardSupplier class.
+     */
+    @Test
+    public void testGetNextCard() {
+        System.out.println("getNextCard");
+        int port = choosePort();
+        int deckQty = RANDOM.nextInt(4) + 2;
+        int expected = RANDOM.nextInt(400) + 100;
+        try (CardJSONServer server = new CardJSONServer(port, deckQty, 75);
+                RemoteCardSupplier supplier 
+                        = new RemoteCardSupplier(batchLocator(port), 16, 
+                                64)) {
+            server.activate();
+            Set<PlayingCard> cards = new HashSet<>(expected);
+            for (int i = 0; i < expected; i++) {
+                cards.add(supplier.getNextCard());
+            }
+            assertEquals(expected, cards.size());
+            long dealt = server.getMetrics().countCardsDealt();
+            String msg = "Server should have dealt at least " + expected 
+                    + " cards and no more than 64 extra, dealt " + dealt;
+            assert dealt >= expected && dealt <= expected + 64 : msg;
+        }
+    }
+    
+    /**
+     * Test of the countRemaining function, of the RemoteCardSupplier class.
+     */
+    @Test
+    public void testCountRemaining() throws InterruptedException {
+        System.out.println("countRemaining");
+        int port = choosePort();
+        int lowWatermark = RANDOM.nextInt(32);
+        int highWatermark = lowWatermark + RANDOM.nextInt(200) + 1;
+        try (CardJSONServer server = new CardJSONServer(port, 6, 75);
+                RemoteCardSupplier supplier 
+                        = new RemoteCardSupplier(batchLocator(port), 
+                                lowWatermark, highWatermark)) {
+            server.activate();
+            waitForBuffer(supplier, highWatermark);
+            assertEquals(highWatermark, supplier.countRemaining());
+        }
+    }
+    
+    /**
+     * Test of the provenance function, of the RemoteCardSupplier class.
+     */
+    @Test
+    public void testProvenance() {
+        System.out.println("provenance");
+        int port = choosePort();
+        try (CardJSONServer server = new CardJSONServer(port, 2, 25);
+                RemoteCardSupplier supplier 
+                        = new RemoteCardSupplier(batchLocator(port))) {
+            server.activate();
+            for (int i = 0; i < 200; i++) {
+                PlayingCard card = supplier.getNextCard();
+                String msg = "Supplier should attest provenance of " + card;
+                assert supplier.provenance(card) : msg;
+            }
+            ProvenanceInscribedPlayingCard.Shoe localShoe 
+                    = new ProvenanceInscribedPlayingCard.Shoe(1, 0);
+            PlayingCard localCard = localShoe.getNextCard();
+            String msg = "Supplier should not attest provenance of local card " 
+                    + localCard;
+            assert !supplier.provenance(localCard) : msg;
+            PlayingCard plainCard = new PlayingCard(Rank.ACE, Suit.SPADES);
+            msg = "Supplier should not attest provenance of plain card " 
+                    + plainCard;
+            assert !supplier.provenance(plainCard) : msg;
+        }
+    }
+    
+    @Test
+    public void testProvenanceForgetsShoesBeforePrevious() {
+        int port = choosePort();
+        try (CardJSONServer server = new CardJSONServer(port, 1, 2);
+                RemoteCardSupplier supplier 
+                        = new RemoteCardSupplier(batchLocator(port), 8, 
+                                16)) {
+            server.activate();
+            List<ProvenanceInscribedPlayingCard> firstCards 
+                    = new ArrayList<>();
+            int previousShoeID = 0;
+            while (firstCards.size() < 4) {
+                ProvenanceInscribedPlayingCard card 
+                        = (ProvenanceInscribedPlayingCard) supplier 
+                                .getNextCard();
+                if (firstCards.isEmpty() 
+                        || card.getShoeHash() != previousShoeID) {
+                    firstCards.add(card);
+                    previousShoeID = card.getShoeHash();
+                }
+            }
+            for (int i = 0; i < 2; i++) {
+                PlayingCard card = firstCards.get(i);
+                String msg = "Supplier should have forgotten shoe of " + card;
+                assert !supplier.provenance(card) : msg;
+            }
+            for (int i = 2; i < 4; i++) {
+                PlayingCard card = firstCards.get(i);
+                String msg = "Supplier should still attest provenance of " 
+                        + card + " from current or previous shoe";
+                assert supplier.provenance(card) : msg;
+            }
+        }
+    }
+    
+    @Test
+    public void testNoCardsWithoutServer() {
+        int port = choosePort();
+        try (RemoteCardSupplier supplier 
+                = new RemoteCardSupplier(batchLocator(port))) {
+            String msg = "Without a server on port " + port 
+                    + ", getNextCard should cause an exception";
+            Throwable t = assertThrows(() -> {
+                PlayingCard badCard = supplier.getNextCard();
+                System.out.println(msg + ", not given " + badCard);
+            }, RanOutOfCardsException.class, msg);
+            String excMsg = t.getMessage();
+            assert excMsg != null : "Exception message should not be null";
+            assert !excMsg.isBlank() : "Exception message should not be blank";
+            System.out.println("\"" + excMsg + "\"");
+        }
+    }
+    
+    @Test
+    public void testHonorsRetryAfter() throws IOException, 
+            InterruptedException {
+        int port = choosePort();
+        int retryAfter = 2;
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/", (HttpExchange exchange) -> {
+            requestCount.incrementAndGet();
+            try (exchange) {
+                exchange.getResponseHeaders().set("Retry-After", 
+                        Integer.toString(retryAfter));
+                exchange.sendResponseHeaders(HttpURLConnection 
+                        .HTTP_UNAVAILABLE, -1);
+            }
+        });
+        server.start();
+        try (RemoteCardSupplier supplier 
+                = new RemoteCardSupplier(batchLocator(port))) {
+            Thread.sleep(500L * retryAfter);
+            String msg = "Supplier told to retry after " + retryAfter 
+                    + " seconds should not have asked again so soon";
+            assertEquals(msg, 1, requestCount.get());
+            Thread.sleep(1000L * retryAfter);
+            msg = "Supplier should have asked again after " + retryAfter 
+                    + " seconds";
+            assert requestCount.get() >= 2 : msg;
+        } finally {
+            server.stop(0);
+        }
+    }
+    
+    /**
+     * Test of the close procedure, of the RemoteCardSupplier class.
+     */
+    @Test
+    public void testClose() {
+        System.out.println("close");
+        int port = choosePort();
+        RemoteCardSupplier supplier 
+                = new RemoteCardSupplier(batchLocator(port));
+        assert supplier.hasNext() : "Supplier should have next before closing";
+        supplier.close();
+        supplier.close();
+        assert !supplier.hasNext() : "Closed supplier should not have next";
+        String msg = "Closed supplier should not give cards";
+        Throwable t = assertThrows(() -> {
+            PlayingCard badCard = supplier.getNextCard();
+            System.out.println(msg + ", not given " + badCard);
+        }, RanOutOfCardsException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testConstructorRejectsBadWatermarks() {
+        URI locator = batchLocator(choosePort());
+        int[][] badWatermarks = {{-1, 8}, {8, 8}, {16, 8}, 
+            {0, CardJSONServer.MAXIMUM_BATCH_SIZE + 1}};
+        for (int[] watermarks : badWatermarks) {
+            String msg = "Watermarks " + watermarks[0] + " and " 
+                    + watermarks[1] + " should cause an exception";
+            Throwable t = assertThrows(() -> {
+                RemoteCardSupplier badSupplier 
+                        = new RemoteCardSupplier(locator, watermarks[0], 
+                                watermarks[1]);
+                System.out.println(msg + ", not created instance " 
+                        + badSupplier.toString());
+            }, IllegalArgumentException.class, msg);
+            String excMsg = t.getMessage();
+            assert excMsg != null : "Exception message should not be null";
+            assert !excMsg.isBlank() : "Exception message should not be blank";
+            System.out.println("\"" + excMsg + "\"");
+        }
+    }
+    
+    @Test
+    public void testConstructorRejectsNonHTTPLocator() {
+        URI locator = URI.create("ftp://localhost/dealcards/");
+        String msg = "Locator " + locator + " should cause an exception";
+        Throwable t = assertThrows(() -> {
+            RemoteCardSupplier badSupplier = new RemoteCardSupplier(locator);
+            System.out.println(msg + ", not created instance " 
+                    + badSupplier.toString());
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package playingcards;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static playingcards.PlayingCardTest.RANDOM;
+
+/**
+ * Tests of the ServerMetrics class.
+ * @author Alonso del Arte
+ */
+public class ServerMetricsTest {
+    
+    /**
+     * Test of the bucketOf function, of the ServerMetrics class.
+     */
+    @Test
+    public void testBucketOf() {
+        System.out.println("bucketOf");
+        for (int micros = 0; micros < 16; micros++) {
+            assertEquals(micros, ServerMetrics.bucketOf(micros));
+        }
+        assertEquals(16, ServerMetrics.bucketOf(16));
+        assertEquals(23, ServerMetrics.bucketOf(31));
+        assertEquals(24, ServerMetrics.bucketOf(32));
+        assertEquals(47, ServerMetrics.bucketOf(250));
+        assertEquals(ServerMetrics.NUMBER_OF_BUCKETS - 1, 
+                ServerMetrics.bucketOf(Long.MAX_VALUE));
+    }
+    
+    /**
+     * Test of the upperBoundOf function, of the ServerMetrics class.
+     */
+    @Test
+    public void testUpperBoundOf() {
+        System.out.println("upperBoundOf");
+        for (int i = 0; i < 1000; i++) {
+            long micros = RANDOM.nextLong(1L << 36);
+            int bucket = ServerMetrics.bucketOf(micros);
+            long upperBound = ServerMetrics.upperBoundOf(bucket);
+            String msg = "Upper bound " + upperBound + " of bucket " + bucket 
+                    + " should be at least " + micros;
+            assert upperBound >= micros : msg;
+            assert upperBound <= micros + micros / 8 : msg;
+            if (bucket > 0) {
+                long previous = ServerMetrics.upperBoundOf(bucket - 1);
+                String previousMsg = "Upper bound " + previous 
+                        + " of previous bucket should be less than " + micros;
+                assert previous < micros : previousMsg;
+            }
+        }
+    }
+    
+    /**
+     * Test of the latencyPercentile function, of the ServerMetrics class.
+     */
+    @Test
+    public void testLatencyPercentile() {
+        System.out.println("latencyPercentile");
+        ServerMetrics metrics = new ServerMetrics();
+        int count = 1000;
+        for (int micros = 1; micros <= count; micros++) {
+            metrics.requestStarted();
+            metrics.requestFinished(micros * 1000L);
+        }
+        long median = metrics.latencyPercentile(0.5);
+        String msg = "Median " + median + " should be about 500";
+        assert median >= 500 && median <= 500 + 500 / 8 : msg;
+        long tail = metrics.latencyPercentile(0.99);
+        msg = "99th percentile " + tail + " should be about 990";
+        assert tail >= 990 && tail <= count : msg;
+        assertEquals(count, metrics.latencyPercentile(0.999));
+        assertEquals(count, metrics.countRequests());
+        assertEquals(0, metrics.countRequestsInFlight());
+    }
+    
+    @Test
+    public void testLatencyPercentileWithoutRequests() {
+        ServerMetrics metrics = new ServerMetrics();
+        assertEquals(0, metrics.latencyPercentile(0.99));
+    }
+    
+    @Test
+    public void testCountersFromSeveralThreads() throws Exception {
+        ServerMetrics metrics = new ServerMetrics();
+        int threadQty = 8;
+        int perThread = 10000;
+        ExecutorService pool = Executors.newFixedThreadPool(threadQty);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threadQty);
+            for (int i = 0; i < threadQty; i++) {
+                futures.add(pool.submit(() -> {
+                    for (int j = 0; j < perThread; j++) {
+                        metrics.cardDealt();
+                    }
+                    metrics.shoeRolledOver();
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(threadQty * perThread, metrics.countCardsDealt());
+        assertEquals(threadQty, metrics.countShoeRollovers());
+    }
+    
+    @Test
+    public void testCountTurnedAwayRequests() {
+        ServerMetrics metrics = new ServerMetrics();
+        int rejectedQty = RANDOM.nextInt(16) + 1;
+        int rateLimitedQty = RANDOM.nextInt(16) + 1;
+        for (int i = 0; i < rejectedQty; i++) {
+            metrics.requestRejected();
+        }
+        for (int i = 0; i < rateLimitedQty; i++) {
+            metrics.requestRateLimited();
+        }
+        assertEquals(rejectedQty, metrics.countRequestsRejected());
+        assertEquals(rateLimitedQty, metrics.countRequestsRateLimited());
+        assertEquals(0, metrics.countRequests());
+    }
+    
+    /**
+     * Test of the toJSONString function, of the ServerMetrics class.
+     */
+    @Test
+    public void testToJSONString() {
+        System.out.println("toJSONString");
+        ServerMetrics metrics = new ServerMetrics();
+        int cardQty = RANDOM.nextInt(100) + 1;
+        for (int i = 0; i < cardQty; i++) {
+            metrics.cardDealt();
+        }
+        metrics.requestStarted();
+        metrics.requestFinished(1500000L);
+        metrics.requestRejected();
+        int queueDepth = RANDOM.nextInt(16);
+        int pending = RANDOM.nextInt(16);
+        String json = metrics.toJSONString(queueDepth, pending);
+        String[] expectedFragments = {"\"requests\":1,", 
+            "\"cardsDealt\":" + cardQty + ",", "\"shoeRollovers\":0,", 
+            "\"executorQueueDepth\":" + queueDepth + ",", 
+            "\"pendingRequests\":" + pending + ",", 
+            "\"requestsRejected\":1,", "\"requestsRateLimited\":0,", 
+            "\"requestsInFlight\":0,", "\"max\":1500}", "\"p50\":1500,", 
+            "\"requestsPerSecond\":"};
+        for (String fragment : expectedFragments) {
+            String msg = "JSON " + json + " should contain " + fragment;
+            assert json.contains(fragment) : msg;
+        }
+    }
+    
+    private static double extractRequestsPerSecond(String json) {
+        String key = "\"requestsPerSecond\":";
+        int start = json.indexOf(key) + key.length();
+        return Double.parseDouble(json.substring(start, 
+                json.indexOf(',', start)));
+    }
+    
+    @Test
+    public void testToJSONStringDoesNotResetRequestsPerSecond() 
+            throws InterruptedException {
+        ServerMetrics metrics = new ServerMetrics();
+        int requestQty = RANDOM.nextInt(100) + 100;
+        for (int i = 0; i < requestQty; i++) {
+            metrics.requestStarted();
+            metrics.requestFinished(1000L);
+        }
+        Thread.sleep(10L);
+        String json = metrics.toJSONString(0, 0);
+        double first = extractRequestsPerSecond(json);
+        String msg = "Requests per second in " + json + " should be positive";
+        assert first > 0.0 : msg;
+        json = metrics.toJSONString(0, 0);
+        double second = extractRequestsPerSecond(json);
+        msg = "Reading metrics again should not reset requests per second, " 
+                + "but got " + json;
+        assert second > 0.0 : msg;
+        assert second <= first : msg;
+    }
+    
+}
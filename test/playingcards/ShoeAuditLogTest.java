@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package playingcards;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+import static playingcards.PlayingCardTest.RANDOM;
+
+/**
+ * Tests of the ShoeAuditLog class.
+ * @author Alonso del Arte
+ */
+public class ShoeAuditLogTest {
+    
+    private Path path;
+    
+    private Path indexPath;
+    
+    @Before
+    public void setUp() throws IOException {
+        this.path = Files.createTempFile("shoes", ".audit");
+        Files.delete(this.path);
+        this.indexPath = this.path.resolveSibling(this.path.getFileName() 
+                + ShoeAuditLog.INDEX_SUFFIX);
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.path);
+        Files.deleteIfExists(this.indexPath);
+    }
+    
+    private static MultiDeckCardDispenser makeShoe() {
+        return new MultiDeckCardDispenser(RANDOM.nextInt(1, 9), 
+                RANDOM.nextInt(0, 52));
+    }
+    
+    private static void assertEntryOf(MultiDeckCardDispenser shoe, 
+            ShoeAuditLog.Entry entry) {
+        assertEquals(shoe.fingerprint(), entry.getFingerprint());
+        assertEquals(shoe.countDecks(), entry.getNumberOfDecks());
+        assertEquals(shoe.countCards(), entry.getCardCount());
+        for (int i = 0; i < shoe.countCards(); i++) {
+            PlayingCard card = shoe.dealtCardAt(i);
+            assertEquals(card.getRank(), entry.getRank(i));
+            assertEquals(card.getSuit(), entry.getSuit(i));
+        }
+        assert entry.matches(shoe) : "Entry should match the recorded shoe";
+    }
+    
+    private static void dealAll(MultiDeckCardDispenser shoe) {
+        while (shoe.hasNext()) {
+            shoe.getNextCard();
+        }
+    }
+    
+    /**
+     * Test of the record function, of the ShoeAuditLog class, and of the find 
+     * function.
+     */
+    @Test
+    public void testRecordAndFind() throws IOException {
+        System.out.println("record");
+        int count = RANDOM.nextInt(4, 16);
+        MultiDeckCardDispenser[] shoes = new MultiDeckCardDispenser[count];
+        long[] fingerprints = new long[count];
+        long before = System.currentTimeMillis();
+        try (ShoeAuditLog log = new ShoeAuditLog(this.path)) {
+            for (int i = 0; i < count; i++) {
+                shoes[i] = makeShoe();
+                fingerprints[i] = log.record(shoes[i]);
+                assertEquals(shoes[i].fingerprint(), fingerprints[i]);
+            }
+            assertEquals(count, log.getRecordCount());
+            for (int i = 0; i < count; i++) {
+                dealAll(shoes[i]);
+                ShoeAuditLog.Entry entry = log.find(fingerprints[i]);
+                assertEntryOf(shoes[i], entry);
+                assert entry.getRecordTime() >= before 
+                        : "Record time should not be before recording";
+            }
+        }
+    }
+    
+    @Test
+    public void testRecordsAreCompact() throws IOException {
+        MultiDeckCardDispenser shoe = new MultiDeckCardDispenser(6, 75);
+        try (ShoeAuditLog log = new ShoeAuditLog(this.path)) {
+            log.record(shoe);
+        }
+        long expected = ShoeAuditLog.HEADER_SIZE + 19 + (237 * 6 + 7) / 8;
+        assertEquals(expected, Files.size(this.path));
+    }
+    
+    /**
+     * Test of the contains function, of the ShoeAuditLog class.
+     */
+    @Test
+    public void testContains() throws IOException {
+        System.out.println("contains");
+        MultiDeckCardDispenser shoe = makeShoe();
+        MultiDeckCardDispenser other = makeShoe();
+        try (ShoeAuditLog log = new ShoeAuditLog(this.path)) {
+            log.record(shoe);
+            assert log.contains(shoe.fingerprint()) 
+                    : "Recorded shoe should be in the log";
+            assert !log.contains(other.fingerprint()) 
+                    : "Shoe not recorded should not be in the log";
+            assertNull(log.find(other.fingerprint()));
+        }
+    }
+    
+    @Test
+    public void testRecordSameShoeOnlyOnce() throws IOException {
+        MultiDeckCardDispenser shoe = makeShoe();
+        try (ShoeAuditLog log = new ShoeAuditLog(this.path)) {
+            log.record(shoe);
+            long size = Files.size(this.path);
+            log.record(shoe);
+            assertEquals(1, log.getRecordCount());
+            assertEquals(size, Files.size(this.path));
+        }
+    }
+    
+    @Test
+    public void testReopen() throws IOException {
+        MultiDeckCardDispenser first = makeShoe();
+        MultiDeckCardDispenser second = makeShoe();
+        try (ShoeAuditLog log = new ShoeAuditLog(this.path)) {
+            log.record(first);
+        }
+        try (ShoeAuditLog log = new ShoeAuditLog(this.path)) {
+            assertEquals(1, log.getRecordCount());
+            log.record(second);
+        }
+        dealAll(first);
+        dealAll(second);
+        try (ShoeAuditLog log = new ShoeAuditLog(this.path)) {
+            assertEquals(2, log.getRecordCount());
+            assertEntryOf(first, log.find(first.fingerprint()));
+            assertEntryOf(second, log.find(second.fingerprint()));
+        }
+    }
+    
+    @Test
+    public void testReopenRebuildsMissingIndexEntries() throws IOException {
+        int count = RANDOM.nextInt(3, 8);
+        MultiDeckCardDispenser[] shoes = new MultiDeckCardDispenser[count];
+        try (ShoeAuditLog log = new ShoeAuditLog(this.path)) {
+            for (int i = 0; i < count; i++) {
+                shoes[i] = makeShoe();
+                log.record(shoes[i]);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(this.indexPath, 
+                StandardOpenOption.WRITE)) {
+            channel.truncate(ShoeAuditLog.HEADER_SIZE 
+                    + ShoeAuditLog.INDEX_ENTRY_SIZE + 5);
+        }
+        try (ShoeAuditLog log = new ShoeAuditLog(this.path)) {
+            assertEquals(count, log.getRecordCount());
+            for (MultiDeckCardDispenser shoe : shoes) {
+                dealAll(shoe);
+                assertEntryOf(shoe, log.find(shoe.fingerprint()));
+            }
+        }
+    }
+    
+    @Test
+    public void testReopenCutsOffTornRecord() throws IOException {
+        MultiDeckCardDispenser shoe = makeShoe();
+        MultiDeckCardDispenser torn = makeShoe();
+        try (ShoeAuditLog log = new ShoeAuditLog(this.path)) {
+            log.record(shoe);
+        }
+        long size = Files.size(this.path);
+        try (ShoeAuditLog log = new ShoeAuditLog(this.path)) {
+            log.record(torn);
+        }
+        try (FileChannel channel = FileChannel.open(this.path, 
+                StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(this.path) - 3);
+        }
+        Files.delete(this.indexPath);
+        try (ShoeAuditLog log = new ShoeAuditLog(this.path)) {
+            assertEquals(1, log.getRecordCount());
+            assert !log.contains(torn.fingerprint()) 
+                    : "Torn record should not be in the log";
+            assertEquals(size, Files.size(this.path));
+        }
+    }
+    
+    @Test
+    public void testConstructorRejectsInvalidHeader() throws IOException {
+        Files.write(this.path, new byte[]{'N', 'O', 'P', 'E', 1, 0, 0, 0});
+        String msg = "Invalid header should cause an exception";
+        Throwable t = assertThrows(() -> {
+            ShoeAuditLog log = new ShoeAuditLog(this.path);
+            System.out.println(msg + ", not given " + log.toString());
+        }, IOException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+    @Test
+    public void testNoRecordAfterClose() throws IOException {
+        ShoeAuditLog log = new ShoeAuditLog(this.path);
+        log.close();
+        MultiDeckCardDispenser shoe = makeShoe();
+        String msg = "Should not be able to record after closing";
+        Throwable t = assertThrows(() -> {
+            long fingerprint = log.record(shoe);
+            System.out.println(msg + ", not given " + fingerprint);
+        }, IllegalStateException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical.elements;
+
+import playingcards.CardProvider;
+import playingcards.PlayingCard;
+import playingcards.Rank;
+import playingcards.Suit;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+/**
+ * Tests of the CardDisplayList class.
+ * @author Alonso del Arte
+ */
+public class CardDisplayListTest {
+    
+    private static final Random RANDOM = new Random();
+    
+    private static final CardProvider CARD_GIVER = new CardProvider();
+    
+    private static final Dimension USUAL_CARD_SIZE = new Dimension(250, 350);
+    
+    private static PlayingCard chooseCard() {
+        Rank rank = Rank.values()[RANDOM.nextInt(Rank.values().length)];
+        Suit suit = Suit.values()[RANDOM.nextInt(Suit.values().length)];
+        return CARD_GIVER.giveCard(rank, suit);
+    }
+    
+    private static BufferedImage makeCanvas() {
+        return new BufferedImage(2 * USUAL_CARD_SIZE.width, 
+                USUAL_CARD_SIZE.height + 40, BufferedImage.TYPE_INT_ARGB);
+    }
+    
+    static void assertSamePixels(BufferedImage expected, 
+            BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                String msg = "Pixels at (" + x + ", " + y + ") should match";
+                assertEquals(msg, expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+    
+    /**
+     * Test of the replay procedure, of the CardDisplayList class.
+     */
+    @Test
+    public void testReplay() {
+        System.out.println("replay");
+        PlayingCard card = chooseCard();
+        CardImage cardImage = new CardImage(card);
+        Point first = new Point(RANDOM.nextInt(20), RANDOM.nextInt(20) + 20);
+        Point second = new Point(first.x + USUAL_CARD_SIZE.width / 2, 
+                first.y);
+        BufferedImage expected = makeCanvas();
+        Graphics2D g = expected.createGraphics();
+        cardImage.paintFaceUp(g, first, USUAL_CARD_SIZE);
+        g.dispose();
+        g = expected.createGraphics();
+        cardImage.paintFaceUp(g, second, USUAL_CARD_SIZE);
+        g.dispose();
+        CardDisplayList displayList = cardImage.compileFaceUp(USUAL_CARD_SIZE);
+        BufferedImage actual = makeCanvas();
+        g = actual.createGraphics();
+        displayList.replay(g, first);
+        displayList.replay(g, second);
+        g.dispose();
+        assertSamePixels(expected, actual);
+    }
+    
+    @Test
+    public void testReplayKeepsColorAndFont() {
+        CardDisplayList displayList = new CardImage(chooseCard()) 
+                .compileFaceUp(USUAL_CARD_SIZE);
+        BufferedImage canvas = makeCanvas();
+        Graphics2D g = canvas.createGraphics();
+        Color expectedColor = new Color(RANDOM.nextInt());
+        Font expectedFont = new Font(Font.SERIF, Font.ITALIC, 17);
+        g.setColor(expectedColor);
+        g.setFont(expectedFont);
+        displayList.replay(g, new Point(0, 0));
+        assertEquals(expectedColor, g.getColor());
+        assertEquals(expectedFont, g.getFont());
+        assertEquals(0.0, g.getTransform().getTranslateX(), 0.0);
+        g.dispose();
+    }
+    
+    @Test
+    public void testReplayAtScaleDrawsCommandsNotPixels() {
+        PlayingCard card = chooseCard();
+        CardImage cardImage = new CardImage(card);
+        BufferedImage expected = new BufferedImage(2 * USUAL_CARD_SIZE.width 
+                + 2, 2 * USUAL_CARD_SIZE.height + 2, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = expected.createGraphics();
+        g.scale(2.0, 2.0);
+        cardImage.paintFaceUp(g, new Point(0, 0), USUAL_CARD_SIZE);
+        g.dispose();
+        BufferedImage actual = new BufferedImage(expected.getWidth(), 
+                expected.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        g = actual.createGraphics();
+        g.scale(2.0, 2.0);
+        cardImage.compileFaceUp(USUAL_CARD_SIZE).replay(g, new Point(0, 0));
+        g.dispose();
+        assertSamePixels(expected, actual);
+    }
+    
+    /**
+     * Test of the countCommands function, of the CardDisplayList class.
+     */
+    @Test
+    public void testCountCommands() {
+        System.out.println("countCommands");
+        CardImage cardImage = new CardImage(CARD_GIVER.giveCard(Rank.ACE, 
+                Suit.HEARTS));
+        CardDisplayList displayList = CardDisplayList.record(g -> {
+            g.drawLine(0, 0, 10, 10);
+            g.setColor(Color.RED);
+            g.drawString("A", 5, 5);
+        }, USUAL_CARD_SIZE);
+        assertEquals(2, displayList.countCommands());
+        String msg = "Face up ace should take more than one command";
+        assert cardImage.compileFaceUp(USUAL_CARD_SIZE).countCommands() > 1 
+                : msg;
+    }
+    
+    /**
+     * Test of the getSize function, of the CardDisplayList class.
+     */
+    @Test
+    public void testGetSize() {
+        System.out.println("getSize");
+        Dimension expected = new Dimension(RANDOM.nextInt(100) + 100, 
+                RANDOM.nextInt(100) + 200);
+        CardDisplayList displayList = new CardImage(chooseCard()) 
+                .compileFaceDown(expected);
+        Dimension actual = displayList.getSize();
+        assertEquals(expected, actual);
+        actual.width++;
+        assertEquals(expected, displayList.getSize());
+    }
+    
+    @Test
+    public void testRecordAppliesTranslation() {
+        int dx = RANDOM.nextInt(50) + 1;
+        int dy = RANDOM.nextInt(50) + 1;
+        BufferedImage expected = makeCanvas();
+        Graphics2D g = expected.createGraphics();
+        g.setColor(Color.BLUE);
+        g.fillRect(dx + 10, dy + 10, 30, 30);
+        g.dispose();
+        CardDisplayList displayList = CardDisplayList.record(recorder -> {
+            Graphics child = recorder.create();
+            child.translate(dx, dy);
+            child.setColor(Color.BLUE);
+            child.fillRect(10, 10, 30, 30);
+            child.dispose();
+        }, USUAL_CARD_SIZE);
+        BufferedImage actual = makeCanvas();
+        g = actual.createGraphics();
+        displayList.replay(g, new Point(0, 0));
+        g.dispose();
+        assertSamePixels(expected, actual);
+    }
+    
+    @Test
+    public void testRecordRejectsClipping() {
+        String msg = "Clipping should not be recordable";
+        Throwable t = assertThrows(() -> {
+            CardDisplayList badList = CardDisplayList.record(g 
+                    -> g.clipRect(0, 0, 10, 10), USUAL_CARD_SIZE);
+            System.out.println(msg + ", not recorded " 
+                    + badList.countCommands() + " commands");
+        }, UnsupportedOperationException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+}
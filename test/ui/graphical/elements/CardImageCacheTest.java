@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical.elements;
+
+import playingcards.CardProvider;
+import playingcards.PlayingCard;
+import playingcards.Rank;
+import playingcards.Suit;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+/**
+ * Tests of the CardImageCache class.
+ * @author Alonso del Arte
+ */
+public class CardImageCacheTest {
+    
+    private static final Random RANDOM = new Random();
+    
+    private static final CardProvider CARD_GIVER = new CardProvider();
+    
+    private static final Dimension USUAL_CARD_SIZE = new Dimension(250, 350);
+    
+    private static PlayingCard chooseCard() {
+        Rank rank = Rank.values()[RANDOM.nextInt(Rank.values().length)];
+        Suit suit = Suit.values()[RANDOM.nextInt(Suit.values().length)];
+        return CARD_GIVER.giveCard(rank, suit);
+    }
+    
+    private static BufferedImage makeCanvas() {
+        return new BufferedImage(USUAL_CARD_SIZE.width + 20, 
+                USUAL_CARD_SIZE.height + 20, BufferedImage.TYPE_INT_ARGB);
+    }
+    
+    private static void assertSamePixels(BufferedImage expected, 
+            BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                String msg = "Pixels at (" + x + ", " + y + ") should match";
+                assertEquals(msg, expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+    
+    /**
+     * Test of the paintFaceUp procedure, of the CardImageCache class.
+     */
+    @Test
+    public void testPaintFaceUp() {
+        System.out.println("paintFaceUp");
+        PlayingCard card = chooseCard();
+        Point p = new Point(RANDOM.nextInt(10), RANDOM.nextInt(10));
+        BufferedImage expected = makeCanvas();
+        Graphics2D g = expected.createGraphics();
+        new CardImage(card).paintFaceUp(g, p, USUAL_CARD_SIZE);
+        g.dispose();
+        CardImageCache cache = new CardImageCache();
+        BufferedImage actual = makeCanvas();
+        g = actual.createGraphics();
+        cache.paintFaceUp(g, card, p, USUAL_CARD_SIZE);
+        g.dispose();
+        assertSamePixels(expected, actual);
+        assertEquals(1, cache.countImages());
+    }
+    
+    /**
+     * Test of the paintFaceDown procedure, of the CardImageCache class.
+     */
+    @Test
+    public void testPaintFaceDown() {
+        System.out.println("paintFaceDown");
+        PlayingCard card = chooseCard();
+        Point p = new Point(RANDOM.nextInt(10), RANDOM.nextInt(10));
+        BufferedImage expected = makeCanvas();
+        Graphics2D g = expected.createGraphics();
+        g.setClip(p.x, p.y, USUAL_CARD_SIZE.width + 1, 
+                USUAL_CARD_SIZE.height + 1);
+        new CardImage(card).paintFaceDown(g, p, USUAL_CARD_SIZE);
+        g.dispose();
+        CardImageCache cache = new CardImageCache();
+        BufferedImage actual = makeCanvas();
+        g = actual.createGraphics();
+        cache.paintFaceDown(g, card, p, USUAL_CARD_SIZE);
+        cache.paintFaceDown(g, chooseCard(), p, USUAL_CARD_SIZE);
+        g.dispose();
+        assertSamePixels(expected, actual);
+        String msg = "All cards should share one face down image";
+        assert cache.countImages() == 1 : msg;
+    }
+    
+    @Test
+    public void testScaleOf() {
+        System.out.println("scaleOf");
+        BufferedImage canvas = makeCanvas();
+        Graphics2D g = canvas.createGraphics();
+        assertEquals(1.0, CardImageCache.scaleOf(g), 0.0);
+        g.scale(1.5, 1.5);
+        assertEquals(1.5, CardImageCache.scaleOf(g), 0.0);
+        g.scale(1.01, 1.01);
+        assertEquals(1.5, CardImageCache.scaleOf(g), 0.0);
+        g.dispose();
+    }
+    
+    @Test
+    public void testImageForScaledDisplayHasMorePixels() {
+        PlayingCard card = chooseCard();
+        CardImageCache cache = new CardImageCache();
+        BufferedImage canvas = new BufferedImage(2 * USUAL_CARD_SIZE.width + 2, 
+                2 * USUAL_CARD_SIZE.height + 2, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = canvas.createGraphics();
+        g.scale(2.0, 2.0);
+        cache.paintFaceUp(g, card, new Point(0, 0), USUAL_CARD_SIZE);
+        g.dispose();
+        BufferedImage image = cache.getImage(card, true, USUAL_CARD_SIZE, 
+                2.0);
+        assertEquals(2 * (USUAL_CARD_SIZE.width + 1), image.getWidth());
+        assertEquals(2 * (USUAL_CARD_SIZE.height + 1), image.getHeight());
+        assertEquals(1, cache.countImages());
+        BufferedImage ordinary = cache.getImage(card, true, USUAL_CARD_SIZE, 
+                1.0);
+        assertEquals(USUAL_CARD_SIZE.width + 1, ordinary.getWidth());
+        assertEquals(2, cache.countImages());
+    }
+    
+    @Test
+    public void testGetImageGivesSameImageAgain() {
+        PlayingCard card = chooseCard();
+        CardImageCache cache = new CardImageCache();
+        BufferedImage expected = cache.getImage(card, true, USUAL_CARD_SIZE, 
+                1.0);
+        BufferedImage actual = cache.getImage(card, true, 
+                new Dimension(USUAL_CARD_SIZE), 1.0);
+        assertSame(expected, actual);
+    }
+    
+    @Test
+    public void testCacheLetsGoOfLeastRecentlyUsedImages() {
+        CardImageCache cache = new CardImageCache(2);
+        PlayingCard first = CARD_GIVER.giveCard(Rank.ACE, Suit.SPADES);
+        PlayingCard second = CARD_GIVER.giveCard(Rank.TWO, Suit.HEARTS);
+        PlayingCard third = CARD_GIVER.giveCard(Rank.THREE, Suit.CLUBS);
+        BufferedImage firstImage = cache.getImage(first, true, 
+                USUAL_CARD_SIZE, 1.0);
+        BufferedImage secondImage = cache.getImage(second, true, 
+                USUAL_CARD_SIZE, 1.0);
+        assertSame(firstImage, cache.getImage(first, true, USUAL_CARD_SIZE, 
+                1.0));
+        cache.getImage(third, true, USUAL_CARD_SIZE, 1.0);
+        assertEquals(2, cache.countImages());
+        assertSame(firstImage, cache.getImage(first, true, USUAL_CARD_SIZE, 
+                1.0));
+        String msg = "Least recently used image of " + second 
+                + " should have been let go";
+        assert secondImage != cache.getImage(second, true, USUAL_CARD_SIZE, 
+                1.0) : msg;
+    }
+    
+    @Test
+    public void testCacheTellsNinePipLayoutsApart() {
+        PlayingCard card = CARD_GIVER.giveCard(Rank.NINE, Suit.DIAMONDS);
+        CardImageCache cache = new CardImageCache();
+        BufferedImage before = cache.getImage(card, true, USUAL_CARD_SIZE, 
+                1.0);
+        CardImage.toggleNinePipsAreSymmetrical();
+        try {
+            BufferedImage after = cache.getImage(card, true, USUAL_CARD_SIZE, 
+                    1.0);
+            String msg = "Toggling nine pip layout should give another image";
+            assert before != after : msg;
+        } finally {
+            CardImage.toggleNinePipsAreSymmetrical();
+        }
+    }
+    
+    @Test
+    public void testGetImageRejectsBadSizeOrScale() {
+        CardImageCache cache = new CardImageCache();
+        PlayingCard card = chooseCard();
+        Dimension[] sizes = {new Dimension(0, 350), new Dimension(250, -1), 
+            USUAL_CARD_SIZE};
+        double[] scales = {1.0, 1.0, 0.0};
+        for (int i = 0; i < sizes.length; i++) {
+            Dimension size = sizes[i];
+            double scale = scales[i];
+            String msg = "Size " + size + " and scale " + scale 
+                    + " should cause an exception";
+            Throwable t = assertThrows(() -> {
+                BufferedImage badImage = cache.getImage(card, true, size, 
+                        scale);
+                System.out.println(msg + ", not given " + badImage);
+            }, IllegalArgumentException.class, msg);
+            String excMsg = t.getMessage();
+            assert excMsg != null : "Exception message should not be null";
+            assert !excMsg.isBlank() : "Exception message should not be blank";
+            System.out.println("\"" + excMsg + "\"");
+        }
+    }
+    
+    @Test
+    public void testConstructorRejectsZeroCapacity() {
+        String msg = "Capacity 0 should cause an exception";
+        Throwable t = assertThrows(() -> {
+            CardImageCache badCache = new CardImageCache(0);
+            System.out.println(msg + ", not created instance " 
+                    + badCache.toString());
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+}
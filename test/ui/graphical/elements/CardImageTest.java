@@ -16,6 +16,7 @@
  */
 package ui.graphical.elements;
 
+import playingcards.CardProvider;
 import playingcards.PlayingCard;
 import playingcards.Rank;
 import playingcards.Suit;
@@ -23,6 +24,7 @@ import playingcards.Suit;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.Point;
+import java.awt.image.BufferedImage;
 
 import org.junit.Test;
 import static org.junit.Assert.*;
@@ -45,6 +47,101 @@ public class CardImageTest {
         assertEquals(!expected, CardImage.ninePipsAreSymmetrical());
     }
     
+    /**
+     * Test of the compileFaceUp function, of the CardImage class.
+     */
+    @Test
+    public void testCompileFaceUp() {
+        System.out.println("compileFaceUp");
+        Dimension size = new Dimension(250, 350);
+        Point p = new Point(10, 10);
+        for (Rank rank : Rank.values()) {
+            CardImage cardImage = new CardImage(new CardProvider() 
+                    .giveCard(rank, Suit.CLUBS));
+            BufferedImage expected = new BufferedImage(270, 370, 
+                    BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = expected.createGraphics();
+            cardImage.paintFaceUp(g, p, size);
+            g.dispose();
+            BufferedImage actual = new BufferedImage(270, 370, 
+                    BufferedImage.TYPE_INT_ARGB);
+            g = actual.createGraphics();
+            cardImage.compileFaceUp(size).replay(g, p);
+            g.dispose();
+            CardDisplayListTest.assertSamePixels(expected, actual);
+        }
+    }
+    
+    /**
+     * Test of the paintFaceDown procedure, of the CardImage class.
+     */
+    @Test
+    public void testPaintFaceDown() {
+        System.out.println("paintFaceDown");
+        Dimension size = new Dimension(250, 350);
+        Point p = new Point(10, 10);
+        CardProvider cardGiver = new CardProvider();
+        BufferedImage expected = new BufferedImage(270, 370, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = expected.createGraphics();
+        new CardImage(cardGiver.giveCard(Rank.ACE, Suit.SPADES)) 
+                .paintFaceDown(g, p, size);
+        g.dispose();
+        int backCount = 0;
+        int patternCount = 0;
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                int rgb = expected.getRGB(x, y);
+                if (rgb == CardImage.BACK_COLOR.getRGB()) {
+                    backCount++;
+                } else if (rgb == CardImage.BACK_PATTERN_COLOR.getRGB()) {
+                    patternCount++;
+                }
+            }
+        }
+        int area = size.width * size.height;
+        String msg = "Back should be mostly panel and pattern, got " 
+                + backCount + " panel and " + patternCount 
+                + " pattern pixels out of " + area;
+        assert backCount + patternCount > area / 2 : msg;
+        msg = "Back should show both colors";
+        assert backCount > 0 && patternCount > 0 : msg;
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                BufferedImage actual = new BufferedImage(270, 370, 
+                        BufferedImage.TYPE_INT_ARGB);
+                g = actual.createGraphics();
+                new CardImage(cardGiver.giveCard(rank, suit)) 
+                        .paintFaceDown(g, p, size);
+                g.dispose();
+                CardDisplayListTest.assertSamePixels(expected, actual);
+            }
+        }
+    }
+    
+    /**
+     * Test of the compileFaceDown function, of the CardImage class.
+     */
+    @Test
+    public void testCompileFaceDown() {
+        System.out.println("compileFaceDown");
+        Dimension size = new Dimension(250, 350);
+        Point p = new Point(10, 30);
+        CardImage cardImage = new CardImage(new CardProvider() 
+                .giveCard(Rank.KING, Suit.DIAMONDS));
+        BufferedImage expected = new BufferedImage(270, 390, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = expected.createGraphics();
+        cardImage.paintFaceDown(g, p, size);
+        g.dispose();
+        BufferedImage actual = new BufferedImage(270, 390, 
+                BufferedImage.TYPE_INT_ARGB);
+        g = actual.createGraphics();
+        cardImage.compileFaceDown(size).replay(g, p);
+        g.dispose();
+        CardDisplayListTest.assertSamePixels(expected, actual);
+    }
+    
     @Test
     public void testConstructorRejectsNullCard() {
         String msg = "Null card should cause NPE";
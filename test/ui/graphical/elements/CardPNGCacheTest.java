@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical.elements;
+
+import playingcards.CardImageRenderer;
+import playingcards.CardProvider;
+import playingcards.PlayingCard;
+import playingcards.Rank;
+import playingcards.Suit;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+/**
+ * Tests of the CardPNGCache class.
+ * @author Alonso del Arte
+ */
+public class CardPNGCacheTest {
+    
+    private static final Random RANDOM = new Random();
+    
+    private static final CardProvider CARD_GIVER = new CardProvider();
+    
+    private static PlayingCard chooseCard() {
+        Rank rank = Rank.values()[RANDOM.nextInt(Rank.values().length)];
+        Suit suit = Suit.values()[RANDOM.nextInt(Suit.values().length)];
+        return CARD_GIVER.giveCard(rank, suit);
+    }
+    
+    private static int chooseWidth() {
+        return CardPNGCache.MINIMUM_WIDTH + RANDOM.nextInt(100);
+    }
+    
+    @Test
+    public void testHeightFor() {
+        System.out.println("heightFor");
+        assertEquals(CardPNGCache.USUAL_HEIGHT, 
+                CardPNGCache.heightFor(CardPNGCache.USUAL_WIDTH));
+        assertEquals(175, CardPNGCache.heightFor(125));
+        assertEquals(35, CardPNGCache.heightFor(25));
+    }
+    
+    @Test
+    public void testRender() throws Exception {
+        System.out.println("render");
+        PlayingCard card = chooseCard();
+        int width = chooseWidth();
+        byte[] png = CardPNGCache.render(card, width);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        assertEquals(width, image.getWidth());
+        assertEquals(CardPNGCache.heightFor(width), image.getHeight());
+    }
+    
+    /**
+     * Test of the getImage function, of the CardPNGCache class.
+     */
+    @Test
+    public void testGetImage() {
+        System.out.println("getImage");
+        CardPNGCache cache = new CardPNGCache(CardPNGCache.DEFAULT_CAPACITY);
+        PlayingCard card = chooseCard();
+        int width = chooseWidth();
+        CardImageRenderer.EncodedImage entry = cache.getImage(card, width);
+        assertArrayEquals(CardPNGCache.render(card, width), entry.getPNG());
+        assertSame(entry, cache.getImage(card, width));
+        assertEquals(1, cache.countImages());
+        assertEquals(entry.getPNG().length, cache.countBytes());
+    }
+    
+    @Test
+    public void testGetImageRejectsBadWidth() {
+        CardPNGCache cache = new CardPNGCache(CardPNGCache.DEFAULT_CAPACITY);
+        PlayingCard card = chooseCard();
+        int[] badWidths = {CardPNGCache.MINIMUM_WIDTH - 1, 
+            CardPNGCache.MAXIMUM_WIDTH + 1, 0, -RANDOM.nextInt(1000) - 1};
+        for (int badWidth : badWidths) {
+            String msg = "Width " + badWidth + " should cause an exception";
+            Throwable t = assertThrows(() -> {
+                CardImageRenderer.EncodedImage badEntry 
+                        = cache.getImage(card, badWidth);
+                System.out.println(msg + ", not given " + badEntry.toString());
+            }, IllegalArgumentException.class, msg);
+            String excMsg = t.getMessage();
+            assert excMsg != null : "Exception message should not be null";
+            assert !excMsg.isBlank() : "Exception message should not be blank";
+            System.out.println("\"" + excMsg + "\"");
+        }
+    }
+    
+    @Test
+    public void testGetEntityTag() {
+        System.out.println("getEntityTag");
+        CardPNGCache cache = new CardPNGCache(CardPNGCache.DEFAULT_CAPACITY);
+        int width = chooseWidth();
+        Set<String> entityTags = new HashSet<>();
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                String entityTag = cache.getImage(CARD_GIVER.giveCard(rank, 
+                        suit), width).getEntityTag();
+                String msg = "Entity tag " + entityTag + " should be quoted";
+                assert entityTag.length() > 2 && entityTag.startsWith("\"") 
+                        && entityTag.endsWith("\"") : msg;
+                entityTags.add(entityTag);
+            }
+        }
+        assertEquals(Rank.values().length * Suit.values().length, 
+                entityTags.size());
+        CardPNGCache other = new CardPNGCache(CardPNGCache.DEFAULT_CAPACITY);
+        PlayingCard card = chooseCard();
+        assertEquals(cache.getImage(card, width).getEntityTag(), 
+                other.getImage(card, width).getEntityTag());
+    }
+    
+    @Test
+    public void testCacheLetsGoOfLeastRecentlyUsedImages() {
+        int width = chooseWidth();
+        PlayingCard first = CARD_GIVER.giveCard(Rank.ACE, Suit.SPADES);
+        PlayingCard second = CARD_GIVER.giveCard(Rank.TWO, Suit.HEARTS);
+        PlayingCard third = CARD_GIVER.giveCard(Rank.THREE, Suit.CLUBS);
+        long firstSize = CardPNGCache.render(first, width).length;
+        long secondSize = CardPNGCache.render(second, width).length;
+        CardPNGCache cache = new CardPNGCache(firstSize + secondSize);
+        CardImageRenderer.EncodedImage firstEntry 
+                = cache.getImage(first, width);
+        CardImageRenderer.EncodedImage secondEntry 
+                = cache.getImage(second, width);
+        assertEquals(2, cache.countImages());
+        assertSame(firstEntry, cache.getImage(first, width));
+        cache.getImage(third, width);
+        String msg = "Cache should hold no more than " + (firstSize 
+                + secondSize) + " bytes, holds " + cache.countBytes();
+        assert cache.countBytes() <= firstSize + secondSize : msg;
+        msg = "Least recently used image of " + second 
+                + " should have been let go";
+        assert secondEntry != cache.getImage(second, width) : msg;
+    }
+    
+    @Test
+    public void testPrerender() {
+        System.out.println("prerender");
+        CardPNGCache cache = new CardPNGCache(CardPNGCache.DEFAULT_CAPACITY);
+        cache.prerender(CardPNGCache.MINIMUM_WIDTH, 
+                CardPNGCache.MINIMUM_WIDTH + 1);
+        int expected = 2 * Rank.values().length * Suit.values().length;
+        assertEquals(expected, cache.countImages());
+    }
+    
+    @Test
+    public void testConstructorRejectsZeroCapacity() {
+        String msg = "Capacity 0 should cause an exception";
+        Throwable t = assertThrows(() -> {
+            CardPNGCache badCache = new CardPNGCache(0L);
+            System.out.println(msg + ", not created instance " 
+                    + badCache.toString());
+        }, IllegalArgumentException.class, msg);
+        String excMsg = t.getMessage();
+        assert excMsg != null : "Exception message should not be null";
+        assert !excMsg.isBlank() : "Exception message should not be blank";
+        System.out.println("\"" + excMsg + "\"");
+    }
+    
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical.elements;
+
+import playingcards.CardProvider;
+import playingcards.PlayingCard;
+import playingcards.Rank;
+import playingcards.Suit;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static org.testframe.api.Asserters.assertThrows;
+
+import static ui.graphical.elements.CardDisplayListTest.assertSamePixels;
+
+/**
+ * Tests of the CardSpriteAtlas class.
+ * @author Alonso del Arte
+ */
+public class CardSpriteAtlasTest {
+    
+    private static final Random RANDOM = new Random();
+    
+    private static final CardProvider CARD_GIVER = new CardProvider();
+    
+    private static final Dimension SMALL_CARD_SIZE = new Dimension(125, 175);
+    
+    private static PlayingCard chooseCard() {
+        Rank rank = Rank.values()[RANDOM.nextInt(Rank.values().length)];
+        Suit suit = Suit.values()[RANDOM.nextInt(Suit.values().length)];
+        return CARD_GIVER.giveCard(rank, suit);
+    }
+    
+    private static BufferedImage makeCanvas() {
+        return new BufferedImage(SMALL_CARD_SIZE.width + 20, 
+                SMALL_CARD_SIZE.height + 20, BufferedImage.TYPE_INT_ARGB);
+    }
+    
+    private static BufferedImage paintFaceUp(CardSpriteAtlas atlas, 
+            PlayingCard card, Point p) {
+        BufferedImage canvas = makeCanvas();
+        Graphics2D g = canvas.createGraphics();
+        atlas.paintFaceUp(g, card, p);
+        g.dispose();
+        return canvas;
+    }
+    
+    @Test
+    public void testIndexOf() {
+        System.out.println("indexOf");
+        Set<Integer> indices = new HashSet<>();
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                int index = CardSpriteAtlas.indexOf(CARD_GIVER.giveCard(rank, 
+                        suit));
+                String msg = "Index " + index + " should be in the atlas";
+                assert index >= 0 && index < CardSpriteAtlas.COLUMNS 
+                        * CardSpriteAtlas.ROWS : msg;
+                msg = "Index " + index + " should not be the back's column";
+                assert index % CardSpriteAtlas.COLUMNS 
+                        != CardSpriteAtlas.COLUMNS - 1 : msg;
+                indices.add(index);
+            }
+        }
+        assertEquals(Rank.values().length * Suit.values().length, 
+                indices.size());
+    }
+    
+    /**
+     * Test of the paintFaceUp procedure, of the CardSpriteAtlas class.
+     */
+    @Test
+    public void testPaintFaceUp() {
+        System.out.println("paintFaceUp");
+        CardSpriteAtlas atlas = CardSpriteAtlas.build(SMALL_CARD_SIZE);
+        Point p = new Point(RANDOM.nextInt(10), RANDOM.nextInt(10));
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                PlayingCard card = CARD_GIVER.giveCard(rank, suit);
+                BufferedImage expected = makeCanvas();
+                Graphics2D g = expected.createGraphics();
+                g.setClip(p.x, p.y, SMALL_CARD_SIZE.width + 1, 
+                        SMALL_CARD_SIZE.height + 1);
+                new CardImage(card).paintFaceUp(g, p, SMALL_CARD_SIZE);
+                g.dispose();
+                BufferedImage actual = paintFaceUp(atlas, card, p);
+                assertSamePixels(expected, actual);
+            }
+        }
+    }
+    
+    /**
+     * Test of the paintFaceDown procedure, of the CardSpriteAtlas class.
+     */
+    @Test
+    public void testPaintFaceDown() {
+        System.out.println("paintFaceDown");
+        CardSpriteAtlas atlas = CardSpriteAtlas.build(SMALL_CARD_SIZE);
+        Point p = new Point(RANDOM.nextInt(10), RANDOM.nextInt(10));
+        BufferedImage expected = makeCanvas();
+        Graphics2D g = expected.createGraphics();
+        g.setClip(p.x, p.y, SMALL_CARD_SIZE.width + 1, 
+                SMALL_CARD_SIZE.height + 1);
+        new CardImage(chooseCard()).paintFaceDown(g, p, SMALL_CARD_SIZE);
+        g.dispose();
+        BufferedImage actual = makeCanvas();
+        g = actual.createGraphics();
+        atlas.paintFaceDown(g, p);
+        g.dispose();
+        assertSamePixels(expected, actual);
+    }
+    
+    /**
+     * Test of the getSize function, of the CardSpriteAtlas class.
+     */
+    @Test
+    public void testGetSize() {
+        System.out.println("getSize");
+        Dimension expected = new Dimension(RANDOM.nextInt(20) + 20, 
+                RANDOM.nextInt(20) + 30);
+        CardSpriteAtlas atlas = CardSpriteAtlas.build(expected);
+        Dimension actual = atlas.getSize();
+        assertEquals(expected, actual);
+        actual.width++;
+        assertEquals(expected, atlas.getSize());
+    }
+    
+    /**
+     * Test of the hasSymmetricalNinePips function, of the CardSpriteAtlas 
+     * class.
+     */
+    @Test
+    public void testHasSymmetricalNinePips() {
+        System.out.println("hasSymmetricalNinePips");
+        Dimension size = new Dimension(25, 35);
+        boolean expected = CardImage.ninePipsAreSymmetrical();
+        assertEquals(expected, CardSpriteAtlas.build(size) 
+                .hasSymmetricalNinePips());
+        CardImage.toggleNinePipsAreSymmetrical();
+        try {
+            assertEquals(!expected, CardSpriteAtlas.build(size) 
+                    .hasSymmetricalNinePips());
+        } finally {
+            CardImage.toggleNinePipsAreSymmetrical();
+        }
+    }
+    
+    /**
+     * Test of the save and load procedures, of the CardSpriteAtlas class.
+     * @throws IOException If the temporary file can't be written or read.
+     */
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        System.out.println("save and load");
+        CardSpriteAtlas expected = CardSpriteAtlas.build(SMALL_CARD_SIZE);
+        Path file = Files.createTempFile("cards", ".atlas");
+        try {
+            expected.save(file);
+            assertEquals(CardSpriteAtlas.HEADER_SIZE + 4L 
+                    * CardSpriteAtlas.COLUMNS * CardSpriteAtlas.ROWS 
+                    * (SMALL_CARD_SIZE.width + 1) 
+                    * (SMALL_CARD_SIZE.height + 1), Files.size(file));
+            CardSpriteAtlas actual = CardSpriteAtlas.load(file);
+            assertEquals(expected.getSize(), actual.getSize());
+            assertEquals(expected.hasSymmetricalNinePips(), 
+                    actual.hasSymmetricalNinePips());
+            PlayingCard card = chooseCard();
+            Point p = new Point(RANDOM.nextInt(10), RANDOM.nextInt(10));
+            assertSamePixels(paintFaceUp(expected, card, p), 
+                    paintFaceUp(actual, card, p));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    public void testLoadRejectsFileThatIsNotAnAtlas() throws IOException {
+        Path file = Files.createTempFile("cards", ".atlas");
+        try {
+            byte[] bytes = new byte[RANDOM.nextInt(64) + 1];
+            RANDOM.nextBytes(bytes);
+            bytes[0] = 0;
+            Files.write(file, bytes);
+            String msg = "Loading random bytes should cause an exception";
+            Throwable t = assertThrows(() -> {
+                CardSpriteAtlas badAtlas = CardSpriteAtlas.load(file);
+                System.out.println(msg + ", not given " + badAtlas.toString());
+            }, IOException.class, msg);
+            String excMsg = t.getMessage();
+            assert excMsg != null : "Exception message should not be null";
+            assert !excMsg.isBlank() : "Exception message should not be blank";
+            System.out.println("\"" + excMsg + "\"");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    public void testLoadRejectsTruncatedFile() throws IOException {
+        Path file = Files.createTempFile("cards", ".atlas");
+        try {
+            CardSpriteAtlas.build(new Dimension(25, 35)).save(file);
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, 
+                    bytes.length - RANDOM.nextInt(100) - 1));
+            String msg = "Loading truncated file should cause an exception";
+            Throwable t = assertThrows(() -> {
+                CardSpriteAtlas badAtlas = CardSpriteAtlas.load(file);
+                System.out.println(msg + ", not given " + badAtlas.toString());
+            }, IOException.class, msg);
+            String excMsg = t.getMessage();
+            assert excMsg != null : "Exception message should not be null";
+            assert !excMsg.isBlank() : "Exception message should not be blank";
+            System.out.println("\"" + excMsg + "\"");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    /**
+     * Test of the loadOrBuild function, of the CardSpriteAtlas class.
+     * @throws IOException If the temporary file can't be written or read.
+     */
+    @Test
+    public void testLoadOrBuild() throws IOException {
+        System.out.println("loadOrBuild");
+        Path directory = Files.createTempDirectory("atlas");
+        Path file = directory.resolve("cards.atlas");
+        try {
+            CardSpriteAtlas first = CardSpriteAtlas.loadOrBuild(file, 
+                    SMALL_CARD_SIZE);
+            assert Files.isRegularFile(file) : "Atlas should have been saved";
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            CardSpriteAtlas second = CardSpriteAtlas.loadOrBuild(file, 
+                    SMALL_CARD_SIZE);
+            assertEquals(modified, Files.getLastModifiedTime(file).toMillis());
+            PlayingCard card = chooseCard();
+            Point p = new Point(RANDOM.nextInt(10), RANDOM.nextInt(10));
+            assertSamePixels(paintFaceUp(first, card, p), 
+                    paintFaceUp(second, card, p));
+            Dimension otherSize = new Dimension(25, 35);
+            CardSpriteAtlas third = CardSpriteAtlas.loadOrBuild(file, 
+                    otherSize);
+            assertEquals(otherSize, third.getSize());
+            assertEquals(otherSize, CardSpriteAtlas.load(file).getSize());
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+    
+    @Test
+    public void testLoadRejectsOtherVersion() throws IOException {
+        Path file = Files.createTempFile("cards", ".atlas");
+        try {
+            CardSpriteAtlas.build(new Dimension(25, 35)).save(file);
+            byte[] bytes = Files.readAllBytes(file);
+            ByteBuffer.wrap(bytes).putInt(Integer.BYTES, 
+                    CardSpriteAtlas.VERSION - RANDOM.nextInt(10) - 1);
+            Files.write(file, bytes);
+            String msg = "Loading atlas of other version should cause exception";
+            Throwable t = assertThrows(() -> {
+                CardSpriteAtlas badAtlas = CardSpriteAtlas.load(file);
+                System.out.println(msg + ", not given " + badAtlas.toString());
+            }, IOException.class, msg);
+            String excMsg = t.getMessage();
+            assert excMsg != null : "Exception message should not be null";
+            assert !excMsg.isBlank() : "Exception message should not be blank";
+            System.out.println("\"" + excMsg + "\"");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    public void testLoadOrBuildReplacesOtherVersion() throws IOException {
+        Path directory = Files.createTempDirectory("atlas");
+        Path file = directory.resolve("cards.atlas");
+        Dimension size = new Dimension(25, 35);
+        try {
+            CardSpriteAtlas.build(size).save(file);
+            byte[] bytes = Files.readAllBytes(file);
+            ByteBuffer.wrap(bytes).putInt(Integer.BYTES, 
+                    CardSpriteAtlas.VERSION + RANDOM.nextInt(10) + 1);
+            Files.write(file, bytes);
+            CardSpriteAtlas atlas = CardSpriteAtlas.loadOrBuild(file, size);
+            assertEquals(size, atlas.getSize());
+            assertEquals(CardSpriteAtlas.VERSION, 
+                    ByteBuffer.wrap(Files.readAllBytes(file)) 
+                            .getInt(Integer.BYTES));
+            assertEquals(size, CardSpriteAtlas.load(file).getSize());
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+    
+    @Test
+    public void testLoadOrBuildReplacesFileWithoutVersion() 
+            throws IOException {
+        Path directory = Files.createTempDirectory("atlas");
+        Path file = directory.resolve("cards.atlas");
+        Dimension size = new Dimension(25, 35);
+        int headerSize = 4 * Integer.BYTES;
+        byte[] bytes = new byte[headerSize + Integer.BYTES 
+                * CardSpriteAtlas.COLUMNS * CardSpriteAtlas.ROWS 
+                * (size.width + 1) * (size.height + 1)];
+        ByteBuffer.wrap(bytes).putInt(CardSpriteAtlas.MAGIC) 
+                .putInt(size.width).putInt(size.height).putInt(0);
+        try {
+            Files.write(file, bytes);
+            CardSpriteAtlas atlas = CardSpriteAtlas.loadOrBuild(file, size);
+            assertEquals(size, atlas.getSize());
+            assertEquals(CardSpriteAtlas.VERSION, 
+                    ByteBuffer.wrap(Files.readAllBytes(file)) 
+                            .getInt(Integer.BYTES));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+    
+    @Test
+    public void testBuildRejectsBadSize() {
+        Dimension[] badSizes = {new Dimension(0, 175), new Dimension(125, -1), 
+            new Dimension(CardSpriteAtlas.MAXIMUM_WIDTH + 1, 175), 
+            new Dimension(125, CardSpriteAtlas.MAXIMUM_HEIGHT + 1)};
+        for (Dimension badSize : badSizes) {
+            String msg = "Size " + badSize + " should cause an exception";
+            Throwable t = assertThrows(() -> {
+                CardSpriteAtlas badAtlas = CardSpriteAtlas.build(badSize);
+                System.out.println(msg + ", not given " + badAtlas.toString());
+            }, IllegalArgumentException.class, msg);
+            String excMsg = t.getMessage();
+            assert excMsg != null : "Exception message should not be null";
+            assert !excMsg.isBlank() : "Exception message should not be blank";
+            System.out.println("\"" + excMsg + "\"");
+        }
+    }
+    
+}